@@ -0,0 +1,76 @@
+package hex.deeplearning;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the forward propagation of a dense layer: one mat-vec product per row (mini-batch size = 1) vs
+ * the blocked mat-mat kernel over a whole mini-batch. Scores are per mini-batch, divide by miniBatchSize to compare
+ * the time per row.
+ */
+@Fork(1)
+@Threads(1)
+@State(Scope.Thread)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NeuronsGemmBench {
+
+  @Param({"200", "1000"})
+  private int units;       // neurons in this layer
+  @Param({"200", "1000"})
+  private int inputs;      // neurons in the previous layer
+  @Param({"1", "8", "32"})
+  private int miniBatchSize;
+
+  private float[] _w;
+  private double[] _b;
+  private double[][] _x;
+  private double[][] _a;
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(NeuronsGemmBench.class.getSimpleName())
+        .build();
+
+    new Runner(opt).run();
+  }
+
+  @Setup(Level.Trial)
+  public void setup() {
+    Random rng = new Random(0xBEEF);
+    _w = new float[units * inputs];
+    for (int i = 0; i < _w.length; i++)
+      _w[i] = rng.nextFloat() - 0.5f;
+    _b = new double[units];
+    for (int i = 0; i < units; i++)
+      _b[i] = rng.nextDouble();
+    _x = new double[miniBatchSize][inputs];
+    for (double[] x : _x)
+      for (int i = 0; i < inputs; i++)
+        x[i] = rng.nextDouble();
+    _a = new double[miniBatchSize][units];
+  }
+
+  @Benchmark
+  public void measureGemvPerRow(Blackhole bh) {
+    for (int mb = 0; mb < miniBatchSize; mb++)
+      Neurons.gemv_row_optimized(_a[mb], _w, _x[mb], _b, null);
+    bh.consume(_a);
+  }
+
+  @Benchmark
+  public void measureGemmMiniBatch(Blackhole bh) {
+    Neurons.gemm(_a, _w, _x, _b, null, miniBatchSize);
+    bh.consume(_a);
+  }
+
+}
@@ -0,0 +1,81 @@
+package hex.tree.gbm;
+
+import hex.genmodel.algos.tree.SharedTreeMojoModel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GBM MOJO micro-benchmark: row-at-a-time score0 vs columnar batch scoring
+ */
+@Fork(1)
+@Threads(1)
+@State(Scope.Thread)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GbmMojoBatchScoringBench {
+
+  @Param({"1000", "100000"})
+  private int rows;
+
+  private SharedTreeMojoModel _mojo;
+  private double[][] _cols;
+  private double[][] _preds;
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt = new OptionsBuilder()
+            .include(GbmMojoBatchScoringBench.class.getSimpleName())
+            .build();
+
+    new Runner(opt).run();
+  }
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    _mojo = (SharedTreeMojoModel) ClasspathReaderBackend.loadMojo("prostate");
+    double[][] data = ProstateData.ROWS;
+    _cols = new double[_mojo.nfeatures()][rows];
+    for (int c = 0; c < _cols.length; c++)
+      for (int i = 0; i < rows; i++)
+        _cols[c][i] = data[i % data.length][c];
+    _preds = new double[3][rows];
+  }
+
+  @Benchmark
+  public double measureGbmScore0() throws Exception {
+    double sum = 0;
+    double[] row = new double[_cols.length];
+    double[] pred = new double[3];
+    for (int i = 0; i < rows; i++) {
+      for (int c = 0; c < row.length; c++)
+        row[c] = _cols[c][i];
+      pred[0] = 0.0; pred[1] = 0.0; pred[2] = 0.0;
+      sum += _mojo.score0(row, pred)[1];
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public double measureGbmScoreBatch() throws Exception {
+    _mojo.scoreBatch(_cols, 0, rows, _preds);
+    double sum = 0;
+    for (int i = 0; i < rows; i++)
+      sum += _preds[1][i];
+    return sum;
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    _mojo = null;
+    _cols = null;
+    _preds = null;
+  }
+
+}
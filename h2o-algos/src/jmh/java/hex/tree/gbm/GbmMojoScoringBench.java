@@ -25,6 +25,9 @@ public class GbmMojoScoringBench {
   @Param({"1000", "100000"})
   private int rows;
 
+  @Param({"false", "true"})
+  private boolean flatTrees;
+
   private SharedTreeMojoModel _mojo;
   private double[][] _data;
 
@@ -39,6 +42,8 @@ public class GbmMojoScoringBench {
   @Setup(Level.Invocation)
   public void setup() throws IOException {
     _mojo = (SharedTreeMojoModel) ClasspathReaderBackend.loadMojo("prostate");
+    if (flatTrees)
+      _mojo.flattenTrees();
     _data = ProstateData.ROWS;
   }
 
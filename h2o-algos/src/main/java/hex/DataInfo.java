@@ -1125,6 +1125,57 @@ public class DataInfo extends Keyed<DataInfo> {
       row.offset = chunks[offsetChunkId()].atd(rid);
     return row;
   }
+  /**
+   * Same as {@link #extractDenseRow(Chunk[], int, Row)}, but reading values bulk-decoded column-wise
+   * by {@link Chunk#getDoubles(double[], int, int)}: vals[c][off] is column c of the row, NAs are NaN.
+   * Interaction columns are not supported.
+   */
+  private Row extractDenseRow(double[][] vals, int off, int rid, long start, Row row) {
+    row.predictors_bad = false;
+    row.response_bad = false;
+    row.rid = rid + start;
+    row.cid = rid;
+    if(_weights)
+      row.weight = vals[weightChunkId()][off];
+    if(row.weight == 0) return row;
+    if (_skipMissing) {
+      int N = _cats + _nums;
+      for (int i = 0; i < N; ++i)
+        if (Double.isNaN(vals[i][off])) {
+          row.predictors_bad = true;
+          return row;
+        }
+    }
+    int nbins = 0;
+    for (int i = 0; i < _cats; ++i) {
+      double d = vals[i][off];
+      int cid = getCategoricalId(i,Double.isNaN(d)? _catNAFill[i]:(int)d);
+      if(cid >= 0)
+        row.binIds[nbins++] = cid;
+    }
+    row.nBins = nbins;
+    for( int i=0;i<_nums;i++) {
+      double d = vals[_cats + i][off]; // can be NA if skipMissing() == false
+      if (Double.isNaN(d))
+        d = _numNAFill[i];
+      if (_normMul != null && _normSub != null)
+        d = (d - _normSub[i]) * _normMul[i];
+      row.numVals[i] = d;
+    }
+    for (int i = 0; i < _responses; ++i) {
+      row.response[i] = vals[responseChunkId(i)][off];
+      if(Double.isNaN(row.response[i])) {
+        row.response_bad = true;
+        break;
+      }
+      if (_normRespMul != null)
+        row.response[i] = (row.response[i] - _normRespSub[i]) * _normRespMul[i];
+    }
+    if(_offset)
+      row.offset = vals[offsetChunkId()][off];
+    return row;
+  }
+
   public int getInteractionOffset(Chunk[] chunks, int cid, int rid) {
     boolean useAllFactors = ((InteractionWrappedVec)chunks[cid].vec())._useAllFactorLevels;
     InteractionWrappedVec.InteractionWrappedChunk c = (InteractionWrappedVec.InteractionWrappedChunk)chunks[cid];
@@ -1139,12 +1190,21 @@ public class DataInfo extends Keyed<DataInfo> {
     return new Row(false, numVals, null, null, 0, start);
   }
 
+  // Number of rows bulk-decoded at a time by dense Rows
+  static final int DENSE_BLOCK = 1024;
+
   public final class Rows {
     public final int _nrows;
     private final Row _denseRow;
     private final Row [] _sparseRows;
     public final boolean _sparse;
     private final Chunk [] _chks;
+    // Dense rows are decoded a block at a time, one column at a time, instead of
+    // one atd() call per value; null if there are interactions (decoded per row)
+    private final int [] _blockCols;
+    private final double [][] _block;
+    private final long _start;
+    private int _blockStart = -1;
 
     private Rows(Chunk [] chks, boolean sparse) {
       _nrows = chks[0]._len;
@@ -1159,8 +1219,39 @@ public class DataInfo extends Keyed<DataInfo> {
         _chks = chks;
         _sparseRows = null;
       }
+      _start = start;
+      _blockCols = sparse?null:blockCols();
+      _block = _blockCols == null?null:new double[chks.length][];
+    }
+
+    private int [] blockCols() {
+      for(int i = 0; i < _nums; ++i)
+        if(isInteractionVec(_cats + i)) return null;
+      int [] cols = new int[_cats + _nums + (_weights?1:0) + (_offset?1:0) + _responses];
+      int k = 0;
+      for(int i = 0; i < _cats + _nums; ++i) cols[k++] = i;
+      if(_weights) cols[k++] = weightChunkId();
+      if(_offset) cols[k++] = offsetChunkId();
+      for(int i = 0; i < _responses; ++i) cols[k++] = responseChunkId(i);
+      return cols;
+    }
+
+    private void decodeBlock(int from) {
+      int to = Math.min(_nrows, from + DENSE_BLOCK);
+      for(int c:_blockCols) {
+        if(_block[c] == null) _block[c] = MemoryManager.malloc8d(Math.min(_nrows, DENSE_BLOCK));
+        _chks[c].getDoubles(_block[c], from, to);
+      }
+      _blockStart = from;
+    }
+
+    public Row row(int i) {
+      if(_sparse) return _sparseRows[i];
+      if(_blockCols == null) return extractDenseRow(_chks,i,_denseRow);
+      if(_blockStart < 0 || i < _blockStart || i >= _blockStart + DENSE_BLOCK)
+        decodeBlock(i);
+      return extractDenseRow(_block, i - _blockStart, i, _start, _denseRow);
     }
-    public Row row(int i) {return _sparse?_sparseRows[i]:extractDenseRow(_chks,i,_denseRow);}
   }
 
   public Rows rows(Chunk [] chks) {
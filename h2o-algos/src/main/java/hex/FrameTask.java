@@ -98,6 +98,17 @@ public abstract class FrameTask<T extends FrameTask<T>> extends MRTask<T>{
    */
   protected void chunkDone(long n){}
 
+  /**
+   * Extracts a dense row of the chunk. Override this to provide the rows from elsewhere, e.g. from a cache.
+   * @param chunks chunks of the training frame
+   * @param r chunk-local row index
+   * @param row row to fill
+   * @return the filled row
+   */
+  protected DataInfo.Row extractDenseRow(Chunk[] chunks, int r, DataInfo.Row row) {
+    return _dinfo.extractDenseRow(chunks, r, row);
+  }
+
   /**
    * Extracts the values, applies regularization to numerics, adds appropriate offsets to categoricals,
    * and adapts response according to the CaseMode/CaseValue if set.
@@ -126,7 +137,7 @@ public abstract class FrameTask<T extends FrameTask<T>> extends MRTask<T>{
       weight_map = new double[nrows];
       double weight_sum = 0;
       for (int i = 0; i < nrows; ++i) {
-        row = _sparse ? rows[i] : _dinfo.extractDenseRow(chunks, i, row);
+        row = _sparse ? rows[i] : extractDenseRow(chunks, i, row);
         weight_sum += row.weight;
         weight_map[i] = weight_sum;
         assert (i == 0 || row.weight == 0 || weight_map[i] > weight_map[i - 1]);
@@ -194,7 +205,7 @@ public abstract class FrameTask<T extends FrameTask<T>> extends MRTask<T>{
           num_skipped_rows++;
           continue;
         }
-        row = _sparse ? rows[r] : _dinfo.extractDenseRow(chunks, r, row);
+        row = _sparse ? rows[r] : extractDenseRow(chunks, r, row);
         if(row.isBad() || row.weight == 0) {
           num_skipped_rows++;
           continue;
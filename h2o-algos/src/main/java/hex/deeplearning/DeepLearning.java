@@ -484,6 +484,8 @@ public class DeepLearning extends ModelBuilder<DeepLearningModel,DeepLearningMod
           Log.info("==============================================================================================================================================================================");
         }
         if (model != null) {
+          if (_parms._cache_training_data)
+            DeepLearningDataCache.remove(model.model_info().data_info()._key);
           model.deleteElasticAverageModels();
           model.unlock(_job);
           if (model.actual_best_model_key != null) {
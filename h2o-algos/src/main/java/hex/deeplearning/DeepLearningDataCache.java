@@ -0,0 +1,187 @@
+package hex.deeplearning;
+
+import hex.DataInfo;
+import water.Key;
+import water.MRTask;
+import water.MemoryManager;
+import water.fvec.Chunk;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Node-local cache of the training rows of a Deep Learning model (cache_training_data).
+ * <p/>
+ * Without the cache, every iteration decodes its training rows from the frame again: Chunk.atd() for every value,
+ * expansion of the categoricals and standardization of the numerics. With the cache, every chunk is decoded once
+ * per node, the first time it is trained on, into a compact primitive form: categoricals as indices into the
+ * expanded input layer, numerics as floats, stored sparse (index, value) when less than half of them are non-zero.
+ * All the later iterations (including their row shuffling, see FrameTask) read the rows from memory.
+ * <p/>
+ * With replicate_training_data every node caches all the rows, otherwise only the rows it trains on. The cache of a
+ * model is dropped from all the nodes at the end of its training.
+ */
+final class DeepLearningDataCache {
+
+  // Cached chunks per DataInfo key (one per model training), indexed by chunk index
+  private static final ConcurrentHashMap<Key, CachedChunk[]> CACHES = new ConcurrentHashMap<>();
+
+  private DeepLearningDataCache() {}
+
+  /**
+   * Returns the cached rows of the given chunk, decodes and caches them first if needed.
+   * @param key key of the DataInfo of the model
+   * @param nChunks number of chunks of the training frame
+   * @param dinfo DataInfo to decode the rows with
+   * @param chunks chunks of the training frame
+   */
+  static CachedChunk get(Key key, int nChunks, DataInfo dinfo, Chunk[] chunks) {
+    CachedChunk[] cache = CACHES.get(key);
+    if (cache == null) {
+      CachedChunk[] old = CACHES.putIfAbsent(key, cache = new CachedChunk[nChunks]);
+      if (old != null) cache = old;
+    }
+    final int cidx = chunks[0].cidx();
+    CachedChunk c = cache[cidx];
+    if (c == null) // racing threads would both decode the same rows, no harm done
+      cache[cidx] = c = new CachedChunk(dinfo, chunks);
+    return c;
+  }
+
+  static boolean isCached(Key key) {
+    return CACHES.containsKey(key);
+  }
+
+  /**
+   * Drops the cache of the given model from all the nodes.
+   * @param key key of the DataInfo of the model
+   */
+  static void remove(final Key key) {
+    new MRTask() {
+      @Override
+      public void setupLocal() {
+        CACHES.remove(key);
+      }
+    }.doAllNodes();
+  }
+
+  /**
+   * The rows of one chunk, decoded by {@link DataInfo#extractDenseRow(Chunk[], int, DataInfo.Row)}.
+   */
+  static final class CachedChunk {
+    private static final byte PREDICTORS_BAD = 1;
+    private static final byte RESPONSE_BAD = 2;
+
+    final int _cidx;
+    private final int _nrows;
+    private final long _start;
+    private final int _nnums;
+    private final int _nresponses;
+    private final byte[] _bad;
+    private final double[] _weights;    // null if there is no weights column
+    private final double[] _offsets;    // null if there is no offset column
+    private final double[] _responses;  // _nresponses per row
+    private final int[] _catStart;      // categoricals of row r are _cats[_catStart[r]] .. _cats[_catStart[r+1]-1]
+    private final int[] _cats;
+    // numerics, either dense ...
+    private final float[] _nums;        // _nnums per row
+    // ... or sparse
+    private final int[] _numStart;      // non-zeros of row r are at _numStart[r] .. _numStart[r+1]-1
+    private final int[] _numIds;
+    private final float[] _numVals;
+
+    CachedChunk(DataInfo dinfo, Chunk[] chunks) {
+      _cidx = chunks[0].cidx();
+      _nrows = chunks[0]._len;
+      _start = chunks[0].start();
+      DataInfo.Row row = dinfo.newDenseRow();
+      _nnums = row.numVals.length;
+      _nresponses = dinfo._responses;
+      _bad = new byte[_nrows];
+      _weights = dinfo._weights ? MemoryManager.malloc8d(_nrows) : null;
+      _offsets = dinfo._offset ? MemoryManager.malloc8d(_nrows) : null;
+      _responses = MemoryManager.malloc8d(_nrows * _nresponses);
+      _catStart = MemoryManager.malloc4(_nrows + 1);
+      int[] cats = MemoryManager.malloc4(_nrows * dinfo._cats);
+      float[] nums = MemoryManager.malloc4f(_nrows * _nnums);
+      int ncats = 0;
+      long nnz = 0;
+      for (int r = 0; r < _nrows; r++) {
+        row = dinfo.extractDenseRow(chunks, r, row);
+        _catStart[r] = ncats;
+        if (_weights != null) _weights[r] = row.weight;
+        if (row.predictors_bad) _bad[r] |= PREDICTORS_BAD;
+        if (row.response_bad) _bad[r] |= RESPONSE_BAD;
+        if (row.weight == 0 || row.predictors_bad) continue; // nothing else is extracted for these rows
+        for (int i = 0; i < row.nBins; i++)
+          cats[ncats++] = row.binIds[i];
+        for (int i = 0; i < _nnums; i++) {
+          float v = (float) row.numVals[i];
+          nums[r * _nnums + i] = v;
+          if (v != 0) nnz++;
+        }
+        for (int i = 0; i < _nresponses; i++)
+          _responses[r * _nresponses + i] = row.response[i];
+        if (_offsets != null) _offsets[r] = row.offset;
+      }
+      _catStart[_nrows] = ncats;
+      _cats = Arrays.copyOf(cats, ncats);
+      if (2 * nnz < (long) _nrows * _nnums) {
+        _nums = null;
+        _numStart = MemoryManager.malloc4(_nrows + 1);
+        _numIds = MemoryManager.malloc4((int) nnz);
+        _numVals = MemoryManager.malloc4f((int) nnz);
+        int k = 0;
+        for (int r = 0; r < _nrows; r++) {
+          _numStart[r] = k;
+          for (int i = 0; i < _nnums; i++) {
+            float v = nums[r * _nnums + i];
+            if (v == 0) continue;
+            _numIds[k] = i;
+            _numVals[k++] = v;
+          }
+        }
+        _numStart[_nrows] = k;
+      } else {
+        _nums = nums;
+        _numStart = null;
+        _numIds = null;
+        _numVals = null;
+      }
+    }
+
+    /**
+     * Fills the given dense row with the cached row r, same as DataInfo.extractDenseRow on the chunks would.
+     */
+    DataInfo.Row fill(int r, DataInfo.Row row) {
+      row.predictors_bad = (_bad[r] & PREDICTORS_BAD) != 0;
+      row.response_bad = (_bad[r] & RESPONSE_BAD) != 0;
+      row.rid = _start + r;
+      row.cid = r;
+      if (_weights != null) row.weight = _weights[r];
+      if (row.weight == 0 || row.predictors_bad) return row;
+      final int catFrom = _catStart[r];
+      row.nBins = _catStart[r + 1] - catFrom;
+      System.arraycopy(_cats, catFrom, row.binIds, 0, row.nBins);
+      final double[] numVals = row.numVals;
+      if (_nums != null) {
+        final int off = r * _nnums;
+        for (int i = 0; i < _nnums; i++)
+          numVals[i] = _nums[off + i];
+      } else {
+        Arrays.fill(numVals, 0);
+        for (int k = _numStart[r]; k < _numStart[r + 1]; k++)
+          numVals[_numIds[k]] = _numVals[k];
+      }
+      for (int i = 0; i < _nresponses; i++)
+        row.response[i] = _responses[r * _nresponses + i];
+      if (_offsets != null) row.offset = _offsets[r];
+      return row;
+    }
+
+    boolean isSparse() {
+      return _nums == null;
+    }
+  }
+
+}
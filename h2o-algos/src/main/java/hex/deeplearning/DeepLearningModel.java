@@ -553,6 +553,11 @@ public class DeepLearningModel extends Model<DeepLearningModel,DeepLearningModel
     }
   }
 
+  @Override
+  protected boolean canScoreMetricsRowwise() {
+    return !get_params()._autoencoder;
+  }
+
   /** Make either a prediction or a reconstruction.
    * @param orig Test dataset
    * @param adaptedFr Test dataset, adapted to the model
@@ -1698,6 +1703,13 @@ public class DeepLearningModel extends Model<DeepLearningModel,DeepLearningModel
     // batch gradient descent: mini-batch size = # training rows
     public int _mini_batch_size = 1;
 
+    /**
+     * Cache the expanded, standardized training rows in memory (on every node that trains on them) instead of
+     * decoding them from the training frame in every iteration. Uses extra memory, roughly 4 bytes per expanded
+     * numeric value (or 8 bytes per non-zero for sparse data) and per categorical value of every cached row.
+     */
+    public boolean _cache_training_data = false;
+
     public enum MissingValuesHandling {
       MeanImputation, Skip
     }
@@ -2006,6 +2018,7 @@ public class DeepLearningModel extends Model<DeepLearningModel,DeepLearningModel
               "_elastic_averaging_moving_rate",
               "_elastic_averaging_regularization",
               "_mini_batch_size",
+              "_cache_training_data",
               "_pretrained_autoencoder"
       };
 
@@ -2173,10 +2186,6 @@ public class DeepLearningModel extends Model<DeepLearningModel,DeepLearningModel
             Log.info("_categorical_encoding: Automatically enabling OneHotInternal categorical encoding.");
           toParms._categorical_encoding = CategoricalEncodingScheme.OneHotInternal;
          }
-        if (fromParms._mini_batch_size > 1) {
-          Log.warn("_mini_batch_size", "Only mini-batch size = 1 is supported right now.");
-          toParms._mini_batch_size = 1;
-        }
         if (fromParms._adaptive_rate) {
           if (!fromParms._quiet_mode)
             Log.info("_adaptive_rate: Using automatic learning rate. Ignoring the following input parameters: "
@@ -8,6 +8,7 @@ import water.DKV;
 import water.H2O;
 import water.IcedUtils;
 import water.Key;
+import water.fvec.Chunk;
 import water.util.Log;
 import water.util.RandomUtils;
 
@@ -20,6 +21,7 @@ public class DeepLearningTask extends FrameTask<DeepLearningTask> {
   private DeepLearningModelInfo _sharedmodel; //input/output
   transient Neurons[] _neurons;
   transient Random _dropout_rng;
+  transient DeepLearningDataCache.CachedChunk _cachedChunk;
   int _chunk_node_count = 1;
 
   /**
@@ -43,7 +45,8 @@ public class DeepLearningTask extends FrameTask<DeepLearningTask> {
     this(jobKey,inputModel,fraction,iteration,null);
   }
   public DeepLearningTask(Key jobKey, DeepLearningModelInfo inputModel, float fraction, int iteration, H2O.H2OCountedCompleter cmp){
-    super(jobKey, inputModel.data_info(),inputModel.get_params()._seed + inputModel.get_processed_global(), iteration, inputModel.get_params()._sparse,cmp);
+    super(jobKey, inputModel.data_info(),inputModel.get_params()._seed + inputModel.get_processed_global(), iteration,
+            inputModel.get_params()._sparse && !inputModel.get_params()._cache_training_data /*the cache stores sparse rows itself*/, cmp);
     assert(inputModel.get_processed_local() == 0);
     _training=true;
     _sharedmodel = inputModel;
@@ -92,6 +95,17 @@ public class DeepLearningTask extends FrameTask<DeepLearningTask> {
     return true;
   }
 
+  /**
+   * Serve the training rows from the node-local cache if enabled
+   */
+  @Override protected DataInfo.Row extractDenseRow(Chunk[] chunks, int r, DataInfo.Row row) {
+    if (!_localmodel.get_params()._cache_training_data)
+      return super.extractDenseRow(chunks, r, row);
+    if (_cachedChunk == null || _cachedChunk._cidx != chunks[0].cidx())
+      _cachedChunk = DeepLearningDataCache.get(_dinfo._key, _fr.anyVec().nChunks(), _dinfo, chunks);
+    return _cachedChunk.fill(r, row);
+  }
+
   /**
    * Process one training row at a time (online learning)
    * @param seed Seed is only used if reproducible mode is enabled
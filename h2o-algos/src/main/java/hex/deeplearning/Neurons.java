@@ -4,6 +4,8 @@ import hex.DataInfo;
 import hex.Distribution;
 import hex.DistributionFactory;
 import hex.deeplearning.DeepLearningModel.DeepLearningParameters;
+import jsr166y.ForkJoinTask;
+import jsr166y.RecursiveAction;
 import water.H2O;
 import water.MemoryManager;
 import water.util.ArrayUtils;
@@ -92,6 +94,17 @@ public abstract class Neurons {
    */
   private boolean _shortcut = false;
 
+  /**
+   * Mini-batch sum of the partial gradients of a neuron (reused, see bpropBlock)
+   */
+  private final double[] _pg_sum = new double[1];
+
+  /**
+   * Raw arrays of the activations of this and the previous layer (for the mat-mat kernel)
+   */
+  private transient double[][] _a_raw;
+  private transient double[][] _previous_a_raw;
+
   public Storage.DenseVector _avg_a;
 
   /**
@@ -188,6 +201,25 @@ public abstract class Neurons {
    */
   protected abstract void bprop(int n);
 
+  /**
+   * Computes the net input of this layer, _a = W * _previous._a + b, for the whole mini-batch. A single row is
+   * handled by the matrix-vector kernel, a mini-batch by the blocked matrix-matrix kernel (every weight is loaded
+   * once per mini-batch instead of once per row).
+   * @param n number of actually trained samples in this mini-batch
+   * @param row_bits if not null, check bits of this byte[] to determine whether a row (neuron) is used or not
+   */
+  final void linear(int n, byte[] row_bits) {
+    if (n == 1) {
+      gemv(_a[0], _w, _previous._a[0], _b, row_bits);
+    } else {
+      if (_a_raw == null) {
+        _a_raw = raw(_a);
+        _previous_a_raw = raw(_previous._a);
+      }
+      gemm(_a_raw, _w.raw(), _previous_a_raw, _b.raw(), row_bits, n);
+    }
+  }
+
   /**
    * Back-propagate gradient in output layer
    */
@@ -198,8 +230,8 @@ public abstract class Neurons {
     final int rows = _a[0].size();
     float m = _minfo.adaDelta() ? 0 : momentum();
     float r = _minfo.adaDelta() ? 0 : rate(_minfo.get_processed_total()) * (1f - m);
+    double[] g = new double[n];
     for( int row = 0; row < rows; row++ ) {
-      double[] g = new double[n];
       for (int mb=0;mb<n;++mb)
         g[mb]=_e[mb].raw()[row];
       bprop(row, g, r, m, n);
@@ -237,7 +269,11 @@ public abstract class Neurons {
     final boolean nesterov = params._nesterov_accelerated_gradient;
     final boolean fast_mode = params._fast_mode;
     final int cols = _previous._a[0].size();
-    assert(partial_grad.length == n);
+    assert(partial_grad.length >= n);
+    if (n > 1 && _k == 0) {
+      bpropBlock(row, partial_grad, rate, momentum, n);
+      return;
+    }
 
     double avg_grad2 = 0;
 
@@ -302,6 +338,93 @@ public abstract class Neurons {
     }
   }
 
+  /**
+   * Mini-batch version of the backpropagation for one neuron: the gradient of every incoming weight is summed over the
+   * whole mini-batch (rank-n update) and applied once, instead of once per row of the mini-batch. Every weight is
+   * thus read and written once per mini-batch, and the regularization is applied once per mini-batch as well.
+   * @param row row index (update weights feeding to this neuron)
+   * @param partial_grad partial derivatives dE/dnet of all the rows of the mini-batch
+   * @param rate learning rate
+   * @param momentum momentum factor (needed only if ADADELTA isn't used)
+   * @param n Actual mini-batch size
+   */
+  private void bpropBlock(final int row, final double[] partial_grad, final float rate, final float momentum, final int n) {
+    final float rho = (float)params._rho;
+    final float eps = (float)params._epsilon;
+    final float l1 = (float)params._l1;
+    final float l2 = (float)params._l2;
+    final float max_w2 = params._max_w2;
+    final boolean have_momenta = _minfo.has_momenta();
+    final boolean have_ada = _minfo.adaDelta();
+    final boolean nesterov = params._nesterov_accelerated_gradient;
+    final boolean fast_mode = params._fast_mode;
+    final int cols = _previous._a[0].size();
+    final boolean update_prev = _previous._e != null && _previous._e[0] != null;
+    final float[] w_raw = _w.raw();
+
+    double pg_sum = 0;
+    boolean nonzero = false;
+    for (int mb = 0; mb < n; mb++) {
+      pg_sum += partial_grad[mb];
+      nonzero |= partial_grad[mb] != 0;
+    }
+    if (_shortcut && !nonzero) return;
+
+    double avg_grad2 = 0;
+    final int idx = row * cols;
+    for (int col = 0; col < cols; col++) {
+      final int w = idx + col;
+      final double weight = w_raw[w];
+      double grad = 0;
+      boolean active = false;
+      for (int mb = 0; mb < n; mb++) {
+        final double pg = partial_grad[mb];
+        if (update_prev) _previous._e[mb].raw()[col] += pg * weight; // propagate the error dE/dnet to the previous layer, via connecting weights
+        final double previous_a = _previous._a[mb].raw()[col];
+        active |= previous_a != 0;
+        grad += pg * previous_a;
+      }
+      if (fast_mode && !active) continue;
+
+      //this is the actual gradient dE/dw, summed over the mini-batch
+      grad += Math.signum(weight) * l1 + weight * l2;
+      if (_wEA != null)
+        grad += params._elastic_averaging_regularization * (weight - _wEA.raw()[w]);
+
+      // store the gradient
+      if (DeepLearningModelInfo.gradientCheck != null)
+        DeepLearningModelInfo.gradientCheck.apply(_index, row, col, grad);
+
+      if (have_ada) {
+        avg_grad2 += grad * grad;
+        float brate = computeAdaDeltaRateForWeight(grad, w, _ada_dx_g, rho, eps);
+        w_raw[w] -= brate * grad;
+      } else {
+        if (!nesterov) {
+          final double delta = -rate * grad;
+          w_raw[w] += delta;
+          if (have_momenta) {
+            w_raw[w] += momentum * _wm.raw()[w];
+            _wm.raw()[w] = (float)delta;
+          }
+        } else {
+          double tmp = -grad;
+          if (have_momenta) {
+            _wm.raw()[w] *= momentum;
+            _wm.raw()[w] += tmp;
+            tmp = _wm.raw()[w];
+          }
+          w_raw[w] += rate * tmp;
+        }
+      }
+    }
+    if (max_w2 != Float.POSITIVE_INFINITY)
+      rescale_weights(_w, row, max_w2, 0);
+    if (have_ada) avg_grad2 /= cols;
+    _pg_sum[0] = pg_sum;
+    update_bias(_b, _bEA, _bm, row, _pg_sum, avg_grad2, rate, momentum, 0);
+  }
+
   private void rescale_weights(final Storage.DenseRowMatrix w, final int row, final float max_w2, int mb) {
     final int cols = _previous._a[0].size();
     int start;
@@ -378,12 +501,11 @@ public abstract class Neurons {
    * Helper to enforce learning rule to satisfy sparsity constraint:
    * Computes the (rolling) average activation for each (hidden) neuron.
    */
-  void compute_sparsity() {
+  void compute_sparsity(int n) {
     if (_avg_a != null) {
-      if (params._mini_batch_size > 1) throw H2O.unimpl("Sparsity constraint is not yet implemented for mini-batch size > 1.");
-      for (int mb = 0; mb < _minfo.get_params()._mini_batch_size; ++mb) {
+      for (int mb = 0; mb < n; ++mb) {
         for (int row = 0; row < _avg_a.size(); row++) {
-          _avg_a.set(row, 0.999 * (_avg_a.get(row)) + 0.001 * (_a[mb].get(row))); //TODO: fix for mini-batch size > 1
+          _avg_a.set(row, 0.999 * (_avg_a.get(row)) + 0.001 * (_a[mb].get(row)));
         }
       }
     }
@@ -633,14 +755,12 @@ public abstract class Neurons {
   public static class Tanh extends Neurons {
     public Tanh(int units) { super(units); }
     @Override protected void fprop(long seed, boolean training, int n) {
-      // TODO: implement GEMM
-      for (int mb=0;mb<n;++mb)
-        gemv(_a[mb], _w, _previous._a[mb], _b, _dropout != null ? _dropout.bits() : null);
+      linear(n, _dropout != null ? _dropout.bits() : null);
       final int rows = _a[0].size();
       for (int mb=0;mb<n;++mb)
         for( int row = 0; row < rows; row++ )
           _a[mb].set(row, 1. - 2. / (1. + Math.exp(2*_a[mb].get(row)))); //evals faster than tanh(x), but is slightly less numerically stable - OK
-      compute_sparsity();
+      compute_sparsity(n);
     }
     // Computing partial derivative g = dE/dnet = dE/dy * dy/dnet, where dE/dy is the backpropagated error
     // dy/dnet = (1 - a^2) for y(net) = tanh(net)
@@ -715,7 +835,7 @@ public abstract class Neurons {
             _a[mb].set(row, channel[maxK]);
           }
         }
-        compute_sparsity();
+        compute_sparsity(n);
       }
     }
 
@@ -758,9 +878,7 @@ public abstract class Neurons {
   public static class Rectifier extends Neurons {
     public Rectifier(int units) { super(units); }
     @Override protected void fprop(long seed, boolean training, int n) {
-      // TODO: implement GEMM
-      for (int mb=0;mb<n;++mb)
-        gemv(_a[mb], _w, _previous._a[mb], _b, _dropout != null ? _dropout.bits() : null);
+      linear(n, _dropout != null ? _dropout.bits() : null);
       final int rows = _a[0].size();
       for (int mb=0;mb<n;++mb) {
         for( int row = 0; row < rows; row++ ) {
@@ -768,7 +886,7 @@ public abstract class Neurons {
 //        _a.set(row, Math.max(_a.get(row), 0f));
         }
       }
-      compute_sparsity();
+      compute_sparsity(n);
     }
 
     @Override protected void bprop(int n) {
@@ -808,8 +926,7 @@ public abstract class Neurons {
   public static class ExpRectifier extends Neurons {
     public ExpRectifier(int units) { super(units); }
     @Override protected void fprop(long seed, boolean training, int n) {
-      for (int mb=0;mb<n;++mb)
-        gemv(_a[mb], _w, _previous._a[mb], _b, _dropout != null ? _dropout.bits() : null);
+      linear(n, _dropout != null ? _dropout.bits() : null);
       final int rows = _a[0].size();
       for( int row = 0; row < rows; row++ ) {
         for (int mb=0;mb<n;++mb) {
@@ -818,7 +935,7 @@ public abstract class Neurons {
           _a[mb].set(row, val);
         }
       }
-      compute_sparsity();
+      compute_sparsity(n);
     }
     // Computing partial derivative g = dE/dnet = dE/dy * dy/dnet, where dE/dy is the backpropagated error
     @Override protected void bprop(int n) {
@@ -826,8 +943,8 @@ public abstract class Neurons {
       float m = _minfo.adaDelta() ? 0 : momentum();
       float r = _minfo.adaDelta() ? 0 : rate(_minfo.get_processed_total()) * (1f - m);
       final int rows = _a[0].size();
+      double [] g = new double[n];
       for (int row = 0; row < rows; row++) {
-        double [] g = new double[n];
         for (int mb=0;mb<n;++mb) {
           double x = _a[mb].get(row);
           double val = x >= 0 ? 1 : Math.exp(x);
@@ -871,8 +988,7 @@ public abstract class Neurons {
   public static class Softmax extends Output {
     public Softmax(int units) { super(units); }
     protected void fprop(long seed, boolean training, int n) {
-      for (int mb=0;mb<n;++mb)
-        gemv(_a[mb], _w, _previous._a[mb], _b, null);
+      linear(n, null);
       for (int mb=0;mb<n;++mb) {
         final double max = ArrayUtils.maxValue(_a[mb].raw());
         double scaling = 0;
@@ -928,8 +1044,7 @@ public abstract class Neurons {
       super(1);
     }
     protected void fprop(long seed, boolean training, int n) {
-      for (int mb=0;mb<n;++mb)
-        gemv(_a[mb], _w, _previous._a[mb], _b, _dropout != null ? _dropout.bits() : null);
+      linear(n, _dropout != null ? _dropout.bits() : null);
     }
 
     /**
@@ -1021,4 +1136,147 @@ public abstract class Neurons {
   static void gemv_naive(final Storage.DenseVector res, final Storage.DenseRowMatrix a, final Storage.DenseVector x, final Storage.DenseVector y, byte[] row_bits) {
     gemv_naive(res.raw(), a.raw(), x.raw(), y.raw(), row_bits);
   }
+
+  /**
+   * Width of the column blocks of the mat-mat kernel: a block of 4 input rows (4 x 256 doubles) stays in L1 cache
+   * while all the weight rows are streamed through it
+   */
+  static final int GEMM_COL_BLOCK = 256;
+
+  /**
+   * Number of threads to split the rows of a large mat-mat product between, 1 (default) leaves the parallelism to
+   * the Hogwild! threads
+   */
+  static int GEMM_THREADS = Integer.parseInt(H2O.getSysProperty("deeplearning.gemm.threads", "1"));
+
+  /**
+   * Smallest number of multiply-adds for a mat-mat product to be split between threads
+   */
+  static final long GEMM_PARALLEL_MIN_FLOPS = 1 << 20;
+
+  private static boolean rowActive(final byte[] row_bits, final int row) {
+    return row_bits == null || (row_bits[row / 8] & (1 << (row % 8))) != 0;
+  }
+
+  /**
+   * Naive Mat-Mat Plus Add (with optional row dropout), reference implementation of gemm
+   * @param res res[mb] = a*x[mb]+y for mb in [0, n) (pre-allocated, will be overwritten)
+   * @param a matrix of size rows x cols
+   * @param x n vectors of length cols
+   * @param y vector of length rows
+   * @param row_bits if not null, check bits of this byte[] to determine whether a row is used or not
+   * @param n number of vectors to multiply
+   */
+  static void gemm_naive(final double[][] res, final float[] a, final double[][] x, final double[] y, final byte[] row_bits, final int n) {
+    for (int mb = 0; mb < n; mb++)
+      gemv_naive(res[mb], a, x[mb], y, row_bits);
+  }
+
+  /**
+   * Cache-blocked, register-tiled Mat-Mat Plus Add (with optional row dropout): res[mb] = a*x[mb]+y for mb in [0, n)
+   * Tiles of 2 matrix rows x 4 vectors are accumulated in registers over blocks of GEMM_COL_BLOCK columns, so every
+   * matrix element loaded is used 4 times and every vector element twice. No allocation.
+   * @param res n vectors of length rows (pre-allocated, will be overwritten)
+   * @param a matrix of size rows x cols
+   * @param x n vectors of length cols
+   * @param y vector of length rows
+   * @param row_bits if not null, check bits of this byte[] to determine whether a row is used or not
+   * @param n number of vectors to multiply
+   * @param rowFrom first row to compute
+   * @param rowTo last row to compute (exclusive)
+   */
+  static void gemm_blocked(final double[][] res, final float[] a, final double[][] x, final double[] y,
+                           final byte[] row_bits, final int n, final int rowFrom, final int rowTo) {
+    final int cols = x[0].length;
+    for (int mb = 0; mb < n; mb++) {
+      final double[] r = res[mb];
+      for (int row = rowFrom; row < rowTo; row++)
+        r[row] = rowActive(row_bits, row) ? y[row] : 0;
+    }
+    for (int c0 = 0; c0 < cols; c0 += GEMM_COL_BLOCK) {
+      final int c1 = Math.min(c0 + GEMM_COL_BLOCK, cols);
+      int mb = 0;
+      for (; mb + 4 <= n; mb += 4) {
+        final double[] x0 = x[mb], x1 = x[mb + 1], x2 = x[mb + 2], x3 = x[mb + 3];
+        final double[] r0 = res[mb], r1 = res[mb + 1], r2 = res[mb + 2], r3 = res[mb + 3];
+        int row = rowFrom;
+        for (; row + 2 <= rowTo; row += 2) {
+          final boolean act0 = rowActive(row_bits, row), act1 = rowActive(row_bits, row + 1);
+          if (!act0 && !act1) continue;
+          final int off0 = row * cols, off1 = off0 + cols;
+          double s00 = 0, s01 = 0, s02 = 0, s03 = 0;
+          double s10 = 0, s11 = 0, s12 = 0, s13 = 0;
+          for (int col = c0; col < c1; col++) {
+            final double a0 = a[off0 + col], a1 = a[off1 + col];
+            final double v0 = x0[col], v1 = x1[col], v2 = x2[col], v3 = x3[col];
+            s00 += a0 * v0; s01 += a0 * v1; s02 += a0 * v2; s03 += a0 * v3;
+            s10 += a1 * v0; s11 += a1 * v1; s12 += a1 * v2; s13 += a1 * v3;
+          }
+          if (act0) { r0[row] += s00; r1[row] += s01; r2[row] += s02; r3[row] += s03; }
+          if (act1) { r0[row + 1] += s10; r1[row + 1] += s11; r2[row + 1] += s12; r3[row + 1] += s13; }
+        }
+        for (; row < rowTo; row++) {
+          if (!rowActive(row_bits, row)) continue;
+          final int off = row * cols;
+          double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+          for (int col = c0; col < c1; col++) {
+            final double a0 = a[off + col];
+            s0 += a0 * x0[col]; s1 += a0 * x1[col]; s2 += a0 * x2[col]; s3 += a0 * x3[col];
+          }
+          r0[row] += s0; r1[row] += s1; r2[row] += s2; r3[row] += s3;
+        }
+      }
+      // remaining vectors (n not a multiple of 4)
+      for (; mb < n; mb++) {
+        final double[] x0 = x[mb];
+        final double[] r0 = res[mb];
+        for (int row = rowFrom; row < rowTo; row++) {
+          if (!rowActive(row_bits, row)) continue;
+          final int off = row * cols;
+          double s0 = 0;
+          for (int col = c0; col < c1; col++)
+            s0 += a[off + col] * x0[col];
+          r0[row] += s0;
+        }
+      }
+    }
+  }
+
+  /**
+   * Mat-Mat Plus Add over raw arrays, split between GEMM_THREADS threads for large products
+   * @param res res[mb] = a*x[mb]+y for mb in [0, n) (pre-allocated, will be overwritten)
+   * @param a matrix of size rows x cols
+   * @param x n vectors of length cols
+   * @param y vector of length rows
+   * @param row_bits if not null, check bits of this byte[] to determine whether a row is used or not
+   * @param n number of vectors to multiply
+   */
+  static void gemm(final double[][] res, final float[] a, final double[][] x, final double[] y, final byte[] row_bits, final int n) {
+    final int rows = y.length;
+    final int cols = x[0].length;
+    final int nthreads = Math.min(GEMM_THREADS, rows / 2);
+    if (nthreads <= 1 || (long) rows * cols * n < GEMM_PARALLEL_MIN_FLOPS) {
+      gemm_blocked(res, a, x, y, row_bits, n, 0, rows);
+      return;
+    }
+    RecursiveAction[] ras = new RecursiveAction[nthreads];
+    for (int t = 0; t < nthreads; t++) {
+      final int rowFrom = (int) ((long) rows * t / nthreads);
+      final int rowTo = (int) ((long) rows * (t + 1) / nthreads);
+      ras[t] = new RecursiveAction() {
+        @Override
+        protected void compute() {
+          gemm_blocked(res, a, x, y, row_bits, n, rowFrom, rowTo);
+        }
+      };
+    }
+    ForkJoinTask.invokeAll(ras);
+  }
+
+  private static double[][] raw(Storage.DenseVector[] v) {
+    double[][] res = new double[v.length][];
+    for (int i = 0; i < v.length; i++)
+      res[i] = v[i].raw();
+    return res;
+  }
 }
@@ -557,7 +557,7 @@ public final class ComputationState {
     private double [] grads;
     public double yy;
     public final double likelihood;
-
+    double [] diag; // diagonal of the gram matrix when the matrix itself is not formed (gram == null)
 
 
     public GramXY(Gram gram, double[] xy, double [] grads, double[] beta, int[] activeCols, int [] newActiveCols, double yy, double likelihood) {
@@ -646,6 +646,21 @@ public final class ComputationState {
     return res;
   }
 
+  /**
+   * Same as computeNewGram but without forming the gram matrix: only t(x)*w*z, the diagonal of the gram matrix and
+   * the likelihood are computed, the gram matrix is then applied to vectors by GLMGramVecTask.
+   */
+  protected GramXY computeGramFree(double [] beta){
+    double obj_reg = _parms._obj_reg;
+    if(_glmw == null) _glmw = new GLMModel.GLMWeightsFun(_parms);
+    DataInfo activeData = activeData();
+    GLMTask.GLMGramFreeTask gt = new GLMTask.GLMGramFreeTask(_job._key, activeData, _glmw, beta).doAll(activeData._adaptedFrame);
+    ArrayUtils.mult(gt._xy,obj_reg);
+    GramXY res = new GramXY(null,gt._xy,null,beta,activeData.activeCols(),null,0,gt._likelihood);
+    res.diag = ArrayUtils.mult(gt._diag,obj_reg);
+    return res;
+  }
+
   GramXY _currGram;
   GLMModel.GLMWeightsFun _glmw;
 
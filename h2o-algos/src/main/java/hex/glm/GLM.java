@@ -19,6 +19,7 @@ import hex.gram.Gram.NonSPDMatrixException;
 import hex.optimization.ADMM;
 import hex.optimization.ADMM.L1Solver;
 import hex.optimization.ADMM.ProximalSolver;
+import hex.optimization.ConjugateGradient;
 import hex.optimization.L_BFGS;
 import hex.optimization.L_BFGS.ProgressMonitor;
 import hex.optimization.L_BFGS.Result;
@@ -52,6 +53,10 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
   static NumberFormat devFormatter = new DecimalFormat(".##");
 
   public static final int SCORING_INTERVAL_MSEC = 15000; // scoreAndUpdateModel every minute unless score every iteration is set
+  // IRLSM with at least this many coefficients solves its normal equations without the gram matrix (see CG_solve)
+  static int GRAM_FREE_MIN_PREDICTORS = Integer.parseInt(H2O.getSysProperty("glm.gram_free.min_predictors", "5000"));
+  static final int CG_MAX_ITER = 200;
+  static final double CG_EPS = 1e-6;
   public String _generatedWeights = null;
   public GLM(boolean startup_once){super(new GLMParameters(),startup_once);}
   public GLM(GLMModel.GLMParameters parms) {
@@ -829,7 +834,62 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
       _state.updateState(beta, l);
     }
 
+    /**
+     * Solves the IRLSM normal equations by conjugate gradient with the weighted gram matrix applied to vectors by
+     * passes over the data, so that neither the gram matrix nor its Cholesky decomposition (quadratic in the number
+     * of coefficients) is ever formed.
+     */
+    private double[] CG_solve(ComputationState.GramXY gram) {
+      final DataInfo activeData = _state.activeData();
+      final GLMWeightsFun glmw = new GLMWeightsFun(_parms);
+      final double[] beta = gram.beta;
+      final double obj_reg = _parms._obj_reg;
+      final double l2pen = _state.l2pen();
+      final int icpt = gram.xy.length - 1;
+      final boolean intercept = _parms._intercept;
+      ConjugateGradient.LinearOperator xx = new ConjugateGradient.LinearOperator() {
+        @Override
+        public double[] mul(double[] v) {
+          double[] res = new GLMGramVecTask(_job._key, activeData, glmw, beta, v).doAll(activeData._adaptedFrame)._res;
+          for (int i = 0; i < icpt; ++i)
+            res[i] = obj_reg * res[i] + l2pen * v[i];
+          res[icpt] = intercept ? obj_reg * res[icpt] : v[icpt]; // no intercept => identity, fixed at 0
+          return res;
+        }
+      };
+      double[] xy = gram.xy.clone();
+      double[] diag = gram.diag.clone();
+      for (int i = 0; i < icpt; ++i)
+        diag[i] += l2pen;
+      if (!intercept) {
+        xy[icpt] = 0;
+        diag[icpt] = 1;
+      }
+      try {
+        ConjugateGradient.Result res = new ConjugateGradient()
+            .setMaxIter(Math.min(xy.length, CG_MAX_ITER))
+            .setEps(CG_EPS)
+            .solve(xx, xy, diag, beta);
+        Log.info(LogMsg(res.toString()));
+        return res._x;
+      } catch (ConjugateGradient.NonSPDOperatorException e) {
+        throw new NonSPDMatrixException(e.getMessage());
+      }
+    }
+
+    /**
+     * IRLSM without the gram matrix is used for wide problems solved with ridge penalty (or none), the other cases
+     * need the explicit gram matrix (L1 via ADMM, bounds, p-values, collinear columns removal).
+     */
+    private boolean gramFreeIRLSM(Solver s) {
+      return s == Solver.IRLSM && _state.activeData().fullN() >= GRAM_FREE_MIN_PREDICTORS
+          && _state.l1pen() == 0 && !_state.activeBC().hasBounds() && !_state.activeBC().hasProximalPenalty()
+          && !_parms._compute_p_values && !_parms._remove_collinear_columns;
+    }
+
     private void fitIRLSM(Solver s) {
+      final boolean gramFree = gramFreeIRLSM(s);
+      if (gramFree) Log.info(LogMsg("solving IRLSM by conjugate gradient without the gram matrix, " + _state.activeData().fullN() + " predictors"));
       GLMWeightsFun glmw = new GLMWeightsFun(_parms);
       double [] betaCnd = _state.beta();
       LineSearchSolver ls = null;
@@ -839,7 +899,7 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
         while (true) {
           iterCnt++;
           long t1 = System.currentTimeMillis();
-          ComputationState.GramXY gram = _state.computeGram(betaCnd,s);
+          ComputationState.GramXY gram = gramFree ? _state.computeGramFree(betaCnd) : _state.computeGram(betaCnd,s);
           long t2 = System.currentTimeMillis();
           if (!_state._lsNeeded && (Double.isNaN(gram.likelihood) || _state.objective(gram.beta, gram.likelihood) > _state.objective() + _parms._objective_epsilon)) {
             _state._lsNeeded = true;
@@ -848,7 +908,7 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
               System.out.println("DONE after " + (iterCnt-1) + " iterations (1)");
               return;
             }
-            betaCnd = s == Solver.COORDINATE_DESCENT?COD_solve(gram,_state._alpha,_state.lambda()):ADMM_solve(gram.gram,gram.xy);
+            betaCnd = gramFree ? CG_solve(gram) : s == Solver.COORDINATE_DESCENT?COD_solve(gram,_state._alpha,_state.lambda()):ADMM_solve(gram.gram,gram.xy);
           }
           firstIter = false;
           long t3 = System.currentTimeMillis();
@@ -1111,7 +1171,7 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
             fitIRLSM_multinomial(solver);
           else if (_parms._family == Family.ordinal)
             fitIRLSM_ordinal_default(solver);
-          else if(_parms._family == Family.gaussian && _parms._link == Link.identity)
+          else if(_parms._family == Family.gaussian && _parms._link == Link.identity && !gramFreeIRLSM(solver))
             fitLSM(solver);
           else
             fitIRLSM(solver);
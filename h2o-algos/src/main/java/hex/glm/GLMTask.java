@@ -17,6 +17,7 @@ import water.util.ArrayUtils;
 import water.util.FrameUtils;
 import water.util.MathUtils;
 import water.util.MathUtils.BasicStats;
+import water.util.ShardedReducer;
 
 import java.util.Arrays;
 
@@ -32,6 +33,16 @@ import java.util.Arrays;
  */
 public abstract class GLMTask  {
   final static double EPS=1e-10;
+
+  // Gradients with at least this many elements are summed by reduce-scatter + allgather (see ShardedReducer) instead
+  // of being passed through the reduce tree, optionally transferred in float precision.
+  static int SHARDED_GRADIENT_MIN_LENGTH = Integer.parseInt(H2O.getSysProperty("glm.gradient.sharded.min_length", "100000"));
+  static boolean FLOAT_GRADIENT = H2O.getSysBoolProperty("glm.gradient.float", false);
+
+  static ShardedReducer gradientReducer(int len) {
+    return len >= SHARDED_GRADIENT_MIN_LENGTH ? new ShardedReducer(len, FLOAT_GRADIENT) : null;
+  }
+
   static class NullDevTask extends MRTask<NullDevTask> {
     double _nullDev;
     final double [] _ymu;
@@ -408,6 +419,7 @@ public abstract class GLMTask  {
     final transient  double _currentLambda;
     final transient double _reg;
     protected final DataInfo _dinfo;
+    final ShardedReducer _gradReducer; // null => gradient is reduced by the reduce tree
 
 
     protected GLMGradientTask(Key jobKey, DataInfo dinfo, double reg, double lambda, double[] beta){
@@ -415,7 +427,19 @@ public abstract class GLMTask  {
       _beta = beta.clone();
       _reg = reg;
       _currentLambda = lambda;
+      _gradReducer = gradientReducer(beta.length);
+    }
+
+    @Override public void setupLocal() {
+      if(_gradReducer != null) _gradReducer.setupLocal();
+    }
 
+    @Override public void closeLocal() {
+      if(_gradReducer != null) _gradReducer.closeLocal();
+    }
+
+    @Override protected void onGlobalFailure(Throwable ex) {
+      if(_gradReducer != null) _gradReducer.discard();
     }
     protected abstract void computeGradientMultipliers(double [] es, double [] ys, double [] ws);
 
@@ -549,14 +573,23 @@ public abstract class GLMTask  {
           }
         }
       }
+      if(_gradReducer != null) {
+        _gradReducer.add(_gradient, 0);
+        _gradient = null;
+      }
     }
 
     @Override
     public final void reduce(GLMGradientTask gmgt){
-      ArrayUtils.add(_gradient,gmgt._gradient);
+      if(_gradient != null && gmgt._gradient != null)
+        ArrayUtils.add(_gradient,gmgt._gradient);
+      else if(_gradient == null)
+        _gradient = gmgt._gradient;
       _likelihood += gmgt._likelihood;
     }
     @Override public final void postGlobal(){
+      if(_gradReducer != null)
+        _gradient = _gradReducer.gather();
       ArrayUtils.mult(_gradient,_reg);
       for(int j = 0; j < _beta.length - 1; ++j)
         _gradient[j] += _currentLambda * _beta[j];
@@ -754,6 +787,7 @@ public abstract class GLMTask  {
     int _secondToLast;    // denote class label nclass-2
     int _theLast;         // denote class label nclass-1
     int _interceptId;     // index of offset/intercept in double[][] _beta
+    ShardedReducer _gradReducer; // null => gradient is reduced by the reduce tree
 
     /**
      * @param job
@@ -1003,21 +1037,47 @@ public abstract class GLMTask  {
       computeNumericEtas(chks,etas,vals,ids);
 
       calMultipliersNGradients(etas, etasOffset, ws, vals, ids, response, chks, M, P, numStart);
+      if(_gradReducer != null) {
+        for(int i = 0; i < P; ++i)
+          _gradReducer.add(_gradient[i], i*K);
+        _gradient = null;
+      }
 
     }
     public abstract void calMultipliersNGradients(double[][] etas, double[][] etasOffset, double[] ws, double[] vals,
                                                   int[] ids, Chunk response, Chunk[] chks, int M, int P, int numStart);
 
+    @Override public void setupLocal() {
+      if(_gradReducer != null) _gradReducer.setupLocal();
+    }
+
+    @Override public void closeLocal() {
+      if(_gradReducer != null) _gradReducer.closeLocal();
+    }
+
+    @Override protected void onGlobalFailure(Throwable ex) {
+      if(_gradReducer != null) _gradReducer.discard();
+    }
+
     @Override
     public void reduce(GLMMultinomialGradientBaseTask gmgt){
-      if(_gradient != gmgt._gradient)
+      if(_gradient == null)
+        _gradient = gmgt._gradient;
+      else if(_gradient != gmgt._gradient && gmgt._gradient != null)
         ArrayUtils.add(_gradient,gmgt._gradient);
       _likelihood += gmgt._likelihood;
     }
 
     @Override public void postGlobal(){
-      ArrayUtils.mult(_gradient, _reg);
       int P = _beta.length;
+      if(_gradReducer != null) {
+        int K = _beta[0].length;
+        double [] grad = _gradReducer.gather();
+        _gradient = new double[P][];
+        for(int i = 0; i < P; ++i)
+          _gradient[i] = Arrays.copyOfRange(grad, i*K, (i+1)*K);
+      }
+      ArrayUtils.mult(_gradient, _reg);
       // add l2 penalty
       if (_currentLambda > 0) {
         for (int c = 0; c < P - 1; ++c)
@@ -1040,10 +1100,12 @@ public abstract class GLMTask  {
   static class GLMMultinomialGradientTask extends GLMMultinomialGradientBaseTask {
     public GLMMultinomialGradientTask(Job job, DataInfo dinfo, double lambda, double[][] beta, double reg) {
       super(job, dinfo, lambda, beta, reg);
+      _gradReducer = gradientReducer(beta.length*beta[0].length);
     }
 
     public GLMMultinomialGradientTask(Job job, DataInfo dinfo, double lambda, double[][] beta, GLMParameters glmp) {
       super(job, dinfo, lambda, beta, glmp);
+      _gradReducer = gradientReducer(beta.length*beta[0].length);
     }
     @Override
     public void calMultipliersNGradients(double[][] etas, double[][] etasOffset, double[] ws, double[] vals,
@@ -1566,6 +1628,168 @@ public abstract class GLMTask  {
       return ArrayUtils.hasNaNsOrInfs(_xy) || _gram.hasNaNsOrInfs();
     }
   }
+
+  /**
+   * Matrix-free counterpart of {@link GLMIterationTask}: computes t(x)*w*z, the diagonal of the weighted gram matrix
+   * and the likelihood without forming the gram matrix itself. Memory is linear in the number of coefficients, the
+   * product of the gram matrix with a vector is then computed by {@link GLMGramVecTask}.
+   */
+  public static class GLMGramFreeTask extends FrameTask2<GLMGramFreeTask> {
+    final GLMWeightsFun _glmf;
+    final double [] _beta;
+    double [] _xy;   // wx^t%*%z
+    double [] _diag; // diagonal of wx^t%*%x
+    double _likelihood;
+    private double [] _wx; // column sums of wx, needed to adjust sparse standardized data
+    private double _wsum, _wzsum;
+    private transient GLMWeights _w;
+    private transient GLMWeightsFun _glmfTweedie; // only needed for Tweedie
+    private transient double _sparseOffset;
+
+    public GLMGramFreeTask(Key jobKey, DataInfo dinfo, GLMWeightsFun glmw, double [] beta) {
+      super(null,dinfo,jobKey);
+      _glmf = glmw;
+      _beta = beta;
+    }
+
+    @Override public boolean handlesSparseData(){return true;}
+
+    @Override
+    public void chunkInit() {
+      _xy = MemoryManager.malloc8d(_dinfo.fullN()+1); // + 1 is for intercept
+      _diag = MemoryManager.malloc8d(_dinfo.fullN()+1);
+      _wx = MemoryManager.malloc8d(_dinfo.fullN()+1);
+      if(_sparse)
+        _sparseOffset = GLM.sparseOffset(_beta,_dinfo);
+      _w = new GLMWeights();
+      if (_glmf._family.equals(Family.tweedie))
+        _glmfTweedie = new GLMModel.GLMWeightsFun(_glmf._family, _glmf._link, _glmf._var_power, _glmf._link_power,
+                _glmf._theta);
+    }
+
+    @Override
+    protected void processRow(Row r) {
+      double eta = r.innerProduct(_beta) + _sparseOffset;
+      if (_glmfTweedie != null)
+        _glmfTweedie.computeWeights(r.response(0), eta, r.offset, r.weight, _w);
+      else
+        _glmf.computeWeights(r.response(0), eta, r.offset, r.weight, _w);
+      final double w = _w.w;
+      final double wz = _glmfTweedie != null ? _w.z : w*_w.z; // already multiplied with w for Tweedie
+      _likelihood += _w.l;
+      _wsum += w;
+      _wzsum += wz;
+      for(int i = 0; i < r.nBins; ++i) {
+        _xy[r.binIds[i]] += wz;
+        _diag[r.binIds[i]] += w;
+      }
+      final int numStart = _dinfo.numStart();
+      for(int i = 0; i < r.nNums; ++i){
+        int id = r.numIds == null?(i + numStart):r.numIds[i];
+        double val = r.numVals[i];
+        _xy[id] += wz*val;
+        _diag[id] += w*val*val;
+        _wx[id] += w*val;
+      }
+    }
+
+    @Override
+    public void chunkDone() {
+      if(_sparse && _dinfo._normSub != null) { // adjust for the missing centering of the sparse data
+        int ns = _dinfo.numStart();
+        for (int i = ns; i < _dinfo.fullN(); ++i) {
+          double iMean = _dinfo._normSub[i - ns] * _dinfo._normMul[i - ns];
+          _xy[i] -= _wzsum * iMean;
+          _diag[i] += iMean * (_wsum * iMean - 2 * _wx[i]);
+        }
+      }
+      if(_dinfo._intercept) {
+        _xy[_xy.length-1] = _wzsum;
+        _diag[_diag.length-1] = _wsum;
+      }
+      _wx = null;
+    }
+
+    @Override
+    public void reduce(GLMGramFreeTask git){
+      ArrayUtils.add(_xy, git._xy);
+      ArrayUtils.add(_diag, git._diag);
+      _likelihood += git._likelihood;
+    }
+  }
+
+  /**
+   * Product of the weighted gram matrix at the given coefficients with a vector, t(x)*w*x*v, computed in a single
+   * pass without forming the matrix. This is the matrix-vector product used by the conjugate gradient solver of
+   * IRLSM, see {@link GLMGramFreeTask}.
+   */
+  public static class GLMGramVecTask extends FrameTask2<GLMGramVecTask> {
+    final GLMWeightsFun _glmf;
+    final double [] _beta;
+    final double [] _v;
+    double [] _res;
+    private double _wtsum;
+    private transient GLMWeights _w;
+    private transient GLMWeightsFun _glmfTweedie; // only needed for Tweedie
+    private transient double _sparseOffsetBeta;
+    private transient double _sparseOffsetV;
+
+    public GLMGramVecTask(Key jobKey, DataInfo dinfo, GLMWeightsFun glmw, double [] beta, double [] v) {
+      super(null,dinfo,jobKey);
+      _glmf = glmw;
+      _beta = beta;
+      _v = v;
+    }
+
+    @Override public boolean handlesSparseData(){return true;}
+
+    @Override
+    public void chunkInit() {
+      _res = MemoryManager.malloc8d(_dinfo.fullN()+1);
+      if(_sparse) {
+        _sparseOffsetBeta = GLM.sparseOffset(_beta,_dinfo);
+        _sparseOffsetV = GLM.sparseOffset(_v,_dinfo);
+      }
+      _w = new GLMWeights();
+      if (_glmf._family.equals(Family.tweedie))
+        _glmfTweedie = new GLMModel.GLMWeightsFun(_glmf._family, _glmf._link, _glmf._var_power, _glmf._link_power,
+                _glmf._theta);
+    }
+
+    @Override
+    protected void processRow(Row r) {
+      double eta = r.innerProduct(_beta) + _sparseOffsetBeta;
+      if (_glmfTweedie != null)
+        _glmfTweedie.computeWeights(r.response(0), eta, r.offset, r.weight, _w);
+      else
+        _glmf.computeWeights(r.response(0), eta, r.offset, r.weight, _w);
+      final double wt = _w.w * (r.innerProduct(_v) + _sparseOffsetV);
+      _wtsum += wt;
+      for(int i = 0; i < r.nBins; ++i)
+        _res[r.binIds[i]] += wt;
+      final int numStart = _dinfo.numStart();
+      for(int i = 0; i < r.nNums; ++i){
+        int id = r.numIds == null?(i + numStart):r.numIds[i];
+        _res[id] += wt*r.numVals[i];
+      }
+    }
+
+    @Override
+    public void chunkDone() {
+      if(_sparse && _dinfo._normSub != null) { // adjust for the missing centering of the sparse data
+        int ns = _dinfo.numStart();
+        for (int i = ns; i < _dinfo.fullN(); ++i)
+          _res[i] -= _wtsum * _dinfo._normSub[i - ns] * _dinfo._normMul[i - ns];
+      }
+      if(_dinfo._intercept)
+        _res[_res.length-1] = _wtsum;
+    }
+
+    @Override
+    public void reduce(GLMGramVecTask git){
+      ArrayUtils.add(_res, git._res);
+    }
+  }
   
 
  /* public static class GLMCoordinateDescentTask extends FrameTask2<GLMCoordinateDescentTask> {
@@ -1808,10 +2032,10 @@ public abstract class GLMTask  {
       Chunk wChunk = chunks[cnt++];
       Chunk zChunk = chunks[cnt++];
       Chunk filterChunk = chunks[cnt++];
-      Row r = _dinfo.newDenseRow();
+      DataInfo.Rows rows = _dinfo.rows(chunks,false);
       for(int i = 0; i < chunks[0]._len; ++i) {
         if(filterChunk.atd(i)==1) continue;
-        _dinfo.extractDenseRow(chunks,i,r);
+        Row r = rows.row(i);
         _temp = wChunk.at8(i)* (zChunk.atd(i)- r.innerProduct(_betaold) );
       }
 
@@ -1848,9 +2072,9 @@ public abstract class GLMTask  {
       chunks = Arrays.copyOf(chunks,chunks.length-3);
       denums = new double[_dinfo.fullN()+1]; // full N is expanded variables with categories
 
-      Row r = _dinfo.newDenseRow();
+      DataInfo.Rows rows = _dinfo.rows(chunks,false);
       for(int i = 0; i < chunks[0]._len; ++i) {
-        _dinfo.extractDenseRow(chunks,i,r);
+        Row r = rows.row(i);
         if (r.isBad() || r.weight == 0) {
           wChunk.set(i,0);
           zChunk.set(i,0);
@@ -0,0 +1,108 @@
+package hex.optimization;
+
+import water.MemoryManager;
+import water.util.ArrayUtils;
+
+/**
+ * Preconditioned conjugate gradient method for symmetric positive definite linear systems A x = b.
+ *
+ * The matrix is never materialized, the caller only provides its product with a vector. For GLM the product with the
+ * weighted gram matrix is a single pass over the data (see hex.glm.GLMTask.GLMGramVecTask), so the memory needed is
+ * linear in the number of coefficients instead of quadratic. Diagonal (Jacobi) preconditioner is used when given.
+ *
+ * Usage:
+ *   ConjugateGradient.Result res = new ConjugateGradient().setMaxIter(100).setEps(1e-6).solve(A, b, diag, x0);
+ *
+ * One iteration takes exactly one product with the matrix.
+ */
+public final class ConjugateGradient {
+  int _maxIter = 100;
+  double _eps = 1e-6;
+
+  public ConjugateGradient setMaxIter(int m) {_maxIter = m; return this;}
+  public ConjugateGradient setEps(double d) {_eps = d; return this;}
+
+  /**
+   * Symmetric positive definite linear operator.
+   */
+  public interface LinearOperator {
+    double[] mul(double[] x);
+  }
+
+  public static final class Result {
+    public final double[] _x;
+    public final int _iter;
+    public final double _residual; // relative to the norm of the right hand side
+    public final boolean _converged;
+
+    Result(double[] x, int iter, double residual, boolean converged) {
+      _x = x;
+      _iter = iter;
+      _residual = residual;
+      _converged = converged;
+    }
+
+    @Override
+    public String toString() {
+      return "CG: iter = " + _iter + ", residual = " + _residual + ", converged = " + _converged;
+    }
+  }
+
+  /**
+   * Thrown when the operator turns out not to be positive definite.
+   */
+  public static final class NonSPDOperatorException extends RuntimeException {
+    public NonSPDOperatorException(String msg) { super(msg); }
+  }
+
+  /**
+   * @param A     the operator
+   * @param b     right hand side
+   * @param diag  diagonal of the operator used as the preconditioner, may be null
+   * @param x0    starting point (e.g. the solution of the previous iteration), null to start from zero
+   * @return the solution, the starting vector is not modified
+   */
+  public Result solve(LinearOperator A, double[] b, double[] diag, double[] x0) {
+    final int n = b.length;
+    double[] x = x0 == null ? MemoryManager.malloc8d(n) : x0.clone();
+    double[] r = b.clone();
+    if (x0 != null && ArrayUtils.l2norm2(x0) > 0)
+      r = ArrayUtils.subtract(b, A.mul(x));
+    final double bnorm = Math.sqrt(ArrayUtils.l2norm2(b));
+    if (bnorm == 0)
+      return new Result(MemoryManager.malloc8d(n), 0, 0, true);
+    double[] z = precondition(r, diag);
+    double[] p = z.clone();
+    double rz = ArrayUtils.innerProduct(r, z);
+    double res = Math.sqrt(ArrayUtils.l2norm2(r)) / bnorm;
+    int iter = 0;
+    while (res > _eps && iter < _maxIter) {
+      double[] ap = A.mul(p);
+      double pap = ArrayUtils.innerProduct(p, ap);
+      if (!(pap > 0))
+        throw new NonSPDOperatorException("p'Ap = " + pap + " at iteration " + iter);
+      double alpha = rz / pap;
+      for (int i = 0; i < n; ++i) {
+        x[i] += alpha * p[i];
+        r[i] -= alpha * ap[i];
+      }
+      z = precondition(r, diag);
+      double rzNew = ArrayUtils.innerProduct(r, z);
+      double beta = rzNew / rz;
+      for (int i = 0; i < n; ++i)
+        p[i] = z[i] + beta * p[i];
+      rz = rzNew;
+      res = Math.sqrt(ArrayUtils.l2norm2(r)) / bnorm;
+      ++iter;
+    }
+    return new Result(x, iter, res, res <= _eps);
+  }
+
+  private static double[] precondition(double[] r, double[] diag) {
+    if (diag == null) return r.clone();
+    double[] z = MemoryManager.malloc8d(r.length);
+    for (int i = 0; i < r.length; ++i)
+      z[i] = diag[i] > 0 ? r[i] / diag[i] : r[i];
+    return z;
+  }
+}
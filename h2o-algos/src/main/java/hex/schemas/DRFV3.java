@@ -51,6 +51,7 @@ public class DRFV3 extends SharedTreeV3<DRF, DRFV3, DRFV3.DRFParametersV3> {
                 "col_sample_rate_per_tree",
                 "min_split_improvement",
                 "histogram_type",
+                "prebinned_histograms",
                 "categorical_encoding",
                 "calibrate_model",
                 "calibration_frame",
@@ -97,6 +97,7 @@ public class DeepLearningV3 extends ModelBuilderSchema<DeepLearning,DeepLearning
         "reproducible",
         "export_weights_and_biases",
         "mini_batch_size",
+        "cache_training_data",
         "categorical_encoding",
         "elastic_averaging",
         "elastic_averaging_moving_rate",
@@ -648,6 +649,10 @@ public class DeepLearningV3 extends ModelBuilderSchema<DeepLearning,DeepLearning
         help = "Mini-batch size (smaller leads to better fit, larger can speed up and generalize better).")
     public int mini_batch_size;
 
+    @API(level = API.Level.expert, direction=API.Direction.INOUT,
+        help = "Cache the expanded, standardized training rows in memory for faster iterations (uses extra memory).")
+    public boolean cache_training_data;
+
     @API(level = API.Level.expert, direction=API.Direction.INOUT, gridable = true,
         help = "Elastic averaging between compute nodes can improve distributed model convergence. #Experimental")
     public boolean elastic_averaging;
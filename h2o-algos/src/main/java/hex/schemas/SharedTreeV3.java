@@ -90,6 +90,9 @@ public class SharedTreeV3<B extends SharedTree, S extends SharedTreeV3<B,S,P>, P
     @API(help="What type of histogram to use for finding optimal split points", values = { "AUTO", "UniformAdaptive", "Random", "QuantilesGlobal", "RoundRobin"}, level = API.Level.secondary, gridable = true)
     public SharedTreeParameters.HistogramType histogram_type;
 
+    @API(help="Encode the columns into their global quantile bins once and build histograms from the bin indices, instead of re-binning the data at every level (QuantilesGlobal and RoundRobin only). Bins are not refined below the global quantiles.", level = API.Level.expert, gridable = true)
+    public boolean prebinned_histograms;
+
     @API(help="Use Platt Scaling to calculate calibrated class probabilities. Calibration can provide more accurate estimates of class probabilities.", level = API.Level.expert)
     public boolean calibrate_model;
 
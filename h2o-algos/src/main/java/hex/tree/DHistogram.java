@@ -4,7 +4,9 @@ import hex.Distribution;
 import hex.DistributionFactory;
 import sun.misc.Unsafe;
 import water.*;
+import water.fvec.Chunk;
 import water.fvec.Frame;
+import water.fvec.NewChunk;
 import water.fvec.Vec;
 import water.nbhm.UtilUnsafe;
 import water.util.ArrayUtils;
@@ -122,6 +124,10 @@ public final class DHistogram extends Iced {
   public final long _seed;
   public transient boolean _hasQuantiles;
   public Key _globalQuantilesKey; //key under which original top-level quantiles are stored;
+  // Pre-binned mode: split points are a slice of the global ones (no padding), and the histogram
+  // is filled from the column's precomputed global bin indices; see updateHistoBinned.
+  public boolean _prebinned;
+  int _binOffset; // index of the first split point of this histogram in the global split points
 
 
 
@@ -151,10 +157,60 @@ public final class DHistogram extends Iced {
 
   static class HistoQuantiles extends Keyed<HistoQuantiles> {
     public HistoQuantiles(Key<HistoQuantiles> key, double[] splitPts) {
+      this(key, splitPts, false);
+    }
+    public HistoQuantiles(Key<HistoQuantiles> key, double[] splitPts, boolean prebinned) {
       super(key);
       this.splitPts = splitPts;
+      this.prebinned = prebinned;
     }
     double[/*nbins*/] splitPts;
+    boolean prebinned; // column was encoded into global bin indices, see binColumns
+  }
+
+  /**
+   * Global bin index of a value, given the global split points: index of the last split point
+   * not greater than the value.  Values out of range (eg. infinities) go to the first/last bin.
+   */
+  static int globalBin(double[] splitPts, double d) {
+    int idx = Arrays.binarySearch(splitPts, d);
+    if (idx < 0) idx = -idx - 2;
+    return Math.min(Math.max(idx, 0), splitPts.length - 1);
+  }
+
+  /**
+   * Encode each column once into its global (QuantilesGlobal) bin indices, so that histograms
+   * can be built without re-binning the raw values at every tree level.  The bin indices
+   * compress to 1 or 2 bytes per row.
+   * @param fr frame holding the columns
+   * @param splitPts global split points per column, null for columns which should not be encoded
+   * @return one bin-index Vec per column, null for columns not encoded
+   */
+  static Vec[] binColumns(Frame fr, final double[][] splitPts) {
+    int[] cols = new int[splitPts.length];
+    int ncols = 0;
+    for (int c = 0; c < splitPts.length; c++)
+      if (splitPts[c] != null) cols[ncols++] = c;
+    Vec[] res = new Vec[splitPts.length];
+    if (ncols == 0) return res;
+    final int[] fcols = Arrays.copyOf(cols, ncols);
+    Vec[] vecs = new Vec[ncols];
+    for (int i = 0; i < ncols; i++) vecs[i] = fr.vec(fcols[i]);
+    Frame binned = new MRTask() {
+      @Override public void map(Chunk[] cs, NewChunk[] ncs) {
+        double[] vals = MemoryManager.malloc8d(cs[0]._len);
+        for (int i = 0; i < cs.length; i++) {
+          double[] pts = splitPts[fcols[i]];
+          cs[i].getDoubles(vals, 0, vals.length);
+          for (double d : vals) {
+            if (Double.isNaN(d)) ncs[i].addNA();
+            else ncs[i].addNum(globalBin(pts, d), 0);
+          }
+        }
+      }
+    }.doAll(ncols, Vec.T_NUM, new Frame(vecs)).outputFrame();
+    for (int i = 0; i < ncols; i++) res[fcols[i]] = binned.vec(i);
+    return res;
   }
 
 
@@ -301,7 +357,18 @@ public final class DHistogram extends Iced {
         HistoQuantiles hq = DKV.getGet(_globalQuantilesKey);
         if (hq != null) {
           _splitPts = ((HistoQuantiles) DKV.getGet(_globalQuantilesKey)).splitPts;
-          if (_splitPts!=null) {
+          if (_splitPts!=null && hq.prebinned) {
+            // keep exactly the global bins covering this node's range, so that the node's bin
+            // is the global bin index minus the offset of the first one
+            double[] global = _splitPts;
+            _splitPts = ArrayUtils.limitToRange(global, _min, _maxEx);
+            _binOffset = Arrays.binarySearch(global, _splitPts[0]);
+            assert _binOffset >= 0;
+            _prebinned = true;
+            _hasQuantiles = true;
+            _nbin = (char)_splitPts.length;
+          }
+          else if (_splitPts!=null) {
 //            Log.info("Obtaining global splitPoints: " + Arrays.toString(_splitPts));
             _splitPts = ArrayUtils.limitToRange(_splitPts, _min, _maxEx);
             if (_splitPts.length > 1 && _splitPts.length < _nbin)
@@ -470,6 +537,112 @@ public final class DHistogram extends Iced {
     }
   }
 
+  /**
+   * Same as {@link #updateHisto}, but reading the column's global bin indices (see {@link #binColumns})
+   * instead of the raw values.  Min/max are tracked as the lower edges of the smallest/largest bins seen,
+   * so the next level's range covers exactly the same global bins.
+   * @param bins global bin index per row, negative for NA
+   */
+  void updateHistoBinned(double[] ws, double resp[], int[] bins, double[] ys, int [] rows, int hi, int lo){
+    assert _prebinned;
+    final int last = _nbin - 1;
+    int bmin = Integer.MAX_VALUE, bmax = -1;
+    for(int r = lo; r< hi; ++r) {
+      int k = rows[r];
+      double weight = ws[k];
+      if (weight == 0) continue;
+      double y = ys[k];
+      assert (!Double.isNaN(y));
+      double wy = weight * y;
+      double wyy = wy * y;
+      int b = bins[k];
+      if (b < 0) {
+        b = _nbin; // NA bucket
+      } else {
+        b -= _binOffset;
+        if (b < 0) b = 0; // infinities, same as bin()
+        else if (b > last) b = last;
+        if (b < bmin) bmin = b;
+        if (b > bmax) bmax = b;
+      }
+      _vals[_vals_dim*b + 0] += weight;
+      _vals[_vals_dim*b + 1] += wy;
+      _vals[_vals_dim*b + 2] += wyy;
+      if (_vals_dim >= 5) {
+        _vals[_vals_dim * b + 3] += weight * (_pred1 - y) * (_pred1 - y);
+        _vals[_vals_dim * b + 4] += weight * (_pred2 - y) * (_pred2 - y);
+        if (_vals_dim == 6) {
+          _vals[_vals_dim * b + 5] += _dist.gammaDenom(weight, resp[k], y, Double.NaN);
+        }
+      }
+    }
+    if (bmax >= 0) {
+      if (_splitPts[bmin] < _min2) _min2 = _splitPts[bmin];
+      if (_splitPts[bmax] > _maxIn) _maxIn = _splitPts[bmax];
+    }
+  }
+
+  /**
+   * Can this (not yet filled) histogram be computed as parent - sibling?  Requires bins that line up across
+   * the three histograms, and no per-node constraint statistics.  Bins line up for pre-binned histograms
+   * (slices of the same global bins), and for unit-width integer/categorical bins (see {@link #unitBins}),
+   * which is what the default UniformAdaptive histograms use for columns with at most nbins (nbins_cats)
+   * distinct values.  Other adaptive bins are drawn anew over every node's range.
+   */
+  boolean canSubtract(DHistogram parent, DHistogram sibling) {
+    if (_vals != null || parent == null || sibling == null || parent._vals == null
+        || _vals_dim != 3 || parent._vals_dim != 3 || sibling._vals_dim != 3)
+      return false;
+    if (parent._prebinned) // this and sibling are not initialized yet; they are pre-binned once they are
+      return _histoType == SharedTreeModel.SharedTreeParameters.HistogramType.QuantilesGlobal
+          && sibling._histoType == SharedTreeModel.SharedTreeParameters.HistogramType.QuantilesGlobal;
+    return parent.unitBins() && unitBins() && sibling.unitBins();
+  }
+
+  // Bin b holds exactly the integer value _min + b, in every node
+  boolean unitBins() {
+    return _isInt > 0 && _step == 1 && _min == Math.rint(_min)
+        && _histoType == SharedTreeModel.SharedTreeParameters.HistogramType.UniformAdaptive;
+  }
+
+  // Bin b of this histogram holds the same values as bin b + offset of the given one
+  private int binOffsetIn(DHistogram h) {
+    return _prebinned ? _binOffset - h._binOffset : (int) (_min - h._min);
+  }
+
+  /**
+   * Histogram subtraction: fill this histogram as parent - sibling, for a node whose parent's rows all went
+   * either to this node or to its sibling.  Bins are matched by the values they hold.
+   * @param sibling filled histogram of the other child; an unfilled one means the sibling got no rows
+   */
+  void initFromDifference(DHistogram parent, DHistogram sibling) {
+    assert canSubtract(parent, sibling);
+    init();
+    assert _prebinned == parent._prebinned && (sibling._vals == null || sibling._prebinned == _prebinned);
+    final int po = binOffsetIn(parent);
+    final int so = sibling._vals == null ? 0 : binOffsetIn(sibling);
+    int bmin = Integer.MAX_VALUE, bmax = -1;
+    for (int b = 0; b <= _nbin; b++) { // including the NA bucket
+      int pb = b == _nbin ? parent._nbin : b + po;
+      if (pb < 0 || pb >= parent._nbin && b < _nbin) continue; // parent has no rows there
+      int sb = sibling._vals == null ? -1 : b == _nbin ? sibling._nbin : b + so;
+      boolean hasSib = sb >= 0 && (b == _nbin ? sb == sibling._nbin : sb < sibling._nbin);
+      double w = parent._vals[_vals_dim*pb] - (hasSib ? sibling._vals[_vals_dim*sb] : 0);
+      if (w <= 1e-10 * parent._vals[_vals_dim*pb]) continue; // empty, up to rounding of fractional weights
+      for (int i = 0; i < _vals_dim; i++)
+        _vals[_vals_dim*b + i] = parent._vals[_vals_dim*pb + i] - (hasSib ? sibling._vals[_vals_dim*sb + i] : 0);
+      if (b < _nbin) {
+        if (b < bmin) bmin = b;
+        bmax = b;
+      }
+    }
+    if (bmax >= 0) { // lower bin edges; exact values for unit bins, global bin edges for pre-binned ones
+      _min2 = binAt(bmin);
+      _maxIn = binAt(bmax);
+    }
+    reducePrecision();
+  }
+
   /**
    * Cast bin values *except for sums of weights and Na-bucket counters to floats to drop least significant bits.
    * Improves reproducibility (drop bits most affected by floating point error).
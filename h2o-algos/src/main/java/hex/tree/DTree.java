@@ -315,6 +315,9 @@ public class DTree extends Iced {
   public static class UndecidedNode extends Node {
     public transient DHistogram[] _hs; //(up to) one histogram per column
     public transient Constraints _cs;
+    // Filled histograms of the parent, kept for the larger of two children so its histograms
+    // can be computed as parent - (smaller) sibling instead of from the data; null otherwise
+    transient DHistogram[] _parentHs;
     public final int _scoreCols[];      // A list of columns to score; could be null for all
     public UndecidedNode( DTree tree, int pid, DHistogram[] hs, Constraints cs ) {
       super(tree,pid);
@@ -555,6 +558,15 @@ public class DTree extends Iced {
         // Assign a new (yet undecided) node to each child, and connect this (the parent) decided node and the newly made histograms to it
         _nids[way] = nhists == null ? ScoreBuildHistogram.UNDECIDED_CHILD_NODE_ID : makeUndecidedNode(nhists,ncs)._nid;
       }
+      if (_nids[0] >= 0 && _nids[1] >= 0 && hasAlignedBins(hs)) // histogram subtraction: only the smaller child is built from data
+        _tree.undecided(_nids[_split._n0 >= _split._n1 ? 0 : 1])._parentHs = hs;
+    }
+
+    // Are there histograms whose bins can line up with the children's (see DHistogram.canSubtract)?
+    private static boolean hasAlignedBins(DHistogram[] hs) {
+      for (DHistogram h : hs)
+        if (h != null && (h._prebinned || h.unitBins())) return true;
+      return false;
     }
 
     public int getChildNodeID(Chunk [] chks, int row ) {
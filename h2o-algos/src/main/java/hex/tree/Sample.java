@@ -25,6 +25,7 @@ public class Sample extends MRTask<Sample> {
     Random rand = RandomUtils.getRNG(_tree._seed);
     int [] is = nids2.getValues();
     for (int row = 0; row < nids._len; row++) {
+      if (ScoreBuildHistogram.isDecidedRow(is[row])) continue; // Held-out row, not part of any tree
       boolean skip = ys.isNA(row);
       if (!skip) {
         double rate = _rate_per_class==null ? _rate : _rate_per_class[(int)ys.at8(row)];
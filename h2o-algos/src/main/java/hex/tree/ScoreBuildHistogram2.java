@@ -68,11 +68,17 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
   final int _numLeafs;
   final IcedBitSet _activeCols;
   final int _respIdx;
+  final int [] _binIdxs; // per column: index of its global bin indices in the frame (see DHistogram.binColumns), or -1
 
   public ScoreBuildHistogram2(H2O.H2OCountedCompleter cc, int k, int ncols, int nbins, int nbins_cats, DTree tree, int leaf, DHistogram[][] hcs, DistributionFamily family, int respIdx, int weightIdx, int workIdx, int nidIdxs) {
+    this(cc, k, ncols, nbins, nbins_cats, tree, leaf, hcs, family, respIdx, weightIdx, workIdx, nidIdxs, null);
+  }
+
+  public ScoreBuildHistogram2(H2O.H2OCountedCompleter cc, int k, int ncols, int nbins, int nbins_cats, DTree tree, int leaf, DHistogram[][] hcs, DistributionFamily family, int respIdx, int weightIdx, int workIdx, int nidIdxs, int [] binIdxs) {
     super(cc, k, ncols, nbins, nbins_cats, tree, leaf, hcs, family, weightIdx, workIdx, nidIdxs);
     _numLeafs = _hcs.length;
     _respIdx = respIdx;
+    _binIdxs = binIdxs;
 
     int hcslen = _hcs.length;
     IcedBitSet activeCols = new IcedBitSet(ncols);
@@ -299,17 +305,20 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
     protected void map(int id){
       double [] cs = null;
       double [] resp = null;
+      int [] bins = null;
       for(int i = _cidx.getAndIncrement(); i < _cids.length; i = _cidx.getAndIncrement()) {
         if (cs == null) {
           cs = MemoryManager.malloc8d(_maxChunkSz);
           if (_respIdx >= 0)
           resp = MemoryManager.malloc8d(_maxChunkSz);
+          if (_binIdxs != null && _binIdxs[_col] >= 0)
+            bins = MemoryManager.malloc4(_maxChunkSz);
         }
-        computeChunk(i, cs, _ws[i], resp);
+        computeChunk(i, cs, bins, _ws[i], resp);
       }
     }
 
-    private void computeChunk(int id, double[] cs, double[] ws, double[] resp){
+    private void computeChunk(int id, double[] cs, int[] bins, double[] ws, double[] resp){
       int [] nh = _nhs[id];
       int [] rs = _rss[id];
       Chunk resChk = _chks[id][_workIdx];
@@ -317,7 +326,7 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
       double [] ys = ScoreBuildHistogram2.this._ys[id];
       if(_weightIdx != -1) _chks[id][_weightIdx].getDoubles(ws, 0, len);
       final int hcslen = _lh.length;
-      boolean extracted = false;
+      boolean extracted = false, extractedBins = false, extractedResp = false;
       for (int n = 0; n < hcslen; n++) {
         int sCols[] = _tree.undecided(n + _leaf)._scoreCols; // Columns to score (null, or a list of selected cols)
         if (sCols == null || ArrayUtils.find(sCols, _col) >= 0) {
@@ -326,11 +335,20 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
           int lo = (n == 0 ? 0 : nh[n - 1]);
           if (hi == lo || h == null) continue; // Ignore untracked columns in this split
           if (h._vals == null) h.init();
+          if (h._vals_dim == 6 && ! extractedResp) {
+            _chks[id][_respIdx].getDoubles(resp, 0, len);
+            extractedResp = true;
+          }
+          if (h._prebinned && bins != null) { // read the precomputed bin indices, no re-binning
+            if (! extractedBins) {
+              _chks[id][_binIdxs[_col]].getIntegers(bins, 0, len, -1);
+              extractedBins = true;
+            }
+            h.updateHistoBinned(ws, resp, bins, ys, rs, hi, lo);
+            continue;
+          }
           if (! extracted) {
             _chks[id][_col].getDoubles(cs, 0, len);
-            if (h._vals_dim == 6) {
-              _chks[id][_respIdx].getDoubles(resp, 0, len);
-            }
             extracted = true;
           }
           h.updateHisto(ws, resp, cs, ys, rs, hi, lo);
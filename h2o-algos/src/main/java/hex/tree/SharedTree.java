@@ -15,6 +15,7 @@ import water.*;
 import water.H2O.H2OCountedCompleter;
 import water.exceptions.H2OIllegalArgumentException;
 import water.exceptions.H2OModelBuilderIllegalArgumentException;
+import water.fvec.C4VolatileChunk;
 import water.fvec.Chunk;
 import water.fvec.Frame;
 import water.fvec.Vec;
@@ -33,6 +34,14 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
 
   private static final boolean DEBUG_PUBDEV_6686 = Boolean.getBoolean(H2O.OptArgs.SYSTEM_PROP_PREFIX + "debug.pubdev6686");
 
+  // Histogram subtraction for sibling leaves (see ScoreBuildOneTree); only switched off by tests comparing
+  // against histograms built from the data alone
+  static boolean HISTOGRAM_SUBTRACTION = true;
+
+  // Held-out rows of cross-validation fold models are taken out of the tree building (see MarkHeldOutRows);
+  // only switched off by tests comparing against fold models scanning all the rows
+  static boolean SKIP_HELD_OUT_ROWS = true;
+
   public boolean shouldReorder(Vec v) {
     return _parms._categorical_encoding == Model.Parameters.CategoricalEncodingScheme.SortByResponse
            && v.cardinality() > _parms._nbins_cats;  // no need to sort categoricals with fewer than nbins_cats - they will be sorted in every leaf anyway
@@ -60,6 +69,9 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
   // Initially predicted value (for zero trees)
   protected double _initialPrediction;
 
+  // Rows held out of a cross-validation fold model are permanently marked as decided (see MarkHeldOutRows)
+  protected boolean _skipHeldOutRows;
+
   // Sum of variable empirical improvement in squared-error.  The value is not scaled.
   private transient float[/*nfeatures*/] _improvPerVar;
 
@@ -75,6 +87,9 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
   protected transient Frame _trainPredsCache;
   protected transient Frame _validPredsCache;
 
+  // Global bin indices of the predictor columns, null (or null elements) if not pre-binned
+  private transient Vec[] _binnedCols;
+
   public boolean isSupervised(){return true;}
 
   @Override public boolean haveMojo() { return true; }
@@ -294,6 +309,7 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
           double[][] origQuantiles = qm._output._quantiles;
           //pad the quantiles until we have nbins_top_level bins
           double[][] splitPoints = new double[origQuantiles.length][];
+          final boolean prebinned = _parms._prebinned_histograms;
           Key[] keys = new Key[splitPoints.length];
           for (int i=0;i<keys.length;++i)
             keys[i] = getGlobalQuantilesKey(i);
@@ -309,10 +325,19 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
             else
               splitPoints[i] = ArrayUtils.padUniformly(splitPoints[i], _parms._nbins_top_level);
             assert splitPoints[i] == null || splitPoints[i].length > 1;
+          }
+          if (prebinned) {
+            double[][] binnedPoints = new double[_ncols][];
+            for (int i = 0; i < _ncols && i < splitPoints.length; ++i)
+              if (keys[i] != null) binnedPoints[i] = splitPoints[i];
+            _binnedCols = DHistogram.binColumns(_train, binnedPoints);
+          }
+          for (int i=0;i<origQuantiles.length;++i) {
             if (splitPoints[i]!=null && keys[i]!=null) {
 //              Log.info("Creating quantiles for column " + i + " (key: "+ keys[i] +")");
 //              Log.info("Quantiles for column " + i + ": " + Arrays.toString(quantiles[i]));
-              DKV.put(new DHistogram.HistoQuantiles(keys[i], splitPoints[i]));
+              boolean binned = _binnedCols != null && i < _binnedCols.length && _binnedCols[i] != null;
+              DKV.put(new DHistogram.HistoQuantiles(keys[i], splitPoints[i], binned));
             }
           }
           qm.delete();
@@ -345,6 +370,14 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
         }
         Vec [] vs = templateVec().makeVolatileInts(cons);
         _train.add(names, vs);
+        // A fold model of cross-validation only trains on the rows of the other folds, the held-out rows
+        // have zero weight. Take them out of the tree building right away so that the scoring and histogram
+        // passes of this fold model do not touch them. The fold models are still built one by one, each with
+        // its own passes over the data. Unsupervised trees (Isolation Forest) compute the path length of
+        // every row and keep all of them.
+        _skipHeldOutRows = SKIP_HELD_OUT_ROWS && _parms._is_cv_model && hasWeightCol() && isSupervised();
+        if (_skipHeldOutRows)
+          new MarkHeldOutRows(_nclass).doAll(ArrayUtils.append(vs, _weights));
         // Append number of trees participating in on-the-fly scoring
         _train.add("OUT_BAG_TREES", templateVec().makeZero());
 
@@ -365,6 +398,11 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
       } finally {
         if( _model!=null ) _model.unlock(_job);
         for (Key k : getGlobalQuantilesKeys()) Keyed.remove(k);
+        if (_binnedCols != null) {
+          for (Vec v : _binnedCols)
+            if (v != null) v.remove();
+          _binnedCols = null;
+        }
         if (_validWorkspace != null) {
           _validWorkspace.remove();
           _validWorkspace = null;
@@ -510,13 +548,22 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
       fr2.add(fr._names[idx_tree(k)],vecs[idx_tree(k)]);                              //tree predictions
       int workIdx = fr2.numCols(); fr2.add(fr._names[idx_work(k)],vecs[idx_work(k)]); //target value to fit (copy of actual response for DRF, residual for GBM)
       int nidIdx  = fr2.numCols(); fr2.add(fr._names[idx_nids(k)],vecs[idx_nids(k)]); //node indices for tree construction
+      int[] binIdxs = null;
+      if (_binnedCols != null) { //precomputed global bin indices of the predictors
+        binIdxs = new int[_ncols];
+        for (int c = 0; c < _ncols; c++) {
+          binIdxs[c] = -1;
+          if (_binnedCols[c] == null) continue;
+          binIdxs[c] = fr2.numCols(); fr2.add("Bins_" + fr._names[c], _binnedCols[c]);
+        }
+      }
       if (DEV_DEBUG) {
         System.out.println("Building a layer for class " + k + ":\n" + fr2.toTwoDimTable());
       }
       // Async tree building
       // step 1: build histograms
       // step 2: split nodes
-      H2O.submitTask(sb1ts[k] = new ScoreBuildOneTree(this,k,nbins, nbins_cats, tree, leafs, hcs, fr2, build_tree_one_node, _improvPerVar, _model._parms._distribution, respIdx, weightIdx, workIdx, nidIdx));
+      H2O.submitTask(sb1ts[k] = new ScoreBuildOneTree(this,k,nbins, nbins_cats, tree, leafs, hcs, fr2, build_tree_one_node, _improvPerVar, _model._parms._distribution, respIdx, weightIdx, workIdx, nidIdx, binIdxs));
     }
     // Block for all K trees to complete.
     boolean did_split=false;
@@ -556,10 +603,12 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
     final int _weightIdx;
     final int _workIdx;
     final int _nidIdx;
+    final int[] _binIdxs;
+    DHistogram[][] _derived; // Per leaf and column: histograms computed as parent - sibling, not from data
 
     boolean _did_split;
 
-    ScoreBuildOneTree(SharedTree st, int k, int nbins, int nbins_cats, DTree tree, int leafs[], DHistogram hcs[][][], Frame fr2, boolean build_tree_one_node, float[] improvPerVar, DistributionFamily family, int respIdx, int weightIdx, int workIdx, int nidIdx) {
+    ScoreBuildOneTree(SharedTree st, int k, int nbins, int nbins_cats, DTree tree, int leafs[], DHistogram hcs[][][], Frame fr2, boolean build_tree_one_node, float[] improvPerVar, DistributionFamily family, int respIdx, int weightIdx, int workIdx, int nidIdx, int[] binIdxs) {
       _st   = st;
       _k    = k;
       _nbins= nbins;
@@ -575,6 +624,7 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
       _weightIdx = weightIdx;
       _workIdx = workIdx;
       _nidIdx = nidIdx;
+      _binIdxs = binIdxs;
     }
     @Override public void compute2() {
       // Fuse 2 conceptual passes into one:
@@ -586,14 +636,68 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
       // got assigned into.  Collect counts, mean, variance, min, max per bin,
       // per column.
 //      new ScoreBuildHistogram(this,_k, _st._ncols, _nbins, _nbins_cats, _tree, _leafOffsets[_k], _hcs[_k], _family, _weightIdx, _workIdx, _nidIdx).dfork2(null,_fr2,_build_tree_one_node);
-      new ScoreBuildHistogram2(this,_k, _st._ncols, _nbins, _nbins_cats, _tree, _leafOffsets[_k], _hcs[_k], _family, _respIdx, _weightIdx, _workIdx, _nidIdx).dfork2(null,_fr2,_build_tree_one_node);
+      new ScoreBuildHistogram2(this,_k, _st._ncols, _nbins, _nbins_cats, _tree, _leafOffsets[_k], withoutDerivedHistos(), _family, _respIdx, _weightIdx, _workIdx, _nidIdx, _binIdxs).dfork2(null,_fr2,_build_tree_one_node);
     }
+
+    // Histogram subtraction: the histograms of the larger of two sibling leaves, which can be computed
+    // as parent - smaller sibling (see DHistogram.initFromDifference), are left out of the data pass.
+    private DHistogram[][] withoutDerivedHistos() {
+      final int leafOffset = _leafOffsets[_k];
+      final DHistogram[][] hcs = _hcs[_k];
+      if (!HISTOGRAM_SUBTRACTION) return hcs;
+      for (int leaf = leafOffset; leaf < _tree.len(); leaf++) {
+        DTree.UndecidedNode udn = _tree.undecided(leaf);
+        if (udn._parentHs == null) continue;
+        DTree.UndecidedNode sib = _tree.undecided(sibling(udn));
+        DHistogram[] hs = hcs[leaf - leafOffset], shs = hcs[sib._nid - leafOffset];
+        for (int c = 0; c < hs.length; c++) {
+          if (hs[c] == null || !scores(udn, c) || !scores(sib, c) || !hs[c].canSubtract(udn._parentHs[c], shs[c]))
+            continue;
+          if (_derived == null) _derived = new DHistogram[hcs.length][];
+          if (_derived[leaf - leafOffset] == null) _derived[leaf - leafOffset] = new DHistogram[hs.length];
+          _derived[leaf - leafOffset][c] = hs[c];
+        }
+      }
+      if (_derived == null) return hcs;
+      DHistogram[][] res = hcs.clone();
+      for (int i = 0; i < res.length; i++) {
+        if (_derived[i] == null) continue;
+        res[i] = res[i].clone();
+        for (int c = 0; c < res[i].length; c++)
+          if (_derived[i][c] != null) res[i][c] = null;
+      }
+      return res;
+    }
+
+    private int sibling(DTree.UndecidedNode udn) {
+      DTree.DecidedNode parent = _tree.decided(udn._pid);
+      return parent._nids[0] == udn._nid ? parent._nids[1] : parent._nids[0];
+    }
+
+    private static boolean scores(DTree.UndecidedNode udn, int col) {
+      return udn._scoreCols == null || ArrayUtils.find(udn._scoreCols, col) >= 0;
+    }
+
     @Override public void onCompletion(CountedCompleter caller) {
       ScoreBuildHistogram sbh = (ScoreBuildHistogram) caller;
       final int leafOffset = _leafOffsets[_k];
       int tmax = _tree.len();   // Number of total splits in tree K
+      if (_derived != null) {   // The sibling histograms are built now, finish the subtracted ones
+        for (int i = 0; i < _derived.length; i++) {
+          if (_derived[i] == null) continue;
+          DTree.UndecidedNode udn = _tree.undecided(leafOffset + i);
+          DHistogram[] shs = sbh._hcs[sibling(udn) - leafOffset];
+          for (int c = 0; c < _derived[i].length; c++) {
+            if (_derived[i][c] == null) continue;
+            _derived[i][c].initFromDifference(udn._parentHs[c], shs[c]);
+            sbh._hcs[i][c] = _derived[i][c];
+          }
+        }
+        _derived = null;
+      }
       for (int leaf = leafOffset; leaf < tmax; leaf++) { // Visit all the new splits (leaves)
         DTree.UndecidedNode udn = _tree.undecided(leaf);
+        udn._parentHs = null; // Not needed anymore
 //        System.out.println((_st._nclass==1?"Regression":("Class "+_st._response.domain()[_k]))+",\n  Undecided node:"+udn);
         // Replace the Undecided with the Split decision
         DTree.DecidedNode dn = _st.makeDecided(udn, sbh._hcs[leaf - leafOffset], udn._cs);
@@ -617,6 +721,34 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
     }
   }
 
+  /**
+   * Marks all the rows with zero weight as {@link ScoreBuildHistogram#DECIDED_ROW} in the given NIDs columns,
+   * the last column of the frame is the weights column.
+   */
+  public static class MarkHeldOutRows extends MRTask<MarkHeldOutRows> {
+    private final int _nnids;
+    public MarkHeldOutRows(int nnids) { _nnids = nnids; }
+    @Override protected boolean modifiesVolatileVecs() { return true; }
+    @Override public void map(Chunk[] chks) {
+      final Chunk weights = chks[_nnids];
+      for (int k = 0; k < _nnids; k++) {
+        final int[] nids = ((C4VolatileChunk) chks[k]).getValues();
+        for (int row = 0; row < nids.length; row++)
+          if (weights.atd(row) == 0) nids[row] = ScoreBuildHistogram.DECIDED_ROW;
+      }
+    }
+  }
+
+  /** Value of a NID after the row has been used by a finished tree, ready for the next tree. */
+  protected final int freshNid(double weight) {
+    return freshNid(_skipHeldOutRows, weight);
+  }
+
+  /** Same as {@link #freshNid(double)}, for tasks that do not carry the builder. */
+  protected static int freshNid(boolean skipHeldOutRows, double weight) {
+    return skipHeldOutRows && weight == 0 ? ScoreBuildHistogram.DECIDED_ROW : ScoreBuildHistogram.FRESH;
+  }
+
   // --------------------------------------------------------------------------
   // Convenience accessor for a complex chunk layout.
   // Wish I could name the array elements nicer...
@@ -62,6 +62,8 @@ public abstract class SharedTreeModel<
     public enum HistogramType { AUTO, UniformAdaptive, Random, QuantilesGlobal, RoundRobin }
     public HistogramType _histogram_type = HistogramType.AUTO; // What type of histogram to use for finding optimal split points
 
+    public boolean _prebinned_histograms = false; // QuantilesGlobal only: encode columns into their global bin indices once and build histograms from those
+
     public double _r2_stopping = Double.MAX_VALUE; // Stop when the r^2 metric equals or exceeds this value
 
     public int _nbins_top_level = 1<<10; //hardcoded maximum top-level number of bins for real-valued columns
@@ -524,6 +526,11 @@ public abstract class SharedTreeModel<
       throw H2O.unimpl("Calibration is only supported for binomial models");
   }
 
+  @Override
+  protected boolean canScoreMetricsRowwise() {
+    return true;
+  }
+
   protected double[] score0Incremental(Score.ScoreIncInfo sii, Chunk chks[], double offset, int row_in_chunk, double[] tmp, double[] preds) {
     return score0(chks, offset, row_in_chunk, tmp, preds); // by default delegate to non-incremental implementation
   }
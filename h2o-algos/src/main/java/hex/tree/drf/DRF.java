@@ -289,7 +289,7 @@ public class DRF extends SharedTree<hex.tree.drf.DRFModel, hex.tree.drf.DRFModel
               }
             }
             // reset help column for this row and this k-class
-            nids.set(row, 0);
+            nids.set(row, freshNid(weight));
           } /* end of k-trees iteration */
           // For this tree this row is out-of-bag - i.e., a tree voted for this row
           if (wasOOBRow) oobt.set(row, oobt.atd(row) + weight); // track number of trees
@@ -397,12 +397,13 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
       // Tree <== f(Tree)
       // Nids <== 0
       new AddTreeContributions(
-          frameMap, ktrees, _parms._pred_noise_bandwidth, _parms._seed, _parms._ntrees, _model._output._ntrees
+          frameMap, ktrees, _parms._pred_noise_bandwidth, _parms._seed, _parms._ntrees, _model._output._ntrees,
+          _skipHeldOutRows
       ).doAll(_train);
 
       // sanity check
       for (int k = 0; k < _nclass; k++) {
-        if (ktrees[k]!=null) assert(vec_nids(_train,k).mean()==0);
+        if (ktrees[k]!=null) assert(_skipHeldOutRows || vec_nids(_train,k).mean()==0);
       }
 
       // Grow the model by K-trees
@@ -1154,9 +1155,11 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
     private long _seed;
     private int _ntrees1;
     private int _ntrees2;
+    private boolean _skipHeldOutRows;
 
     public AddTreeContributions(
-        FrameMap frameMap, DTree[] ktrees, double predictionNoiseBandwidth, long seed, int nTreesInp, int nTreesOut
+        FrameMap frameMap, DTree[] ktrees, double predictionNoiseBandwidth, long seed, int nTreesInp, int nTreesOut,
+        boolean skipHeldOutRows
     ) {
       fm = frameMap;
       _ktrees = ktrees;
@@ -1165,6 +1168,7 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
       _seed = seed;
       _ntrees1 = nTreesInp;
       _ntrees2 = nTreesOut;
+      _skipHeldOutRows = skipHeldOutRows;
     }
 
     @Override
@@ -1189,10 +1193,11 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
         long baseseed = (0xDECAF + _seed) * (0xFAAAAAAB + k * _ntrees1 + _ntrees2);
         for (int row = 0; row < nids._len; row++) {
           int nid = nids_vals[row];
-          nids_vals[row] = ScoreBuildHistogram.FRESH;
+          final double w = weights.atd(row);
+          nids_vals[row] = freshNid(_skipHeldOutRows, w);
           if (nid < 0) continue;
           if (y.isNA(row)) continue;
-          if (weights.atd(row) == 0) continue;
+          if (w == 0) continue;
           double factor = 1;
           if (_pred_noise_bandwidth != 0) {
             rand.setSeed(baseseed + nid); //bandwidth is a function of tree number, class and node id (but same for all rows in that node)
@@ -630,6 +630,94 @@ public class DataInfoTest extends TestUtil {
     }
   }
 
+  @Test public void testDenseBlockRows() {  // test that block-decoded dense rows match rows extracted one at a time
+    Frame fr = parse_test_file(Key.make("a.hex"), "smalldata/airlines/allyears2k_headers.zip");
+    DataInfo di = null;
+    try {
+      di = new DataInfo(
+              fr.clone(),  // train
+              null,        // valid
+              1,           // num responses
+              false,       // use all factor levels
+              DataInfo.TransformType.STANDARDIZE,  // predictor transform
+              DataInfo.TransformType.NONE,         // response  transform
+              false,       // skip missing
+              true,        // impute missing
+              false,       // missing bucket
+              false,       // weight
+              false,       // offset
+              false,       // fold
+              null         // interactions
+      );
+      checkBlockRows(di);
+    } finally {
+      fr.delete();
+      if (di != null) di.remove();
+    }
+  }
+
+  @Test public void testDenseBlockRowsSparseFloats() {  // same with sparse float chunks, zero and NA sparse
+    final int n = 4000;
+    double[] zeroSparse = new double[n], naSparse = new double[n], y = new double[n];
+    for (int i = 0; i < n; ++i) {
+      zeroSparse[i] = i % 50 == 0 ? i * 0.25 + 0.1 : 0;
+      naSparse[i] = i % 30 == 0 ? i / 7.0 : Double.NaN;
+      y[i] = i % 3;
+    }
+    Frame fr = new TestFrameBuilder()
+            .withName("sparseFloats")
+            .withColNames("zeroSparse", "naSparse", "y")
+            .withVecTypes(Vec.T_NUM, Vec.T_NUM, Vec.T_NUM)
+            .withDataForCol(0, zeroSparse)
+            .withDataForCol(1, naSparse)
+            .withDataForCol(2, y)
+            .withChunkLayout(1500, 2500)
+            .build();
+    DataInfo di = null;
+    try {
+      Assert.assertTrue(fr.vec(0).chunkForChunkIdx(0) instanceof CXFChunk);
+      Assert.assertTrue(fr.vec(1).chunkForChunkIdx(0) instanceof CXFChunk);
+      di = new DataInfo(
+              fr.clone(),  // train
+              null,        // valid
+              1,           // num responses
+              false,       // use all factor levels
+              DataInfo.TransformType.STANDARDIZE,  // predictor transform
+              DataInfo.TransformType.NONE,         // response  transform
+              false,       // skip missing
+              true,        // impute missing
+              false,       // missing bucket
+              false,       // weight
+              false,       // offset
+              false,       // fold
+              null         // interactions
+      );
+      checkBlockRows(di);
+    } finally {
+      fr.delete();
+      if (di != null) di.remove();
+    }
+  }
+
+  private static void checkBlockRows(final DataInfo dinfo) {
+    new MRTask() {
+      @Override public void map(Chunk[] cs) {
+        DataInfo.Rows rows = dinfo.rows(cs, false);
+        DataInfo.Row r = dinfo.newDenseRow();
+        for (int i = 0; i < cs[0]._len; i += 1 + (i & 1)) { // skip some rows too
+          DataInfo.Row br = rows.row(i);
+          dinfo.extractDenseRow(cs, i, r);
+          Assert.assertEquals(r.rid, br.rid);
+          Assert.assertEquals(r.isBad(), br.isBad());
+          if (r.isBad()) continue;
+          Assert.assertEquals(r.response(0), br.response(0), 0);
+          for (int j = 0; j < dinfo.fullN(); ++j)
+            Assert.assertEquals("row " + r.rid + ", col " + j, r.get(j), br.get(j), 0);
+        }
+      }
+    }.doAll(dinfo._adaptedFrame);
+  }
+
   private static void checker(final DataInfo di, final boolean standardize) {
     new MRTask() {
       @Override public void map(Chunk[] cs) {
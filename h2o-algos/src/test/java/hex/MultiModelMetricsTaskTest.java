@@ -0,0 +1,88 @@
+package hex;
+
+import hex.deeplearning.DeepLearning;
+import hex.deeplearning.DeepLearningModel;
+import hex.glm.GLM;
+import hex.glm.GLMModel;
+import hex.tree.drf.DRF;
+import hex.tree.drf.DRFModel;
+import hex.tree.gbm.GBM;
+import hex.tree.gbm.GBMModel;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.Scope;
+import water.TestUtil;
+import water.fvec.Frame;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class MultiModelMetricsTaskTest extends TestUtil {
+
+  @BeforeClass
+  public static void setup() { stall_till_cloudsize(1); }
+
+  @Test
+  public void testSameMetricsAsScoring() {
+    Scope.enter();
+    try {
+      Frame fr = Scope.track(parse_test_file("./smalldata/logreg/prostate.csv"));
+      fr.remove("ID").remove();
+      fr.replace(fr.find("CAPSULE"), fr.vec("CAPSULE").toCategoricalVec()).remove();
+      water.DKV.put(fr);
+
+      GBMModel.GBMParameters gbmParms = new GBMModel.GBMParameters();
+      gbmParms._train = fr._key;
+      gbmParms._response_column = "CAPSULE";
+      gbmParms._ntrees = 5;
+      gbmParms._seed = 42;
+      GBMModel gbm = new GBM(gbmParms).trainModel().get();
+      Scope.track_generic(gbm);
+
+      DRFModel.DRFParameters drfParms = new DRFModel.DRFParameters();
+      drfParms._train = fr._key;
+      drfParms._response_column = "CAPSULE";
+      drfParms._ntrees = 5;
+      drfParms._seed = 42;
+      DRFModel drf = new DRF(drfParms).trainModel().get();
+      Scope.track_generic(drf);
+
+      DeepLearningModel.DeepLearningParameters dlParms = new DeepLearningModel.DeepLearningParameters();
+      dlParms._train = fr._key;
+      dlParms._response_column = "CAPSULE";
+      dlParms._hidden = new int[]{5};
+      dlParms._epochs = 1;
+      dlParms._seed = 42;
+      dlParms._reproducible = true;
+      DeepLearningModel dl = new DeepLearning(dlParms).trainModel().get();
+      Scope.track_generic(dl);
+
+      // Scored with its own task
+      GLMModel.GLMParameters glmParms = new GLMModel.GLMParameters(GLMModel.GLMParameters.Family.binomial);
+      glmParms._train = fr._key;
+      glmParms._response_column = "CAPSULE";
+      GLMModel glm = new GLM(glmParms).trainModel().get();
+      Scope.track_generic(glm);
+
+      Model[] models = new Model[]{gbm, drf, dl, glm};
+      ModelMetrics[] metrics = MultiModelMetricsTask.scoreMetrics(models, fr);
+
+      for (int i = 0; i < models.length; i++) {
+        ModelMetricsBinomial mm = (ModelMetricsBinomial) metrics[i];
+        assertNotNull(mm);
+        assertEquals(mm._key, ModelMetrics.getFromDKV(models[i], fr)._key);
+
+        Scope.track(models[i].score(fr));
+        ModelMetricsBinomial expected = (ModelMetricsBinomial) ModelMetrics.getFromDKV(models[i], fr);
+        assertEquals(expected.auc(), mm.auc(), 1e-8);
+        assertEquals(expected.logloss(), mm.logloss(), 1e-8);
+        assertEquals(expected.mse(), mm.mse(), 1e-8);
+        assertEquals(expected.mean_per_class_error(), mm.mean_per_class_error(), 1e-8);
+        assertEquals(expected._nobs, mm._nobs);
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
+}
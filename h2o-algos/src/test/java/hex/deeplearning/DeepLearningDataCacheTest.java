@@ -0,0 +1,123 @@
+package hex.deeplearning;
+
+import hex.DataInfo;
+import hex.deeplearning.DeepLearningModel.DeepLearningParameters;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.DKV;
+import water.MRTask;
+import water.Scope;
+import water.TestUtil;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.TestFrameBuilder;
+import water.fvec.Vec;
+
+import static org.junit.Assert.*;
+
+public class DeepLearningDataCacheTest extends TestUtil {
+
+  @BeforeClass
+  public static void setup() { stall_till_cloudsize(1); }
+
+  @Test
+  public void testCachedRowsMatchDecodedRows() {
+    Scope.enter();
+    DataInfo dinfo = null;
+    try {
+      Frame fr = Scope.track(parse_test_file("smalldata/glm_test/prostate_cat_replaced.csv"));
+      fr.remove("ID").remove();
+      fr.add("CAPSULE", fr.remove("CAPSULE"));
+      dinfo = new DataInfo(fr, null, 1, false, DataInfo.TransformType.STANDARDIZE, DataInfo.TransformType.NONE, true, false, false, /* weights */ false, /* offset */ false, /* fold */ false);
+      assertFalse(new CompareRows(dinfo).doAll(dinfo._adaptedFrame)._sparse);
+    } finally {
+      if (dinfo != null) DKV.remove(dinfo._key);
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testSparseCachedRowsMatchDecodedRows() {
+    Scope.enter();
+    DataInfo dinfo = null;
+    try {
+      Frame fr = Scope.track(new TestFrameBuilder()
+              .withName("sparseCacheFrame")
+              .withColNames("C", "X1", "X2", "X3", "Y")
+              .withVecTypes(Vec.T_CAT, Vec.T_NUM, Vec.T_NUM, Vec.T_NUM, Vec.T_NUM)
+              .withDataForCol(0, ar("a", "b", "c", "a", "b", "c", "a", null))
+              .withDataForCol(1, ard(0, 0, 1.5, 0, 0, 0, 0, 0))
+              .withDataForCol(2, ard(0, 0, 0, 0, 2, 0, 0, 0))
+              .withDataForCol(3, ard(0, Double.NaN, 0, 0, 0, 0, -3, 0))
+              .withDataForCol(4, ard(1, 2, 3, 4, 5, 6, 7, 8))
+              .withChunkLayout(3, 5)
+              .build());
+      dinfo = new DataInfo(fr, null, 1, true, DataInfo.TransformType.NONE, DataInfo.TransformType.NONE, false, false, true, /* weights */ false, /* offset */ false, /* fold */ false);
+      assertTrue(new CompareRows(dinfo).doAll(dinfo._adaptedFrame)._sparse);
+    } finally {
+      if (dinfo != null) DKV.remove(dinfo._key);
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testTrainWithCache() {
+    Scope.enter();
+    try {
+      Frame tfr = Scope.track(parse_test_file("./smalldata/gbm_test/BostonHousing.csv"));
+      DeepLearningParameters parms = new DeepLearningParameters();
+      parms._train = tfr._key;
+      parms._response_column = tfr.lastVecName();
+      parms._hidden = new int[]{20, 20};
+      parms._epochs = 5;
+      parms._seed = 0xdecaf;
+      parms._cache_training_data = true;
+
+      DeepLearningModel dl = new DeepLearning(parms).trainModel().get();
+      Scope.track_generic(dl);
+
+      assertEquals(5, dl.epoch_counter, 1e-1);
+      double var = tfr.lastVec().sigma() * tfr.lastVec().sigma();
+      assertTrue(dl._output._training_metrics._MSE < var);
+      // the cache is dropped at the end of the training
+      assertFalse(DeepLearningDataCache.isCached(dl.model_info().data_info()._key));
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  private static class CompareRows extends MRTask<CompareRows> {
+    private final DataInfo _dinfo;
+    boolean _sparse;
+
+    CompareRows(DataInfo dinfo) { _dinfo = dinfo; }
+
+    @Override
+    public void map(Chunk[] cs) {
+      DeepLearningDataCache.CachedChunk cached = new DeepLearningDataCache.CachedChunk(_dinfo, cs);
+      _sparse = cached.isSparse();
+      DataInfo.Row expected = _dinfo.newDenseRow();
+      DataInfo.Row actual = _dinfo.newDenseRow();
+      for (int r = 0; r < cs[0]._len; r++) {
+        expected = _dinfo.extractDenseRow(cs, r, expected);
+        actual = cached.fill(r, actual);
+        assertEquals(expected.rid, actual.rid);
+        assertEquals(expected.isBad(), actual.isBad());
+        assertEquals(expected.weight, actual.weight, 0);
+        if (expected.isBad()) continue;
+        assertEquals(expected.nBins, actual.nBins);
+        for (int i = 0; i < expected.nBins; i++)
+          assertEquals(expected.binIds[i], actual.binIds[i]);
+        for (int i = 0; i < expected.numVals.length; i++)
+          assertEquals(expected.numVals[i], actual.numVals[i], 1e-6 * Math.max(1, Math.abs(expected.numVals[i])));
+        assertArrayEquals(expected.response, actual.response, 0);
+      }
+    }
+
+    @Override
+    public void reduce(CompareRows mrt) {
+      _sparse &= mrt._sparse;
+    }
+  }
+
+}
@@ -1,5 +1,6 @@
 package hex.deeplearning;
 
+import hex.genmodel.algos.deeplearning.DeeplearningMojoModel;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -54,6 +55,76 @@ public class DeepLearningScoreTest extends TestUtil {
     }
   }
 
+  /** Scoring a batch through the MOJO gives the same bits as scoring row by row, offsets and NAs included */
+  @Test public void testMojoScoreBatchMatchesScore0() throws Exception {
+    Frame fr = null;
+    DeepLearningModel regression = null, classifier = null;
+    try {
+      fr = parse_test_file("smalldata/logreg/prostate.csv");
+      fr.remove("ID").remove();
+      fr.replace(fr.find("RACE"), fr.vec("RACE").toCategoricalVec()).remove();
+      fr.replace(fr.find("CAPSULE"), fr.vec("CAPSULE").toCategoricalVec()).remove();
+      DKV.put(fr);
+
+      DeepLearningParameters parms = new DeepLearningParameters();
+      parms._train = fr._key;
+      parms._response_column = "AGE";
+      parms._hidden = new int[]{7, 5};
+      parms._activation = DeepLearningParameters.Activation.Tanh;
+      parms._epochs = 2;
+      parms._seed = 1234;
+      regression = new DeepLearning(parms).trainModel().get();
+      assertScoreBatchMatchesScore0((DeeplearningMojoModel) regression.toMojo(), fr, true);
+
+      parms = new DeepLearningParameters();
+      parms._train = fr._key;
+      parms._response_column = "CAPSULE";
+      parms._hidden = new int[]{6, 4};
+      parms._activation = DeepLearningParameters.Activation.MaxoutWithDropout;
+      parms._hidden_dropout_ratios = new double[]{0.2, 0.1};
+      parms._input_dropout_ratio = 0.1;
+      parms._epochs = 2;
+      parms._seed = 1234;
+      classifier = new DeepLearning(parms).trainModel().get();
+      assertScoreBatchMatchesScore0((DeeplearningMojoModel) classifier.toMojo(), fr, false);
+    } finally {
+      if (fr != null) fr.delete();
+      if (regression != null) regression.delete();
+      if (classifier != null) classifier.delete();
+    }
+  }
+
+  private static void assertScoreBatchMatchesScore0(DeeplearningMojoModel mojo, Frame fr, boolean withOffsets) {
+    final int nrows = (int) fr.numRows();
+    Assert.assertTrue("More rows than a single block", nrows > 256);
+    final String[] names = mojo.getNames();
+    double[][] cols = new double[mojo.nfeatures()][nrows];
+    for (int c = 0; c < cols.length; c++) {
+      Vec v = fr.vec(names[c]);
+      for (int r = 0; r < nrows; r++)
+        cols[c][r] = v.isNA(r) ? Double.NaN : v.at(r);
+      cols[c][(7 * c + 3) % nrows] = Double.NaN; // a missing value in every column
+    }
+    double[] offsets = null;
+    if (withOffsets) {
+      offsets = new double[nrows];
+      for (int r = 0; r < nrows; r++)
+        offsets[r] = r % 3 == 0 ? 0 : r % 5 - 1.5; // zero, negative and positive offsets
+    }
+    double[][] preds = new double[mojo.getPredsSize(mojo.getModelCategory())][nrows];
+    mojo.scoreBatch(cols, offsets, 0, 11, preds);
+    mojo.scoreBatch(cols, offsets, 11, nrows, preds);
+
+    double[] row = new double[cols.length];
+    for (int r = 0; r < nrows; r++) {
+      for (int c = 0; c < cols.length; c++)
+        row[c] = cols[c][r];
+      double[] expected = mojo.score0(row, offsets == null ? 0 : offsets[r], new double[preds.length]);
+      for (int k = 0; k < preds.length; k++)
+        Assert.assertEquals("Prediction " + k + " of row #" + r, expected[k], preds[k][r], 0);
+    }
+  }
+
   private void assertZeroLengthChunk(String msg, Vec v) {
     boolean hasZeroLenChunk = false;
     for (int i = 0; i < v.nChunks(); i++) {
@@ -14,12 +14,14 @@ import water.exceptions.H2OModelBuilderIllegalArgumentException;
 import water.fvec.Chunk;
 import water.fvec.Frame;
 import water.fvec.NFSFileVec;
+import water.fvec.TestFrameBuilder;
 import water.fvec.Vec;
 import water.parser.ParseDataset;
 import water.util.*;
 
 import java.io.File;
 import java.util.Arrays;
+import java.util.Random;
 
 import static hex.genmodel.utils.DistributionFamily.*;
 import static org.junit.Assert.assertEquals;
@@ -1599,9 +1601,27 @@ public class DeepLearningTest extends TestUtil {
   public void testMiniBatch50() {
     Frame tfr = null;
     DeepLearningModel dl = null;
+    DeepLearningModel dl2 = null;
 
     try {
-      tfr = parse_test_file("./smalldata/gbm_test/BostonHousing.csv");
+      // in-memory regression data, so that the pinned MSE below does not depend on an external file
+      final int nrows = 500;
+      final Random rng = new Random(0xdecaf);
+      double[][] cols = new double[4][nrows];
+      for (int r = 0; r < nrows; r++) {
+        for (int c = 0; c < 3; c++)
+          cols[c][r] = rng.nextGaussian();
+        cols[3][r] = 3 * cols[0][r] - 2 * cols[1][r] * cols[2][r] + Math.sin(cols[2][r]) + 0.1 * rng.nextGaussian();
+      }
+      tfr = new TestFrameBuilder()
+              .withName("miniBatchFrame")
+              .withColNames("X1", "X2", "X3", "Y")
+              .withVecTypes(Vec.T_NUM, Vec.T_NUM, Vec.T_NUM, Vec.T_NUM)
+              .withDataForCol(0, cols[0])
+              .withDataForCol(1, cols[1])
+              .withDataForCol(2, cols[2])
+              .withDataForCol(3, cols[3])
+              .build();
       DeepLearningParameters parms = new DeepLearningParameters();
       parms._train = tfr._key;
       parms._response_column = tfr.lastVecName();
@@ -1611,13 +1631,19 @@ public class DeepLearningTest extends TestUtil {
       parms._mini_batch_size = 50;
 
       dl = new DeepLearning(parms).trainModel().get();
+      dl2 = new DeepLearning(parms).trainModel().get();
 
-      Assert.assertEquals(12.938076268040659,dl._output._training_metrics._MSE,1e-6);
+      Assert.assertEquals(50, dl._parms._mini_batch_size);
+      // the mini-batch is no longer trained row by row: the gradients of the 50 rows are summed and applied once
+      // (see Neurons.bpropBlock) - the training is reproducible, so the model is pinned bit for bit
+      Assert.assertEquals(dl._output._training_metrics._MSE, dl2._output._training_metrics._MSE, 0);
+      Assert.assertEquals(3.8361913343471024,dl._output._training_metrics._MSE,1e-6);
 
     } finally {
       if (tfr != null) tfr.delete();
       if (dl != null) dl.deleteCrossValidationModels();
       if (dl != null) dl.delete();
+      if (dl2 != null) dl2.delete();
     }
   }
 
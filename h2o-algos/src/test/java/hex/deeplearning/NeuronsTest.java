@@ -3,14 +3,135 @@ package hex.deeplearning;
 import static hex.deeplearning.Neurons.*;
 
 import org.junit.*;
+import water.Scope;
+import water.fvec.Frame;
 import water.util.ArrayUtils;
 import water.util.Log;
 import water.util.PrettyPrint;
+import java.util.Arrays;
 import java.util.Random;
 
 public class NeuronsTest extends water.TestUtil {
   @BeforeClass public static void setup() { stall_till_cloudsize(1); }
 
+  @Test
+  public void matrixMatrixTest() {
+    final int rows = 37;
+    final int cols = 600; // more than one column block
+    Random rng = new Random(0xC0FFEE);
+    float[] a = new float[rows * cols];
+    for (int i = 0; i < a.length; ++i)
+      a[i] = rng.nextFloat() - 0.5f;
+    double[] y = new double[rows];
+    for (int row = 0; row < rows; ++row)
+      y[row] = rng.nextDouble();
+    byte[] bits = new byte[(rows + 7) / 8];
+    rng.nextBytes(bits);
+
+    for (int n : new int[]{1, 3, 4, 7, 16}) {
+      double[][] x = new double[n][cols];
+      for (int mb = 0; mb < n; ++mb)
+        for (int col = 0; col < cols; ++col)
+          x[mb][col] = rng.nextDouble() < 0.3 ? 0 : rng.nextGaussian();
+      for (byte[] row_bits : new byte[][]{null, bits}) {
+        double[][] expected = new double[n][rows];
+        gemm_naive(expected, a, x, y, row_bits, n);
+        double[][] res = new double[n][rows];
+        for (double[] r : res) Arrays.fill(r, Double.NaN); // results are overwritten
+        gemm(res, a, x, y, row_bits, n);
+        for (int mb = 0; mb < n; ++mb)
+          Assert.assertArrayEquals(expected[mb], res[mb], 1e-9);
+        // row ranges as computed by separate threads
+        res = new double[n][rows];
+        gemm_blocked(res, a, x, y, row_bits, n, 0, 11);
+        gemm_blocked(res, a, x, y, row_bits, n, 11, rows);
+        for (int mb = 0; mb < n; ++mb)
+          Assert.assertArrayEquals(expected[mb], res[mb], 1e-9);
+      }
+    }
+  }
+
+  /**
+   * The mini-batch backpropagation (bpropBlock) must update the weights and biases like the per-row backpropagation
+   * of the same rows (plain SGD, without regularization, where the updates of the rows simply add up), and propagate
+   * the errors of all the rows via the weights from before the update.
+   */
+  @Test
+  public void bpropBlockMatchesPerRowBprop() {
+    Scope.enter();
+    try {
+      Frame tfr = Scope.track(parse_test_file("smalldata/logreg/prostate.csv"));
+      DeepLearningModel.DeepLearningParameters p = new DeepLearningModel.DeepLearningParameters();
+      p._train = tfr._key;
+      p._response_column = "AGE";
+      p._ignored_columns = new String[]{"ID"};
+      p._hidden = new int[]{6, 5};
+      p._activation = DeepLearningModel.DeepLearningParameters.Activation.Tanh;
+      p._mini_batch_size = 4;
+      p._adaptive_rate = false;
+      p._rate = 0.01;
+      p._momentum_start = 0;
+      p._momentum_stable = 0;
+      p._epochs = 1;
+      p._seed = 0xBB0B;
+      p._reproducible = true;
+      DeepLearningModel dl = new DeepLearning(p).trainModel().get();
+      Scope.track_generic(dl);
+
+      Neurons[] neurons = DeepLearningTask.makeNeuronsForTraining(dl.model_info());
+      Neurons layer = neurons[2]; // second hidden layer, its previous layer has error terms
+      Neurons prev = layer._previous;
+      Assert.assertNotNull(prev._e);
+      final int rows = layer._w.rows();
+      final int cols = layer._w.cols();
+      final float rate = 0.05f;
+      Random rng = new Random(0xB10C);
+      for (int n : new int[]{2, 3, 4}) {
+        double[][] a = new double[n][cols];
+        double[][] pg = new double[rows][n];
+        for (int mb = 0; mb < n; ++mb)
+          for (int col = 0; col < cols; ++col)
+            a[mb][col] = rng.nextDouble() - 0.5;
+        for (int row = 0; row < rows; ++row)
+          for (int mb = 0; mb < n; ++mb)
+            pg[row][mb] = rng.nextGaussian();
+        final float[] w0 = layer._w.raw().clone();
+        final double[] b0 = layer._b.raw().clone();
+
+        // mini-batch path
+        for (int mb = 0; mb < n; ++mb) {
+          System.arraycopy(a[mb], 0, prev._a[mb].raw(), 0, cols);
+          Arrays.fill(prev._e[mb].raw(), 0);
+        }
+        for (int row = 0; row < rows; ++row)
+          layer.bprop(row, pg[row].clone(), rate, 0, n);
+        final float[] wBlock = layer._w.raw().clone();
+        final double[] bBlock = layer._b.raw().clone();
+        for (int mb = 0; mb < n; ++mb) {
+          double[] expectedErr = new double[cols];
+          for (int row = 0; row < rows; ++row)
+            for (int col = 0; col < cols; ++col)
+              expectedErr[col] += pg[row][mb] * w0[row * cols + col];
+          Assert.assertArrayEquals(expectedErr, prev._e[mb].raw(), 1e-9);
+        }
+
+        // per-row path, one row of the mini-batch at a time
+        System.arraycopy(w0, 0, layer._w.raw(), 0, w0.length);
+        System.arraycopy(b0, 0, layer._b.raw(), 0, b0.length);
+        for (int mb = 0; mb < n; ++mb) {
+          System.arraycopy(a[mb], 0, prev._a[0].raw(), 0, cols);
+          for (int row = 0; row < rows; ++row)
+            layer.bprop(row, new double[]{pg[row][mb]}, rate, 0, 1);
+        }
+        Assert.assertArrayEquals(layer._w.raw(), wBlock, 1e-5f);
+        Assert.assertArrayEquals(layer._b.raw(), bBlock, 1e-9);
+        Assert.assertFalse(Arrays.equals(w0, wBlock));
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
   @Ignore
   @Test
   public void matrixVecTest() {
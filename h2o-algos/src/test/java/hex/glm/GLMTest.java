@@ -2058,4 +2058,99 @@ public class GLMTest  extends TestUtil {
       Scope.exit();
     }
   }
+
+  @Test
+  public void testGramFreeIRLSM() {
+    final int minPredictors = GLM.GRAM_FREE_MIN_PREDICTORS;
+    Scope.enter();
+    try {
+      Frame fr = parse_test_file("smalldata/logreg/prostate.csv");
+      fr.replace(fr.find("RACE"), fr.vec("RACE").toCategoricalVec()).remove();
+      DKV.put(Scope.track(fr));
+      GLMParameters params = new GLMParameters(Family.binomial);
+      params._response_column = "CAPSULE";
+      params._ignored_columns = new String[]{"ID"};
+      params._train = fr._key;
+      params._solver = Solver.IRLSM;
+      params._alpha = new double[]{0};
+      params._lambda = new double[]{1e-3};
+
+      GLM.GRAM_FREE_MIN_PREDICTORS = Integer.MAX_VALUE;
+      GLMModel gram = new GLM(params).trainModel().get();
+      Scope.track_generic(gram);
+      GLM.GRAM_FREE_MIN_PREDICTORS = 0;
+      GLMModel gramFree = new GLM(params).trainModel().get();
+      Scope.track_generic(gramFree);
+
+      HashMap<String, Double> expected = gram.coefficients();
+      HashMap<String, Double> actual = gramFree.coefficients();
+      assertEquals(expected.keySet(), actual.keySet());
+      for (String name : expected.keySet())
+        assertEquals(name, expected.get(name), actual.get(name), 1e-4);
+      assertEquals(((ModelMetricsBinomialGLM) gram._output._training_metrics)._resDev,
+              ((ModelMetricsBinomialGLM) gramFree._output._training_metrics)._resDev, 1e-4);
+    } finally {
+      GLM.GRAM_FREE_MIN_PREDICTORS = minPredictors;
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testShardedGradientReduce() {
+    final int minLength = GLMTask.SHARDED_GRADIENT_MIN_LENGTH;
+    final boolean floats = GLMTask.FLOAT_GRADIENT;
+    Scope.enter();
+    DataInfo dinfo = null, binomialDinfo = null;
+    Frame binomialFr = null;
+    try {
+      Frame fr = parse_test_file("smalldata/logreg/prostate.csv");
+      fr.remove("ID").remove();
+      Vec dpros = fr.remove("DPROS");
+      fr.add("DPROS", dpros.toCategoricalVec()); // multinomial response with 4 classes, last column
+      dpros.remove();
+      DKV.put(Scope.track(fr));
+      binomialFr = new Frame(Key.<Frame>make(), fr.names(), fr.vecs());
+      binomialFr.add("CAPSULE", binomialFr.remove("CAPSULE"));
+      binomialFr.remove("DPROS");
+      DKV.put(binomialFr);
+      GLMParameters params = new GLMParameters(Family.multinomial);
+      params._response_column = "DPROS";
+      params._train = fr._key;
+      dinfo = new DataInfo(fr, null, 1, false, DataInfo.TransformType.STANDARDIZE, DataInfo.TransformType.NONE, true, false, false, false, false, false);
+      DKV.put(dinfo._key, dinfo);
+      binomialDinfo = new DataInfo(binomialFr, null, 1, false, DataInfo.TransformType.STANDARDIZE, DataInfo.TransformType.NONE, true, false, false, false, false, false);
+      DKV.put(binomialDinfo._key, binomialDinfo);
+      GLMParameters binomialParams = new GLMParameters(Family.binomial);
+      Random rnd = new Random(0xDECAF);
+      double[][] beta = new double[4][dinfo.fullN() + 1];
+      for (double[] b : beta)
+        for (int i = 0; i < b.length; ++i)
+          b[i] = rnd.nextGaussian() * 0.1;
+      double[] binomialBeta = new double[binomialDinfo.fullN() + 1];
+      for (int i = 0; i < binomialBeta.length; ++i)
+        binomialBeta[i] = rnd.nextGaussian() * 0.1;
+
+      GLMTask.SHARDED_GRADIENT_MIN_LENGTH = Integer.MAX_VALUE;
+      GLMMultinomialGradientBaseTask treeMulti = new GLMMultinomialGradientTask(null, dinfo, 1e-3, beta, params).doAll(dinfo._adaptedFrame);
+      GLMGradientTask treeBinom = new GLMBinomialGradientTask(null, binomialDinfo, binomialParams, 1e-3, binomialBeta).doAll(binomialDinfo._adaptedFrame);
+      GLMTask.SHARDED_GRADIENT_MIN_LENGTH = 0;
+      GLMMultinomialGradientBaseTask shardedMulti = new GLMMultinomialGradientTask(null, dinfo, 1e-3, beta, params).doAll(dinfo._adaptedFrame);
+      GLMGradientTask shardedBinom = new GLMBinomialGradientTask(null, binomialDinfo, binomialParams, 1e-3, binomialBeta).doAll(binomialDinfo._adaptedFrame);
+      GLMTask.FLOAT_GRADIENT = true;
+      GLMMultinomialGradientBaseTask floatMulti = new GLMMultinomialGradientTask(null, dinfo, 1e-3, beta, params).doAll(dinfo._adaptedFrame);
+
+      assertEquals(treeMulti._likelihood, shardedMulti._likelihood, 1e-8);
+      assertArrayEquals(treeMulti.gradient(), shardedMulti.gradient(), 1e-10);
+      assertArrayEquals(treeMulti.gradient(), floatMulti.gradient(), 1e-5);
+      assertEquals(treeBinom._likelihood, shardedBinom._likelihood, 1e-8);
+      assertArrayEquals(treeBinom._gradient, shardedBinom._gradient, 1e-10);
+    } finally {
+      GLMTask.SHARDED_GRADIENT_MIN_LENGTH = minLength;
+      GLMTask.FLOAT_GRADIENT = floats;
+      if (dinfo != null) dinfo.remove();
+      if (binomialDinfo != null) binomialDinfo.remove();
+      if (binomialFr != null) DKV.remove(binomialFr._key);
+      Scope.exit();
+    }
+  }
 }
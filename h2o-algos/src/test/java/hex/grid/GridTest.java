@@ -1,5 +1,6 @@
 package hex.grid;
 
+import hex.Model;
 import hex.genmodel.utils.DistributionFamily;
 import hex.tree.gbm.GBMModel;
 import org.junit.Before;
@@ -146,4 +147,70 @@ public class GridTest extends TestUtil {
     }
   }
 
+  @Test
+  public void testParallelGridSearch() {
+    try {
+      Scope.enter();
+      final Frame trainingFrame = parse_test_file("smalldata/iris/iris_train.csv");
+      Scope.track(trainingFrame);
+
+      HashMap<String, Object[]> hyperParms = new HashMap<String, Object[]>() {{
+        put("_distribution", new DistributionFamily[]{DistributionFamily.multinomial});
+        put("_ntrees", new Integer[]{5});
+        put("_max_depth", new Integer[]{2, 3, 4});
+        put("_min_rows", new Integer[]{10, 5000000}); // Second value is invalid, causes model training to fail
+        put("_learn_rate", new Double[]{.7});
+      }};
+
+      GBMModel.GBMParameters params = new GBMModel.GBMParameters();
+      params._train = trainingFrame._key;
+      params._response_column = "species";
+
+      HyperSpaceSearchCriteria.CartesianSearchCriteria criteria = new HyperSpaceSearchCriteria.CartesianSearchCriteria();
+      criteria.set_parallelism(4);
+      Job<Grid> gs = GridSearch.startGridSearch(null, params, hyperParms,
+              new GridSearch.SimpleParametersBuilderFactory<GBMModel.GBMParameters>(), criteria);
+      Scope.track_generic(gs);
+      final Grid grid = gs.get();
+      Scope.track_generic(grid);
+
+      assertEquals(3, grid.getModelCount());
+      for (Model m : grid.getModels())
+        assertEquals(10, ((GBMModel) m)._parms._min_rows, 0);
+      assertEquals(3, grid.getFailures().getFailureCount());
+
+      // max_models is honored with models built in parallel
+      hyperParms.put("_min_rows", new Integer[]{10, 20});
+      HyperSpaceSearchCriteria.RandomDiscreteValueSearchCriteria randomCriteria =
+              new HyperSpaceSearchCriteria.RandomDiscreteValueSearchCriteria();
+      randomCriteria.set_max_models(3);
+      randomCriteria.set_seed(42);
+      randomCriteria.set_parallelism(4);
+      gs = GridSearch.startGridSearch(null, params, hyperParms,
+              new GridSearch.SimpleParametersBuilderFactory<GBMModel.GBMParameters>(), randomCriteria);
+      Scope.track_generic(gs);
+      final Grid randomGrid = gs.get();
+      Scope.track_generic(randomGrid);
+      assertEquals(3, randomGrid.getModelCount());
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testAdaptiveParallelism() {
+    try {
+      Scope.enter();
+      final Frame trainingFrame = parse_test_file("smalldata/iris/iris_train.csv");
+      Scope.track(trainingFrame);
+      int nChunks = trainingFrame.anyVec().nChunks();
+      assertEquals(1, GridSearch.adaptiveParallelism(trainingFrame, nChunks));
+      assertEquals(2, GridSearch.adaptiveParallelism(trainingFrame, 2 * nChunks));
+      assertEquals(GridSearch.MAX_ADAPTIVE_PARALLELISM, GridSearch.adaptiveParallelism(trainingFrame, 1000 * nChunks));
+      assertEquals(1, GridSearch.adaptiveParallelism(trainingFrame, 0));
+    } finally {
+      Scope.exit();
+    }
+  }
+
 }
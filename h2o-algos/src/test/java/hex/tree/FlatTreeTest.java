@@ -0,0 +1,138 @@
+package hex.tree;
+
+import hex.genmodel.algos.tree.SharedTreeMojoModel;
+import hex.tree.drf.DRF;
+import hex.tree.drf.DRFModel;
+import hex.tree.gbm.GBM;
+import hex.tree.gbm.GBMModel;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.Scope;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.fvec.TestFrameBuilder;
+import water.fvec.Vec;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Flattened trees must score exactly like the compressed trees they were compiled from.
+ */
+public class FlatTreeTest extends TestUtil {
+
+  private static final int NLEVELS = 300; // well above 32 levels, splits use the large bitsets
+  private static final int NROWS = 3000;
+
+  @BeforeClass()
+  public static void setup() { stall_till_cloudsize(1); }
+
+  @Test
+  public void testGBMFlattenedMatchesRecursive() throws IOException {
+    try {
+      Scope.enter();
+      Frame fr = makeFrame(0xf1a7);
+      GBMModel.GBMParameters parms = new GBMModel.GBMParameters();
+      parms._train = fr._key;
+      parms._response_column = "y";
+      parms._ignored_columns = new String[]{"b"};
+      parms._ntrees = 20;
+      parms._max_depth = 6;
+      parms._seed = 42;
+      GBMModel gbm = new GBM(parms).trainModel().get();
+      Scope.track_generic(gbm);
+
+      assertFlattenedMatchesRecursive((SharedTreeMojoModel) gbm.toMojo(), (SharedTreeMojoModel) gbm.toMojo());
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testDRFFlattenedMatchesRecursive() throws IOException {
+    try {
+      Scope.enter();
+      Frame fr = makeFrame(0xd4f);
+      DRFModel.DRFParameters parms = new DRFModel.DRFParameters();
+      parms._train = fr._key;
+      parms._response_column = "b";
+      parms._ignored_columns = new String[]{"y"};
+      parms._ntrees = 10;
+      parms._max_depth = 8;
+      parms._seed = 42;
+      DRFModel drf = new DRF(parms).trainModel().get();
+      Scope.track_generic(drf);
+
+      assertFlattenedMatchesRecursive((SharedTreeMojoModel) drf.toMojo(), (SharedTreeMojoModel) drf.toMojo());
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  private static Frame makeFrame(long seed) {
+    Random rnd = new Random(seed);
+    String[] cat = new String[NROWS];
+    double[] num = new double[NROWS];
+    double[] y = new double[NROWS];
+    String[] b = new String[NROWS];
+    for (int i = 0; i < NROWS; i++) {
+      int level = rnd.nextInt(NLEVELS);
+      cat[i] = rnd.nextInt(20) == 0 ? null : "L" + level;
+      num[i] = rnd.nextInt(20) == 0 ? Double.NaN : rnd.nextGaussian();
+      y[i] = (level * 7919 % 13) + (Double.isNaN(num[i]) ? 3 : num[i]) + rnd.nextGaussian() * 0.1;
+      b[i] = (level * 31 % 5) < 2 ^ (num[i] > 0.5) ? "yes" : "no";
+    }
+    return new TestFrameBuilder()
+            .withName("flatTreeFrame")
+            .withColNames("cat", "num", "y", "b")
+            .withVecTypes(Vec.T_CAT, Vec.T_NUM, Vec.T_NUM, Vec.T_CAT)
+            .withDataForCol(0, cat)
+            .withDataForCol(1, num)
+            .withDataForCol(2, y)
+            .withDataForCol(3, b)
+            .withChunkLayout(NROWS / 2, NROWS - NROWS / 2)
+            .build();
+  }
+
+  private static void assertFlattenedMatchesRecursive(SharedTreeMojoModel recursive, SharedTreeMojoModel flat) {
+    flat.flattenTrees();
+    assertTrue(flat.hasFlatTrees());
+    assertFalse(recursive.hasFlatTrees());
+
+    final int npreds = recursive.getPredsSize();
+    final int catIdx = indexOf(recursive.getNames(), "cat");
+    final int numIdx = indexOf(recursive.getNames(), "num");
+    final int nlevels = recursive.getDomainValues(catIdx).length;
+    // every level, NA, and levels unseen in training (beyond the domain and the bitsets)
+    final int nrows = 2 * (nlevels + 10);
+    double[][] cols = new double[recursive.nfeatures()][nrows];
+    for (int r = 0; r < nrows; r++) {
+      int level = r % (nlevels + 10);
+      cols[catIdx][r] = level == nlevels ? Double.NaN : level;
+      cols[numIdx][r] = r % 11 == 0 ? Double.NaN : (r % 17 - 8) / 4.0;
+    }
+
+    double[] row = new double[cols.length];
+    for (int r = 0; r < nrows; r++) {
+      for (int c = 0; c < cols.length; c++)
+        row[c] = cols[c][r];
+      assertArrayEquals("Predictions for row #" + r,
+              recursive.score0(row.clone(), new double[npreds]), flat.score0(row.clone(), new double[npreds]), 0);
+    }
+
+    double[][] expected = new double[npreds][nrows];
+    double[][] actual = new double[npreds][nrows];
+    recursive.scoreBatch(cols, 0, nrows, expected);
+    flat.scoreBatch(cols, 0, nrows, actual);
+    for (int k = 0; k < npreds; k++)
+      assertArrayEquals("Batch predictions #" + k, expected[k], actual[k], 0);
+  }
+
+  private static int indexOf(String[] names, String name) {
+    for (int i = 0; i < names.length; i++)
+      if (name.equals(names[i])) return i;
+    throw new IllegalArgumentException("Column " + name + " not found");
+  }
+}
@@ -0,0 +1,108 @@
+package hex.tree;
+
+import hex.Model;
+import hex.ModelMetricsBinomial;
+import hex.tree.drf.DRF;
+import hex.tree.drf.DRFModel;
+import hex.tree.gbm.GBM;
+import hex.tree.gbm.GBMModel;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.DKV;
+import water.Scope;
+import water.TestUtil;
+import water.fvec.Frame;
+
+import static org.junit.Assert.*;
+
+/**
+ * Cross-validation fold models skipping their held-out rows are the same as fold models scanning all rows.
+ */
+public class HeldOutRowsTest extends TestUtil {
+
+  @BeforeClass public static void stall() { stall_till_cloudsize(1); }
+
+  @Test public void testGBMFoldModelsAndMetrics() {
+    Scope.enter();
+    try {
+      Frame fr = prostate();
+      SharedTreeModel[] models = new SharedTreeModel[2];
+      for (int i = 0; i < 2; i++) {
+        SharedTree.SKIP_HELD_OUT_ROWS = i == 1;
+        try {
+          GBMModel.GBMParameters parms = new GBMModel.GBMParameters();
+          parms._train = fr._key;
+          parms._response_column = "CAPSULE";
+          parms._ntrees = 10;
+          parms._max_depth = 5;
+          parms._sample_rate = 0.8;
+          parms._nfolds = 3;
+          parms._keep_cross_validation_models = true;
+          parms._seed = 0xF01D;
+          models[i] = (SharedTreeModel) Scope.track_generic(new GBM(parms).trainModel().get());
+        } finally {
+          SharedTree.SKIP_HELD_OUT_ROWS = true;
+        }
+      }
+      assertSameCrossValidation(models[0], models[1], fr);
+      assertEquals(((ModelMetricsBinomial) models[0]._output._cross_validation_metrics).logloss(),
+              ((ModelMetricsBinomial) models[1]._output._cross_validation_metrics).logloss(), 1e-10);
+      assertEquals(((ModelMetricsBinomial) models[0]._output._cross_validation_metrics).auc(),
+              ((ModelMetricsBinomial) models[1]._output._cross_validation_metrics).auc(), 1e-10);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test public void testDRFFoldModelsAndMetrics() {
+    Scope.enter();
+    try {
+      Frame fr = prostate();
+      SharedTreeModel[] models = new SharedTreeModel[2];
+      for (int i = 0; i < 2; i++) {
+        SharedTree.SKIP_HELD_OUT_ROWS = i == 1;
+        try {
+          DRFModel.DRFParameters parms = new DRFModel.DRFParameters();
+          parms._train = fr._key;
+          parms._response_column = "AGE";
+          parms._ntrees = 10;
+          parms._max_depth = 8;
+          parms._nfolds = 4;
+          parms._keep_cross_validation_models = true;
+          parms._seed = 0xF01D;
+          models[i] = (SharedTreeModel) Scope.track_generic(new DRF(parms).trainModel().get());
+        } finally {
+          SharedTree.SKIP_HELD_OUT_ROWS = true;
+        }
+      }
+      assertSameCrossValidation(models[0], models[1], fr);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  private static Frame prostate() {
+    Frame fr = Scope.track(parse_test_file("smalldata/logreg/prostate.csv"));
+    fr.remove("ID").remove();
+    Scope.track(fr.replace(fr.find("CAPSULE"), fr.vec("CAPSULE").toCategoricalVec()));
+    Scope.track(fr.replace(fr.find("RACE"), fr.vec("RACE").toCategoricalVec()));
+    DKV.put(fr);
+    return fr;
+  }
+
+  private static void assertSameCrossValidation(SharedTreeModel scanning, SharedTreeModel skipping, Frame fr) {
+    assertEquals(scanning._output._cross_validation_metrics.mse(), skipping._output._cross_validation_metrics.mse(), 1e-10);
+    assertEquals(scanning._output._cross_validation_models.length, skipping._output._cross_validation_models.length);
+    for (int f = 0; f < scanning._output._cross_validation_models.length; f++) {
+      Model expected = (Model) scanning._output._cross_validation_models[f].get();
+      Model actual = (Model) skipping._output._cross_validation_models[f].get();
+      assertEquals("Training MSE of fold model #" + f,
+              expected._output._training_metrics.mse(), actual._output._training_metrics.mse(), 1e-10);
+      Frame expectedPreds = Scope.track(expected.score(fr));
+      Frame actualPreds = Scope.track(actual.score(fr));
+      for (int c = 0; c < expectedPreds.numCols(); c++)
+        assertVecEquals(expectedPreds.vec(c), actualPreds.vec(c), 1e-10);
+    }
+  }
+
+}
@@ -1,9 +1,15 @@
 package hex.tree;
 
+import hex.tree.drf.DRF;
+import hex.tree.drf.DRFModel;
+import hex.tree.gbm.GBM;
+import hex.tree.gbm.GBMModel;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import water.*;
+import water.fvec.Frame;
+import water.fvec.Vec;
 import water.util.*;
 
 import java.util.Arrays;
@@ -205,6 +211,239 @@ public class HistogramTest extends TestUtil {
     k.remove();
   }
 
+  @Test public void testPrebinned() {
+    double[] splitPts = new double[]{1,1.5,2,2.5,3,4,5,6.1,6.2,6.3,6.7,6.8,6.85};
+    double min = 2.2;
+    double maxEx = 6.25;
+    Key k = Key.make();
+    DKV.put(new DHistogram.HistoQuantiles(k,splitPts,true));
+    try {
+      DHistogram raw = new DHistogram("myhisto",13,13,(byte)0,min,maxEx,0,SharedTreeModel.SharedTreeParameters.HistogramType.QuantilesGlobal,1234,k,null);
+      DHistogram binned = new DHistogram("myhisto",13,13,(byte)0,min,maxEx,0,SharedTreeModel.SharedTreeParameters.HistogramType.QuantilesGlobal,1234,k,null);
+      raw.init();
+      binned.init();
+      // global bins 2 (2.0) to 8 (6.2), no padding
+      Assert.assertTrue(binned._prebinned);
+      Assert.assertEquals(7, binned.nbins());
+      Assert.assertEquals(2, binned._binOffset);
+      Random rnd = new Random(42);
+      int n = 1000;
+      double[] cs = new double[n], ys = new double[n], ws = new double[n];
+      int[] bins = new int[n], rows = new int[n];
+      for (int i = 0; i < n; ++i) {
+        cs[i] = i % 10 == 0 ? Double.NaN : min + rnd.nextDouble()*(maxEx-min);
+        bins[i] = Double.isNaN(cs[i]) ? -1 : DHistogram.globalBin(splitPts, cs[i]);
+        if (!Double.isNaN(cs[i]))
+          Assert.assertEquals(binned.bin(cs[i]), bins[i] - binned._binOffset);
+        ys[i] = rnd.nextDouble();
+        ws[i] = 1;
+        rows[i] = i;
+      }
+      raw.updateHisto(ws, null, cs, ys, rows, n, 0);
+      binned.updateHistoBinned(ws, null, bins, ys, rows, n, 0);
+      Assert.assertArrayEquals(raw._vals, binned._vals, 1e-10);
+      // tracked bounds are the lower edges of the extreme bins
+      Assert.assertEquals(2.0, binned.find_min(), 0);
+      Assert.assertEquals(6.2, binned.find_maxIn(), 0);
+    } finally {
+      k.remove();
+    }
+  }
+
+  // At the root, pre-binned histograms see exactly the bins of regular QuantilesGlobal ones
+  @Test public void testPrebinnedMatchesQuantilesGlobal() {
+    SharedTreeModel.SharedTreeParameters.HistogramType qg = SharedTreeModel.SharedTreeParameters.HistogramType.QuantilesGlobal;
+    Scope.enter();
+    try {
+      Frame fr = Scope.track(parse_test_file("smalldata/covtype/covtype.20k.data"));
+      int n = (int) fr.numRows();
+      Random rnd = new Random(42);
+      double[] ys = new double[n], ws = new double[n], cs = new double[n];
+      int[] bins = new int[n], rows = new int[n];
+      for (int i = 0; i < n; ++i) {
+        ys[i] = rnd.nextDouble();
+        ws[i] = rnd.nextInt(3); // some zero weights too
+        rows[i] = i;
+      }
+      for (int c : new int[]{0, 1, 2, 3, 4, 5, 9}) {
+        Vec v = fr.vec(c);
+        double[] splitPts = ArrayUtils.padUniformly(ArrayUtils.makeUniqueAndLimitToRange(v.pctiles(), v.min(), v.max()), 64);
+        Vec binVec = Scope.track(new Frame(DHistogram.binColumns(new Frame(v), new double[][]{splitPts})))
+                .vec(0);
+        Key kRaw = Key.make(), kBinned = Key.make();
+        DKV.put(new DHistogram.HistoQuantiles(kRaw, splitPts, false));
+        DKV.put(new DHistogram.HistoQuantiles(kBinned, splitPts, true));
+        try {
+          double min = v.min(), maxEx = DHistogram.find_maxEx(v.max(), 0);
+          DHistogram raw = new DHistogram(fr.name(c), splitPts.length, 1024, (byte) 0, min, maxEx, 0, qg, 1234, kRaw, null);
+          DHistogram binned = new DHistogram(fr.name(c), splitPts.length, 1024, (byte) 0, min, maxEx, 0, qg, 1234, kBinned, null);
+          raw.init();
+          binned.init();
+          Assert.assertFalse(raw._prebinned);
+          Assert.assertTrue(binned._prebinned);
+          Assert.assertEquals(0, binned._binOffset);
+          Assert.assertEquals(raw.nbins(), binned.nbins());
+          for (int i = 0; i < n; ++i) {
+            cs[i] = v.at(i);
+            bins[i] = binVec.isNA(i) ? -1 : (int) binVec.at8(i);
+          }
+          raw.updateHisto(ws, null, cs, ys, rows, n, 0);
+          binned.updateHistoBinned(ws, null, bins, ys, rows, n, 0);
+          for (int b = 0; b < raw.nbins(); ++b) {
+            Assert.assertEquals(fr.name(c) + " bin " + b, raw.w(b), binned.w(b), 0);
+            Assert.assertEquals(fr.name(c) + " bin " + b, raw.wY(b), binned.wY(b), 1e-10);
+            Assert.assertEquals(fr.name(c) + " bin " + b, raw.wYY(b), binned.wYY(b), 1e-10);
+          }
+          Assert.assertEquals(raw.wNA(), binned.wNA(), 0);
+          Assert.assertEquals(raw.wYNA(), binned.wYNA(), 1e-10);
+        } finally {
+          kRaw.remove();
+          kBinned.remove();
+        }
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test public void testSubtraction() {
+    double[] splitPts = new double[]{1,1.5,2,2.5,3,4,5,6.1,6.2,6.3,6.7,6.8,6.85};
+    SharedTreeModel.SharedTreeParameters.HistogramType qg = SharedTreeModel.SharedTreeParameters.HistogramType.QuantilesGlobal;
+    Key k = Key.make();
+    DKV.put(new DHistogram.HistoQuantiles(k,splitPts,true));
+    try {
+      DHistogram parent = new DHistogram("myhisto",13,13,(byte)0,1,6.9,0,qg,1234,k,null);
+      DHistogram small = new DHistogram("myhisto",13,13,(byte)0,2.2,6.25,0,qg,1234,k,null);
+      DHistogram large = new DHistogram("myhisto",13,13,(byte)0,2.2,6.25,0,qg,1234,k,null);
+      DHistogram derived = new DHistogram("myhisto",13,13,(byte)0,2.2,6.25,0,qg,1234,k,null);
+      parent.init();
+      small.init();
+      large.init();
+      Random rnd = new Random(42);
+      int n = 1000;
+      double[] ys = new double[n], ws = new double[n];
+      int[] bins = new int[n], rows = new int[n];
+      int nsmall = 0;
+      for (int i = 0; i < n; ++i) {
+        double d = i % 10 == 0 ? Double.NaN : 2.2 + rnd.nextDouble()*(6.25-2.2);
+        bins[i] = Double.isNaN(d) ? -1 : DHistogram.globalBin(splitPts, d);
+        ys[i] = rnd.nextDouble();
+        ws[i] = 1;
+        rows[i] = i;
+        if (i % 3 == 0) nsmall++;
+      }
+      // first third of the sorted rows goes to the small child
+      int[] sorted = new int[n];
+      int a = 0, b = nsmall;
+      for (int i = 0; i < n; ++i) sorted[i % 3 == 0 ? a++ : b++] = i;
+      parent.updateHistoBinned(ws, null, bins, ys, rows, n, 0);
+      small.updateHistoBinned(ws, null, bins, ys, sorted, nsmall, 0);
+      large.updateHistoBinned(ws, null, bins, ys, sorted, n, nsmall);
+      parent.reducePrecision();
+      small.reducePrecision();
+      large.reducePrecision();
+      Assert.assertTrue(derived.canSubtract(parent, small));
+      derived.initFromDifference(parent, small);
+      Assert.assertEquals(large.nbins(), derived.nbins());
+      for (int i = 0; i <= large.nbins(); ++i) {
+        Assert.assertEquals(large._vals[3*i], derived._vals[3*i], 0);
+        Assert.assertEquals(large._vals[3*i+1], derived._vals[3*i+1], 1e-4);
+        Assert.assertEquals(large._vals[3*i+2], derived._vals[3*i+2], 1e-4);
+      }
+      Assert.assertEquals(large.find_min(), derived.find_min(), 0);
+      Assert.assertEquals(large.find_maxIn(), derived.find_maxIn(), 0);
+    } finally {
+      k.remove();
+    }
+  }
+
+  @Test public void testSubtractionUnitBins() {
+    SharedTreeModel.SharedTreeParameters.HistogramType ua = SharedTreeModel.SharedTreeParameters.HistogramType.UniformAdaptive;
+    // integer column with fewer distinct values than bins: one bin per value
+    DHistogram parent = new DHistogram("myhisto",20,20,(byte)1,0,10,0,ua,1234,null,null);
+    DHistogram small = new DHistogram("myhisto",20,20,(byte)1,0,7,0,ua,1234,null,null);
+    DHistogram large = new DHistogram("myhisto",20,20,(byte)1,3,10,0,ua,1234,null,null);
+    DHistogram derived = new DHistogram("myhisto",20,20,(byte)1,3,10,0,ua,1234,null,null);
+    Assert.assertTrue(parent.unitBins() && small.unitBins() && large.unitBins());
+    parent.init();
+    small.init();
+    large.init();
+    Random rnd = new Random(42);
+    int n = 1000;
+    double[] cs = new double[n], ys = new double[n], ws = new double[n];
+    int[] rows = new int[n], sorted = new int[n];
+    int nsmall = 0;
+    for (int i = 0; i < n; ++i) {
+      boolean toSmall = i % 3 == 0;
+      if (toSmall) nsmall++;
+      cs[i] = i % 10 == 1 ? Double.NaN : toSmall ? rnd.nextInt(7) : 3 + rnd.nextInt(7);
+      ys[i] = rnd.nextDouble();
+      ws[i] = 1 + rnd.nextInt(2);
+      rows[i] = i;
+    }
+    int a = 0, b = nsmall;
+    for (int i = 0; i < n; ++i) sorted[i % 3 == 0 ? a++ : b++] = i;
+    parent.updateHisto(ws, null, cs, ys, rows, n, 0);
+    small.updateHisto(ws, null, cs, ys, sorted, nsmall, 0);
+    large.updateHisto(ws, null, cs, ys, sorted, n, nsmall);
+    parent.reducePrecision();
+    small.reducePrecision();
+    large.reducePrecision();
+    Assert.assertTrue(derived.canSubtract(parent, small));
+    derived.initFromDifference(parent, small);
+    Assert.assertEquals(large.nbins(), derived.nbins());
+    for (int i = 0; i <= large.nbins(); ++i) {
+      Assert.assertEquals(large._vals[3*i], derived._vals[3*i], 0);
+      Assert.assertEquals(large._vals[3*i+1], derived._vals[3*i+1], 1e-4);
+      Assert.assertEquals(large._vals[3*i+2], derived._vals[3*i+2], 1e-4);
+    }
+    Assert.assertEquals(large.find_min(), derived.find_min(), 0);
+    Assert.assertEquals(large.find_maxIn(), derived.find_maxIn(), 0);
+
+    // real-valued adaptive bins are drawn over every node's range, they do not line up
+    DHistogram realParent = new DHistogram("myhisto",20,20,(byte)0,0,10,0,ua,1234,null,null);
+    realParent.init();
+    DHistogram realChild = new DHistogram("myhisto",20,20,(byte)0,3,10,0,ua,1234,null,null);
+    DHistogram realSibling = new DHistogram("myhisto",20,20,(byte)0,0,7,0,ua,1234,null,null);
+    Assert.assertFalse(realChild.canSubtract(realParent, realSibling));
+  }
+
+  // Histogram subtraction is exact up to float rounding of the sums: models are the same as without it
+  @Test public void testModelsWithAndWithoutSubtraction() {
+    Scope.enter();
+    try {
+      Frame fr = Scope.track(parse_test_file("smalldata/logreg/prostate.csv"));
+      fr.remove("ID").remove();
+      Scope.track(fr.replace(fr.find("CAPSULE"), fr.vec("CAPSULE").toCategoricalVec()));
+      Scope.track(fr.replace(fr.find("RACE"), fr.vec("RACE").toCategoricalVec()));
+      DKV.put(fr);
+      for (int algo = 0; algo < 2; algo++) {
+        Frame[] preds = new Frame[2];
+        for (int i = 0; i < 2; i++) {
+          SharedTree.HISTOGRAM_SUBTRACTION = i == 0;
+          try {
+            SharedTreeModel.SharedTreeParameters parms = algo == 0 ? new GBMModel.GBMParameters() : new DRFModel.DRFParameters();
+            parms._train = fr._key;
+            parms._response_column = "CAPSULE";
+            parms._ntrees = 10;
+            parms._max_depth = 6;
+            parms._min_rows = 1;
+            parms._seed = 0xC0FFEE;
+            SharedTreeModel model = algo == 0 ? new GBM((GBMModel.GBMParameters) parms).trainModel().get()
+                    : new DRF((DRFModel.DRFParameters) parms).trainModel().get();
+            Scope.track_generic(model);
+            preds[i] = Scope.track(model.score(fr));
+          } finally {
+            SharedTree.HISTOGRAM_SUBTRACTION = true;
+          }
+        }
+        assertVecEquals(preds[1].vec(2), preds[0].vec(2), 1e-6);
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
   @Test public void testShrinking() {
     double[] before = new double[]{0.2,0.28,0.31,0.32,0.32,0.4,0.7,0.81,0.84};
     double[] after = ArrayUtils.makeUniqueAndLimitToRange(before, 0.3,0.8);
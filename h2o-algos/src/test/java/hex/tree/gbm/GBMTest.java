@@ -12,6 +12,8 @@ import hex.genmodel.easy.prediction.BinomialModelPrediction;
 import hex.genmodel.easy.prediction.MultinomialModelPrediction;
 import hex.genmodel.utils.DistributionFamily;
 import hex.tree.Constraints;
+import hex.tree.ScoreBuildHistogram;
+import hex.tree.SharedTree;
 import hex.tree.SharedTreeModel;
 import org.junit.*;
 import org.junit.rules.ExpectedException;
@@ -1358,6 +1360,31 @@ public class GBMTest extends TestUtil {
     }
   }
 
+  @Test
+  public void testHeldOutRowsMarkedDecided() {
+    Scope.enter();
+    try {
+      Frame fr = new TestFrameBuilder()
+              .withName("heldOutWeights")
+              .withColNames("weight")
+              .withVecTypes(Vec.T_NUM)
+              .withDataForCol(0, ard(1, 0, 2, 0, 0.5, 0))
+              .withChunkLayout(2, 4)
+              .build();
+      Scope.track(fr);
+      Vec weights = fr.vec("weight");
+      Vec nids = weights.makeVolatileInts(new int[]{0})[0];
+      Scope.track(new Frame(nids));
+      new SharedTree.MarkHeldOutRows(1).doAll(nids, weights);
+      for (int i = 0; i < weights.length(); i++) {
+        int expected = weights.at(i) == 0 ? ScoreBuildHistogram.DECIDED_ROW : ScoreBuildHistogram.FRESH;
+        assertEquals("Row #" + i, expected, nids.at8(i));
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
   @Test
   public void testNfoldsOneVsRest() {
     Frame tfr = null;
@@ -2191,6 +2218,38 @@ public class GBMTest extends TestUtil {
     }
   }
 
+  // Bin-level equivalence with regular QuantilesGlobal histograms is in HistogramTest
+  @Test public void testPrebinnedHistograms() {
+    Frame tfr = null;
+    GBMModel gbm = null;
+    try {
+      Scope.enter();
+      tfr = parse_test_file("smalldata/covtype/covtype.20k.data");
+      int resp = 54;
+      Scope.track(tfr.replace(resp, tfr.vecs()[resp].toCategoricalVec()));
+      DKV.put(tfr);
+      GBMModel.GBMParameters parms = makeGBMParameters();
+      parms._train = tfr._key;
+      parms._response_column = tfr.names()[resp];
+      parms._histogram_type = SharedTreeModel.SharedTreeParameters.HistogramType.QuantilesGlobal;
+      parms._prebinned_histograms = true;
+      parms._ntrees = 10;
+      parms._max_depth = 5;
+      parms._seed = 0xDECAFFEE;
+      gbm = new GBM(parms).trainModel().get();
+      assertEquals(10, gbm._output._ntrees);
+      // better than predicting the class distribution
+      long[] counts = tfr.vec(resp).bins();
+      double nullMse = 1;
+      for (long c : counts) nullMse -= Math.pow((double) c / tfr.numRows(), 2);
+      assertTrue(gbm._output._training_metrics.mse() < nullMse);
+    } finally {
+      if (gbm != null) gbm.delete();
+      if (tfr != null) tfr.delete();
+      Scope.exit();
+    }
+  }
+
   @Test public void sampleRatePerClass() {
     Frame tfr = null;
     Key[] ksplits = null;
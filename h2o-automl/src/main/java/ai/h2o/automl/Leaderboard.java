@@ -225,6 +225,7 @@ public class Leaderboard extends Keyed<Leaderboard> {
         // new models, because the leaderboardFrame might have changed.
         updating.leaderboard_set_metrics = new IcedHashMap<>();
         Model model = null;
+        List<Model> modelsToScore = new ArrayList<>();
         for (Key<Model> aKey : updating.models) {
           model = aKey.get();
           if (null == model) {
@@ -239,14 +240,19 @@ public class Leaderboard extends Keyed<Leaderboard> {
           } else {
             mm = ModelMetrics.getFromDKV(model, leaderboardFrame);
             if (mm == null) {
-              //scores and magically stores the metrics where we're looking for it on the next line
-              model.score(leaderboardFrame).delete();
-              mm = ModelMetrics.getFromDKV(model, leaderboardFrame);
+              modelsToScore.add(model);
             }
           }
           if (mm != null) updating.leaderboard_set_metrics.put(mm._key, mm);
         }
 
+        if (!modelsToScore.isEmpty()) {
+          // Scores all the new models in one pass over the leaderboard frame, the metrics are also stored in the DKV
+          for (ModelMetrics mm : MultiModelMetricsTask.scoreMetrics(modelsToScore.toArray(new Model[0]), leaderboardFrame)) {
+            if (mm != null) updating.leaderboard_set_metrics.put(mm._key, mm);
+          }
+        }
+
         // Sort by metric on the leaderboard/test set or default model metrics.
         try {
           List<Key<Model>> modelsSorted = null;
@@ -151,6 +151,87 @@ public class ChunkBench {
     }
   }
 
+  /**
+   * Bulk vs. per-element decoding of a single chunk, per chunk type.
+   */
+  @State(Scope.Thread)
+  @Fork(value = 1)
+  @Warmup(iterations = 5)
+  @Measurement(iterations = 10)
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public static class ByType {
+
+    @Param({"C1N", "C1S", "C2S", "C4F", "CXI", "CXF", "CBS"})
+    private String type;
+    @Param({"100000"})
+    private int rows;
+    private Chunk chunk;
+    private double[] vals;
+    private int[] ids;
+
+    @Benchmark
+    public double perElementRead() {
+      final Chunk c = chunk;
+      double sum = 0;
+      for (int row = 0; row < rows; ++row)
+        sum += c.atd(row);
+      return sum;
+    }
+
+    @Benchmark
+    public double bulkRead() {
+      chunk.getDoubles(vals, 0, rows);
+      double sum = 0;
+      for (int row = 0; row < rows; ++row)
+        sum += vals[row];
+      return sum;
+    }
+
+    @Benchmark
+    public double perElementNonZeroRead() {
+      final Chunk c = chunk;
+      double sum = 0;
+      for (int row = c.nextNZ(-1); row < rows; row = c.nextNZ(row))
+        sum += c.atd(row);
+      return sum;
+    }
+
+    @Benchmark
+    public double bulkSparseRead() {
+      int n = chunk.getSparseDoubles(vals, ids);
+      double sum = 0;
+      for (int i = 0; i < n; ++i)
+        sum += vals[i];
+      return sum;
+    }
+
+    @Setup
+    public void setup() {
+      double[] raw = new double[rows];
+      for (int row = 0; row < rows; ++row)
+        raw[row] = get(type, row);
+      chunk = new NewChunk(raw).compress();
+      if (!chunk.getClass().getSimpleName().startsWith(type))
+        throw new IllegalStateException("Expected a " + type + "Chunk, got " + chunk.getClass().getSimpleName());
+      vals = new double[rows];
+      ids = new int[rows];
+    }
+
+    private static double get(String type, int i) {
+      switch (type) {
+        case "C1N": return i % 200;                         // 1 byte integer
+        case "C1S": return 1000 + i % 200;                  // 1 byte integer with a bias
+        case "C2S": return (i % 500) / 10.0;                // 2 byte fixed point decimal
+        case "C4F": return (float) Math.sqrt(i);            // float
+        case "CXI": return i % 100 == 0 ? i % 30000 : 0;    // sparse, 1% non-zeros
+        case "CXF": return i % 100 == 0 ? i * 0.5 + 0.25 : 0; // sparse floats, 1% non-zeros
+        case "CBS": return i % 3 == 0 ? 1 : 0;              // bits
+        default: throw H2O.unimpl();
+      }
+    }
+  }
+
   public static void main(String[] args) throws RunnerException {
     Options opt = new OptionsBuilder()
         .include(ChunkBench.class.getSimpleName())
@@ -1639,6 +1639,15 @@ public abstract class Model<M extends Model<M,P,O>, P extends Model.Parameters,
     return bs._mb;
   }
 
+  /**
+   * Whether metrics of this model can be computed by the default row scoring of {@link BigScore}
+   * ({@link #score0(Chunk[], double, int, double[], double[])} fed into {@link #makeMetricBuilder}) without making
+   * a prediction frame, see {@link MultiModelMetricsTask}. Models with their own scoring task keep the default false.
+   */
+  protected boolean canScoreMetricsRowwise() {
+    return false;
+  }
+
   protected class BigScore extends CMetricScoringTask<BigScore> implements BigScorePredict, BigScoreChunkPredict {
     final protected String[] _domain; // Prediction domain; union of test and train classes
     final protected int _npredcols;  // Number of columns in prediction; nclasses+1 - can be less than the prediction domain
@@ -0,0 +1,176 @@
+package hex;
+
+import hex.genmodel.utils.DistributionFamily;
+import water.Key;
+import water.MRTask;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.Vec;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes metrics of several models on one frame in a single pass: every chunk of the frame is visited once, each
+ * model scores its rows with {@link Model#score0(Chunk[], double, int, double[], double[])} and feeds one
+ * {@link ModelMetrics.MetricBuilder} per model. No prediction frames are made.
+ * <p/>
+ * Each model sees the frame adapted to its training frame ({@link Model#adaptTestForTrain}); the adapted frames
+ * share most of their Vecs, the task runs over their union.
+ * <p/>
+ * Models that need their own scoring task (see {@link Model#canScoreMetricsRowwise()}), need the predictions for
+ * their metrics (huber regression), or use a custom metric function are scored with {@link Model#score(Frame)}.
+ */
+public class MultiModelMetricsTask extends MRTask<MultiModelMetricsTask> {
+
+  // IN
+  private final Key<Model>[] _modelKeys;
+  private final int[][] _colIdx; // for each model: indices of its adapted columns in the union frame
+  private final String[][] _domains;
+  private final boolean[] _hasWeights;
+  // OUT
+  private ModelMetrics.MetricBuilder[] _mbs;
+
+  private transient Model[] _models;
+
+  private MultiModelMetricsTask(Key<Model>[] modelKeys, int[][] colIdx, String[][] domains, boolean[] hasWeights) {
+    _modelKeys = modelKeys;
+    _colIdx = colIdx;
+    _domains = domains;
+    _hasWeights = hasWeights;
+  }
+
+  /**
+   * Computes metrics of the given models on the frame. The metrics are stored in the DKV, so that
+   * {@link ModelMetrics#getFromDKV(Model, Frame)} finds them, as after {@link Model#score(Frame)}.
+   *
+   * @param models models to score
+   * @param fr frame with the response column
+   * @return model metrics in the order of the models
+   */
+  public static ModelMetrics[] scoreMetrics(Model[] models, Frame fr) {
+    ModelMetrics[] result = new ModelMetrics[models.length];
+    List<Integer> rowwise = new ArrayList<>();
+    for (int i = 0; i < models.length; i++) {
+      if (isRowwiseScorable(models[i], fr)) {
+        rowwise.add(i);
+      } else {
+        models[i].score(fr).delete();
+        result[i] = ModelMetrics.getFromDKV(models[i], fr);
+      }
+    }
+    if (rowwise.isEmpty())
+      return result;
+
+    final int n = rowwise.size();
+    Frame[] adaptedFrames = new Frame[n];
+    @SuppressWarnings("unchecked")
+    Key<Model>[] keys = new Key[n];
+    int[][] colIdx = new int[n][];
+    String[][] domains = new String[n][];
+    boolean[] hasWeights = new boolean[n];
+    Map<Key, Integer> unionIdx = new LinkedHashMap<>();
+    List<Vec> unionVecs = new ArrayList<>();
+    try {
+      for (int i = 0; i < n; i++) {
+        Model m = models[rowwise.get(i)];
+        Frame adaptFr = new Frame(fr);
+        adaptedFrames[i] = adaptFr;
+        m.adaptTestForTrain(adaptFr, true, true);
+        keys[i] = m._key;
+        domains[i] = metricsDomain(m, adaptFr);
+        hasWeights[i] = m._output.hasWeights() && adaptFr.find(m._output.weightsName()) >= 0;
+        colIdx[i] = new int[adaptFr.numCols()];
+        for (int c = 0; c < adaptFr.numCols(); c++) {
+          Vec v = adaptFr.vec(c);
+          Integer idx = unionIdx.get(v._key);
+          if (idx == null) {
+            idx = unionVecs.size();
+            unionIdx.put(v._key, idx);
+            unionVecs.add(v);
+          }
+          colIdx[i][c] = idx;
+        }
+      }
+      MultiModelMetricsTask task = new MultiModelMetricsTask(keys, colIdx, domains, hasWeights)
+              .doAll(unionVecs.toArray(new Vec[0]));
+      for (int i = 0; i < n; i++) {
+        int mi = rowwise.get(i);
+        task._mbs[i].postGlobal();
+        result[mi] = task._mbs[i].makeModelMetrics(models[mi], fr, adaptedFrames[i], null);
+      }
+      return result;
+    } finally {
+      for (Frame adaptFr : adaptedFrames)
+        if (adaptFr != null) Frame.deleteTempFrameAndItsNonSharedVecs(adaptFr, fr);
+    }
+  }
+
+  private static boolean isRowwiseScorable(Model m, Frame fr) {
+    if (!m.canScoreMetricsRowwise() || !m.isSupervised())
+      return false;
+    Vec response = fr.vec(m._output.responseName());
+    if (response == null || response.isBad())
+      return false;
+    if (m._output.hasWeights() && fr.find(m._output.weightsName()) < 0)
+      return false; // let the regular scoring report the missing weights
+    return m._parms._distribution != DistributionFamily.huber && m._parms._custom_metric_func == null;
+  }
+
+  // Same domain as the one Model#scoreMetrics gives the metric builder
+  private static String[] metricsDomain(Model m, Frame adaptFr) {
+    String[] domain = m._output.nclasses() == 1 ? null : adaptFr.vec(m._output.responseName()).domain();
+    if (domain == null && m._parms._distribution == DistributionFamily.quasibinomial)
+      domain = new String[]{"0", "1"};
+    return domain;
+  }
+
+  @Override
+  protected void setupLocal() {
+    _models = new Model[_modelKeys.length];
+    for (int i = 0; i < _modelKeys.length; i++)
+      _models[i] = _modelKeys[i].get();
+  }
+
+  @Override
+  public void map(Chunk[] cs) {
+    final int len = cs[0]._len;
+    _mbs = new ModelMetrics.MetricBuilder[_models.length];
+    final float[] actual = new float[1];
+    for (int i = 0; i < _models.length; i++) {
+      final Model m = _models[i];
+      final Model.Output output = m._output;
+      final ModelMetrics.MetricBuilder mb = m.makeMetricBuilder(_domains[i]);
+      _mbs[i] = mb;
+      final Chunk[] chks = new Chunk[_colIdx[i].length];
+      for (int c = 0; c < chks.length; c++)
+        chks[c] = cs[_colIdx[i][c]];
+      final Chunk weightsChunk = _hasWeights[i] ? chks[output.weightsIdx()] : null;
+      final Chunk offsetChunk = output.hasOffset() ? chks[output.offsetIdx()] : null;
+      final Chunk responseChunk = chks[output.responseIdx()];
+      final double[] tmp = new double[output.nfeatures()];
+      for (int row = 0; row < len; row++) {
+        double weight = weightsChunk != null ? weightsChunk.atd(row) : 1;
+        if (weight == 0) continue;
+        double offset = offsetChunk != null ? offsetChunk.atd(row) : 0;
+        double[] preds = m.score0(chks, offset, row, tmp, mb._work);
+        actual[0] = (float) responseChunk.atd(row);
+        mb.perRow(preds, actual, weight, offset, m);
+      }
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void reduce(MultiModelMetricsTask mrt) {
+    if (_mbs == null) {
+      _mbs = mrt._mbs;
+    } else if (mrt._mbs != null) {
+      for (int i = 0; i < _mbs.length; i++)
+        _mbs[i].reduce(mrt._mbs[i]);
+    }
+  }
+
+}
@@ -15,6 +15,9 @@ import water.util.PojoUtils;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.Map;
 
 /**
@@ -31,8 +34,9 @@ import java.util.Map;
  *
  * The job is started by the <code>startGridSearch</code> method which create a new grid search, put
  * representation of Grid into distributed KV store, and for each parameter in hyper space of
- * possible parameters, it launches a separated model building job. The launch of jobs is sequential
- * and blocking. So after finish the last model, whole grid search job is done as well.
+ * possible parameters, it launches a separated model building job. By default the launch of jobs is
+ * sequential and blocking, {@link HyperSpaceSearchCriteria#parallelism()} allows to build several models
+ * concurrently. After finish the last model, whole grid search job is done as well.
  *
  * By default, the grid search invokes cartezian grid search, but it can be
  * modified by passing explicit hyper space walk strategy via the
@@ -162,6 +166,11 @@ public final class GridSearch<MP extends Model.Parameters> extends Keyed<GridSea
   /**
    * Invokes grid search based on specified hyper space walk strategy.
    *
+   * Model parameters are generated sequentially by the hyper space iterator, but up to
+   * {@link HyperSpaceSearchCriteria#parallelism()} models are trained concurrently. The results of the builds are
+   * collected in the order the builds were started, so the grid is updated (models, failures, scoring infos and
+   * early stopping) exactly as if the models were built one by one.
+   *
    * It updates passed grid object in distributed store.
    *
    * @param grid grid object to save results; grid already locked
@@ -173,116 +182,189 @@ public final class GridSearch<MP extends Model.Parameters> extends Keyed<GridSea
     //                       ? grid._key + "_model_"
     //                       : _hyperSpaceWalker.getParams()._model_id.toString() + H2O.calcNextUniqueModelId("") + "_";
     String protoModelKey = grid._key + "_model_";
+    final int parallelism = getParallelism();
+    if (parallelism > 1)
+      Log.info("Grid search: building up to " + parallelism + " models in parallel for grid: " + grid._key);
+    // Model builds in progress, in the order they were started
+    final Deque<ModelBuild<MP>> running = new ArrayDeque<>();
 
     try {
       // Get iterator to traverse hyper space
       HyperSpaceWalker.HyperSpaceIterator<MP> it = _hyperSpaceWalker.iterator();
       // Number of traversed model parameters
       int counter = grid.getModelCount();
-      while (it.hasNext(model)) {
-        if (_job.stop_requested()) throw new Job.JobCancelledException();  // Handle end-user cancel request
-        double max_runtime_secs = it.max_runtime_secs();
-
-        double time_remaining_secs = Double.MAX_VALUE;
-        if (max_runtime_secs > 0) {
-          time_remaining_secs = it.time_remaining_secs();
-          if (time_remaining_secs < 0) {
-            Log.info("Grid max_runtime_secs of " + max_runtime_secs + " secs has expired; stopping early.");
-            throw new Job.JobCancelledException();
-          }
-        }
-
-        MP params;
-        try {
-          // Get parameters for next model
-          params = it.nextModelParameters(model);
-
-          // Sequential model building, should never propagate
-          // exception up, just mark combination of model parameters as wrong
+      boolean stopped = false;
+      while (true) {
+        while (!stopped && running.size() < parallelism && it.hasNext(model)) {
+          if (_job.stop_requested()) throw new Job.JobCancelledException();  // Handle end-user cancel request
+          double max_runtime_secs = it.max_runtime_secs();
 
-          // Do we need to limit the model build time?
+          double time_remaining_secs = Double.MAX_VALUE;
           if (max_runtime_secs > 0) {
-            Log.info("Grid time is limited to: " + max_runtime_secs + " for grid: " + grid._key + ". Remaining time is: " + time_remaining_secs);
-            if (params._max_runtime_secs == 0) { // unlimited
-              params._max_runtime_secs = time_remaining_secs;
-              Log.info("Due to the grid time limit, changing model max runtime to: " + params._max_runtime_secs + " secs.");
-            } else {
-              double was = params._max_runtime_secs;
-              params._max_runtime_secs = Math.min(params._max_runtime_secs, time_remaining_secs);
-              Log.info("Due to the grid time limit, changing model max runtime from: " + was + " secs to: " + params._max_runtime_secs + " secs.");
+            time_remaining_secs = it.time_remaining_secs();
+            if (time_remaining_secs < 0) {
+              Log.info("Grid max_runtime_secs of " + max_runtime_secs + " secs has expired; stopping early.");
+              throw new Job.JobCancelledException();
             }
           }
 
           try {
-            ScoringInfo scoringInfo = new ScoringInfo();
-            scoringInfo.time_stamp_ms = System.currentTimeMillis();
-
-            //// build the model!
-            model = buildModel(params, grid, ++counter, protoModelKey);
-            if (model != null) {
-              model.fillScoringInfo(scoringInfo);
-              grid.setScoringInfos(ScoringInfo.prependScoringInfo(scoringInfo, grid.getScoringInfos()));
-              ScoringInfo.sort(grid.getScoringInfos(), _hyperSpaceWalker.search_criteria().stopping_metric()); // Currently AUTO for Cartesian and user-specified for RandomDiscrete
+            // Get parameters for next model
+            MP params = it.nextModelParameters(model);
+
+            // Do we need to limit the model build time?
+            if (max_runtime_secs > 0) {
+              Log.info("Grid time is limited to: " + max_runtime_secs + " for grid: " + grid._key + ". Remaining time is: " + time_remaining_secs);
+              if (params._max_runtime_secs == 0) { // unlimited
+                params._max_runtime_secs = time_remaining_secs;
+                Log.info("Due to the grid time limit, changing model max runtime to: " + params._max_runtime_secs + " secs.");
+              } else {
+                double was = params._max_runtime_secs;
+                params._max_runtime_secs = Math.min(params._max_runtime_secs, time_remaining_secs);
+                Log.info("Due to the grid time limit, changing model max runtime from: " + was + " secs to: " + params._max_runtime_secs + " secs.");
+              }
             }
-          } catch (RuntimeException e) { // Catch everything
-            if (!Job.isCancelledException(e)) {
-              StringWriter sw = new StringWriter();
-              PrintWriter pw = new PrintWriter(sw);
-              e.printStackTrace(pw);
-              Log.warn("Grid search: model builder for parameters " + params + " failed! Exception: ", e, sw.toString());
+
+            //// start building the model!
+            ModelBuild<MP> build;
+            try {
+              build = startModel(params, grid, ++counter, protoModelKey, running);
+            } catch (RuntimeException e) { // reported when the build is collected
+              build = new ModelBuild<>(params, 0, null, null, null);
+              build._failure = e;
             }
-            
-            grid.appendFailedModelParameters(model != null ? model._key : null, params, e);
+            running.add(build);
+          } catch (IllegalArgumentException e) {
+            Log.warn("Grid search: construction of model parameters failed! Exception: ", e);
+            // Model parameters cannot be constructed for some reason
+            it.modelFailed(model);
+            Object[] rawParams = it.getCurrentRawParameters();
+            grid.appendFailedModelParameters(model != null ? model._key : null, rawParams, e);
+            // Update progress by 1 increment
+            _job.update(1);
+            // Always update grid in DKV after model building attempt
+            grid.update(_job);
           }
-        } catch (IllegalArgumentException e) {
-          Log.warn("Grid search: construction of model parameters failed! Exception: ", e);
-          // Model parameters cannot be constructed for some reason
-          it.modelFailed(model);
-          Object[] rawParams = it.getCurrentRawParameters();
-          grid.appendFailedModelParameters(model != null ? model._key : null, rawParams, e);
-        } finally {
-          // Update progress by 1 increment
-          _job.update(1);
-          // Always update grid in DKV after model building attempt
-          grid.update(_job);
-        } // finally
-
-        if (model != null && grid.getScoringInfos() != null && // did model build and scoringInfo creation succeed?
-            _hyperSpaceWalker.stopEarly(model, grid.getScoringInfos())) {
+        }
+        if (running.isEmpty()) break;
+
+        // Model building should never propagate exception up, just mark combination of model parameters as wrong
+        Model built = finishModel(running.poll(), grid, model);
+        if (built != null) model = built;
+
+        if (!stopped && built != null && grid.getScoringInfos() != null && // did model build and scoringInfo creation succeed?
+            _hyperSpaceWalker.stopEarly(built, grid.getScoringInfos())) {
           Log.info("Convergence detected based on simple moving average of the loss function. Grid building completed.");
-          break;
+          stopped = true; // let the models in progress finish
         }
-      } // while (it.hasNext(model))
+      } // while (true)
       Log.info("For grid: " + grid._key + " built: " + grid.getModelCount() + " models.");
     } finally {
+      // Cancelled - the builds in progress share the job and stop as well, wait for them and keep their results
+      while (!running.isEmpty()) {
+        Model built = finishModel(running.poll(), grid, model);
+        if (built != null) model = built;
+      }
       grid.unlock(_job);
     }
   }
 
   /**
-   * Build a model based on specified parameters and save it to resulting Grid object.
+   * Number of models to build concurrently, resolves the adaptive setting (0) based on the size of the training
+   * frame and the size of the cloud.
+   */
+  private int getParallelism() {
+    int parallelism = _hyperSpaceWalker.search_criteria().parallelism();
+    if (parallelism > 0) return parallelism;
+    return adaptiveParallelism(_hyperSpaceWalker.getParams().train(), H2O.getCloudSize() * H2O.ARGS.nthreads);
+  }
+
+  /**
+   * A model build keeps busy roughly as many threads as there are chunks in the training frame; small frames
+   * leave most of the cores of the cloud idle and more models can be trained at once. The number of concurrent
+   * builds is capped to bound the memory used by the builders.
+   */
+  static int adaptiveParallelism(Frame train, int cores) {
+    if (train == null) return 1;
+    int nChunks = Math.max(1, train.anyVec() != null ? train.anyVec().nChunks() : 1);
+    return Math.max(1, Math.min(cores / nChunks, MAX_ADAPTIVE_PARALLELISM));
+  }
+
+  /** Upper bound of the adaptive parallelism */
+  static final int MAX_ADAPTIVE_PARALLELISM = 16;
+
+  /**
+   * A model build - either in progress or an already existing model.
+   */
+  private static class ModelBuild<MP extends Model.Parameters> {
+    final MP _params;
+    final long _checksum;
+    final Key<Model> _key;
+    final long _startTime;
+    final H2O.H2OCountedCompleter _task; // null if the model was not built
+    final ModelBuild<MP> _duplicateOf;   // build in progress of the same parameters, if any
+    RuntimeException _failure;           // the build could not be started
+
+    ModelBuild(MP params, long checksum, Key<Model> key, H2O.H2OCountedCompleter task, ModelBuild<MP> duplicateOf) {
+      _params = params;
+      _checksum = checksum;
+      _key = key;
+      _startTime = System.currentTimeMillis();
+      _task = task;
+      _duplicateOf = duplicateOf;
+    }
+  }
+
+  private static class TrainModelTask extends H2O.H2OCountedCompleter<TrainModelTask> {
+    private final Job<?> _job;
+    private final Key<Model> _key;
+    private final Model.Parameters _params;
+
+    TrainModelTask(Job<?> job, Key<Model> key, Model.Parameters params) {
+      _job = job;
+      _key = key;
+      _params = params;
+    }
+
+    @Override
+    public void compute2() {
+      ModelBuilder.trainModelNested(_job, _key, _params, null);
+      tryComplete();
+    }
+  }
+
+  /**
+   * Start building a model based on specified parameters.
    *
    * Returns a model run with these parameters, typically built on demand and cached - expected to
    * be an expensive operation.  If the model in question is "in progress", a 2nd build will NOT be
-   * kicked off. This is a blocking call.
+   * kicked off. This is a non-blocking call, the result is collected by
+   * {@link #finishModel(ModelBuild, Grid, Model)}.
    *
    * If a new model is created, then the Grid object is updated in distributed store. If a model for
    * given parameters already exists, it is directly returned without updating the Grid object. If
-   * model building fails then the Grid object is not updated and the method returns
-   * <code>null</code>.
+   * model building fails then the Grid object is not updated and the result is <code>null</code>.
    *
    * @param params parameters for a new model
    * @param grid   grid object holding created models
    * @param paramsIdx  index of generated model parameter
    * @param protoModelKey  prototype of model key
-   * @return return a new model if it does not exist
+   * @param running model builds in progress
+   * @return the model build
    */
-  private Model buildModel(final MP params, Grid<MP> grid, int paramsIdx, String protoModelKey) {
+  private ModelBuild<MP> startModel(final MP params, Grid<MP> grid, int paramsIdx, String protoModelKey,
+                                    Collection<ModelBuild<MP>> running) {
     // Make sure that the model is not yet built (can be case of duplicated hyper parameters).
     // We first look in the grid _models cache, then we look in the DKV.
     // FIXME: get checksum here since model builder will modify instance of params!!!
 
     final long checksum = params.checksum();
+    for (ModelBuild<MP> b : running) {
+      if (b._task != null && b._checksum == checksum) {
+        Log.info("GridSearch.buildModel(): model with these parameters is being built, skipping; checksum: " + checksum);
+        return new ModelBuild<>(params, checksum, b._key, null, b);
+      }
+    }
     Key<Model> key = grid.getModelKey(checksum);
     if (key != null) {
       if (DKV.get(key) == null) {
@@ -290,7 +372,7 @@ public final class GridSearch<MP extends Model.Parameters> extends Keyed<GridSea
         Log.info("GridSearch.buildModel(): model with these parameters was built but removed, rebuilding; checksum: " + checksum);
       } else {
         Log.info("GridSearch.buildModel(): model with these parameters already exists, skipping; checksum: " + checksum);
-        return key.get();
+        return new ModelBuild<>(params, checksum, key, null, null);
       }
     }
 
@@ -331,7 +413,7 @@ public final class GridSearch<MP extends Model.Parameters> extends Keyed<GridSea
 
     if (modelKeys.length > 0) {
       grid.putModel(checksum, modelKeys[0]);
-      return modelKeys[0].get();
+      return new ModelBuild<>(params, checksum, modelKeys[0], null, null);
     }
 
 
@@ -339,12 +421,55 @@ public final class GridSearch<MP extends Model.Parameters> extends Keyed<GridSea
     // Note: Cannot create it before checking the cache since checksum would differ for each model
     Key<Model> result = Key.make(protoModelKey + paramsIdx);
     // Build a new model
-    // THIS IS BLOCKING call since we do not have enough information about free resources
-    // FIXME: we should allow here any launching strategy (not only sequential)
     assert grid.getModel(params) == null;
-    Model m = ModelBuilder.trainModelNested(_job, result, params, null);
-    grid.putModel(checksum, result);
-    return m;
+    return new ModelBuild<>(params, checksum, result, H2O.submitTask(new TrainModelTask(_job, result, params)), null);
+  }
+
+  /**
+   * Waits for a model build and records its result in the grid.
+   *
+   * @param build model build
+   * @param grid grid object holding created models
+   * @param previousModel the last model successfully built by this grid search
+   * @return the model or null if the model build failed
+   */
+  private Model finishModel(ModelBuild<MP> build, Grid<MP> grid, Model previousModel) {
+    Model model = null;
+    try {
+      ScoringInfo scoringInfo = new ScoringInfo();
+      scoringInfo.time_stamp_ms = build._startTime;
+
+      if (build._failure != null) {
+        throw build._failure;
+      } else if (build._task != null) {
+        build._task.join();
+        grid.putModel(build._checksum, build._key);
+      } else if (build._duplicateOf != null && grid.getModelKey(build._checksum) == null) {
+        throw new IllegalStateException("Model build with the same parameters failed, see the failure for model " + build._duplicateOf._key);
+      }
+      model = build._key.get();
+      if (model != null) {
+        model.fillScoringInfo(scoringInfo);
+        grid.setScoringInfos(ScoringInfo.prependScoringInfo(scoringInfo, grid.getScoringInfos()));
+        ScoringInfo.sort(grid.getScoringInfos(), _hyperSpaceWalker.search_criteria().stopping_metric()); // Currently AUTO for Cartesian and user-specified for RandomDiscrete
+      }
+    } catch (RuntimeException e) { // Catch everything
+      if (!Job.isCancelledException(e)) {
+        StringWriter sw = new StringWriter();
+        PrintWriter pw = new PrintWriter(sw);
+        e.printStackTrace(pw);
+        Log.warn("Grid search: model builder for parameters " + build._params + " failed! Exception: ", e, sw.toString());
+      }
+
+      grid.appendFailedModelParameters(previousModel != null ? previousModel._key : null, build._params, e);
+      model = null;
+    } finally {
+      // Update progress by 1 increment
+      _job.update(1);
+      // Always update grid in DKV after model building attempt
+      grid.update(_job);
+    }
+    return model;
   }
 
   /**
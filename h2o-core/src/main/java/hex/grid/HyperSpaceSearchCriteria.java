@@ -16,6 +16,20 @@ public class HyperSpaceSearchCriteria extends Iced {
 
   public ScoreKeeper.StoppingMetric stopping_metric() { return ScoreKeeper.StoppingMetric.AUTO; }
 
+  private int _parallelism = 1;
+
+  /**
+   * Number of models to build concurrently: 1 builds the models one by one, 0 picks the level of parallelism
+   * based on the size of the training frame and the size of the cloud.
+   */
+  public int parallelism() { return _parallelism; }
+
+  public void set_parallelism(int parallelism) {
+    if (parallelism < 0)
+      throw new IllegalArgumentException("Parallelism level must be a non-negative number, got: " + parallelism);
+    this._parallelism = parallelism;
+  }
+
 
 // TODO: add a factory which accepts a Strategy and calls the right constructor
 
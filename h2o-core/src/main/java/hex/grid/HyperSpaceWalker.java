@@ -505,8 +505,8 @@ public interface HyperSpaceWalker<MP extends Model.Parameters, C extends HyperSp
 
             // add max_runtime_secs in search criteria into params if applicable
             if (_search_criteria != null && _search_criteria.strategy() == HyperSpaceSearchCriteria.Strategy.RandomDiscrete) {
-              // ToDo: model seed setting will be different for parallel model building.
-              // ToDo: This implementation only works for sequential model building.
+              // Parameters are generated sequentially even when the models are built in parallel,
+              // so the model seeds do not depend on the parallelism.
               if (_set_model_seed_from_search_seed) {
                 // set model seed = search_criteria.seed+(0, 1, 2,..., model number)
                 params._seed = _search_criteria.seed() + (model_number++);
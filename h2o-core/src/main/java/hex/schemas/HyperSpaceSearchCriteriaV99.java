@@ -18,6 +18,9 @@ public class HyperSpaceSearchCriteriaV99<I extends HyperSpaceSearchCriteria, S e
   @API(help = "Hyperparameter space search strategy.", required = true, valuesProvider = StrategyValuesProvider.class, direction = API.Direction.INOUT)
   public HyperSpaceSearchCriteria.Strategy strategy;
 
+  @API(help = "Number of models to build in parallel: 1 for sequential building (default), 0 for adaptive parallelism based on the training frame and cloud size.", level = API.Level.secondary, direction = API.Direction.INOUT)
+  public int parallelism;
+
 // TODO: add a factory which accepts a Strategy and calls the right constructor
 
   /**
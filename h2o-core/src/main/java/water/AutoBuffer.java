@@ -8,6 +8,7 @@ import java.nio.channels.*;
 import java.util.ArrayList;
 import java.util.Random;
 
+import water.network.CompressedByteChannel;
 import water.network.SocketChannelUtils;
 import water.util.Log;
 import water.util.StringUtils;
@@ -435,19 +436,21 @@ public final class AutoBuffer {
             assert x == 0xab : "AB.close instead of 0xab sentinel got "+x+", "+this;
             assert _chan != null; // chan set by incoming reader, since we KNOW it is a TCP
             // Write the reader-handshake-byte.
-            SocketChannelUtils.underlyingSocketChannel(_chan).socket().getOutputStream().write(0xcd);
+            writeHandshake(0xcd);
             // do not close actually reader socket; recycle it in TCPReader thread
           } else {              // Writer?
             put1(0xab);         // Write one-more byte  ; might set _chan from null to not-null
             sendPartial();      // Finish partial writes; might set _chan from null to not-null
             assert _chan != null; // _chan is set not-null now!
             // Read the writer-handshake-byte.
-            int x = SocketChannelUtils.underlyingSocketChannel(_chan).socket().getInputStream().read();
+            int x = readHandshake();
             // either TCP con was dropped or other side closed connection without reading/confirming (e.g. task was cancelled).
             if( x == -1 ) throw new IOException("Other side closed connection before handshake byte read");
             assert x == 0xcd : "Handshake; writer expected a 0xcd from reader but got "+x;
+            if( _chan instanceof CompressedByteChannel ) _h2o.compressedTCPHandshake(true);
           }
         } catch( IOException ioe ) {
+          if( !_read && _chan instanceof CompressedByteChannel ) _h2o.compressedTCPHandshake(false);
           try { _chan.close(); } catch( IOException ignore ) {} // Silently close
           _chan = null;         // No channel now, since i/o error
           throw ioe;            // Rethrow after close
@@ -473,6 +476,28 @@ public final class AutoBuffer {
     return 0;
   }
 
+  // The close handshake byte goes through the compressed framing of a compressed channel, the peer reads
+  // it from there; on other channels it goes straight to the socket.
+  private void writeHandshake(int b) throws IOException {
+    if( _chan instanceof CompressedByteChannel ) {
+      ByteBuffer bb = ByteBuffer.allocate(1);
+      bb.put(0, (byte)b);
+      while( bb.hasRemaining() ) ((CompressedByteChannel)_chan).write(bb);
+    } else {
+      SocketChannelUtils.underlyingSocketChannel(_chan).socket().getOutputStream().write(b);
+    }
+  }
+
+  private int readHandshake() throws IOException {
+    if( _chan instanceof CompressedByteChannel ) {
+      ByteBuffer bb = ByteBuffer.allocate(1);
+      int n;
+      do { n = ((CompressedByteChannel)_chan).read(bb); } while( n == 0 );
+      return n < 0 ? -1 : (bb.get(0) & 0xFF);
+    }
+    return SocketChannelUtils.underlyingSocketChannel(_chan).socket().getInputStream().read();
+  }
+
   // Need a sock for a big read or write operation.
   // See if we got one already, else open a new socket.
   private void tcpOpen() throws IOException {
@@ -678,6 +703,7 @@ public final class AutoBuffer {
       }
       _time_io_ns += (System.nanoTime()-ns);
     } catch( IOException e ) {  // Some kind of TCP fail?
+      if( _chan instanceof CompressedByteChannel ) _h2o.compressedTCPHandshake(false);
       // Change to an unchecked exception (so we don't have to annotate every
       // frick'n put1/put2/put4/read/write call).  Retry & recovery happens at
       // a higher level.  AutoBuffers are used for many things including e.g.
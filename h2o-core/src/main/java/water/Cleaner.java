@@ -83,6 +83,7 @@ class Cleaner extends Thread {
       // the desired cache levels. Inverse: go back to sleep if the cache
       // is below desired levels & nothing has been dirty awhile.
       if( h._cached < DESIRED && // Cache is low and
+          h._offheap <= MemoryManager.offHeapDesired() && // off-heap tier is not over-full and
           (now-dirty < 5000) ) { // not dirty a long time
         // Block asleep, waking every 5 secs to check for stuff, or when poked
         block_store_cleaner();
@@ -105,6 +106,12 @@ class Cleaner extends Thread {
       // more than 5sec old
       if( !force ) clean_to_age = Math.max(clean_to_age,now-5000);
       if( DESIRED == -1 ) clean_to_age = now;  // Test mode: clean all
+      // Values demoted to the off-heap tier are kept there until the tier is
+      // above its desired level; then the eldest are spilled to disk and
+      // dropped from the tier.  Demoting from the heap is preferred to going
+      // straight to disk, for as long as there is room in the tier.
+      final boolean offheap = MemoryManager.offHeapMax() > 0;
+      long spill_offheap_age = h.clean_offheap_to(MemoryManager.offHeapDesired());
 
       // No logging if under memory pressure: can deadlock the cleaner thread
       String s = h+" DESIRED="+(DESIRED>>20)+"M dirtysince="+(now-dirty)+" force="+force+" clean2age="+(now-clean_to_age);
@@ -112,6 +119,8 @@ class Cleaner extends Thread {
       else                           System.err.println(s);
       long cleaned = 0;         // Disk i/o bytes
       long freed = 0;           // memory freed bytes
+      long demoted = 0;         // bytes copied to the off-heap tier
+      long released = 0;        // off-heap bytes released (not pinned by a reader)
       long io_ns = 0;           // i/o ns writing
 
       // For faster K/V store walking get the NBHM raw backing array,
@@ -125,6 +134,23 @@ class Cleaner extends Thread {
         if( !(ok instanceof Key  ) ) continue; // Ignore tombstones and Primes and null's
         if( !(ov instanceof Value) ) continue; // Ignore tombstones and Primes and null's
         Value val = (Value)ov;
+        // Off-heap copy too old for the off-heap goal?  Spill it to disk (if
+        // not already there) and drop the off-heap copy; it is released now,
+        // or by the last racing reader copying out of it.
+        if( val.isOffHeap() && val._lastAccessedTime <= spill_offheap_age && H2O.ARGS.cleaner ) {
+          if( !val.isPersisted() && !diskFull ) {
+            long now_ns = System.nanoTime();
+            try { val.storePersist(); cleaned += val._max; } // Write to disk, straight from the off-heap copy
+            catch( FileNotFoundException fnfe ) { continue; } // Can happen due to racing key delete/remove
+            catch( IOException e ) {
+              Log.warn("Disk swapping from off-heap failed! " + e.getMessage());
+              diskFull = true;
+            }
+            io_ns += System.nanoTime() - now_ns; // Accumulate i/o time
+          }
+          if( val.isPersisted() )
+            released += val.freeOffHeap();
+        }
         byte[] m = val.rawMem();
         Object p = val.rawPOJO();
         if( m == null && p == null ) continue; // Nothing to throw out
@@ -152,7 +178,11 @@ class Cleaner extends Thread {
 
         // Should I write this value out to disk?
         // Should I further force it from memory?
-        if( isChunk && !val.isPersisted() && !diskFull && ((Key)ok).home() ) { // && (force || (lazyPersist() && lazy_clean(key)))) {
+        // Demote to the off-heap tier instead, if there is room; a copy
+        // already there counts as written out.
+        if( isChunk && offheap && !val.isPersisted() && !val.isOffHeap() && ((Key)ok).home() && val.storeOffHeap() )
+          demoted += val._max;
+        if( isChunk && !val.isPersisted() && !val.isOffHeap() && !diskFull && ((Key)ok).home() ) { // && (force || (lazyPersist() && lazy_clean(key)))) {
           long now_ns = System.nanoTime();
           try { val.storePersist(); } // Write to disk
           catch( FileNotFoundException fnfe ) { continue; } // Can happen due to racing key delete/remove
@@ -169,7 +199,7 @@ class Cleaner extends Thread {
           io_ns += System.nanoTime() - now_ns; // Accumulate i/o time
         }
         // And, under pressure, free all
-        if( isChunk && force && (val.isPersisted() || !((Key)ok).home()) ) {
+        if( isChunk && force && (val.isPersisted() || val.isOffHeap() || !((Key)ok).home()) ) {
           val.freeMem ();  if( m != null ) freed += val._max;  m = null;
           val.freePOJO();  if( p != null ) freed += val._max;  p = null;
           if( isChunk ) freed -= val._max; // Double-counted freed mem for Chunks since val._pojo._mem & val._mem are the same.
@@ -187,7 +217,8 @@ class Cleaner extends Thread {
       }
 
       String s1 = "Cleaner pass took: "+PrettyPrint.msecs(System.currentTimeMillis()-now,true)+
-                  ", spilled "+PrettyPrint.bytes(cleaned)+" in "+PrettyPrint.usecs(io_ns>>10);
+                  ", spilled "+PrettyPrint.bytes(cleaned)+" in "+PrettyPrint.usecs(io_ns>>10)+
+                  (offheap ? ", off-heap demoted "+PrettyPrint.bytes(demoted)+" released "+PrettyPrint.bytes(released) : "");
       h = Histo.current(true); // Force a new histogram
       MemoryManager.set_goals("postclean",false);
       // No logging if under memory pressure: can deadlock the cleaner thread
@@ -226,8 +257,10 @@ class Cleaner extends Thread {
     // built nor blocking for one being in-progress.
     static long cached() { return H._cached; }
     static long swapped(){ return H._swapped;}
+    static long offheap(){ return H._offheap;}
 
     final long[] _hs = new long[128];
+    final long[] _ohs = new long[128]; // Same buckets, for the off-heap tier
     long _oldest; // Time of the oldest K/V discovered this pass
     long _eldest; // Time of the eldest K/V found in some prior pass
     long _hStep;  // Histogram step: (now-eldest)/histogram.length
@@ -235,6 +268,7 @@ class Cleaner extends Thread {
     long _total;  // Total data in local K/V
     long _when;   // When was this histogram computed
     long _swapped;// On-disk stuff
+    long _offheap;// Off-heap tier stuff
     Value _vold;  // For assertions: record the oldest Value
     boolean _clean; // Was "clean" K/V when built?
 
@@ -250,6 +284,7 @@ class Cleaner extends Thread {
       long cached = 0; // Total K/V cached in ram
       long total = 0;  // Total K/V in local node
       long swapped=0;  // Total K/V persisted
+      long offheap=0;  // Total K/V in the off-heap tier
       long oldest = Long.MAX_VALUE; // K/V with the longest time since being touched
       Value vold = null;
       // Start the walk at slot 2, because slots 0,1 hold meta-data
@@ -262,6 +297,10 @@ class Cleaner extends Thread {
         if( val.isNull() ) { Value.STORE_get(val._key); continue; } // Another flavor of NULL
         total += val._max;
         if( val.isPersisted() ) swapped += val._max;
+        if( val.isOffHeap() ) { // Off-heap bytes are aged on their own histogram
+          offheap += val._max;
+          _ohs[bucket(val._lastAccessedTime,eldest)] += val._max;
+        }
         int len = 0;
         byte[] m = val.rawMem();
         Object p = val.rawPOJO();
@@ -275,20 +314,40 @@ class Cleaner extends Thread {
           vold = val; // Record oldest Value seen
           oldest = val._lastAccessedTime;
         }
-        // Compute histogram bucket
-        int idx = (int)((val._lastAccessedTime - eldest)/_hStep);
-        if( idx < 0 ) idx = 0;
-        else if( idx >= _hs.length ) idx = _hs.length-1;
-        _hs[idx] += len;      // Bump histogram bucket
+        _hs[bucket(val._lastAccessedTime,eldest)] += len; // Bump histogram bucket
       }
       _cached = cached; // Total cached; NOTE: larger than sum of histogram buckets
       _total = total;   // Total used data
       _swapped = swapped;
+      _offheap = offheap;
       _oldest = oldest; // Oldest seen in this pass
       _vold = vold;
       _clean = clean && _dirty==Long.MAX_VALUE; // Looks like a clean K/V the whole time?
     }
 
+    // Compute histogram bucket
+    private int bucket( long lastAccessedTime, long eldest ) {
+      int idx = (int)((lastAccessedTime - eldest)/_hStep);
+      if( idx < 0 ) idx = 0;
+      else if( idx >= _hs.length ) idx = _hs.length-1;
+      return idx;
+    }
+
+    // Compute the time (in msec) for which we need to spill things out of the
+    // off-heap tier to hit the desired off-heap level.  Unlike the heap there
+    // is no lazy cleaning: nothing is spilled while the tier is below goal.
+    long clean_offheap_to( long desired ) {
+      if( _offheap <= desired ) return 0; // Already there; nothing to spill
+      long age = _eldest;       // Age of bucket zero
+      long s = 0;               // Total amount spilled
+      for( long t : _ohs ) {    // For all buckets...
+        s += t;                 // Raise amount spilled
+        age += _hStep;          // Raise age beyond which you need to go
+        if( _offheap - s <= desired ) break;
+      }
+      return age;
+    }
+
     // Compute the time (in msec) for which we need to throw out things
     // to throw out enough things to hit the desired cached memory level.
     long clean_to( long desired ) {
@@ -307,7 +366,7 @@ class Cleaner extends Thread {
     @Override public String toString() {
       long x = _eldest;
       long now = System.currentTimeMillis();
-      return "H(cached:"+(_cached>>20)+"M, eldest:"+x+"L < +"+(_oldest-x)+"ms <...{"+_hStep+"ms}...< +"+(_hStep*_hs.length)+"ms < +"+(now-x)+")";
+      return "H(cached:"+(_cached>>20)+"M, "+(_offheap > 0 ? "offheap:"+(_offheap>>20)+"M, " : "")+"eldest:"+x+"L < +"+(_oldest-x)+"ms <...{"+_hStep+"ms}...< +"+(_hStep*_hs.length)+"ms < +"+(now-x)+")";
     }
   }
 }
@@ -8,7 +8,9 @@ enum ExternalBackendRequestType {
   WRITE_TO_CHUNK((byte) 0),
   DOWNLOAD_FRAME((byte) 1),
   INIT_FRAME((byte) 2),
-  FINALIZE_FRAME((byte) 3);
+  FINALIZE_FRAME((byte) 3),
+  WRITE_COLUMNS_TO_CHUNK((byte) 4),
+  DOWNLOAD_COLUMNS((byte) 5);
 
   private final byte num;
 
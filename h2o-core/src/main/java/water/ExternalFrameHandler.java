@@ -19,6 +19,9 @@ import java.nio.channels.ByteChannel;
  * <p>When reading the data, it is expected that h2o frame is in DKV. To read more about the reading API, please read
  * documentation of {@link ExternalFrameReaderClient}</p>
  *
+ * <p>Both directions also have a column batch mode, in which all values of one column of the chunk are transferred at
+ * once as a typed array rather than value by value, see {@link ExternalFrameUtils#putNAs}.</p>
+ *
  *
  */
 final class ExternalFrameHandler {
@@ -64,12 +67,19 @@ final class ExternalFrameHandler {
                 break;
             case DOWNLOAD_FRAME:
                 ExternalFrameReaderBackend.readFromChunk(sock, ab);
+                break;
             case INIT_FRAME:
                 ExternalFrameWriterBackend.initFrame(sock, ab);
                 break;
             case FINALIZE_FRAME:
                 ExternalFrameWriterBackend.finalizeFrame(sock, ab);
                 break;
+            case WRITE_COLUMNS_TO_CHUNK:
+                ExternalFrameWriterBackend.writeColumnsToChunk(sock, ab);
+                break;
+            case DOWNLOAD_COLUMNS:
+                ExternalFrameReaderBackend.readColumnsFromChunk(sock, ab);
+                break;
         }
     }
 }
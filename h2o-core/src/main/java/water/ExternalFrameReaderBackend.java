@@ -90,4 +90,110 @@ final class ExternalFrameReaderBackend {
             }
         }
     }
+
+    /**
+     * Column batch counterpart of {@link #readFromChunk}: sends the number of rows and then every selected column as
+     * one typed array, see {@link ExternalFrameUtils#putNAs}
+     * @param channel socket channel originating from non-h2o node
+     * @param initAb {@link AutoBuffer} containing information necessary for preparing backend for reading
+     */
+    static void readColumnsFromChunk(ByteChannel channel, AutoBuffer initAb) throws IOException {
+        String frameKey = initAb.getStr();
+        int chunkIdx = initAb.getInt();
+        byte[] expectedTypes = initAb.getA1();
+        assert expectedTypes != null : "Expected types can't be null";
+        int[] selectedColumnIndices = initAb.getA4();
+        assert selectedColumnIndices != null : "Selected column indices can't be null";
+        Frame fr = DKV.getGet(frameKey);
+        Chunk[] chunks = ChunkUtils.getChunks(fr, chunkIdx);
+        final int numRows = chunks[0]._len;
+
+        AutoBuffer ab = new AutoBuffer();
+        ab.putInt(numRows);
+        writeToChannel(ab, channel);
+        for (int i = 0; i < selectedColumnIndices.length; i++) {
+            putColumn(ab, chunks[selectedColumnIndices[i]], expectedTypes[i]);
+            writeToChannel(ab, channel);
+        }
+    }
+
+    private static void putColumn(AutoBuffer ab, Chunk chnk, byte expectedType) {
+        final int numRows = chnk._len;
+        switch (expectedType) {
+            case EXPECTED_BOOL:
+            case EXPECTED_BYTE: {
+                byte[] data = new byte[numRows];
+                for (int row = 0; row < numRows; row++) data[row] = (byte) at8(chnk, row);
+                putNAs(ab, nas(chnk));
+                ab.putA1(data);
+                break;
+            }
+            case EXPECTED_CHAR:
+            case EXPECTED_SHORT: {
+                short[] data = new short[numRows];
+                for (int row = 0; row < numRows; row++) data[row] = (short) at8(chnk, row);
+                putNAs(ab, nas(chnk));
+                ab.putA2(data);
+                break;
+            }
+            case EXPECTED_INT: {
+                int[] data = new int[numRows];
+                for (int row = 0; row < numRows; row++) data[row] = (int) at8(chnk, row);
+                putNAs(ab, nas(chnk));
+                ab.putA4(data);
+                break;
+            }
+            case EXPECTED_LONG:
+            case EXPECTED_TIMESTAMP: {
+                long[] data = new long[numRows];
+                for (int row = 0; row < numRows; row++) data[row] = at8(chnk, row);
+                putNAs(ab, nas(chnk));
+                ab.putA8(data);
+                break;
+            }
+            case EXPECTED_FLOAT: {
+                float[] data = new float[numRows];
+                for (int row = 0; row < numRows; row++) data[row] = (float) chnk.atd(row);
+                ab.putA4f(data);
+                break;
+            }
+            case EXPECTED_DOUBLE:
+                ab.putA8d(chnk.getDoubles(new double[numRows], 0, numRows));
+                break;
+            case EXPECTED_STRING: {
+                String[] data = new String[numRows];
+                if (chnk.vec().isCategorical()) {
+                    String[] domain = chnk.vec().domain();
+                    for (int row = 0; row < numRows; row++) data[row] = chnk.isNA(row) ? null : domain[(int) chnk.at8(row)];
+                } else if (chnk.vec().isString()) {
+                    BufferedString valStr = new BufferedString();
+                    for (int row = 0; row < numRows; row++) data[row] = chnk.isNA(row) ? null : chnk.atStr(valStr, row).toString();
+                } else if (chnk.vec().isUUID()) {
+                    for (int row = 0; row < numRows; row++)
+                        data[row] = chnk.isNA(row) ? null : new UUID(chnk.at16h(row), chnk.at16l(row)).toString();
+                } else {
+                    assert false : "Can never be here";
+                }
+                putStringColumn(ab, data);
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown expected type " + expectedType);
+        }
+    }
+
+    private static long at8(Chunk chnk, int row) {
+        return chnk.isNA(row) ? 0 : chnk.at8(row);
+    }
+
+    private static boolean[] nas(Chunk chnk) {
+        boolean[] isNA = null;
+        for (int row = 0; row < chnk._len; row++) {
+            if (chnk.isNA(row)) {
+                if (isNA == null) isNA = new boolean[chnk._len];
+                isNA[row] = true;
+            }
+        }
+        return isNA;
+    }
 }
@@ -49,10 +49,24 @@ import static water.ExternalFrameUtils.writeToChannel;
  * }
  * </pre>
  * </p>
+ *
+ * <p>
+ * In the column batch mode, all the values of one selected column are read at once, column after column:</br>
+ * <pre>
+ * {@code
+ * ExternalFrameReaderClient reader = new ExternalFrameReaderClient(channel, "frameName", 0, selectedColumnIndices, expectedTypes, true);
+ * boolean[] b = reader.readBooleanColumn();
+ * boolean[] bNAs = reader.getLastColumnNAs(); // null if there are no NAs
+ * int[] i = reader.readIntColumn();
+ * }
+ * </pre>
+ * </p>
  */
 final public class ExternalFrameReaderClient {
 
     private boolean isLastNA = false;
+    private boolean[] lastColumnNAs = null;
+    private boolean columnar;
     private AutoBuffer ab;
     private String frameKey;
     private int chunkIdx;
@@ -69,7 +83,21 @@ final public class ExternalFrameReaderClient {
      * @param expectedTypes         expected types
      */
     public ExternalFrameReaderClient(ByteChannel channel, String frameKey, int chunkIdx, int[] selectedColumnIndices, byte[] expectedTypes) throws IOException {
+        this(channel, frameKey, chunkIdx, selectedColumnIndices, expectedTypes, false);
+    }
+
+    /**
+     * @param channel               channel to h2o node
+     * @param frameKey              name of frame we want to read from
+     * @param chunkIdx              chunk index from we want to read
+     * @param selectedColumnIndices indices of columns we want to read from
+     * @param expectedTypes         expected types
+     * @param columnar              read whole columns using the read*Column methods rather than single values
+     */
+    public ExternalFrameReaderClient(ByteChannel channel, String frameKey, int chunkIdx, int[] selectedColumnIndices, byte[] expectedTypes,
+                                     boolean columnar) throws IOException {
         this.channel = channel;
+        this.columnar = columnar;
         this.frameKey = frameKey;
         this.chunkIdx = chunkIdx;
         this.expectedTypes = expectedTypes;
@@ -79,8 +107,13 @@ final public class ExternalFrameReaderClient {
 
     public static ExternalFrameReaderClient create(String ip, int port, short timestamp, 
                                                    String frameKey, int chunkIdx, int[] selectedColumnIndices, byte[] expectedTypes) throws IOException {
+        return create(ip, port, timestamp, frameKey, chunkIdx, selectedColumnIndices, expectedTypes, false);
+    }
+
+    public static ExternalFrameReaderClient create(String ip, int port, short timestamp, String frameKey, int chunkIdx,
+                                                   int[] selectedColumnIndices, byte[] expectedTypes, boolean columnar) throws IOException {
         ByteChannel channel = ExternalFrameUtils.getConnection(ip, port, timestamp);
-        return new ExternalFrameReaderClient(channel, frameKey, chunkIdx, selectedColumnIndices, expectedTypes);
+        return new ExternalFrameReaderClient(channel, frameKey, chunkIdx, selectedColumnIndices, expectedTypes, columnar);
     }
     
     public void close() throws IOException {
@@ -151,6 +184,81 @@ final public class ExternalFrameReaderClient {
         return data;
     }
 
+    public boolean[] readBooleanColumn() {
+        lastColumnNAs = ExternalFrameUtils.getNAs(ab, numRows);
+        byte[] bytes = ab.getA1();
+        boolean[] data = new boolean[numRows];
+        for (int i = 0; i < numRows; i++) data[i] = bytes[i] == 1;
+        return data;
+    }
+
+    public byte[] readByteColumn() {
+        lastColumnNAs = ExternalFrameUtils.getNAs(ab, numRows);
+        return ab.getA1();
+    }
+
+    public char[] readCharColumn() {
+        lastColumnNAs = ExternalFrameUtils.getNAs(ab, numRows);
+        short[] shorts = ab.getA2();
+        char[] data = new char[numRows];
+        for (int i = 0; i < numRows; i++) data[i] = (char) shorts[i];
+        return data;
+    }
+
+    public short[] readShortColumn() {
+        lastColumnNAs = ExternalFrameUtils.getNAs(ab, numRows);
+        return ab.getA2();
+    }
+
+    public int[] readIntColumn() {
+        lastColumnNAs = ExternalFrameUtils.getNAs(ab, numRows);
+        return ab.getA4();
+    }
+
+    public long[] readLongColumn() {
+        lastColumnNAs = ExternalFrameUtils.getNAs(ab, numRows);
+        return ab.getA8();
+    }
+
+    /**
+     * @return values of the column, NaN is NA
+     */
+    public float[] readFloatColumn() {
+        lastColumnNAs = null;
+        return ab.getA4f();
+    }
+
+    /**
+     * @return values of the column, NaN is NA
+     */
+    public double[] readDoubleColumn() {
+        lastColumnNAs = null;
+        return ab.getA8d();
+    }
+
+    /**
+     * @return values of the column, null is NA
+     */
+    public String[] readStringColumn() {
+        lastColumnNAs = null;
+        return ExternalFrameUtils.getStringColumn(ab, numRows);
+    }
+
+    /**
+     * @return values of the column as milliseconds since the epoch
+     */
+    public long[] readTimestampColumn() {
+        return readLongColumn();
+    }
+
+    /**
+     * NA rows of the last column read by the read*Column methods, null if the column has no NAs
+     * (NAs of float, double and string columns are in the values themselves)
+     */
+    public boolean[] getLastColumnNAs() {
+        return lastColumnNAs;
+    }
+
     /**
      * This method is used to check if the last received value was marked as NA by H2O backend
      */
@@ -161,7 +269,7 @@ final public class ExternalFrameReaderClient {
     private AutoBuffer initAndGetAb() throws IOException {
         AutoBuffer sentAb = new AutoBuffer();
         sentAb.put1(ExternalFrameHandler.INIT_BYTE);
-        sentAb.put1(ExternalBackendRequestType.DOWNLOAD_FRAME.getByte());
+        sentAb.put1(columnar ? ExternalBackendRequestType.DOWNLOAD_COLUMNS.getByte() : ExternalBackendRequestType.DOWNLOAD_FRAME.getByte());
         sentAb.putStr(frameKey);
         sentAb.putInt(chunkIdx);
         sentAb.putA1(expectedTypes);
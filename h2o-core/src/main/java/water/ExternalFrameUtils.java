@@ -6,6 +6,8 @@ import water.network.SocketChannelFactory;
 import java.io.IOException;
 import java.nio.channels.ByteChannel;
 import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
 
 import static water.ExternalFrameHandler.*;
 
@@ -308,9 +310,82 @@ public class ExternalFrameUtils {
         writeToChannel(ab, channel);
     }
 
+    /**
+     * Column batches: all the values of one column of a chunk are sent at once, as an array of the primitive type
+     * preceded by a bitmap of the NA rows (null if the column has no NAs).  Floats and doubles use NaN for NA and
+     * have no bitmap.  Strings are dictionary encoded, the distinct values followed by the index of every row's value
+     * in them, -1 for NA.
+     */
+    static void putNAs(AutoBuffer ab, boolean[] isNA) {
+        byte[] bits = null;
+        if (isNA != null) {
+            for (int i = 0; i < isNA.length; i++) {
+                if (isNA[i]) {
+                    if (bits == null) bits = new byte[(isNA.length + 7) >> 3];
+                    bits[i >> 3] |= 1 << (i & 7);
+                }
+            }
+        }
+        ab.putA1(bits);
+    }
+
+    /**
+     * Reads the NA bitmap written by {@link #putNAs}, null if there are no NAs
+     */
+    static boolean[] getNAs(AutoBuffer ab, int numRows) {
+        byte[] bits = ab.getA1();
+        if (bits == null) return null;
+        boolean[] isNA = new boolean[numRows];
+        for (int i = 0; i < numRows; i++) {
+            isNA[i] = (bits[i >> 3] & (1 << (i & 7))) != 0;
+        }
+        return isNA;
+    }
+
+    /**
+     * Dictionary encodes the strings, null is NA
+     */
+    static void putStringColumn(AutoBuffer ab, String[] data) {
+        HashMap<String, Integer> dict = new HashMap<>();
+        int[] codes = new int[data.length];
+        for (int i = 0; i < data.length; i++) {
+            if (data[i] == null) {
+                codes[i] = -1;
+            } else {
+                Integer code = dict.get(data[i]);
+                if (code == null) {
+                    code = dict.size();
+                    dict.put(data[i], code);
+                }
+                codes[i] = code;
+            }
+        }
+        String[] values = new String[dict.size()];
+        for (Map.Entry<String, Integer> e : dict.entrySet()) {
+            values[e.getValue()] = e.getKey();
+        }
+        ab.putAStr(values);
+        ab.putA4(codes);
+    }
+
+    /**
+     * Reads the strings written by {@link #putStringColumn}
+     */
+    static String[] getStringColumn(AutoBuffer ab, int numRows) {
+        String[] values = ab.getAStr();
+        int[] codes = ab.getA4();
+        String[] data = new String[numRows];
+        for (int i = 0; i < numRows; i++) {
+            data[i] = codes[i] < 0 ? null : values[codes[i]];
+        }
+        return data;
+    }
+
     public static void writeToChannel(AutoBuffer ab, ByteChannel channel) throws IOException {
         ab.flipForReading();
-        channel.write(ab._bb);
+        while (ab._bb.hasRemaining()) { // a non-blocking or a socket channel can write the buffer partially
+            channel.write(ab._bb);
+        }
         ab.clearForWriting(H2O.MAX_PRIORITY);
     }
 }
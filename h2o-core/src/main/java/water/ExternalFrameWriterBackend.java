@@ -2,6 +2,7 @@ package water;
 
 import water.fvec.ChunkUtils;
 import water.fvec.NewChunk;
+import water.parser.BufferedString;
 
 import java.io.IOException;
 import java.nio.channels.ByteChannel;
@@ -88,6 +89,95 @@ final class ExternalFrameWriterBackend {
         notifyRequestFinished(sock, ExternalBackendRequestType.WRITE_TO_CHUNK.getByte());
     }
 
+    /**
+     * Column batch counterpart of {@link #writeToChunk}: the values arrive column after column, each column as one
+     * typed array, see {@link ExternalFrameUtils#putNAs}
+     */
+    static void writeColumnsToChunk(ByteChannel sock, AutoBuffer ab) throws IOException {
+        String frameKey = ab.getStr();
+        byte[] expectedTypes = ab.getA1();
+        if (expectedTypes == null) {
+            throw new RuntimeException("Expected types can't be null.");
+        }
+        int numRows = ab.getInt();
+        int chunkId = ab.getInt();
+        for (byte expectedType : expectedTypes) {
+            if (expectedType == EXPECTED_VECTOR) {
+                throw new IllegalArgumentException("Vectors can't be sent as column batches, send their elements as double columns");
+            }
+        }
+        byte[] vecTypes = vecTypesFromExpectedTypes(expectedTypes, EMPTY_ARI);
+        NewChunk[] nchnk = ChunkUtils.createNewChunks(frameKey, vecTypes, chunkId);
+        assert nchnk != null;
+        for (int colIdx = 0; colIdx < expectedTypes.length; colIdx++) {
+            storeColumn(ab, nchnk[colIdx], expectedTypes[colIdx], numRows);
+        }
+        ChunkUtils.closeNewChunks(nchnk);
+        notifyRequestFinished(sock, ExternalBackendRequestType.WRITE_COLUMNS_TO_CHUNK.getByte());
+    }
+
+    private static void storeColumn(AutoBuffer ab, NewChunk chunk, byte expectedType, int numRows) {
+        switch (expectedType) {
+            case EXPECTED_BOOL: // fall through to byte since BOOL is internally stored in frame as number (byte)
+            case EXPECTED_BYTE: {
+                boolean[] isNA = getNAs(ab, numRows);
+                byte[] data = ab.getA1();
+                for (int i = 0; i < numRows; i++) store(chunk, isNA, i, data[i]);
+                break;
+            }
+            case EXPECTED_CHAR: {
+                boolean[] isNA = getNAs(ab, numRows);
+                short[] data = ab.getA2();
+                for (int i = 0; i < numRows; i++) store(chunk, isNA, i, (char) data[i]);
+                break;
+            }
+            case EXPECTED_SHORT: {
+                boolean[] isNA = getNAs(ab, numRows);
+                short[] data = ab.getA2();
+                for (int i = 0; i < numRows; i++) store(chunk, isNA, i, data[i]);
+                break;
+            }
+            case EXPECTED_INT: {
+                boolean[] isNA = getNAs(ab, numRows);
+                int[] data = ab.getA4();
+                for (int i = 0; i < numRows; i++) store(chunk, isNA, i, data[i]);
+                break;
+            }
+            case EXPECTED_TIMESTAMP: // fall through to long since TIMESTAMP is internally stored in frame as long
+            case EXPECTED_LONG: {
+                boolean[] isNA = getNAs(ab, numRows);
+                long[] data = ab.getA8();
+                for (int i = 0; i < numRows; i++) store(chunk, isNA, i, data[i]);
+                break;
+            }
+            case EXPECTED_FLOAT: {
+                float[] data = ab.getA4f();
+                for (int i = 0; i < numRows; i++) store(chunk, data[i]);
+                break;
+            }
+            case EXPECTED_DOUBLE:
+                // NaN is NA in the double representation of NewChunk, the array is taken as it is
+                chunk.setDoubles(ab.getA8d());
+                break;
+            case EXPECTED_STRING: {
+                String[] values = ab.getAStr();
+                int[] codes = ab.getA4();
+                BufferedString[] dict = new BufferedString[values.length];
+                for (int i = 0; i < values.length; i++) dict[i] = new BufferedString(values[i]);
+                for (int i = 0; i < numRows; i++) {
+                    if (codes[i] < 0) {
+                        chunk.addNA();
+                    } else {
+                        chunk.addStr(dict[codes[i]]);
+                    }
+                }
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown expected type: " + expectedType);
+        }
+    }
+
     private static void storeVector(AutoBuffer ab, NewChunk[] nchnk, int maxVecSize, int startPos){
       boolean isSparse = ab.getZ();
       if(isSparse){
@@ -140,6 +230,14 @@ final class ExternalFrameWriterBackend {
         }
     }
 
+    private static void store(NewChunk chunk, boolean[] isNA, int row, long data){
+        if(isNA != null && isNA[row]){
+            chunk.addNA();
+        }else{
+            chunk.addNum(data, 0);
+        }
+    }
+
     private static void store(NewChunk chunk, double data){
         if(isNA(data)){
             chunk.addNA();
@@ -44,6 +44,19 @@ import static water.ExternalFrameUtils.writeToChannel;
  * </pre>
  * </p>
  *
+ * <p> Alternatively, whole columns of the chunk can be sent at once, which is much cheaper for wide frames: the values of
+ * a column travel as one typed array and the backend builds the chunk of the column in one go. Columns are sent in the
+ * order of the expected types, NAs are marked in the optional {@code isNA} arrays (NaN for floats and doubles, null
+ * for strings):
+ * <pre>
+ * {@code
+ * writer.createColumnarChunk("frameName", expectedTypes, chunkIdx, numOfRowsToBeWritten);
+ * writer.sendBooleanColumn(bools, null);
+ * writer.sendIntColumn(ints, intNAs);
+ * }
+ * </pre>
+ * </p>
+ *
  * <p> At last, finalize the frame
  * <pre>
  * writer.finalizeFrame("frameName, rowsPerChunk, colTypes, domains);
@@ -111,6 +124,28 @@ final public class ExternalFrameWriterClient {
     writeToChannel(ab, channel);
   }
 
+  /**
+   * Create single chunk on the already existing empty frame, its data are then sent column by column
+   * using the send*Column methods.
+   *
+   * @param frameKey      name of the frame
+   * @param expectedTypes expected types, vectors are not supported
+   * @param chunkId       chunk index
+   * @param totalNumRows  total number of rows which is about to be sent
+   */
+  public void createColumnarChunk(String frameKey, byte[] expectedTypes, int chunkId, int totalNumRows) throws IOException {
+    ab.put1(ExternalFrameHandler.INIT_BYTE);
+    ab.put1(ExternalBackendRequestType.WRITE_COLUMNS_TO_CHUNK.getByte());
+    ab.putStr(frameKey);
+    this.expectedTypes = expectedTypes;
+    this.numCols = expectedTypes.length;
+    this.numRows = totalNumRows;
+    ab.putA1(expectedTypes);
+    ab.putInt(totalNumRows);
+    ab.putInt(chunkId);
+    writeToChannel(ab, channel);
+  }
+
   public void finalizeFrame(String keyName, long[] rowsPerChunk, byte[] colTypes, String[][] domains)
       throws IOException, ExternalFrameConfirmationException {
     byte requestType = ExternalBackendRequestType.FINALIZE_FRAME.getByte();
@@ -196,6 +231,91 @@ final public class ExternalFrameWriterClient {
     increaseCurrentColIdx();
   }
 
+  public void sendBooleanColumn(boolean[] data, boolean[] isNA) throws IOException, ExternalFrameConfirmationException {
+    checkColumn(ExternalFrameUtils.EXPECTED_BOOL, data.length, isNA);
+    byte[] bytes = new byte[data.length];
+    for (int i = 0; i < data.length; i++) bytes[i] = data[i] ? (byte) 1 : (byte) 0;
+    ExternalFrameUtils.putNAs(ab, isNA);
+    ab.putA1(bytes);
+    increaseCurrentColumnIdx();
+  }
+
+  public void sendByteColumn(byte[] data, boolean[] isNA) throws IOException, ExternalFrameConfirmationException {
+    checkColumn(ExternalFrameUtils.EXPECTED_BYTE, data.length, isNA);
+    ExternalFrameUtils.putNAs(ab, isNA);
+    ab.putA1(data);
+    increaseCurrentColumnIdx();
+  }
+
+  public void sendCharColumn(char[] data, boolean[] isNA) throws IOException, ExternalFrameConfirmationException {
+    checkColumn(ExternalFrameUtils.EXPECTED_CHAR, data.length, isNA);
+    short[] shorts = new short[data.length];
+    for (int i = 0; i < data.length; i++) shorts[i] = (short) data[i];
+    ExternalFrameUtils.putNAs(ab, isNA);
+    ab.putA2(shorts);
+    increaseCurrentColumnIdx();
+  }
+
+  public void sendShortColumn(short[] data, boolean[] isNA) throws IOException, ExternalFrameConfirmationException {
+    checkColumn(ExternalFrameUtils.EXPECTED_SHORT, data.length, isNA);
+    ExternalFrameUtils.putNAs(ab, isNA);
+    ab.putA2(data);
+    increaseCurrentColumnIdx();
+  }
+
+  public void sendIntColumn(int[] data, boolean[] isNA) throws IOException, ExternalFrameConfirmationException {
+    checkColumn(ExternalFrameUtils.EXPECTED_INT, data.length, isNA);
+    ExternalFrameUtils.putNAs(ab, isNA);
+    ab.putA4(data);
+    increaseCurrentColumnIdx();
+  }
+
+  public void sendLongColumn(long[] data, boolean[] isNA) throws IOException, ExternalFrameConfirmationException {
+    checkColumn(ExternalFrameUtils.EXPECTED_LONG, data.length, isNA);
+    putLongColumn(data, isNA);
+  }
+
+  /**
+   * @param data values, NaN is NA
+   */
+  public void sendFloatColumn(float[] data) throws IOException, ExternalFrameConfirmationException {
+    checkColumn(ExternalFrameUtils.EXPECTED_FLOAT, data.length, null);
+    ab.putA4f(data);
+    increaseCurrentColumnIdx();
+  }
+
+  /**
+   * @param data values, NaN is NA
+   */
+  public void sendDoubleColumn(double[] data) throws IOException, ExternalFrameConfirmationException {
+    checkColumn(ExternalFrameUtils.EXPECTED_DOUBLE, data.length, null);
+    ab.putA8d(data);
+    increaseCurrentColumnIdx();
+  }
+
+  /**
+   * @param data values, null is NA
+   */
+  public void sendStringColumn(String[] data) throws IOException, ExternalFrameConfirmationException {
+    checkColumn(ExternalFrameUtils.EXPECTED_STRING, data.length, null);
+    ExternalFrameUtils.putStringColumn(ab, data);
+    increaseCurrentColumnIdx();
+  }
+
+  /**
+   * @param data milliseconds since the epoch
+   */
+  public void sendTimestampColumn(long[] data, boolean[] isNA) throws IOException, ExternalFrameConfirmationException {
+    checkColumn(ExternalFrameUtils.EXPECTED_TIMESTAMP, data.length, isNA);
+    putLongColumn(data, isNA);
+  }
+
+  private void putLongColumn(long[] data, boolean[] isNA) throws IOException, ExternalFrameConfirmationException {
+    ExternalFrameUtils.putNAs(ab, isNA);
+    ab.putA8(data);
+    increaseCurrentColumnIdx();
+  }
+
   public int getNumberOfWrittenRows() {
     return currentRowIdx;
   }
@@ -214,6 +334,31 @@ final public class ExternalFrameWriterClient {
     }
   }
 
+  // Rejects a column the backend would read as another type, before anything is written to the channel
+  private void checkColumn(byte type, int length, boolean[] isNA) {
+    if (expectedTypes == null || currentColIdx >= numCols) {
+      throw new IllegalStateException("No more columns are expected, create a columnar chunk first");
+    }
+    if (expectedTypes[currentColIdx] != type) {
+      throw new IllegalArgumentException("Column " + currentColIdx + " is expected to be of type " +
+          expectedTypes[currentColIdx] + ", got a column of type " + type);
+    }
+    if (length != numRows || (isNA != null && isNA.length != numRows)) {
+      throw new IllegalArgumentException("Column " + currentColIdx + " has to have " + numRows + " values, got " + length);
+    }
+  }
+
+  // Every column is written to the channel right away, the backend confirms the chunk after the last one
+  private void increaseCurrentColumnIdx() throws IOException, ExternalFrameConfirmationException {
+    writeToChannel(ab, channel);
+    currentColIdx++;
+    if (currentColIdx == numCols) {
+      currentRowIdx = numRows;
+      waitForRequestToFinish(timeout, ExternalBackendRequestType.WRITE_COLUMNS_TO_CHUNK.getByte());
+      currentColIdx = 0;
+    }
+  }
+
   private void increaseCurrentColIdx() throws IOException, ExternalFrameConfirmationException {
     currentColIdx++;
     if (currentColIdx == numCols) {
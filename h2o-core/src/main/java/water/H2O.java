@@ -98,6 +98,14 @@ final public class H2O {
             "    -ice_root <fileSystemPath>\n" +
             "          The directory where H2O spills temporary data to disk.\n" +
             "\n" +
+            "    -ice_mmap\n" +
+            "          Spill to large memory-mapped segment files in ice_root rather\n" +
+            "          than to a file per spilled value.\n" +
+            "\n" +
+            "    -offheap_mem <megabytes>\n" +
+            "          Size of an off-heap tier used to hold cold data before spilling\n" +
+            "          it to disk.  (The default is 0, off-heap tier disabled.)\n" +
+            "\n" +
             "    -log_dir <fileSystemPath>\n" +
             "          The directory where H2O writes logs to disk.\n" +
             "          (This usually has a good default that you need not change.)\n" +
@@ -326,6 +334,13 @@ final public class H2O {
     /** -cleaner; enable user-mode spilling of big data to disk in ice_root */
     public boolean cleaner = false;
 
+    /** -ice_mmap; spill to large memory-mapped segment files in ice_root rather than a file per Value */
+    public boolean ice_mmap = false;
+
+    /** -offheap_mem=megabytes; size of the off-heap tier the Cleaner demotes cold Chunks into before
+     *  spilling them to disk; 0 (the default) disables the tier */
+    public long offheap_mem = 0;
+
     /** -nthreads=nthreads; Max number of F/J threads in the low-priority batch queue */
     public short nthreads= (short)Runtime.getRuntime().availableProcessors();
 
@@ -595,6 +610,16 @@ final public class H2O {
       else if(s.matches("cleaner")) {
         trgt.cleaner = true;
       }
+      else if (s.matches("ice_mmap")) {
+        trgt.ice_mmap = true;
+      }
+      else if (s.matches("offheap_mem")) {
+        i = s.incrementAndCheck(i, args);
+        int mb = s.parseInt(args[i]);
+        if (mb < 0)
+          parseFailed("Argument " + s + " must be a non-negative number of megabytes");
+        trgt.offheap_mem = ((long) mb) << 20;
+      }
       else if (s.matches("jks")) {
         i = s.incrementAndCheck(i, args);
         trgt.jks = args[i];
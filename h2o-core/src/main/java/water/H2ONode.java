@@ -2,6 +2,7 @@ package water;
 
 import water.nbhm.NonBlockingHashMap;
 import water.nbhm.NonBlockingHashMapLong;
+import water.network.CompressedByteChannel;
 import water.network.SocketChannelFactory;
 import water.util.ArrayUtils;
 import water.util.Log;
@@ -368,7 +369,39 @@ public final class H2ONode extends Iced<H2ONode> implements Comparable {
   // Count of concurrent TCP requests both incoming and outgoing
   static final AtomicInteger TCPS = new AtomicInteger(0);
 
+  // Compression of big TCP transfers; the sender enables it, and uses it only with peers advertising in their
+  // heartbeat that they accept it.  The channel type tells the receiver.  Writes smaller than the min size, or
+  // not shrinking below the max ratio, are sent uncompressed.
+  static boolean COMPRESS_TCP = H2O.getSysBoolProperty("network.compression.enabled", false);
+  private static final int COMPRESS_TCP_MIN_SIZE =
+          Integer.parseInt(H2O.getSysProperty("network.compression.min_size", "4096"));
+  private static final double COMPRESS_TCP_MAX_RATIO =
+          Double.parseDouble(H2O.getSysProperty("network.compression.max_ratio", "0.9"));
+
+  // A peer that dropped a compressed connection before confirming any is served uncompressed from then on,
+  // e.g. a node of an older version not advertising its capabilities correctly.
+  private volatile boolean _tcpCompressionConfirmed;
+  private volatile boolean _tcpCompressionRefused;
+
+  /** Should big TCP transfers to this node be compressed? */
+  boolean compressTCP() {
+    HeartBeat hb = _heartbeat;
+    return COMPRESS_TCP && !_tcpCompressionRefused && hb != null && hb._tcp_compression;
+  }
+
+  /** Records the outcome of the close handshake of a compressed connection to this node. */
+  void compressedTCPHandshake(boolean ok) {
+    if (ok) {
+      _tcpCompressionConfirmed = true;
+    } else if (!_tcpCompressionConfirmed && !_tcpCompressionRefused) {
+      _tcpCompressionRefused = true;
+      Log.warn("Compressed TCP connection to " + this + " failed before any was confirmed, " +
+              "big transfers to this node will not be compressed");
+    }
+  }
+
   ByteChannel getTCPSocket() throws IOException {
+    final boolean compress = compressTCP();
     // Under lock, claim an existing open socket if possible
     synchronized(this) {
       // Limit myself to the number of open sockets from node-to-node
@@ -377,7 +410,11 @@ public final class H2ONode extends Iced<H2ONode> implements Comparable {
       // Claim an open socket
       ByteChannel sock = _socks[--_socksAvail];
       if( sock != null ) {
-        if( sock.isOpen() ) return sock; // Return existing socket!
+        if( sock.isOpen() ) {
+          if( (sock instanceof CompressedByteChannel) == compress )
+            return sock; // Return existing socket!
+          try { sock.close(); } catch( IOException ignore ) { } // Negotiated compression changed, do not reuse
+        }
         // Else it's an already-closed socket, lower open TCP count
         assert TCPS.get() > 0;
         TCPS.decrementAndGet();
@@ -390,7 +427,7 @@ public final class H2ONode extends Iced<H2ONode> implements Comparable {
     boolean res = sock2.connect( _key );
     assert res && !sock2.isConnectionPending() && sock2.isBlocking() && sock2.isConnected() && sock2.isOpen();
     ByteBuffer bb = ByteBuffer.allocate(6).order(ByteOrder.nativeOrder());
-    bb.put((byte)2);
+    bb.put(compress ? TCPReceiverThread.TCP_BIG_COMPRESSED : TCPReceiverThread.TCP_BIG);
     bb.putShort(H2O.SELF._timestamp);
     bb.putChar((char)H2O.H2O_PORT);
     bb.put((byte)0xef);
@@ -400,6 +437,8 @@ public final class H2ONode extends Iced<H2ONode> implements Comparable {
       wrappedSocket.write(bb);
     }
     TCPS.incrementAndGet();     // Cluster-wide counting
+    if (compress)
+      wrappedSocket = new CompressedByteChannel(wrappedSocket, COMPRESS_TCP_MIN_SIZE, COMPRESS_TCP_MAX_RATIO);
     return wrappedSocket;
   }
   synchronized void freeTCPSocket( ByteChannel sock ) {
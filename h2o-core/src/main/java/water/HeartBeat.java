@@ -73,4 +73,6 @@ public class HeartBeat extends Iced<HeartBeat> {
   public short _fjthrds[];      // Number of threads (not all are runnable)
   public short _fjqueue[];      // Number of elements in FJ work queue
   public char _tcps_active;     // Threads trying do a TCP send
+  public long _wire_bytes_saved; // Bytes saved by compressing big TCP sends
+  public boolean _tcp_compression; // Accepts big TCP connections compressed with CompressedByteChannel
 }
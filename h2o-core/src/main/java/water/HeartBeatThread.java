@@ -2,6 +2,7 @@ package water;
 
 import java.lang.management.ManagementFactory;
 import javax.management.*;
+import water.network.CompressedByteChannel;
 import water.util.LinuxProcFileReader;
 import water.util.Log;
 import water.init.*;
@@ -95,6 +96,8 @@ public class HeartBeatThread extends Thread {
         hb._fjqueue[i] = (short)H2O.getWrkQueueSize(i);
       }
       hb._tcps_active= (char)H2ONode.TCPS.get();
+      hb._wire_bytes_saved = CompressedByteChannel.bytesSaved();
+      hb._tcp_compression = true; // senders compress only to nodes advertising this
 
       // get the usable and total disk storage for the partition where the
       // persistent KV pairs are stored
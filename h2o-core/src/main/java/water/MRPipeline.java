@@ -0,0 +1,118 @@
+package water;
+
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.NewChunk;
+import water.fvec.Vec;
+import water.util.ArrayUtils;
+
+import java.util.Arrays;
+
+/**
+ * Fuses several independent {@link MRTask}s into a single distributed pass
+ * over a {@link Frame}.
+ * <p>
+ * Each Chunk of the Frame is fetched and decompressed once, and every stage's
+ * <code>map</code> is called on it in turn, in the order the stages were
+ * added.  Stage results are reduced pairwise exactly as if each stage had run
+ * on its own, and when the pipeline completes the reduced results are copied
+ * back into the stage instances that were passed to {@link #add}, so callers
+ * read them from their own tasks:
+ * <pre>
+ *   MinMax mm = new MinMax();
+ *   Moments mo = new Moments();
+ *   new MRPipeline().add(mm).add(mo, 2, 3).doAll(fr);
+ *   // mm and mo hold their results; fr was walked once
+ * </pre>
+ * A stage can be restricted to a subset of the Frame's columns, in which
+ * case its <code>map</code> only sees those Chunks (and its <code>_fr</code>
+ * only those Vecs).  Stages are called with the same set of <code>map</code>
+ * overloads as a plain MRTask with no outputs; stages producing output Vecs
+ * (<code>NewChunk</code>s) are not supported.  Per-stage
+ * <code>setupLocal</code>, <code>closeLocal</code> and <code>postGlobal</code>
+ * are called as usual.
+ */
+public class MRPipeline extends MRTask<MRPipeline> {
+  private MRTask[] _stages = new MRTask[0];
+  private int[][] _cols = new int[0][];      // Per-stage column selection; null for all columns
+  private transient MRTask[] _orig;          // Caller's instances, to receive the results
+
+  /** Add a stage working on all the columns of the Frame. */
+  public MRPipeline add(MRTask stage) { return add(stage, (int[])null); }
+
+  /** Add a stage working only on the given columns of the Frame. */
+  public MRPipeline add(MRTask stage, int... cols) {
+    _stages = Arrays.copyOf(_stages, _stages.length+1);
+    _stages[_stages.length-1] = stage;
+    _cols = Arrays.copyOf(_cols, _cols.length+1);
+    _cols[_cols.length-1] = cols;
+    _orig = _stages.clone();
+    return this;
+  }
+
+  /** Number of fused stages */
+  public int numStages() { return _stages.length; }
+
+  @Override protected void setupLocal() {
+    for( int i = 0; i < _stages.length; i++ ) {
+      _stages[i]._fr = stageFrame(i);
+      _stages[i].setupLocal();
+    }
+  }
+
+  private Frame stageFrame(int i) {
+    int[] cols = _cols[i];
+    if( cols == null ) return _fr;
+    Vec[] vecs = _fr.vecs();
+    Vec[] svecs = new Vec[cols.length];
+    for( int j = 0; j < cols.length; j++ ) svecs[j] = vecs[cols[j]];
+    return new Frame(ArrayUtils.select(_fr.names(), cols), svecs);
+  }
+
+  @Override public void map(Chunk[] cs) {
+    // The stage instances are shared by all the (shallow) clones of this
+    // task; each map call works on private copies, like any MRTask does.
+    MRTask[] stages = new MRTask[_stages.length];
+    for( int i = 0; i < stages.length; i++ ) {
+      MRTask s = stages[i] = (MRTask)_stages[i].clone();
+      Chunk[] scs = _cols[i] == null ? cs : select(cs, _cols[i]);
+      switch( scs.length ) {     // Same overloads MRTask.compute2 calls with no outputs
+      case 1: s.map(scs[0]); break;
+      case 2: s.map(scs[0], scs[1]); break;
+      case 3: s.map(scs[0], scs[1], scs[2]); break;
+      }
+      s.map(scs);
+      s.map(scs, (NewChunk[])null);
+    }
+    _stages = stages;
+  }
+
+  private static Chunk[] select(Chunk[] cs, int[] cols) {
+    Chunk[] scs = new Chunk[cols.length];
+    for( int j = 0; j < cols.length; j++ ) scs[j] = cs[cols[j]];
+    return scs;
+  }
+
+  @Override public void reduce(MRPipeline mrp) {
+    for( int i = 0; i < _stages.length; i++ ) {
+      if( _stages[i]._ex == null ) _stages[i]._ex = mrp._stages[i]._ex;
+      _stages[i].reduce(mrp._stages[i]);
+    }
+  }
+
+  @Override protected void closeLocal() {
+    for( MRTask s : _stages ) s.closeLocal();
+  }
+
+  @Override protected void postGlobal() {
+    for( int i = 0; i < _stages.length; i++ ) {
+      _stages[i].postGlobal();
+      if( _orig != null && _orig[i] != _stages[i] )
+        _orig[i].copyOver(_stages[i]); // Hand the reduced results back to the caller's instance
+    }
+  }
+
+  /** The reduced result of stage i.  Same contents as the instance passed to
+   *  {@link #add}, once the pipeline has completed. */
+  public <T extends MRTask<T>> T stage(int i) { return (T)_stages[i]; }
+}
@@ -779,9 +779,14 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
     // catch & ignore, keeping only the first one we already got.
     RPC<T> nl = _nleft; if( nl != null ) try { nl.get(); } catch( Throwable ignore ) { } _nleft = null;
     RPC<T> nr = _nrite; if( nr != null ) try { nr.get(); } catch( Throwable ignore ) { } _nrite = null;
+    if( _topGlobal ) onGlobalFailure(ex);
     return true;
   }
 
+  /** Override to release state the task keeps outside of itself (e.g. on other nodes) when it fails.  Called
+   *  on the top-level task once all the workers are stopped, possibly more than once. */
+  protected void onGlobalFailure(Throwable ex) {}
+
   // Make copy, setting final-field completer and clearing out a bunch of fields
   private T copyAndInit() {
     T x = clone();
@@ -2,13 +2,22 @@ package water;
 
 import jsr166y.ForkJoinPool;
 import jsr166y.ForkJoinPool.ManagedBlocker;
+import water.nbhm.UtilUnsafe;
 import water.util.Log;
 import water.util.PrettyPrint;
 
 import javax.management.Notification;
 import javax.management.NotificationEmitter;
 import java.lang.management.*;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -153,7 +162,8 @@ abstract public class MemoryManager {
     }
 
     // No logging if under memory pressure: can deadlock the cleaner thread
-    String s = m+msg+", (K/V:"+PrettyPrint.bytes(cacheUsageGC)+" + POJO:"+PrettyPrint.bytes(pojoUsedGC)+" + FREE:"+PrettyPrint.bytes(freeHeap)+" == MEM_MAX:"+PrettyPrint.bytes(MEM_MAX)+"), desiredKV="+PrettyPrint.bytes(Cleaner.DESIRED)+(oom?" OOM!":" NO-OOM");
+    String s = m+msg+", (K/V:"+PrettyPrint.bytes(cacheUsageGC)+" + POJO:"+PrettyPrint.bytes(pojoUsedGC)+" + FREE:"+PrettyPrint.bytes(freeHeap)+" == MEM_MAX:"+PrettyPrint.bytes(MEM_MAX)+"), desiredKV="+PrettyPrint.bytes(Cleaner.DESIRED)+
+      (offHeapMax() > 0 ? ", OFFHEAP:"+PrettyPrint.bytes(offHeapUsed())+"/"+PrettyPrint.bytes(offHeapMax()) : "")+(oom?" OOM!":" NO-OOM");
     if( CAN_ALLOC ) { if( oom ) Log.warn(s); else Log.debug(s); }
     else            System.err.println(s);
   }
@@ -216,6 +226,138 @@ abstract public class MemoryManager {
   }
 
 
+  // ---
+  // Off-heap tier.  Cold Chunk bytes are demoted by the Cleaner from the Java
+  // heap into direct ByteBuffers, and only spilled to disk once this budget is
+  // exhausted too.  Direct buffers are invisible to the GC heap accounting
+  // above, so they are tracked here against their own (user-set) budget.
+  //
+  // Readers pin a buffer while they copy out of it (same scheme as the ICE
+  // segments).  Once its Value drops it, the buffer is released - budget
+  // returned and direct memory freed - by whoever unpins it last.  Buffers of
+  // removed or replaced Values are never dropped, as a racing get may still
+  // hold the Value (same rule as for the heap bytes, see Value.removePersist);
+  // their budget is returned once the GC finds them unreachable, through the
+  // phantom references below.
+  private static final AtomicLong OFFHEAP_USED = new AtomicLong();
+  private static final ReferenceQueue<OffHeapBuf> OFFHEAP_QUEUE = new ReferenceQueue<>();
+  // Keeps the phantom references themselves reachable until they are enqueued
+  // or their buffer is released
+  private static final Set<OffHeapRef> OFFHEAP_REFS = Collections.newSetFromMap(new ConcurrentHashMap<OffHeapRef, Boolean>());
+
+  private static final class OffHeapRef extends PhantomReference<OffHeapBuf> {
+    final int _bytes;
+    OffHeapRef(OffHeapBuf buf) { super(buf, OFFHEAP_QUEUE); _bytes = buf._bytes; }
+  }
+
+  /** A direct buffer of the off-heap tier, with its reader pins. */
+  public static final class OffHeapBuf {
+    private final ByteBuffer _bb;
+    private final OffHeapRef _ref;
+    final int _bytes;
+    private int _pins;          // Readers copying out of the buffer; guarded by this
+    private boolean _dropped;   // No new readers; guarded by this
+    private boolean _released;  // Guarded by this
+    private OffHeapBuf(ByteBuffer bb) {
+      _bb = bb;
+      _bytes = bb.capacity();
+      _ref = new OffHeapRef(this);
+      OFFHEAP_REFS.add(_ref);
+    }
+
+    /** A private read-only view of the bytes, or null if the buffer was
+     *  dropped already.  A non-null view must be followed by {@link #unpin}. */
+    public synchronized ByteBuffer pin() {
+      if( _dropped ) return null;
+      _pins++;
+      return _bb.asReadOnlyBuffer();
+    }
+    public void unpin() {
+      synchronized( this ) { _pins--; }
+      releaseIfDead();
+    }
+    // No new readers; release now if nobody is reading
+    int drop() {
+      synchronized( this ) { _dropped = true; }
+      return releaseIfDead();
+    }
+
+    // Release once dropped and unpinned; returns the bytes released by this call
+    private int releaseIfDead() {
+      synchronized( this ) {
+        if( _released || !_dropped || _pins != 0 ) return 0;
+        _released = true;
+      }
+      if( OFFHEAP_REFS.remove(_ref) ) // Else the GC path returned the budget already
+        OFFHEAP_USED.addAndGet(-_bytes);
+      freeDirect(_bb);
+      return _bytes;
+    }
+  }
+
+  /** Off-heap tier size, zero if the tier is disabled */
+  static long offHeapMax() { return H2O.ARGS.offheap_mem; }
+  /** Bytes currently held in the off-heap tier */
+  public static long offHeapUsed() { reclaimOffHeap(); return OFFHEAP_USED.get(); }
+  // Desired off-heap level: keep 1/8th of the tier free so demotions from the
+  // heap can proceed while the Cleaner is spilling the eldest bytes to disk.
+  static long offHeapDesired() { long max = offHeapMax(); return max - (max>>3); }
+
+  // Return the budget of buffers the GC found unreachable
+  static void reclaimOffHeap() {
+    Reference<? extends OffHeapBuf> ref;
+    while( (ref = OFFHEAP_QUEUE.poll()) != null ) {
+      if( OFFHEAP_REFS.remove(ref) )
+        OFFHEAP_USED.addAndGet(-((OffHeapRef)ref)._bytes);
+    }
+  }
+
+  // Reserve budget for a direct buffer and copy the bytes into it; null if the
+  // tier is disabled, full, or the JVM refuses to hand out more direct memory.
+  // Never blocks: callers fall back to spilling to disk.
+  static OffHeapBuf mallocOffHeap(byte[] m) {
+    final int bytes = m.length;
+    long max = offHeapMax();
+    if( max == 0 ) return null;
+    reclaimOffHeap();
+    if( OFFHEAP_USED.addAndGet(bytes) > max ) {
+      OFFHEAP_USED.addAndGet(-bytes);
+      return null;
+    }
+    ByteBuffer bb;
+    try {
+      bb = ByteBuffer.allocateDirect(bytes);
+    } catch( OutOfMemoryError e ) { // -XX:MaxDirectMemorySize is below the tier size
+      OFFHEAP_USED.addAndGet(-bytes);
+      return null;
+    }
+    bb.put(m).flip();
+    return new OffHeapBuf(bb);
+  }
+
+  /** Free the memory of a direct or mapped buffer now instead of waiting for
+   *  the GC.  The buffer must not be touched afterwards.
+   *  @return false if the JVM does not allow it; the GC frees it then */
+  public static boolean freeDirect(ByteBuffer bb) {
+    try {
+      Method invokeCleaner = UtilUnsafe.getUnsafe().getClass().getMethod("invokeCleaner", ByteBuffer.class);
+      invokeCleaner.invoke(UtilUnsafe.getUnsafe(), bb); // Java 9+
+      return true;
+    } catch( NoSuchMethodException e ) { // Java 8
+      try {
+        Method cleaner = bb.getClass().getMethod("cleaner");
+        cleaner.setAccessible(true);
+        Object c = cleaner.invoke(bb);
+        if( c != null ) c.getClass().getMethod("clean").invoke(c);
+        return true;
+      } catch( Exception e8 ) {
+        return false;
+      }
+    } catch( Exception e ) {
+      return false;
+    }
+  }
+
   // Allocates memory with cache management
   // Will block until there is enough available memory.
   // Catches OutOfMemory, clears cache & retries.
@@ -10,6 +10,7 @@ import java.nio.channels.SocketChannel;
 import java.util.Date;
 import java.util.Random;
 
+import water.network.CompressedByteChannel;
 import water.network.SocketChannelFactory;
 import water.util.Log;
 import water.util.SB;
@@ -42,6 +43,11 @@ public class TCPReceiverThread extends Thread {
    */
   static final byte TCP_EXTERNAL = 3;
 
+  /**
+   * Byte representing TCP communication for big data, compressed with {@link water.network.CompressedByteChannel}
+   */
+  static final byte TCP_BIG_COMPRESSED = 4;
+
   public TCPReceiverThread(
           ServerSocketChannel sock) {
     super("TCP-Accept");
@@ -86,7 +92,7 @@ public class TCPReceiverThread extends Thread {
           wrappedSocket.read(bb);
         }
         bb.flip();
-        int chanType = bb.get(); // 1 - small, 2 - big, 3 - external
+        int chanType = bb.get(); // 1 - small, 2 - big, 3 - external, 4 - big compressed
         short timestamp = bb.getShort(); // read timestamp
                                          // Note: timestamp was not part of the original protocol, was added in 3.22.0.1, #a33de44)
         int port = bb.getChar(); // read port
@@ -110,12 +116,17 @@ public class TCPReceiverThread extends Thread {
         case TCP_BIG:
           new TCPReaderThread(wrappedSocket, new AutoBuffer(wrappedSocket, inetAddress, timestamp), inetAddress, timestamp).start();
           break;
+        case TCP_BIG_COMPRESSED:
+          // the sender decides about compression, the reader only needs to decode
+          wrappedSocket = new CompressedByteChannel(wrappedSocket, Integer.MAX_VALUE, 0);
+          new TCPReaderThread(wrappedSocket, new AutoBuffer(wrappedSocket, inetAddress, timestamp), inetAddress, timestamp).start();
+          break;
         case TCP_EXTERNAL:
           new ExternalFrameHandlerThread(wrappedSocket, new AutoBuffer(wrappedSocket)).start();
           break;
         default:
           ListenerService.getInstance().report("protocol-failure", "channel-type", chanType);
-          throw new IOException("Communication protocol failure: Unexpected channel type " + chanType + ", only know 1 - Small, 2 - Big and 3 - ExternalFrameHandling");
+          throw new IOException("Communication protocol failure: Unexpected channel type " + chanType + ", only know 1 - Small, 2 - Big, 3 - ExternalFrameHandling and 4 - Big Compressed");
         }
       } catch( java.nio.channels.AsynchronousCloseException ex ) {
         break;                  // Socket closed for shutdown
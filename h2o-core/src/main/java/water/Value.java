@@ -1,10 +1,13 @@
 package water;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import jsr166y.ForkJoinPool;
+import water.fvec.Chunk;
 import water.fvec.Frame;
+import water.fvec.MappedChunk;
 import water.fvec.Vec;
 import water.util.Log;
 import water.util.StringUtils;
@@ -94,16 +97,34 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
   private volatile Freezable _pojo;
   Freezable rawPOJO() { return _pojo; }
 
+  // ---
+  // An off-heap copy of the _mem array, or null if this Value has not been
+  // demoted to the off-heap tier.  Set by the Cleaner only, for cold Chunks,
+  // before (or instead of) spilling them to disk.  Like the disk copy, the
+  // contents are immutable and can be used to rebuild the _mem array without
+  // any i/o.  Never yanked from a removed or replaced Value, as a racing get
+  // may still need it; the Cleaner drops it once the Value is on disk, and the
+  // buffer is released as soon as no reader has it pinned.
+  private volatile MemoryManager.OffHeapBuf _offheap;
+  private static final AtomicReferenceFieldUpdater<Value,MemoryManager.OffHeapBuf> OFFHEAP_UPDATER =
+    AtomicReferenceFieldUpdater.newUpdater(Value.class,MemoryManager.OffHeapBuf.class, "_offheap");
+  /** Check if a copy of the byte[] is held in the off-heap tier */
+  public final boolean isOffHeap() { return _offheap != null; }
+  /** The off-heap copy of the byte[], or null if none.  Used by the
+   *  persistence layer to spill without re-inflating the heap; read it
+   *  through {@link MemoryManager.OffHeapBuf#pin}. */
+  public final MemoryManager.OffHeapBuf offHeapMem() { return _offheap; }
+
   /** Invalidate byte[] cache.  Only used to eagerly free memory, for data
    *  which is expected to be read-once. */
   public final void freeMem() {
-    assert isPersisted() || _pojo != null || _key.isChunkKey();
+    assert isPersisted() || isOffHeap() || _pojo != null || _key.isChunkKey();
     _mem = null;
   }
   /** Invalidate POJO cache.  Only used to eagerly free memory, for data
    *  which is expected to be read-once. */
   public final void freePOJO() {
-    assert isPersisted() || _mem != null;
+    assert isPersisted() || isOffHeap() || _mem != null;
     _pojo = null;
   }
 
@@ -117,11 +138,12 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
     if( pojo != null )          // Has the POJO, make raw bytes
       return _mem = pojo.asBytes();
     if( _max == 0 ) return (_mem = new byte[0]);
+    if( (mem = loadOffHeap()) != null ) return (_mem = mem);
     return (_mem = loadPersist());
   }
   // Just an empty shell of a Value, no local data but the Value is "real".
   // Any attempt to look at the Value will require a remote fetch.
-  final boolean isEmpty() { return _max > 0 && _mem==null && _pojo == null && !isPersisted(); }
+  final boolean isEmpty() { return _max > 0 && _mem==null && _pojo == null && _offheap == null && !isPersisted(); }
 
   /** The FAST path get-POJO as an {@link Iced} subclass - final method for
    *  speed.  Will (re)build the POJO from the _mem array.  Never returns NULL.
@@ -131,6 +153,8 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
     Iced pojo = (Iced)_pojo;    // Read once!
     if( pojo != null ) return (T)pojo;
     pojo = TypeMap.newInstance(_type);
+    Freezable mapped = loadMapped(pojo);
+    if( mapped != null ) return (T)(_pojo = mapped);
     return (T)(_pojo = pojo.reloadFromBytes(memOrLoad()));
   }
   /** The FAST path get-POJO as a {@link Freezable} - final method for speed.
@@ -150,10 +174,20 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
     Freezable pojo = _pojo;     // Read once!
     if( pojo != null ) return (T)pojo;
     pojo = TypeMap.newFreezable(_type);
+    Freezable mapped = loadMapped(pojo);
+    if( mapped != null ) return (T)(_pojo = mapped);
     pojo.reloadFromBytes(memOrLoad());
     return (T)(_pojo = pojo);
   }
 
+  // A Chunk spilled to memory-mapped ICE segments is read straight from the
+  // mapping, without a heap copy; null if this Value cannot be mapped.
+  private Freezable loadMapped(Freezable pojo) {
+    if( _mem != null || !(pojo instanceof Chunk) || backend() != ICE || !isPersisted() ) return null;
+    ByteBuffer bb = H2O.getPM().getIce().map(this);
+    return bb == null ? null : MappedChunk.make((Chunk)pojo, bb);
+  }
+
   // ---
   // Time of last access to this value.
   transient long _lastAccessedTime = System.currentTimeMillis();
@@ -196,8 +230,9 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
   public final void setDel() { _deleted=1; } // note: not atomic, but only monotonically set bit
 
 
-  /** Best-effort store complete Values to disk.  */
-  void storePersist() throws java.io.IOException {
+  /** Best-effort store complete Values to disk.  Synchronized, so that a
+   *  {@link #spillToDisk} racing with the Cleaner writes the Value once.  */
+  synchronized void storePersist() throws java.io.IOException {
     // 00       then start writing
     // 01       delete requested; do not write
     // 10       already written; do nothing
@@ -207,15 +242,72 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
     H2O.getPM().store(backend(), this); // Write to disk
 
     // 00 -> 10 expected, set write bit
-    // 10       assert; only Cleaner writes
+    // 10       assert; writers are serialized
     // 01       delete-during-write; delete again
-    // 11       assert; only Cleaner writes
-    assert !isPersisted();      // Only Cleaner writes
-    setDsk(); // Not locked, not atomic, so can only called by one thread: Cleaner
+    // 11       assert; writers are serialized
+    assert !isPersisted();      // Writers are serialized
+    setDsk(); // Not atomic, but under the lock of storePersist
     if( isDeleted() ) // Check del bit AFTER setting persist bit; close race with deleting user thread
       H2O.getPM().delete(backend(), this); // Possibly nothing to delete (race with writer)
   }
 
+  /** Write the Value to disk now (if not there already) and drop both the
+   *  byte[] and the POJO from the heap; the next get reloads it from disk.
+   *  For large write-once intermediate results which will not be read again
+   *  for a while, e.g. the runs of an out-of-core sort, instead of waiting
+   *  for the Cleaner to spill them.
+   *  @return false if the Value could not be written and stays in memory */
+  public final boolean spillToDisk() {
+    if( _max <= 0 || !onICE() || isDeleted() ) return false;
+    try { storePersist(); }
+    catch( IOException e ) {
+      Log.warn("Spilling "+_key+" to disk failed! " + e.getMessage());
+      return false;
+    }
+    if( !isPersisted() ) return false;
+    _pojo = null;
+    _mem = null;
+    return true;
+  }
+
+  /** Best-effort copy of the byte[] into the off-heap tier; only called by
+   *  the Cleaner.  Returns false if there is no byte[] to copy or the
+   *  off-heap budget is exhausted. */
+  boolean storeOffHeap() {
+    if( isDeleted() ) return false;
+    if( _offheap != null ) return true; // Already demoted
+    byte[] m = _mem;            // Read once!
+    if( m == null || m.length != _max ) return false;
+    MemoryManager.OffHeapBuf buf = MemoryManager.mallocOffHeap(m);
+    if( buf == null ) return false; // No room in the off-heap budget
+    if( !OFFHEAP_UPDATER.compareAndSet(this,null,buf) )
+      buf.drop();               // Lost the race: the other copy is as good
+    return true;
+  }
+
+  /** Drop the off-heap copy (if any); only called by the Cleaner once the
+   *  Value is persisted, so racing readers fall back to the disk copy.  A
+   *  reader still copying out of the buffer releases it when done.
+   *  @return bytes released right away */
+  int freeOffHeap() {
+    MemoryManager.OffHeapBuf buf = OFFHEAP_UPDATER.getAndSet(this,null);
+    return buf == null ? 0 : buf.drop();
+  }
+
+  // Rebuild the byte[] from the off-heap copy, or null if there is none.
+  private byte[] loadOffHeap() {
+    MemoryManager.OffHeapBuf buf = _offheap; // Read once!
+    ByteBuffer bb = buf == null ? null : buf.pin();
+    if( bb == null ) return null; // None, or dropped by a racing Cleaner
+    try {
+      byte[] m = MemoryManager.malloc1(bb.limit());
+      bb.get(m);
+      return m;
+    } finally {
+      buf.unpin();
+    }
+  }
+
   /** Remove dead Values from disk */
   public void removePersist() {
     // do not yank memory, as we could have a racing get hold on to this
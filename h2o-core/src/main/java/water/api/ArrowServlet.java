@@ -0,0 +1,86 @@
+package water.api;
+
+import water.DKV;
+import water.Key;
+import water.fvec.ArrowReader;
+import water.fvec.ArrowWriter;
+import water.fvec.Frame;
+import water.server.ServletUtils;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Frames as Apache Arrow IPC streams: binary columnar download and upload, without CSV formatting and parsing.
+ *
+ * Example
+ * ```
+ * curl -o iris.arrow "http://localhost:54321/3/DownloadDataset.arrow?frame_id=iris.hex"
+ * curl --data-binary @iris.arrow -H "Content-Type: application/vnd.apache.arrow.stream" \
+ *      "http://localhost:54321/3/UploadDataset.arrow?destination_frame=iris2.hex"
+ * ```
+ * In Python, {@code pyarrow.ipc.open_stream(response).read_pandas()} reads the download.
+ */
+public class ArrowServlet extends HttpServlet {
+
+  static final String ARROW_STREAM_MIME_TYPE = "application/vnd.apache.arrow.stream";
+
+  @Override
+  protected void doGet(HttpServletRequest request, HttpServletResponse response) {
+    String uri = ServletUtils.getDecodedUri(request);
+    try {
+      String f_name = request.getParameter("frame_id");
+      if (f_name == null) {
+        throw new RuntimeException("Cannot find value for parameter \'frame_id\'");
+      }
+      Frame dataset = DKV.getGet(f_name);
+      if (dataset == null) {
+        throw new IllegalArgumentException("Frame " + f_name + " not found");
+      }
+      response.setContentType(ARROW_STREAM_MIME_TYPE);
+      response.addHeader("Content-Disposition", "attachment; filename=" + f_name.replace(".hex", "") + ".arrow");
+      ServletUtils.setResponseStatus(response, HttpServletResponse.SC_OK);
+      try (OutputStream os = response.getOutputStream()) {
+        new ArrowWriter(dataset).writeTo(os);
+      }
+    } catch (Exception e) {
+      ServletUtils.sendErrorResponse(response, e, uri);
+    } finally {
+      ServletUtils.logRequest("GET", request, response);
+    }
+  }
+
+  @Override
+  protected void doPost(HttpServletRequest request, HttpServletResponse response) {
+    String uri = ServletUtils.getDecodedUri(request);
+    try {
+      String destination_frame = request.getParameter("destination_frame");
+      if (destination_frame == null) {
+        destination_frame = "arrow_upload" + Key.rand();
+      }
+      // Either the raw stream or a multipart upload (curl -F "file=@data.arrow")
+      String ct = request.getContentType();
+      InputStream is = ct != null && ct.startsWith("multipart/form-data")
+              ? ServletUtils.extractPartInputStream(request, response)
+              : request.getInputStream();
+      if (is == null) {
+        return;
+      }
+      Frame fr = ArrowReader.read(is, Key.<Frame>make(destination_frame));
+      String responsePayload = "{ " +
+          "\"destination_frame\": \"" + destination_frame + "\", " +
+          "\"rows\": " + fr.numRows() + ", " +
+          "\"columns\": " + fr.numCols() + " " +
+          "}\n";
+      response.setContentType("application/json");
+      response.getWriter().write(responsePayload);
+    } catch (Exception e) {
+      ServletUtils.sendErrorResponse(response, e, uri);
+    } finally {
+      ServletUtils.logRequest("POST", request, response);
+    }
+  }
+}
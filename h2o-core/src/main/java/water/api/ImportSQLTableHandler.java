@@ -30,7 +30,7 @@ public class ImportSQLTableHandler extends Handler {
         importSqlTable.connection_url, importSqlTable.table, importSqlTable.select_query,
         importSqlTable.username, importSqlTable.password, importSqlTable.columns,
         useTempTable, importSqlTable.temp_table_name,
-        sqlFetchMode
+        sqlFetchMode, importSqlTable.partition_column
     );
     return new JobV3().fillFromImpl(j);
 
@@ -163,6 +163,9 @@ public class CloudV3 extends RequestSchemaV3<Iced, CloudV3> {
     @API(help="Open TCP connections", direction=API.Direction.OUTPUT)
     public int tcps_active;
 
+    @API(help="Bytes saved by compression of inter-node TCP transfers", direction=API.Direction.OUTPUT)
+    public long wire_bytes_saved;
+
     @API(help="Open File Descripters", direction=API.Direction.OUTPUT)
     public int open_fds;
 
@@ -203,6 +206,7 @@ public class CloudV3 extends RequestSchemaV3<Iced, CloudV3> {
 
       // System properties & I/O Status
       tcps_active = hb._tcps_active;
+      wire_bytes_saved = hb._wire_bytes_saved;
       open_fds = hb._process_num_open_fds; // -1 if not available
       num_cpus = hb._num_cpus;
       cpus_allowed = hb._cpus_allowed;
@@ -3,6 +3,7 @@ package water.api.schemas3;
 import water.api.API;
 import water.api.FramesHandler.Frames;
 import water.fvec.Frame;
+import water.util.ExportFileFormat;
 
 public class FramesV3 extends RequestSchemaV3<Frames, FramesV3> {
 
@@ -43,6 +44,10 @@ public class FramesV3 extends RequestSchemaV3<Frames, FramesV3> {
   @API(help="Compression method (default none; gzip, bzip2 and snappy available depending on runtime environment)")
   public String compression;
 
+  @API(help="Output file format (default csv); parquet and orc are available if the corresponding parser module is present",
+          values={"csv", "parquet", "orc"})
+  public ExportFileFormat format = ExportFileFormat.csv;
+
   @API(help="Field separator (default ',')")
   public byte separator = Frame.CSVStreamParams.DEFAULT_SEPARATOR;
 
@@ -35,4 +35,7 @@ public class ImportSQLTableV99 extends RequestSchemaV3<Iced,ImportSQLTableV99> {
   @API(help = "Mode for data loading. All modes may not be supported by all databases.")
   public String fetch_mode;
 
+  @API(help = "Numeric or date/time column the table is split on into range queries in the PARTITIONED fetch mode.")
+  public String partition_column;
+
 }
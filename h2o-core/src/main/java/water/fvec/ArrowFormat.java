@@ -0,0 +1,392 @@
+package water.fvec;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The parts of the Apache Arrow IPC streaming format used by {@link ArrowWriter} and {@link ArrowReader}.
+ * <p/>
+ * A stream is a sequence of messages: a Schema, then DictionaryBatches and RecordBatches, then an end-of-stream marker.
+ * Each message is a continuation marker (0xFFFFFFFF), the length of the metadata, the metadata (a FlatBuffers
+ * Message table, padded to 8 bytes) and the body (the buffers of the columns, each padded to 8 bytes), all little
+ * endian.  The few FlatBuffers tables needed are written and read here directly rather than through the Arrow and
+ * FlatBuffers libraries: see Schema.fbs and Message.fbs of the Arrow format for their definition.
+ */
+final class ArrowFormat {
+
+  static final int CONTINUATION = 0xFFFFFFFF;
+  static final short METADATA_V4 = 3;
+  static final short METADATA_V5 = 4;
+
+  // MessageHeader union
+  static final byte HEADER_SCHEMA = 1;
+  static final byte HEADER_DICTIONARY_BATCH = 2;
+  static final byte HEADER_RECORD_BATCH = 3;
+
+  // Type union
+  static final byte TYPE_NULL = 1;
+  static final byte TYPE_INT = 2;
+  static final byte TYPE_FLOATING_POINT = 3;
+  static final byte TYPE_BINARY = 4;
+  static final byte TYPE_UTF8 = 5;
+  static final byte TYPE_BOOL = 6;
+  static final byte TYPE_DATE = 8;
+  static final byte TYPE_TIMESTAMP = 10;
+  static final byte TYPE_LARGE_BINARY = 19;
+  static final byte TYPE_LARGE_UTF8 = 20;
+
+  static final short PRECISION_SINGLE = 1;
+  static final short PRECISION_DOUBLE = 2;
+  static final short DATE_DAY = 0;
+  static final short TIME_UNIT_SECOND = 0;
+  static final short TIME_UNIT_MILLISECOND = 1;
+  static final short TIME_UNIT_MICROSECOND = 2;
+  static final short TIME_UNIT_NANOSECOND = 3;
+
+  private ArrowFormat() {}
+
+  // --------------------------------------------------------------------------
+  // Writing
+
+  /**
+   * FlatBuffers table to be written: every slot is absent, a scalar, or a child (a Table, a String, a Table[] or
+   * a long[] standing for a vector of structs made of longs).  Union fields take two slots, the type and the value.
+   */
+  static final class Table {
+    private final Object[] _vals;
+    private final int[] _sizes;   // Scalar size in bytes, 4 for children, 0 for absent slots
+
+    Table(int nslots) {
+      _vals = new Object[nslots];
+      _sizes = new int[nslots];
+    }
+
+    Table scalar(int slot, long val, int size) {
+      _vals[slot] = val;
+      _sizes[slot] = size;
+      return this;
+    }
+
+    Table child(int slot, Object child) {
+      if (child != null) {
+        _vals[slot] = child;
+        _sizes[slot] = 4;
+      }
+      return this;
+    }
+  }
+
+  /**
+   * Serializes the FlatBuffers table rooted at the given one.  The children are laid out after their parent, so that
+   * all the offsets point forward as FlatBuffers requires.  The result is padded to 8 bytes.
+   */
+  static byte[] serialize(Table root) {
+    Out out = new Out();
+    out.putInt(0);
+    out.setInt(0, out.table(root));
+    out.align(8);
+    return Arrays.copyOf(out._buf, out._pos);
+  }
+
+  private static final class Out {
+    byte[] _buf = new byte[1024];
+    int _pos;
+
+    private void ensure(int n) {
+      if (_pos + n > _buf.length) _buf = Arrays.copyOf(_buf, Math.max(_buf.length * 2, _pos + n));
+    }
+    void align(int n) {
+      int pad = (n - (_pos % n)) % n;
+      ensure(pad);
+      _pos += pad; // the buffer is zeroed
+    }
+    void put(long v, int size) {
+      ensure(size);
+      set(_pos, v, size);
+      _pos += size;
+    }
+    void putInt(int v) { put(v, 4); }
+    void setInt(int at, int v) { set(at, v, 4); }
+    private void set(int at, long v, int size) {
+      for (int i = 0; i < size; i++) _buf[at + i] = (byte) (v >>> (8 * i));
+    }
+
+    int table(Table t) {
+      final int nslots = t._sizes.length;
+      // Scalars from the largest to the smallest so that all are aligned, the table starts 8-aligned
+      final int[] offs = new int[nslots];
+      int size = 4;
+      for (int sz = 8; sz >= 1; sz >>= 1)
+        for (int s = 0; s < nslots; s++)
+          if (t._sizes[s] == sz) {
+            size = (size + sz - 1) / sz * sz;
+            offs[s] = size;
+            size += sz;
+          }
+      align(2);
+      final int vtable = _pos;
+      put(4 + 2 * nslots, 2);
+      put(size, 2);
+      for (int s = 0; s < nslots; s++) put(offs[s], 2);
+      align(8);
+      final int table = _pos;
+      putInt(table - vtable);
+      ensure(size - 4);
+      _pos = table + size;
+      for (int s = 0; s < nslots; s++)
+        if (t._vals[s] instanceof Long) set(table + offs[s], (Long) t._vals[s], t._sizes[s]);
+      for (int s = 0; s < nslots; s++)
+        if (t._sizes[s] > 0 && !(t._vals[s] instanceof Long)) {
+          final int at = table + offs[s];
+          setInt(at, child(t._vals[s]) - at);
+        }
+      return table;
+    }
+
+    private int child(Object o) {
+      if (o instanceof Table) return table((Table) o);
+      if (o instanceof String) {
+        byte[] b = ((String) o).getBytes(StandardCharsets.UTF_8);
+        align(4);
+        final int pos = _pos;
+        putInt(b.length);
+        ensure(b.length + 1);
+        System.arraycopy(b, 0, _buf, _pos, b.length);
+        _pos += b.length + 1; // NUL terminated
+        return pos;
+      }
+      if (o instanceof Table[]) {
+        Table[] ts = (Table[]) o;
+        align(4);
+        final int pos = _pos;
+        putInt(ts.length);
+        ensure(4 * ts.length);
+        _pos += 4 * ts.length;
+        for (int i = 0; i < ts.length; i++) {
+          final int at = pos + 4 + 4 * i;
+          setInt(at, table(ts[i]) - at);
+        }
+        return pos;
+      }
+      long[] structs = (long[]) o;     // Structs of longs: the elements are 8-aligned, the length just before them
+      align(8);
+      final int pos = _pos + 4;
+      put(0, 4);
+      putInt(structs.length / 2);
+      for (long l : structs) put(l, 8);
+      return pos;
+    }
+  }
+
+  /**
+   * Body of a message: the buffers of its columns, 8-aligned.  Also collects the Buffer structs (offset and
+   * length of every buffer) and the FieldNode structs (length and null count of every column) of the RecordBatch.
+   */
+  static final class Body {
+    final List<byte[]> _bufs = new ArrayList<>();
+    final List<Integer> _lens = new ArrayList<>();
+    final List<Long> _nodes = new ArrayList<>();
+    long _length;
+
+    void node(long length, long nullCount) {
+      _nodes.add(length);
+      _nodes.add(nullCount);
+    }
+
+    void buffer(byte[] buf, int len) {
+      _bufs.add(buf);
+      _lens.add(len);
+      _length += (len + 7) & ~7;
+    }
+
+    Table recordBatch(long numRows) {
+      long[] nodes = new long[_nodes.size()];
+      for (int i = 0; i < nodes.length; i++) nodes[i] = _nodes.get(i);
+      long[] buffers = new long[2 * _bufs.size()];
+      long off = 0;
+      for (int i = 0; i < _bufs.size(); i++) {
+        buffers[2 * i] = off;
+        buffers[2 * i + 1] = _lens.get(i);
+        off += (_lens.get(i) + 7) & ~7;
+      }
+      return new Table(3).scalar(0, numRows, 8).child(1, nodes).child(2, buffers);
+    }
+
+    void writeTo(OutputStream os) throws IOException {
+      final byte[] pad = new byte[8];
+      for (int i = 0; i < _bufs.size(); i++) {
+        final int len = _lens.get(i);
+        if (len == 0) continue;
+        os.write(_bufs.get(i), 0, len);
+        os.write(pad, 0, ((len + 7) & ~7) - len);
+      }
+    }
+  }
+
+  static void writeMessage(DataOutputStream os, byte headerType, Table header, Body body) throws IOException {
+    Table message = new Table(5)
+            .scalar(0, METADATA_V5, 2)
+            .scalar(1, headerType, 1)
+            .child(2, header)
+            .scalar(3, body == null ? 0 : body._length, 8);
+    byte[] meta = serialize(message);
+    os.writeInt(CONTINUATION);
+    os.writeInt(Integer.reverseBytes(meta.length));
+    os.write(meta);
+    if (body != null) body.writeTo(os);
+  }
+
+  static void writeEndOfStream(DataOutputStream os) throws IOException {
+    os.writeInt(CONTINUATION);
+    os.writeInt(0);
+  }
+
+  // --------------------------------------------------------------------------
+  // Reading
+
+  /** Little endian view of a FlatBuffers buffer. */
+  static final class Fb {
+    final ByteBuffer _bb;
+
+    Fb(byte[] bits) { _bb = ByteBuffer.wrap(bits).order(ByteOrder.LITTLE_ENDIAN); }
+
+    int root() { return _bb.getInt(0); }
+
+    // Position of the slot in the table, 0 if absent
+    private int slot(int table, int slot) {
+      final int vtable = table - _bb.getInt(table);
+      final int o = 4 + 2 * slot;
+      if (o >= (_bb.getShort(vtable) & 0xFFFF)) return 0;
+      final int off = _bb.getShort(vtable + o) & 0xFFFF;
+      return off == 0 ? 0 : table + off;
+    }
+
+    long getLong(int table, int slot, long dflt) { int p = slot(table, slot); return p == 0 ? dflt : _bb.getLong(p); }
+    int getInt(int table, int slot, int dflt) { int p = slot(table, slot); return p == 0 ? dflt : _bb.getInt(p); }
+    short getShort(int table, int slot, short dflt) { int p = slot(table, slot); return p == 0 ? dflt : _bb.getShort(p); }
+    byte getByte(int table, int slot, byte dflt) { int p = slot(table, slot); return p == 0 ? dflt : _bb.get(p); }
+
+    /** Position of the child table, vector or string, 0 if absent. */
+    int child(int table, int slot) {
+      int p = slot(table, slot);
+      return p == 0 ? 0 : p + _bb.getInt(p);
+    }
+
+    int length(int vector) { return vector == 0 ? 0 : _bb.getInt(vector); }
+
+    int tableAt(int vector, int i) {
+      final int p = vector + 4 + 4 * i;
+      return p + _bb.getInt(p);
+    }
+
+    long structLong(int vector, int i) { return _bb.getLong(vector + 4 + 8 * i); }
+
+    String string(int table, int slot) {
+      final int p = child(table, slot);
+      if (p == 0) return null;
+      return new String(_bb.array(), p + 4, _bb.getInt(p), StandardCharsets.UTF_8);
+    }
+  }
+
+  /** Message read from a stream: its metadata.  The body follows in the stream, see {@link #readBuffers}. */
+  static final class Message {
+    final Fb _fb;
+    final int _header;          // Position of the header table
+    final byte _headerType;
+    final long _bodyLength;
+
+    Message(Fb fb, int header, byte headerType, long bodyLength) {
+      _fb = fb;
+      _header = header;
+      _headerType = headerType;
+      _bodyLength = bodyLength;
+    }
+  }
+
+  /**
+   * Metadata of the next message of the stream, null at its end.  The body is left in the stream, it has to be
+   * consumed by {@link #readBuffers} or {@link #skipBody} before the next message is read.  Also accepts the format
+   * older than 0.15, without continuation.
+   */
+  static Message readMessage(DataInputStream is) throws IOException {
+    int len;
+    try {
+      len = Integer.reverseBytes(is.readInt());
+    } catch (EOFException e) {
+      return null;
+    }
+    if (len == CONTINUATION) len = Integer.reverseBytes(is.readInt());
+    if (len == 0) return null;
+    if (len < 0) throw new IOException("Malformed Arrow stream: metadata of " + len + " bytes");
+    byte[] meta = new byte[len];
+    is.readFully(meta);
+    Fb fb = new Fb(meta);
+    final int message = fb.root();
+    final short version = fb.getShort(message, 0, (short) 0);
+    if (version < METADATA_V4)
+      throw new IOException("Unsupported Arrow metadata version " + version + ", version 4 or later is expected");
+    final long bodyLength = fb.getLong(message, 3, 0);
+    if (bodyLength < 0) throw new IOException("Malformed Arrow stream: body of " + bodyLength + " bytes");
+    return new Message(fb, fb.child(message, 2), fb.getByte(message, 1, (byte) 0), bodyLength);
+  }
+
+  /**
+   * Reads the body of the message one buffer at a time, in the order of the buffers in the body, skipping the
+   * padding between them: the body as a whole is never held in one array, only each of its buffers is limited to
+   * 2GB.  Returns the buffers of the record batch in the order of its Buffer structs, null for the empty ones.
+   */
+  static ByteBuffer[] readBuffers(DataInputStream is, Message m, int recordBatch) throws IOException {
+    final Fb fb = m._fb;
+    final int buffers = fb.child(recordBatch, 2);
+    final int n = fb.length(buffers);
+    Integer[] order = new Integer[n];
+    for (int i = 0; i < n; i++) order[i] = i;
+    Arrays.sort(order, new Comparator<Integer>() {
+      @Override public int compare(Integer a, Integer b) {
+        return Long.compare(fb.structLong(buffers, 2 * a), fb.structLong(buffers, 2 * b));
+      }
+    });
+    ByteBuffer[] bufs = new ByteBuffer[n];
+    long pos = 0;
+    for (int i : order) {
+      final long off = fb.structLong(buffers, 2 * i);
+      final long len = fb.structLong(buffers, 2 * i + 1);
+      if (len == 0) continue;
+      if (off < pos || len < 0 || off + len > m._bodyLength)
+        throw new IOException("Malformed Arrow stream: buffer of " + len + " bytes at " + off + " in a body of " +
+                m._bodyLength + " bytes");
+      if (len > Integer.MAX_VALUE)
+        throw new IOException("Arrow buffer of " + len + " bytes is not supported, write smaller record batches");
+      skipFully(is, off - pos);
+      byte[] bits = new byte[(int) len];
+      is.readFully(bits);
+      bufs[i] = ByteBuffer.wrap(bits).order(ByteOrder.LITTLE_ENDIAN);
+      pos = off + len;
+    }
+    skipFully(is, m._bodyLength - pos);
+    return bufs;
+  }
+
+  /** Skips the body of a message whose buffers are not needed. */
+  static void skipBody(DataInputStream is, Message m) throws IOException {
+    skipFully(is, m._bodyLength);
+  }
+
+  private static void skipFully(InputStream is, long n) throws IOException {
+    while (n > 0) {
+      long skipped = is.skip(n);
+      if (skipped <= 0) {
+        if (is.read() < 0) throw new EOFException("Malformed Arrow stream: the body of a message is truncated");
+        skipped = 1;
+      }
+      n -= skipped;
+    }
+  }
+
+}
@@ -0,0 +1,325 @@
+package water.fvec;
+
+import water.DKV;
+import water.Futures;
+import water.Key;
+import water.parser.BufferedString;
+import water.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+import static water.fvec.ArrowFormat.*;
+
+/**
+ * Reads an Apache Arrow IPC stream into a new Frame, the counterpart of {@link ArrowWriter}.
+ * <p/>
+ * The columns of every record batch are appended directly to the chunks of the new Vecs, there is no parse step: the
+ * values already have their types.  Large record batches are split into several chunks.
+ * <p/>
+ * Supported Arrow types: integers (columns of the int type of H2O), floating point (single and double precision),
+ * booleans (0/1), timestamps and dates (time columns), utf8 and binary strings (string columns), dictionary encoded
+ * strings (categorical columns) and null.  Nested types, decimals, compressed bodies and dictionary replacements
+ * are rejected.
+ */
+public class ArrowReader {
+
+  // Arrow columns, the types the values are read as
+  private static final int NULL = 0, INT = 1, FLOAT = 2, DOUBLE = 3, BOOL = 4, STRING = 5, LARGE_STRING = 6,
+          DATE_DAY = 7, TIMESTAMP = 8, DICTIONARY = 9;
+
+  private final Key<Frame> _key;
+  private String[] _names;
+  private int[] _kinds;
+  private int[] _bitWidths;        // Integers and dictionary indices
+  private long[] _msPerUnit;       // Timestamps: positive to multiply by, negative to divide by
+  private long[] _dictIds;
+  private final Map<Long, List<String>> _dicts = new HashMap<>();
+  private final List<Long> _rowsPerChunk = new ArrayList<>();
+  private boolean _initialized;    // The partial frame is in DKV
+  private int _maxChunkRows;
+
+  private ArrowReader(Key<Frame> key) {
+    _key = key;
+  }
+
+  /**
+   * Reads the Arrow stream into a new frame.
+   * @param is the stream, it is consumed but not closed
+   * @param key key of the frame to create
+   */
+  public static Frame read(InputStream is, Key<Frame> key) throws IOException {
+    ArrowReader reader = new ArrowReader(key);
+    try {
+      return reader.read(new DataInputStream(new BufferedInputStream(is, 1 << 16)));
+    } catch (IOException | RuntimeException e) {
+      reader.cleanup();
+      throw e;
+    }
+  }
+
+  private Frame read(DataInputStream is) throws IOException {
+    Message schema = readMessage(is);
+    if (schema == null || schema._headerType != HEADER_SCHEMA)
+      throw new IOException("Malformed Arrow stream: the stream does not start with a schema");
+    readSchema(schema._fb, schema._header);
+    skipBody(is, schema);
+    ChunkUtils.initFrame(_key.toString(), _names);
+    _initialized = true;
+
+    Message m;
+    while ((m = readMessage(is)) != null) {
+      if (m._headerType == HEADER_DICTIONARY_BATCH) readDictionary(is, m);
+      else if (m._headerType == HEADER_RECORD_BATCH) readRecordBatch(is, m);
+      else throw new IOException("Unexpected Arrow message, header type " + m._headerType);
+    }
+    if (_rowsPerChunk.isEmpty()) { // No rows: still one (empty) chunk
+      ChunkUtils.closeNewChunks(ChunkUtils.createNewChunks(_key.toString(), types(), 0));
+      _rowsPerChunk.add(0L);
+    }
+
+    long[] rowsPerChunk = new long[_rowsPerChunk.size()];
+    for (int i = 0; i < rowsPerChunk.length; i++) rowsPerChunk[i] = _rowsPerChunk.get(i);
+    String[][] domains = new String[_kinds.length][];
+    for (int c = 0; c < _kinds.length; c++) {
+      if (_kinds[c] != DICTIONARY) continue;
+      List<String> dict = _dicts.get(_dictIds[c]);
+      domains[c] = dict == null ? new String[0] : dict.toArray(new String[dict.size()]);
+    }
+    Frame fr = ChunkUtils.finalizeFrame(_key.toString(), rowsPerChunk, types(), domains);
+    Log.info("Read Arrow stream into frame " + _key + ": " + fr.numRows() + " rows, " + fr.numCols() + " columns");
+    return fr;
+  }
+
+  private void readSchema(Fb fb, int schema) throws IOException {
+    if (fb.getShort(schema, 0, (short) 0) != 0)
+      throw new IOException("Big endian Arrow streams are not supported");
+    final int fields = fb.child(schema, 1);
+    final int ncols = fb.length(fields);
+    _names = new String[ncols];
+    _kinds = new int[ncols];
+    _bitWidths = new int[ncols];
+    _msPerUnit = new long[ncols];
+    _dictIds = new long[ncols];
+    for (int c = 0; c < ncols; c++) {
+      final int field = fb.tableAt(fields, c);
+      String name = fb.string(field, 0);
+      _names[c] = name == null || name.isEmpty() ? "C" + (c + 1) : name;
+      if (fb.length(fb.child(field, 5)) > 0)
+        throw new IllegalArgumentException("Column " + _names[c] + ": nested Arrow types are not supported");
+      final byte type = fb.getByte(field, 2, (byte) 0);
+      final int typeTable = fb.child(field, 3);
+      final int dictionary = fb.child(field, 4);
+      if (dictionary != 0) {
+        if (type != TYPE_UTF8 && type != TYPE_BINARY)
+          throw new IllegalArgumentException("Column " + _names[c] + ": only dictionaries of strings are supported");
+        _kinds[c] = DICTIONARY;
+        _dictIds[c] = fb.getLong(dictionary, 0, 0);
+        final int indexType = fb.child(dictionary, 1);
+        _bitWidths[c] = indexType == 0 ? 32 : fb.getInt(indexType, 0, 32);
+        continue;
+      }
+      switch (type) {
+        case TYPE_NULL: _kinds[c] = NULL; break;
+        case TYPE_INT:
+          _kinds[c] = INT;
+          _bitWidths[c] = fb.getInt(typeTable, 0, 64);
+          if (fb.getByte(typeTable, 1, (byte) 0) == 0) _bitWidths[c] = -_bitWidths[c]; // Unsigned
+          break;
+        case TYPE_FLOATING_POINT:
+          short precision = fb.getShort(typeTable, 0, (short) 0);
+          if (precision == PRECISION_SINGLE) _kinds[c] = FLOAT;
+          else if (precision == PRECISION_DOUBLE) _kinds[c] = DOUBLE;
+          else throw new IllegalArgumentException("Column " + _names[c] + ": half precision floats are not supported");
+          break;
+        case TYPE_BOOL: _kinds[c] = BOOL; break;
+        case TYPE_UTF8:
+        case TYPE_BINARY: _kinds[c] = STRING; break;
+        case TYPE_LARGE_UTF8:
+        case TYPE_LARGE_BINARY: _kinds[c] = LARGE_STRING; break;
+        case TYPE_DATE:
+          if (fb.getShort(typeTable, 0, (short) 1) == ArrowFormat.DATE_DAY) {
+            _kinds[c] = DATE_DAY;
+          } else { // Date64, milliseconds
+            _kinds[c] = TIMESTAMP;
+            _msPerUnit[c] = 1;
+          }
+          break;
+        case TYPE_TIMESTAMP:
+          _kinds[c] = TIMESTAMP;
+          switch (fb.getShort(typeTable, 0, (short) 0)) {
+            case TIME_UNIT_SECOND: _msPerUnit[c] = 1000; break;
+            case TIME_UNIT_MILLISECOND: _msPerUnit[c] = 1; break;
+            case TIME_UNIT_MICROSECOND: _msPerUnit[c] = -1000; break;
+            case TIME_UNIT_NANOSECOND: _msPerUnit[c] = -1000000; break;
+          }
+          break;
+        default:
+          throw new IllegalArgumentException("Column " + _names[c] + ": Arrow type " + type + " is not supported");
+      }
+    }
+    // Chunks of about the default size of the chunks of a parsed file
+    _maxChunkRows = Math.max(1 << 10, FileVec.DFLT_CHUNK_SIZE / Math.max(1, ncols));
+  }
+
+  private byte[] types() {
+    byte[] types = new byte[_kinds.length];
+    for (int c = 0; c < types.length; c++) {
+      switch (_kinds[c]) {
+        case NULL: types[c] = Vec.T_BAD; break;
+        case STRING: case LARGE_STRING: types[c] = Vec.T_STR; break;
+        case DATE_DAY: case TIMESTAMP: types[c] = Vec.T_TIME; break;
+        case DICTIONARY: types[c] = Vec.T_CAT; break;
+        default: types[c] = Vec.T_NUM;
+      }
+    }
+    return types;
+  }
+
+  // Record batch of the body: the FieldNodes and Buffers of the columns
+  private static final class Batch {
+    final Fb _fb;
+    final int _nodes;
+    final ByteBuffer[] _bufs;
+    int _node, _buffer;     // Next ones to read
+
+    // Reads the buffers of the record batch from the body of the message
+    Batch(DataInputStream is, Message m, int recordBatch) throws IOException {
+      if (m._fb.child(recordBatch, 3) != 0)
+        throw new IOException("Compressed Arrow record batches are not supported");
+      _fb = m._fb;
+      _nodes = _fb.child(recordBatch, 1);
+      _bufs = readBuffers(is, m, recordBatch);
+    }
+
+    long nullCount() { return _fb.structLong(_nodes, 2 * _node++ + 1); }
+
+    // Next buffer, null if empty
+    ByteBuffer buffer() { return _bufs[_buffer++]; }
+  }
+
+  private void readDictionary(DataInputStream is, Message m) throws IOException {
+    final long id = m._fb.getLong(m._header, 0, 0);
+    final boolean delta = m._fb.getByte(m._header, 2, (byte) 0) != 0;
+    final int recordBatch = m._fb.child(m._header, 1);
+    final int len = (int) m._fb.getLong(recordBatch, 0, 0);
+    Batch batch = new Batch(is, m, recordBatch);
+    dictionaryColumn(id);
+    if (batch.nullCount() > 0) throw new IllegalArgumentException("Nulls in Arrow dictionaries are not supported");
+    batch.buffer(); // validity
+    ByteBuffer offsets = batch.buffer(), data = batch.buffer();
+    BufferedString tmp = new BufferedString();
+    List<String> values = new ArrayList<>(len);
+    for (int i = 0; i < len; i++)
+      values.add(string(STRING, offsets, data, i, tmp).toString());
+    List<String> dict = _dicts.get(id);
+    if (dict == null) _dicts.put(id, values);
+    else if (delta) dict.addAll(values);
+    else if (!dict.equals(values))
+      throw new IllegalArgumentException("Replacing the dictionary of a column is not supported");
+  }
+
+  // Column of the dictionary
+  private int dictionaryColumn(long id) {
+    for (int c = 0; c < _kinds.length; c++)
+      if (_kinds[c] == DICTIONARY && _dictIds[c] == id) return c;
+    throw new IllegalArgumentException("Arrow dictionary " + id + " of no column");
+  }
+
+  private void readRecordBatch(DataInputStream is, Message m) throws IOException {
+    final long numRows = m._fb.getLong(m._header, 0, 0);
+    final int ncols = _kinds.length;
+    // The buffers of all the columns
+    Batch batch = new Batch(is, m, m._header);
+    long[] nullCounts = new long[ncols];
+    ByteBuffer[] validity = new ByteBuffer[ncols], values = new ByteBuffer[ncols], data = new ByteBuffer[ncols];
+    for (int c = 0; c < ncols; c++) {
+      nullCounts[c] = batch.nullCount();
+      if (_kinds[c] == NULL) continue;
+      validity[c] = batch.buffer();
+      values[c] = batch.buffer();
+      if (_kinds[c] == STRING || _kinds[c] == LARGE_STRING) data[c] = batch.buffer();
+      if (nullCounts[c] == 0) validity[c] = null;
+    }
+    if (numRows == 0) return;
+    // The rows, split into chunks
+    final byte[] types = types();
+    BufferedString tmp = new BufferedString();
+    for (long from = 0; from < numRows; from += _maxChunkRows) {
+      final int to = (int) Math.min(numRows, from + _maxChunkRows);
+      NewChunk[] ncs = ChunkUtils.createNewChunks(_key.toString(), types, _rowsPerChunk.size());
+      for (int c = 0; c < ncols; c++) {
+        final NewChunk nc = ncs[c];
+        for (int r = (int) from; r < to; r++) {
+          if (_kinds[c] == NULL || isNull(validity[c], r)) {
+            nc.addNA();
+            continue;
+          }
+          final ByteBuffer vals = values[c];
+          switch (_kinds[c]) {
+            case INT:
+            case DICTIONARY: nc.addNum(integer(vals, _bitWidths[c], r), 0); break;
+            case FLOAT: nc.addNum(vals.getFloat(4 * r)); break;
+            case DOUBLE: nc.addNum(vals.getDouble(8 * r)); break;
+            case BOOL: nc.addNum(isNull(vals, r) ? 0 : 1, 0); break;
+            case STRING:
+            case LARGE_STRING: nc.addStr(string(_kinds[c], vals, data[c], r, tmp)); break;
+            case DATE_DAY: nc.addNum(vals.getInt(4 * r) * 86400000L, 0); break;
+            case TIMESTAMP:
+              final long t = vals.getLong(8 * r);
+              nc.addNum(_msPerUnit[c] > 0 ? t * _msPerUnit[c] : Math.floorDiv(t, -_msPerUnit[c]), 0);
+              break;
+            default:
+              throw new IllegalStateException("Unknown column kind " + _kinds[c]);
+          }
+        }
+      }
+      ChunkUtils.closeNewChunks(ncs);
+      _rowsPerChunk.add(to - from);
+    }
+  }
+
+  // A bit of the bitmap is not set: a null in a validity bitmap, false in a boolean column
+  private static boolean isNull(ByteBuffer bitmap, int r) {
+    return bitmap != null && (bitmap.get(r >> 3) & (1 << (r & 7))) == 0;
+  }
+
+  private static long integer(ByteBuffer vals, int bitWidth, int r) {
+    switch (bitWidth) {
+      case 8: return vals.get(r);
+      case -8: return vals.get(r) & 0xFFL;
+      case 16: return vals.getShort(2 * r);
+      case -16: return vals.getShort(2 * r) & 0xFFFFL;
+      case 32: return vals.getInt(4 * r);
+      case -32: return vals.getInt(4 * r) & 0xFFFFFFFFL;
+      case 64:
+      case -64: return vals.getLong(8 * r);
+      default: throw new IllegalArgumentException("Integers of " + Math.abs(bitWidth) + " bits are not supported");
+    }
+  }
+
+  private static BufferedString string(int kind, ByteBuffer offsets, ByteBuffer data, int r, BufferedString tmp) {
+    final long start = kind == LARGE_STRING ? offsets.getLong(8 * r) : offsets.getInt(4 * r);
+    final long end = kind == LARGE_STRING ? offsets.getLong(8 * r + 8) : offsets.getInt(4 * r + 4);
+    if (end == start) return tmp.set(new byte[0], 0, 0);
+    return tmp.set(data.array(), data.arrayOffset() + (int) start, (int) (end - start));
+  }
+
+  // Removes what has been stored of a frame that failed to read
+  private void cleanup() {
+    if (!_initialized) return;
+    Frame fr = DKV.getGet(_key);
+    Futures fs = new Futures();
+    for (Key<Vec> k : fr.keys())
+      for (int cidx = 0; cidx < _rowsPerChunk.size(); cidx++)
+        DKV.remove(Vec.chunkKey(k, cidx), fs);
+    fs.blockForPending();
+    fr.unlock();
+    DKV.remove(_key);
+  }
+
+}
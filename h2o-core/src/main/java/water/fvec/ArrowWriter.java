@@ -0,0 +1,185 @@
+package water.fvec;
+
+import water.api.StreamWriter;
+import water.parser.BufferedString;
+import water.util.PrettyPrint;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static water.fvec.ArrowFormat.*;
+
+/**
+ * Writes a Frame as an Apache Arrow IPC stream, one record batch per chunk of the frame.
+ * <p/>
+ * A binary columnar alternative of {@link Frame.CSVStream}: clients read it with {@code pyarrow.ipc.open_stream}
+ * (or the Arrow R package) straight into columnar memory, with no text parsing on either side.
+ * <p/>
+ * The columns map to Arrow types as follows: integer columns to int64, other numeric columns to float64,
+ * time columns to timestamp[ms], categorical columns to dictionary encoded utf8 (int32 indices, the domain is sent
+ * once as a dictionary batch), string and UUID columns to utf8, and columns with only NAs to null.  NAs are nulls.
+ */
+public class ArrowWriter implements StreamWriter {
+
+  private final Frame _fr;
+
+  public ArrowWriter(Frame fr) {
+    _fr = fr;
+  }
+
+  @Override
+  public void writeTo(OutputStream os) {
+    try {
+      DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(os, 1 << 16));
+      write(dos);
+      dos.flush();
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to write frame " + _fr._key + " as an Arrow stream", e);
+    }
+  }
+
+  private void write(DataOutputStream os) throws IOException {
+    final Vec[] vecs = _fr.vecs();
+    Table[] fields = new Table[vecs.length];
+    for (int i = 0; i < vecs.length; i++)
+      fields[i] = field(_fr.name(i), vecs[i], i);
+    writeMessage(os, HEADER_SCHEMA, new Table(4).child(1, fields), null);
+
+    for (int i = 0; i < vecs.length; i++) {
+      if (!vecs[i].isCategorical()) continue;
+      String[] domain = vecs[i].domain();
+      Body body = new Body();
+      putStrings(body, domain);
+      Table dictionary = new Table(3).scalar(0, i, 8).child(1, body.recordBatch(domain.length));
+      writeMessage(os, HEADER_DICTIONARY_BATCH, dictionary, body);
+    }
+
+    Vec anyVec = _fr.anyVec();
+    final int nChunks = anyVec == null ? 0 : anyVec.nChunks();
+    for (int cidx = 0; cidx < nChunks; cidx++) {
+      Body body = new Body();
+      int len = 0;
+      for (Vec v : vecs) {
+        Chunk chk = v.chunkForChunkIdx(cidx);
+        len = chk._len;
+        putColumn(body, chk);
+      }
+      writeMessage(os, HEADER_RECORD_BATCH, body.recordBatch(len), body);
+    }
+    writeEndOfStream(os);
+  }
+
+  private static Table field(String name, Vec v, int idx) {
+    Table field = new Table(7).child(0, name).scalar(1, 1, 1);
+    if (v.isBad()) {
+      field.scalar(2, TYPE_NULL, 1).child(3, new Table(0));
+    } else if (v.isCategorical()) {
+      field.scalar(2, TYPE_UTF8, 1).child(3, new Table(0));
+      field.child(4, new Table(4).scalar(0, idx, 8).child(1, intType(32)));
+    } else if (v.isString() || v.isUUID()) {
+      field.scalar(2, TYPE_UTF8, 1).child(3, new Table(0));
+    } else if (v.isTime()) {
+      field.scalar(2, TYPE_TIMESTAMP, 1).child(3, new Table(2).scalar(0, TIME_UNIT_MILLISECOND, 2));
+    } else if (v.isInt()) {
+      field.scalar(2, TYPE_INT, 1).child(3, intType(64));
+    } else {
+      field.scalar(2, TYPE_FLOATING_POINT, 1).child(3, new Table(1).scalar(0, PRECISION_DOUBLE, 2));
+    }
+    return field;
+  }
+
+  private static Table intType(int bitWidth) {
+    return new Table(2).scalar(0, bitWidth, 4).scalar(1, 1, 1);
+  }
+
+  private static void putColumn(Body body, Chunk chk) {
+    final Vec v = chk.vec();
+    final int len = chk._len;
+    if (v.isBad()) {
+      body.node(len, len);
+      return;
+    }
+    // Validity bitmap, omitted when there are no NAs
+    byte[] validity = null;
+    int nas = 0;
+    for (int r = 0; r < len; r++) {
+      if (chk.isNA(r)) {
+        if (validity == null) {
+          validity = new byte[(len + 7) >> 3];
+          Arrays.fill(validity, (byte) 0xFF);
+        }
+        validity[r >> 3] &= ~(1 << (r & 7));
+        nas++;
+      }
+    }
+    body.node(len, nas);
+    body.buffer(validity, validity == null ? 0 : validity.length);
+    if (v.isCategorical()) {
+      byte[] vals = new byte[4 * len];
+      for (int r = 0; r < len; r++)
+        if (!chk.isNA(r)) putInt(vals, 4 * r, (int) chk.at8(r));
+      body.buffer(vals, vals.length);
+    } else if (v.isString() || v.isUUID()) {
+      String[] strs = new String[len];
+      BufferedString tmp = new BufferedString();
+      for (int r = 0; r < len; r++)
+        if (!chk.isNA(r))
+          strs[r] = v.isUUID() ? PrettyPrint.UUID(chk.at16l(r), chk.at16h(r)) : chk.atStr(tmp, r).toString();
+      putStringBuffers(body, strs);
+    } else if (v.isInt() || v.isTime()) {
+      byte[] vals = new byte[8 * len];
+      for (int r = 0; r < len; r++)
+        if (!chk.isNA(r)) putLong(vals, 8 * r, chk.at8(r));
+      body.buffer(vals, vals.length);
+    } else {
+      byte[] vals = new byte[8 * len];
+      for (int r = 0; r < len; r++)
+        putLong(vals, 8 * r, Double.doubleToRawLongBits(chk.atd(r)));
+      body.buffer(vals, vals.length);
+    }
+  }
+
+  // A utf8 column without nulls
+  private static void putStrings(Body body, String[] strs) {
+    body.node(strs.length, 0);
+    body.buffer(null, 0);
+    putStringBuffers(body, strs);
+  }
+
+  // Offsets and data buffers of a utf8 column, null strings are empty
+  private static void putStringBuffers(Body body, String[] strs) {
+    byte[] offsets = new byte[4 * (strs.length + 1)];
+    byte[][] bytes = new byte[strs.length][];
+    int size = 0;
+    for (int i = 0; i < strs.length; i++) {
+      bytes[i] = strs[i] == null ? new byte[0] : strs[i].getBytes(StandardCharsets.UTF_8);
+      size += bytes[i].length;
+      putInt(offsets, 4 * (i + 1), size);
+    }
+    byte[] data = new byte[size];
+    int off = 0;
+    for (byte[] b : bytes) {
+      System.arraycopy(b, 0, data, off, b.length);
+      off += b.length;
+    }
+    body.buffer(offsets, offsets.length);
+    body.buffer(data, data.length);
+  }
+
+  private static void putInt(byte[] b, int off, int v) {
+    b[off] = (byte) v;
+    b[off + 1] = (byte) (v >>> 8);
+    b[off + 2] = (byte) (v >>> 16);
+    b[off + 3] = (byte) (v >>> 24);
+  }
+
+  private static void putLong(byte[] b, int off, long v) {
+    putInt(b, off, (int) v);
+    putInt(b, off + 4, (int) (v >>> 32));
+  }
+
+}
@@ -0,0 +1,40 @@
+package water.fvec;
+
+/**
+ * {@link C1Chunk} read from a mapped buffer.
+ */
+public class C1MappedChunk extends MappedChunk {
+  @Override int rowShift() { return 0; }
+
+  @Override protected final long at8_impl( int i ) {
+    long res = 0xFF&_buf.get(i);
+    if( res == C1Chunk._NA ) throw new IllegalArgumentException("at8_abs but value is missing");
+    return res;
+  }
+  @Override protected final double atd_impl( int i ) {
+    long res = 0xFF&_buf.get(i);
+    return (res == C1Chunk._NA)?Double.NaN:res;
+  }
+  @Override protected final boolean isNA_impl( int i ) { return (0xFF&_buf.get(i)) == C1Chunk._NA; }
+
+  @Override
+  public <T extends ChunkVisitor> T processRows(T v, int from, int to) {
+    for(int i = from; i < to; i++) processRow(i,v);
+    return v;
+  }
+
+  @Override
+  public <T extends ChunkVisitor> T processRows(T v, int[] ids) {
+    for(int i:ids) processRow(i,v);
+    return v;
+  }
+
+  private void processRow(int r, ChunkVisitor v){
+    int i = 0xFF&_buf.get(r);
+    if(i == C1Chunk._NA) v.addNAs(1);
+    else v.addValue(i);
+  }
+
+  @Override
+  public boolean hasFloat() {return false;}
+}
@@ -0,0 +1,40 @@
+package water.fvec;
+
+/**
+ * {@link C2Chunk} read from a mapped buffer.
+ */
+public class C2MappedChunk extends MappedChunk {
+  @Override int rowShift() { return 1; }
+
+  @Override protected final long at8_impl( int i ) {
+    int res = _buf.getShort(i<<1);
+    if( res == C2Chunk._NA ) throw new IllegalArgumentException("at8_abs but value is missing");
+    return res;
+  }
+  @Override protected final double atd_impl( int i ) {
+    int res = _buf.getShort(i<<1);
+    return res == C2Chunk._NA?Double.NaN:res;
+  }
+  @Override protected final boolean isNA_impl( int i ) { return _buf.getShort(i<<1) == C2Chunk._NA; }
+
+  @Override
+  public <T extends ChunkVisitor> T processRows(T v, int from, int to) {
+    for(int i = from; i < to; i++) processRow(i,v);
+    return v;
+  }
+
+  @Override
+  public <T extends ChunkVisitor> T processRows(T v, int[] ids) {
+    for(int i:ids) processRow(i,v);
+    return v;
+  }
+
+  private void processRow(int r, ChunkVisitor v){
+    int i = _buf.getShort(r<<1);
+    if(i == C2Chunk._NA) v.addNAs(1);
+    else v.addValue(i);
+  }
+
+  @Override
+  public boolean hasFloat() {return false;}
+}
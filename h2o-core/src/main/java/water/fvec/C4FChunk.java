@@ -36,6 +36,23 @@ public class C4FChunk extends Chunk {
     return nc;
   }
 
+  @Override public double [] getDoubles(double [] vals, int from, int to, double NA){
+    for(int i = from; i < to; i++) {
+      float f = UnsafeUtils.get4f(_mem, i<<2);
+      vals[i-from] = Float.isNaN(f)?NA:f;
+    }
+    return vals;
+  }
+
+  @Override public double [] getDoubles(double [] vals, int [] ids){
+    int k = 0;
+    for(int i:ids) {
+      float f = UnsafeUtils.get4f(_mem, i<<2);
+      vals[k++] = Float.isNaN(f)?Double.NaN:f;
+    }
+    return vals;
+  }
+
   private final void processRow(int r, ChunkVisitor v){
     float f = UnsafeUtils.get4f(_mem,(r<<2));
     if(Float.isNaN(f)) v.addNAs(1);
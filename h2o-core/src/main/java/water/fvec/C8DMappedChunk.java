@@ -0,0 +1,28 @@
+package water.fvec;
+
+/**
+ * {@link C8DChunk} read from a mapped buffer.
+ */
+public class C8DMappedChunk extends MappedChunk {
+  @Override int rowShift() { return 3; }
+
+  @Override protected final long at8_impl( int i ) {
+    double res = _buf.getDouble(i<<3);
+    if( Double.isNaN(res) ) throw new IllegalArgumentException("at8_abs but value is missing");
+    return (long)res;
+  }
+  @Override protected final double atd_impl( int i ) { return _buf.getDouble(i<<3); }
+  @Override protected final boolean isNA_impl( int i ) { return Double.isNaN(_buf.getDouble(i<<3)); }
+
+  @Override
+  public <T extends ChunkVisitor> T processRows(T v, int from, int to) {
+    for(int i = from; i < to; i++) v.addValue(_buf.getDouble(i<<3));
+    return v;
+  }
+
+  @Override
+  public <T extends ChunkVisitor> T processRows(T v, int[] ids) {
+    for(int i:ids) v.addValue(_buf.getDouble(i<<3));
+    return v;
+  }
+}
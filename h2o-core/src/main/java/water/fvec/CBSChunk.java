@@ -102,6 +102,24 @@ public class CBSChunk extends Chunk {
     return false;
   }
 
+  @Override public double [] getDoubles(double [] vals, int from, int to, double NA){
+    final int bpv = _bpv, mask = 1 | bpv;
+    for(int i = from; i < to; ++i) {
+      int b = (_mem[_OFF + ((i*bpv)>>3)] >> (bpv*i & 7)) & mask;
+      vals[i-from] = b == _NA?NA:b;
+    }
+    return vals;
+  }
+
+  @Override public int [] getIntegers(int [] vals, int from, int to, int NA){
+    final int bpv = _bpv, mask = 1 | bpv;
+    for(int i = from; i < to; ++i) {
+      int b = (_mem[_OFF + ((i*bpv)>>3)] >> (bpv*i & 7)) & mask;
+      vals[i-from] = b == _NA?NA:b;
+    }
+    return vals;
+  }
+
   private void processRow(int r, ChunkVisitor v){
     int i = read(r);
     if(i == _NA) v.addNAs(1);
@@ -687,7 +687,7 @@ public abstract class Chunk extends Iced<Chunk> implements Vec.Holder {
 
   /** Custom serializers implemented by Chunk subclasses: the _mem field
    *  contains ALL the fields already. */
-  public final  AutoBuffer write_impl(AutoBuffer bb) {return bb.putA1(_mem);}
+  public final  AutoBuffer write_impl(AutoBuffer bb) {return bb.putA1(asBytes());}
 
   @Override
   public byte [] asBytes(){return _mem;}
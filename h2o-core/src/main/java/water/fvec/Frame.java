@@ -7,6 +7,7 @@ import water.api.FramesHandler;
 import water.api.schemas3.KeyV3;
 import water.exceptions.H2OIllegalArgumentException;
 import water.parser.BufferedString;
+import water.parser.ParserService;
 import water.rapids.Merge;
 import water.util.*;
 
@@ -1512,6 +1513,22 @@ public class Frame extends Lockable<Frame> {
 
   public static Job export(Frame fr, String path, String frameName, boolean overwrite, int nParts, 
                            String compression, CSVStreamParams csvParms) {
+    return export(fr, path, frameName, overwrite, nParts, ExportFileFormat.csv, compression, csvParms);
+  }
+
+  /**
+   * Exports the frame to a single file, or to a directory of part files written in parallel by the nodes
+   * holding the data (nParts != 1). Formats other than CSV need the parser module of the format
+   * on the classpath, the CSV parameters are ignored for them.
+   */
+  public static Job export(Frame fr, String path, String frameName, boolean overwrite, int nParts,
+                           ExportFileFormat format, String compression, CSVStreamParams csvParms) {
+    if (format == null)
+      format = ExportFileFormat.csv;
+    if (format != ExportFileFormat.csv && ParserService.INSTANCE.getExporter(format) == null) {
+      throw new H2OIllegalArgumentException("format", "exportFrame", "Export to " + format +
+              " is not available, the " + format + " parser module is missing.");
+    }
     boolean forceSingle = nParts == 1;
     // Validate input
     if (forceSingle) {
@@ -1527,10 +1544,14 @@ public class Frame extends Lockable<Frame> {
                 " to store part files! The target needs to be either an existing empty directory or not exist yet.");
       }
     }
-    CompressionFactory compressionFactory = compression != null ? CompressionFactory.make(compression) : null;
     Job job =  new Job<>(fr._key, "water.fvec.Frame", "Export dataset");
-    FrameUtils.ExportTaskDriver t = new FrameUtils.ExportTaskDriver(
-            fr, path, frameName, overwrite, job, nParts, compressionFactory, csvParms);
+    FrameUtils.ExportTaskDriver t;
+    if (format == ExportFileFormat.csv) {
+      CompressionFactory compressionFactory = compression != null ? CompressionFactory.make(compression) : null;
+      t = new FrameUtils.ExportTaskDriver(fr, path, frameName, overwrite, job, nParts, compressionFactory, csvParms);
+    } else {
+      t = new FrameUtils.ExportTaskDriver(fr, path, frameName, overwrite, job, nParts, format, compression);
+    }
     return job.start(t, fr.anyVec().nChunks());
   }
 
@@ -0,0 +1,67 @@
+package water.fvec;
+
+import water.MemoryManager;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A read-only Chunk decoding its values straight from a ByteBuffer, usually a
+ * slice of a memory-mapped ICE segment, instead of from a heap byte[].  The
+ * bytes are laid out exactly as in the plain Chunk it stands in for, so the
+ * Value keeps the plain Chunk's type; asking for the bytes copies them out.
+ * Writes inflate into a NewChunk, as for any Chunk that cannot hold the
+ * written value.
+ */
+public abstract class MappedChunk extends Chunk {
+  transient ByteBuffer _buf;
+
+  /** A mapped stand-in for a Chunk of the given (not yet loaded) type, or
+   *  null if that type cannot be mapped.  The buffer must be in native order. */
+  public static Chunk make(Chunk proto, ByteBuffer buf) {
+    MappedChunk mc;
+    Class<?> clz = proto.getClass();
+    if( clz == C1Chunk.class ) mc = new C1MappedChunk();
+    else if( clz == C2Chunk.class ) mc = new C2MappedChunk();
+    else if( clz == C8DChunk.class ) mc = new C8DMappedChunk();
+    else return null;
+    mc._buf = buf;
+    mc.initFromBuffer();
+    return mc;
+  }
+
+  /** log2 of the size of one row in bytes */
+  abstract int rowShift();
+
+  private void initFromBuffer() {
+    _start = -1;  _cidx = -1;
+    set_len(_buf.limit() >> rowShift());
+  }
+
+  // Deserialized from a plain byte[]; read from the heap from now on
+  @Override protected final void initFromBytes() {
+    _buf = ByteBuffer.wrap(_mem).order(ByteOrder.nativeOrder());
+    initFromBuffer();
+  }
+
+  @Override public byte[] asBytes() {
+    if( _mem != null ) return _mem;
+    byte[] b = MemoryManager.malloc1(_buf.limit());
+    _buf.duplicate().get(b);    // Private position; racing readers are fine
+    return b;
+  }
+  @Override public byte[] getBytes() { return asBytes(); }
+
+  @Override public Chunk deepCopy() {
+    Chunk c2 = clone();
+    c2._vec = null;
+    c2.reloadFromBytes(_mem != null ? _mem.clone() : asBytes());
+    assert len() == c2._len;
+    return c2;
+  }
+
+  @Override boolean set_impl(int idx, long l) { return false; }
+  @Override boolean set_impl(int idx, double d) { return false; }
+  @Override boolean set_impl(int idx, float f) { return false; }
+  @Override boolean setNA_impl(int idx) { return false; }
+}
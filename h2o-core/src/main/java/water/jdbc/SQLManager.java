@@ -44,6 +44,29 @@ public class SQLManager {
       final String username, final String password, final String columns,
       final Boolean useTempTable, final String tempTableName,
       final SqlFetchMode fetch_mode) {
+    return importSqlTable(connection_url, table, select_query, username, password, columns,
+        useTempTable, tempTableName, fetch_mode, null);
+  }
+
+  /**
+   * @param connection_url (Input)
+   * @param table (Input)
+   * @param select_query (Input)
+   * @param username (Input)
+   * @param password (Input)
+   * @param columns (Input)
+   * @param fetch_mode (Input)
+   * @param partition_column (Input) numeric or date/time column the table is split on in the PARTITIONED mode
+   */
+  public static Job<Frame> importSqlTable(
+      final String connection_url, final String table, final String select_query,
+      final String username, final String password, final String columns,
+      final Boolean useTempTable, final String tempTableName,
+      final SqlFetchMode fetch_mode, final String partition_column) {
+
+    if (SqlFetchMode.PARTITIONED.equals(fetch_mode) && (partition_column == null || partition_column.isEmpty())) {
+      throw new IllegalArgumentException("Fetch mode " + SqlFetchMode.PARTITIONED + " requires a partition column.");
+    }
 
     final Key<Frame> destination_key = Key.make((table + "_sql_to_hex").replaceAll("\\W", "_"));
     final Job<Frame> j = new Job<>(destination_key, Frame.class.getName(), "Import SQL Table");
@@ -55,7 +78,7 @@ public class SQLManager {
         j, destination_key, databaseType, connection_url, 
         table, select_query, username, password, columns, 
         useTempTable, tempTableName,
-        fetch_mode
+        fetch_mode, partition_column
     );
     j.start(importDriver, Job.WORK_UNKNOWN);
 
@@ -77,11 +100,12 @@ public class SQLManager {
     final boolean _useTempTable;
     final String _tempTableName;
     final SqlFetchMode _fetch_mode;
+    final String _partition_column;
 
     SQLImportDriver(
         Job<Frame> job, Key<Frame> destination_key, String database_type, 
         String connection_url, String table, String select_query, String username, String password, String columns,
-        Boolean useTempTable, String tempTableName, SqlFetchMode fetch_mode
+        Boolean useTempTable, String tempTableName, SqlFetchMode fetch_mode, String partition_column
     ) {
       _j = job;
       _destination_key = destination_key;
@@ -95,6 +119,7 @@ public class SQLManager {
       _useTempTable = shouldUseTempTable(useTempTable);
       _tempTableName = getTempTableName(tempTableName);
       _fetch_mode = fetch_mode;
+      _partition_column = partition_column;
     }
 
     /*
@@ -130,6 +155,8 @@ public class SQLManager {
       String source_table = _table;
       final String[] columnNames;
       final byte[] columnH2OTypes;
+      double partitionMin = Double.NaN, partitionMax = Double.NaN;
+      int partitionSqlType = Types.NULL;
       try {
         conn = getConnectionSafe(_connection_url, _username, _password);
         stmt = conn.createStatement();
@@ -165,7 +192,7 @@ public class SQLManager {
         if (SqlFetchMode.DISTRIBUTED.equals(_fetch_mode)) {
           rs = stmt.executeQuery(buildSelectSingleRowSql(_database_type, source_table, _columns));
         } else {
-          // we use a simpler SQL-dialect independent query in the `streaming` mode because the goal is to be dialect independent
+          // we use a simpler SQL-dialect independent query in the `streaming` and `partitioned` modes because the goal is to be dialect independent
           stmt.setMaxRows(1);
           rs = stmt.executeQuery("SELECT " + _columns + " FROM " + source_table);
         }
@@ -221,6 +248,24 @@ public class SQLManager {
           }
         }
 
+        if (SqlFetchMode.PARTITIONED.equals(_fetch_mode)) {
+          rs.close();
+          _j.update(0L, "Getting range of the partition column");
+          rs = stmt.executeQuery("SELECT MIN(" + _partition_column + "), MAX(" + _partition_column + ") FROM " + source_table);
+          partitionSqlType = rs.getMetaData().getColumnType(1);
+          rs.next();
+          if (PartitionBounds.isTime(partitionSqlType)) {
+            Timestamp min = rs.getTimestamp(1), max = rs.getTimestamp(2);
+            if (min != null) partitionMin = min.getTime();
+            if (max != null) partitionMax = max.getTime();
+          } else {
+            partitionMin = rs.getDouble(1);
+            if (rs.wasNull()) partitionMin = Double.NaN;
+            partitionMax = rs.getDouble(2);
+            if (rs.wasNull()) partitionMax = Double.NaN;
+          }
+        }
+
       } catch (SQLException ex) {
         throw new RuntimeException("SQLException: " + ex.getMessage() + "\nFailed to connect and read from SQL database with connection_url: " + _connection_url, ex);
       } finally {
@@ -256,6 +301,7 @@ public class SQLManager {
                       +(float)(realcols+timecols+stringcols) *numRow*8); //8 bytes for real and time (long) values
 
       final Vec vec;
+      PartitionBounds partitions = null;
       final int chunk_size = FileVec.calcOptimalChunkSize(totSize, numCol, numCol * 4,
               H2O.ARGS.nthreads, H2O.getCloudSize(), false, false);
       final double rows_per_chunk = chunk_size; //why not numRow * chunk_size / totSize; it's supposed to be rows per chunk, not the byte size
@@ -266,6 +312,13 @@ public class SQLManager {
         vec = num_retrieval_chunks >= num_chunks
                 ? Vec.makeConN(numRow, num_chunks)
                 : Vec.makeConN(numRow, num_retrieval_chunks);
+      } else if (SqlFetchMode.PARTITIONED.equals(_fetch_mode)) {
+        // each partition becomes one chunk; have at least as many partitions as concurrent connections
+        final int num_retrieval_chunks = ConnectionPoolProvider.estimateConcurrentConnections(H2O.getCloudSize(), H2O.ARGS.nthreads);
+        final int num_partitions = (int) Math.max(1, Math.min(numRow, Math.max(num_chunks, num_retrieval_chunks)));
+        partitions = PartitionBounds.make(_partition_column, partitionSqlType, partitionMin, partitionMax, num_partitions);
+        // blueprint with a single row per partition, it only serves to spread the partitions over the cloud
+        vec = Vec.makeConN(partitions.nPartitions(), partitions.nPartitions());
       } else {
         vec = Vec.makeConN(numRow, num_chunks);
       }
@@ -282,6 +335,11 @@ public class SQLManager {
         fr = new SqlTableToH2OFrame(source_table, _database_type, _columns, columnNames, numCol, _j, provider)
                 .doAll(columnH2OTypes, vec)
                 .outputFrame(_destination_key, columnNames, null);
+      } else if (SqlFetchMode.PARTITIONED.equals(_fetch_mode)) {
+        final int fetchSize = (int) Math.max(1, Math.min(numRow / partitions.nPartitions(), 1e5));
+        fr = new SqlPartitionsToH2OFrame(source_table, _columns, partitions, fetchSize, _j, provider)
+                .doAll(columnH2OTypes, vec)
+                .outputFrame(_destination_key, columnNames, null);
       } else {
         fr = new SqlTableToH2OFrameStreaming(source_table, _database_type, _columns, columnNames, numCol, _j, provider)
                 .readTable(vec, columnH2OTypes, _destination_key);
@@ -368,6 +426,128 @@ public class SQLManager {
   }
 
 
+  /**
+   * Range partitioning of a table on a numeric or date/time column. Partition i holds the rows with
+   * bounds[i] <= column < bounds[i+1]; the first partition is open from below and also takes the NULLs,
+   * the last one is open from above, so that no row is lost to rounding of the bounds.
+   */
+  static class PartitionBounds extends Iced<PartitionBounds> {
+    private static final byte REAL = 0;
+    private static final byte INTEGRAL = 1;
+    private static final byte DATE = 2;
+    private static final byte TIMESTAMP = 3;
+
+    private String _column;
+    private byte _kind;
+    private double[] _bounds; // bounds[i] is the lower bound of partition i, bounds[0] is not used
+
+    public PartitionBounds() {} // Externalizable classes need no-args constructor
+
+    private PartitionBounds(String column, byte kind, double[] bounds) {
+      _column = column;
+      _kind = kind;
+      _bounds = bounds;
+    }
+
+    static boolean isTime(int sqlType) {
+      return sqlType == Types.DATE || sqlType == Types.TIME || sqlType == Types.TIMESTAMP;
+    }
+
+    /**
+     * Splits the range [min, max] into equally wide partitions; integral columns (and date/time columns,
+     * represented as epoch millis) get whole-number bounds at least one apart.
+     *
+     * @param sqlType type of the column (from {@link Types}), the kind of bounds is derived from it
+     * @param min minimum of the column, NaN if the column has only NULLs
+     * @param max maximum of the column, NaN if the column has only NULLs
+     */
+    static PartitionBounds make(String column, int sqlType, double min, double max, int nPartitions) {
+      final byte kind;
+      switch (sqlType) {
+        case Types.INTEGER:
+        case Types.TINYINT:
+        case Types.SMALLINT:
+        case Types.BIGINT:
+          kind = INTEGRAL;
+          break;
+        case Types.NUMERIC:
+        case Types.DECIMAL:
+        case Types.REAL:
+        case Types.DOUBLE:
+        case Types.FLOAT:
+          kind = REAL;
+          break;
+        case Types.DATE:
+          kind = DATE;
+          break;
+        case Types.TIME:
+        case Types.TIMESTAMP:
+          kind = TIMESTAMP;
+          break;
+        default:
+          throw new IllegalArgumentException("Partition column " + column + " has to be numeric or date/time, " +
+                  "unsupported SQL type: " + sqlType);
+      }
+      if (Double.isNaN(min) || Double.isNaN(max) || max <= min) {
+        nPartitions = 1;
+      } else if (kind != REAL) {
+        nPartitions = (int) Math.min(nPartitions, max - min);
+      }
+      double[] bounds = new double[nPartitions];
+      for (int i = 1; i < nPartitions; i++) {
+        double b = min + (max - min) * i / nPartitions;
+        bounds[i] = kind == REAL ? b : Math.floor(b);
+      }
+      return new PartitionBounds(column, kind, bounds);
+    }
+
+    int nPartitions() {
+      return _bounds.length;
+    }
+
+    /** @return WHERE clause of the partition (with the bounds as JDBC parameters), empty for a single partition */
+    String whereClause(int p) {
+      if (nPartitions() == 1)
+        return "";
+      if (p == 0)
+        return " WHERE " + _column + " < ? OR " + _column + " IS NULL";
+      if (p == nPartitions() - 1)
+        return " WHERE " + _column + " >= ?";
+      return " WHERE " + _column + " >= ? AND " + _column + " < ?";
+    }
+
+    /** Binds the bounds of the partition to the statement created from {@link #whereClause(int)} */
+    void setParameters(PreparedStatement stmt, int p) throws SQLException {
+      if (nPartitions() == 1)
+        return;
+      int idx = 1;
+      if (p > 0)
+        setParameter(stmt, idx++, _bounds[p]);
+      if (p < nPartitions() - 1)
+        setParameter(stmt, idx, _bounds[p + 1]);
+    }
+
+    private void setParameter(PreparedStatement stmt, int idx, double value) throws SQLException {
+      switch (_kind) {
+        case INTEGRAL:
+          stmt.setLong(idx, (long) value);
+          break;
+        case DATE:
+          stmt.setDate(idx, new Date((long) value));
+          break;
+        case TIMESTAMP:
+          stmt.setTimestamp(idx, new Timestamp((long) value));
+          break;
+        default:
+          stmt.setDouble(idx, value);
+      }
+    }
+  }
+
+  static String buildSelectPartitionSql(String table, String columns, PartitionBounds partitions, int p) {
+    return "SELECT " + columns + " FROM " + table + partitions.whereClause(p);
+  }
+
   static class ConnectionPoolProvider extends Iced<ConnectionPoolProvider> {
 
     private String _url;
@@ -763,6 +943,110 @@ public class SQLManager {
     }
   }
 
+  /**
+   * Reads one range partition per chunk of a blueprint Vec (with a single row per chunk). Each partition is
+   * streamed with a single range query straight into the NewChunks; the number of queries in flight on a node
+   * is bounded by the size of its connection pool.
+   */
+  static class SqlPartitionsToH2OFrame extends MRTask<SqlPartitionsToH2OFrame> {
+    final String _table, _columns;
+    final PartitionBounds _partitions;
+    final int _fetchSize;
+    final Job _job;
+    final ConnectionPoolProvider _poolProvider;
+
+    transient ArrayBlockingQueue<Connection> sqlConn;
+
+    SqlPartitionsToH2OFrame(final String table, final String columns, final PartitionBounds partitions,
+                            final int fetchSize, final Job job, final ConnectionPoolProvider poolProvider) {
+      _table = table;
+      _columns = columns;
+      _partitions = partitions;
+      _fetchSize = fetchSize;
+      _job = job;
+      _poolProvider = poolProvider;
+    }
+
+    @Override
+    protected void setupLocal() {
+      sqlConn = _poolProvider.createConnectionPool();
+    }
+
+    @Override
+    public void map(Chunk[] cs, NewChunk[] ncs) {
+      if (isCancelled() || _job != null && _job.stop_requested()) return;
+      final int partition = cs[0].cidx();
+      final String sqlText = buildSelectPartitionSql(_table, _columns, _partitions, partition);
+      Connection conn = null;
+      PreparedStatement stmt = null;
+      ResultSet rs = null;
+      boolean autoCommit = false;
+      try {
+        conn = sqlConn.take();
+        // some drivers (eg. PostgreSQL) only stream the result (honor the fetch size) outside of auto-commit mode
+        autoCommit = setAutoCommit(conn, false);
+        stmt = conn.prepareStatement(sqlText, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        stmt.setFetchSize(_fetchSize);
+        _partitions.setParameters(stmt, partition);
+        rs = stmt.executeQuery();
+        while (rs.next()) {
+          SqlTableToH2OFrame.writeRow(rs, ncs);
+        }
+      } catch (SQLException ex) {
+        throw new RuntimeException("SQLException: " + ex.getMessage() + "\nFailed to read SQL data: " + sqlText, ex);
+      } catch (InterruptedException e) {
+        throw new RuntimeException("Interrupted exception when trying to take connection from pool", e);
+      } finally {
+
+        //close result set
+        if (rs != null) {
+          try {
+            rs.close();
+          } catch (SQLException sqlEx) {
+          } // ignore
+        }
+
+        //close statement
+        if (stmt != null) {
+          try {
+            stmt.close();
+          } catch (SQLException sqlEx) {
+          } // ignore
+        }
+
+        //return connection to pool
+        if (conn != null) {
+          if (autoCommit) setAutoCommit(conn, true);
+          sqlConn.add(conn);
+        }
+      }
+      if (_job != null) _job.update(1);
+    }
+
+    /** @return true if the mode was changed */
+    private static boolean setAutoCommit(Connection conn, boolean autoCommit) {
+      try {
+        if (conn.getAutoCommit() == autoCommit)
+          return false;
+        conn.setAutoCommit(autoCommit);
+        return true;
+      } catch (SQLException e) {
+        Log.trace(e); // not supported by the driver
+        return false;
+      }
+    }
+
+    @Override
+    protected void closeLocal() {
+      try {
+        for (Connection conn : sqlConn) {
+          conn.close();
+        }
+      } catch (Exception ex) {
+      } // ignore
+    }
+  }
+
   private static void dropTempTable(String connection_url, String username, String password, String tableName) {
     Connection conn = null;
     Statement stmt = null;
@@ -2,5 +2,6 @@ package water.jdbc;
 
 public enum SqlFetchMode {
     SINGLE,
-    DISTRIBUTED
+    DISTRIBUTED,
+    PARTITIONED
 }
@@ -0,0 +1,157 @@
+package water.network;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ByteChannel;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A ByteChannel compressing the data written to an underlying (socket) channel and decompressing the data read
+ * from it, both ends of a connection have to use it.
+ *
+ * The data is sent in frames of at most {@link #MAX_FRAME_SIZE} bytes: an 8-byte header (raw length, compressed
+ * length) followed by the payload. Each write is compressed with {@link LZBlockCodec} only if it has at least
+ * minSize bytes and the compressed payload is at most maxRatio of the raw size, otherwise it is stored raw
+ * (compressed length 0). Frames are self-contained, so the channel never has to read ahead of the data
+ * the reader asked for.
+ */
+public class CompressedByteChannel implements ByteChannel {
+
+    static final int MAX_FRAME_SIZE = 64 * 1024;
+    private static final int HEADER_SIZE = 8;
+
+    // Raw bytes written through all compressed channels of this node, and the bytes actually sent
+    private static final AtomicLong RAW_BYTES_OUT = new AtomicLong();
+    private static final AtomicLong WIRE_BYTES_OUT = new AtomicLong();
+
+    private final ByteChannel channel;
+    private final int minSize;
+    private final double maxRatio;
+
+    // Lazily allocated buffers of each direction; a connection mostly carries data one way, the other way
+    // only the close handshake
+    private byte[] raw;
+    private byte[] frame;
+    private int[] table;
+    private byte[] inRaw;
+    private byte[] inFrame;
+    private ByteBuffer header;
+    private ByteBuffer decoded;
+
+    /**
+     * @param channel underlying channel
+     * @param minSize writes smaller than this are not compressed
+     * @param maxRatio compressed data are sent only if at most this fraction of the raw size
+     */
+    public CompressedByteChannel(ByteChannel channel, int minSize, double maxRatio) {
+        this.channel = channel;
+        this.minSize = minSize;
+        this.maxRatio = maxRatio;
+    }
+
+    /** Number of bytes saved on the wire by all the compressed channels of this node */
+    public static long bytesSaved() {
+        return RAW_BYTES_OUT.get() - WIRE_BYTES_OUT.get();
+    }
+
+    ByteChannel channel() {
+        return channel;
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        int written = 0;
+        while (src.hasRemaining()) {
+            final int len = Math.min(src.remaining(), MAX_FRAME_SIZE);
+            if (raw == null) {
+                raw = new byte[MAX_FRAME_SIZE];
+                frame = new byte[HEADER_SIZE + LZBlockCodec.maxCompressedLength(MAX_FRAME_SIZE)];
+            }
+            src.get(raw, 0, len);
+            int payload = 0;
+            if (len >= minSize) {
+                if (table == null) table = new int[1 << LZBlockCodec.HASH_LOG];
+                payload = LZBlockCodec.compress(raw, 0, len, frame, HEADER_SIZE, table);
+                if (payload > len * maxRatio)
+                    payload = 0; // not worth it, send raw
+            }
+            if (payload == 0)
+                System.arraycopy(raw, 0, frame, HEADER_SIZE, len);
+            ByteBuffer out = ByteBuffer.wrap(frame, 0, HEADER_SIZE + (payload == 0 ? len : payload));
+            out.putInt(len).putInt(payload).position(0);
+            while (out.hasRemaining())
+                channel.write(out);
+            RAW_BYTES_OUT.addAndGet(len);
+            WIRE_BYTES_OUT.addAndGet(out.limit() - HEADER_SIZE);
+            written += len;
+        }
+        return written;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        if (decoded == null || !decoded.hasRemaining()) {
+            if (!readFrame())
+                return -1;
+        }
+        final int n = Math.min(dst.remaining(), decoded.remaining());
+        final int lim = decoded.limit();
+        decoded.limit(decoded.position() + n);
+        dst.put(decoded);
+        decoded.limit(lim);
+        return n;
+    }
+
+    // Reads and decodes the next frame; false on end of stream before the frame
+    private boolean readFrame() throws IOException {
+        if (header == null) {
+            header = ByteBuffer.allocate(HEADER_SIZE);
+            inRaw = new byte[MAX_FRAME_SIZE];
+            inFrame = new byte[LZBlockCodec.maxCompressedLength(MAX_FRAME_SIZE)];
+            decoded = ByteBuffer.wrap(inRaw, 0, 0);
+        }
+        header.clear();
+        if (!readFully(header, true))
+            return false;
+        header.flip();
+        final int len = header.getInt();
+        final int payload = header.getInt();
+        if (len <= 0 || len > MAX_FRAME_SIZE || payload < 0 || payload > inFrame.length)
+            throw new IOException("Corrupted compressed frame header: length=" + len + ", payload=" + payload);
+        if (payload == 0) {
+            readFully(ByteBuffer.wrap(inRaw, 0, len), false);
+        } else {
+            readFully(ByteBuffer.wrap(inFrame, 0, payload), false);
+            try {
+                LZBlockCodec.decompress(inFrame, 0, payload, inRaw, 0, len);
+            } catch (RuntimeException e) {
+                throw new IOException("Failed to decompress frame", e);
+            }
+        }
+        decoded.limit(len).position(0);
+        return true;
+    }
+
+    private boolean readFully(ByteBuffer bb, boolean eofAllowed) throws IOException {
+        while (bb.hasRemaining()) {
+            if (channel.read(bb) < 0) {
+                if (eofAllowed && bb.position() == 0)
+                    return false;
+                throw new EOFException("Stream ended in the middle of a compressed frame");
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+}
@@ -0,0 +1,153 @@
+package water.network;
+
+import java.util.Arrays;
+
+/**
+ * Fast LZ77 block codec in the spirit of LZ4 (same sequence layout: a token with literal and match
+ * lengths, the literals, a 2-byte little-endian offset, then the extra match length bytes).
+ * It trades compression ratio for speed; the data of a block is always compressed independently.
+ */
+final class LZBlockCodec {
+
+    static final int HASH_LOG = 14;
+
+    private static final int MIN_MATCH = 4;
+    private static final int MAX_OFFSET = 65535;
+    private static final int LAST_LITERALS = 5; // the block always ends with at least this many literals
+    private static final int MF_LIMIT = 12;     // no match can start in this many last bytes
+
+    private LZBlockCodec() {}
+
+    /** Size of the output buffer that can hold compressed data of any input of the given length */
+    static int maxCompressedLength(int len) {
+        return len + len / 255 + 16;
+    }
+
+    /**
+     * Compresses src[off, off+len) into dst starting at dOff.
+     * @param dst output buffer, must have at least {@link #maxCompressedLength(int)} bytes after dOff
+     * @param table hash table of 1 &lt;&lt; {@link #HASH_LOG} entries, reused between calls
+     * @return number of bytes written
+     */
+    static int compress(byte[] src, int off, int len, byte[] dst, int dOff, int[] table) {
+        Arrays.fill(table, -1);
+        final int end = off + len;
+        final int matchLimit = end - LAST_LITERALS;
+        final int mfLimit = end - MF_LIMIT;
+        int anchor = off;
+        int ip = off + 1;
+        int op = dOff;
+        while (ip < mfLimit) {
+            final int seq = readInt(src, ip);
+            final int h = hash(seq);
+            int ref = table[h];
+            table[h] = ip;
+            if (ref < 0 || ip - ref > MAX_OFFSET || readInt(src, ref) != seq) {
+                ip += 1 + ((ip - anchor) >>> 6); // skip faster over data that does not compress
+                continue;
+            }
+            // extend the match backwards over the pending literals, then forward
+            while (ip > anchor && ref > off && src[ip - 1] == src[ref - 1]) {
+                ip--;
+                ref--;
+            }
+            int mlen = MIN_MATCH;
+            while (ip + mlen < matchLimit && src[ip + mlen] == src[ref + mlen])
+                mlen++;
+            op = writeSequence(src, anchor, ip - anchor, ip - ref, mlen, dst, op);
+            ip += mlen;
+            anchor = ip;
+            if (ip < mfLimit)
+                table[hash(readInt(src, ip - 2))] = ip - 2;
+        }
+        // trailing literals
+        final int litLen = end - anchor;
+        final int tokenPos = op++;
+        dst[tokenPos] = (byte) (Math.min(litLen, 15) << 4);
+        if (litLen >= 15)
+            op = writeLength(litLen - 15, dst, op);
+        System.arraycopy(src, anchor, dst, op, litLen);
+        return op + litLen - dOff;
+    }
+
+    /**
+     * Decompresses a block produced by {@link #compress}.
+     * @throws IllegalStateException if the block does not decode to exactly rawLen bytes
+     */
+    static void decompress(byte[] src, int off, int len, byte[] dst, int dOff, int rawLen) {
+        final int end = off + len;
+        int ip = off;
+        int op = dOff;
+        while (true) {
+            final int token = src[ip++] & 0xFF;
+            int litLen = token >>> 4;
+            if (litLen == 15) {
+                int b;
+                do {
+                    b = src[ip++] & 0xFF;
+                    litLen += b;
+                } while (b == 255);
+            }
+            System.arraycopy(src, ip, dst, op, litLen);
+            ip += litLen;
+            op += litLen;
+            if (ip >= end)
+                break;
+            final int offset = (src[ip] & 0xFF) | (src[ip + 1] & 0xFF) << 8;
+            ip += 2;
+            int mlen = token & 0xF;
+            if (mlen == 15) {
+                int b;
+                do {
+                    b = src[ip++] & 0xFF;
+                    mlen += b;
+                } while (b == 255);
+            }
+            mlen += MIN_MATCH;
+            final int ref = op - offset;
+            if (offset == 0 || ref < dOff)
+                throw new IllegalStateException("Corrupted block: invalid offset " + offset);
+            if (offset >= mlen) {
+                System.arraycopy(dst, ref, dst, op, mlen);
+            } else { // overlapping copy repeats the pattern
+                for (int i = 0; i < mlen; i++)
+                    dst[op + i] = dst[ref + i];
+            }
+            op += mlen;
+        }
+        if (op - dOff != rawLen)
+            throw new IllegalStateException("Corrupted block: decoded " + (op - dOff) + " bytes, expected " + rawLen);
+    }
+
+    private static int writeSequence(byte[] src, int lit, int litLen, int offset, int mlen, byte[] dst, int op) {
+        final int ml = mlen - MIN_MATCH;
+        dst[op++] = (byte) ((Math.min(litLen, 15) << 4) | Math.min(ml, 15));
+        if (litLen >= 15)
+            op = writeLength(litLen - 15, dst, op);
+        System.arraycopy(src, lit, dst, op, litLen);
+        op += litLen;
+        dst[op++] = (byte) offset;
+        dst[op++] = (byte) (offset >>> 8);
+        if (ml >= 15)
+            op = writeLength(ml - 15, dst, op);
+        return op;
+    }
+
+    private static int writeLength(int n, byte[] dst, int op) {
+        while (n >= 255) {
+            dst[op++] = (byte) 255;
+            n -= 255;
+        }
+        dst[op++] = (byte) n;
+        return op;
+    }
+
+    private static int readInt(byte[] b, int i) {
+        return (b[i] & 0xFF) | (b[i + 1] & 0xFF) << 8 | (b[i + 2] & 0xFF) << 16 | (b[i + 3] & 0xFF) << 24;
+    }
+
+    private static int hash(int seq) {
+        return (seq * -1640531535) >>> (32 - HASH_LOG);
+    }
+
+}
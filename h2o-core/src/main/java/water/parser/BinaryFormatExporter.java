@@ -0,0 +1,37 @@
+package water.parser;
+
+import water.Job;
+import water.fvec.Frame;
+import water.util.ExportFileFormat;
+
+import java.io.IOException;
+
+/**
+ * Service writing a Frame in a binary (columnar) file format.
+ *
+ * Exporters live in the optional parser modules of the matching format and are discovered the same way as
+ * {@link ParserProvider}s (see {@link ParserService#getExporter(ExportFileFormat)}).
+ */
+public interface BinaryFormatExporter {
+
+  /** Returns true if this exporter writes the given format */
+  boolean supports(ExportFileFormat format);
+
+  /**
+   * Writes the rows of Chunks [fromChunkIdx, toChunkIdx) of all the columns of the frame into a single file.
+   * The column types and categorical domains are taken from the Vecs of the frame. Implementations
+   * are expected to call {@link Job#update(long)} with 1 for each Chunk written.
+   *
+   * @param frame frame to export
+   * @param fromChunkIdx index of the first Chunk
+   * @param toChunkIdx index of the Chunk after the last one
+   * @param path target file
+   * @param overwrite overwrite the target file if it exists
+   * @param compression name of the compression codec, null for the default of the format
+   * @param job export job
+   * @return number of rows written
+   */
+  long export(Frame frame, int fromChunkIdx, int toChunkIdx, String path, boolean overwrite, String compression,
+              Job job) throws IOException;
+
+}
@@ -0,0 +1,437 @@
+package water.parser;
+
+import water.Iced;
+import water.fvec.ByteVec;
+import water.fvec.Chunk;
+import water.util.Log;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static water.parser.DefaultParserProviders.GUESS_INFO;
+
+/**
+ * Cuts a compressed file into pieces that decompress independently of each other, one piece per chunk of the
+ * compressed {@link ByteVec}, so that the file is parsed by the regular distributed parse instead of a single stream
+ * parse:
+ * <ul>
+ *   <li>BGZF files (blocked gzip, as written by bgzip/htslib: a series of gzip members of at most 64KB, every member
+ *   header giving the size of the member): the piece of a chunk is made of the members starting in the chunk.</li>
+ *   <li>ZIP archives of several files: the piece of a chunk is made of the entries starting in the chunk, the
+ *   entries are found in the central directory.</li>
+ * </ul>
+ * The pieces are handed to the parser through a {@link ParseReader} with the same contract as the reader of the
+ * chunks of a plain text file: the parser of a chunk skips the first (partial) line of its piece and finishes its last
+ * line with the first line of the next piece.
+ */
+abstract class CompressedSplits extends Iced<CompressedSplits> {
+
+  private static final int MAX_PIECE_SIZE = 1 << 30; // Decompressed bytes of a single piece
+
+  /**
+   * @return the splits of a compressed file, or null if the file can only be decompressed as a single stream
+   */
+  static CompressedSplits make(ByteVec vec, ZipUtil.Compression cpr) throws IOException {
+    switch (cpr) {
+      case GZIP: return BGZF.isBGZF(vec.getFirstBytes()) ? new BGZF() : null;
+      case ZIP:  return Zip.make(vec);
+      default:   return null;
+    }
+  }
+
+  /**
+   * Decompresses the piece starting in a chunk.
+   * @param head only the beginning of the piece is needed, up to the end of its first line
+   * @param errors collects the warnings about the piece, can be null
+   * @return the decompressed bytes, or null if no data starts in the chunk
+   */
+  abstract byte[] piece(ByteVec vec, int cidx, ParseSetup setup, boolean head, List<ParseWriter.ParseErr> errors) throws IOException;
+
+  Reader reader(Chunk in, ParseSetup setup) { return new Reader((ByteVec) in.vec(), in.cidx(), setup); }
+
+  /** Reads the piece of one chunk, and the beginning of the next non-empty piece to finish the last line. */
+  final class Reader implements ParseReader {
+    private final ByteVec _vec;
+    private final int _cidx;
+    private final ParseSetup _setup;
+    private final List<ParseWriter.ParseErr> _errors = new ArrayList<>();
+    private long _goffset;
+
+    private Reader(ByteVec vec, int cidx, ParseSetup setup) { _vec = vec; _cidx = cidx; _setup = setup; }
+
+    @Override public byte[] getChunkData(int cidx) {
+      try {
+        if (cidx == _cidx) {
+          _goffset = _vec.espc()[cidx];
+          return piece(_vec, cidx, _setup, false, _errors);
+        }
+        for (int c = cidx; c < _vec.nChunks(); c++) { // pieces can be empty, e.g. no BGZF member starts in a chunk
+          byte[] bits = piece(_vec, c, _setup, true, null);
+          if (bits != null) return bits;
+        }
+        return null;
+      } catch (IOException e) {
+        throw Log.throwErr(e);
+      }
+    }
+    @Override public int  getChunkDataStart(int cidx) { return -1; }
+    @Override public void setChunkDataStart(int cidx, int offset) { }
+    @Override public long getGlobalByteOffset() { return _goffset; }
+
+    void addErrors(ParseWriter dout) {
+      for (ParseWriter.ParseErr err : _errors)
+        dout.addError(err);
+    }
+  }
+
+  /** BGZF: the members starting in a chunk, found by their header. */
+  static final class BGZF extends CompressedSplits {
+
+    /** BGZF: gzip member with the FEXTRA flag and a "BC" extra subfield, see the SAM/BAM specification. */
+    static boolean isBGZF(byte[] bits) {
+      if (bits == null || bits.length < 18) return false;
+      return (bits[0] & 0xFF) == 0x1f && (bits[1] & 0xFF) == 0x8b && bits[2] == 8 && (bits[3] & 4) != 0 &&
+              bits[12] == 'B' && bits[13] == 'C' && bits[14] == 2 && bits[15] == 0;
+    }
+
+    @Override byte[] piece(ByteVec vec, int cidx, ParseSetup setup, boolean head, List<ParseWriter.ParseErr> errors) throws IOException {
+      final long end = vec.espc()[cidx + 1];
+      Bytes out = new Bytes();
+      long off = cidx == 0 ? 0 : firstMember(vec, cidx);
+      while (off < end) {
+        final int bsize = blockSize(vec, off);
+        if (bsize < 0) throw new IOException("Not a BGZF stream: no BGZF member at byte " + off);
+        byte[] member = new byte[bsize];
+        if (readBytes(vec, off, member, 0, bsize) < bsize) throw new IOException("Truncated BGZF member at byte " + off);
+        inflate(member, out);
+        off += bsize;
+        if (head && out.lineEnd(0) >= 0) break;
+      }
+      return out._size == 0 ? null : out.toArray();
+    }
+
+    // Offset of the first member starting in the chunk, or the end of the chunk.  A member is recognized by its header,
+    // and by the header of the member following it.
+    private static long firstMember(ByteVec vec, int cidx) {
+      final long start = vec.espc()[cidx];
+      final byte[] bits = vec.chunkForChunkIdx(cidx).getBytes();
+      for (int i = 0; i + 3 < bits.length; i++) {
+        if ((bits[i] & 0xFF) != 0x1f || (bits[i + 1] & 0xFF) != 0x8b || bits[i + 2] != 8 || (bits[i + 3] & 4) == 0)
+          continue;
+        final int bsize = blockSize(vec, start + i);
+        if (bsize > 0 && (start + i + bsize == vec.length() || blockSize(vec, start + i + bsize) > 0))
+          return start + i;
+      }
+      return start + bits.length;
+    }
+
+    // Size of the member starting at the given offset, or -1 if there is no BGZF member header
+    private static int blockSize(ByteVec vec, long off) {
+      byte[] hdr = new byte[12];
+      if (readBytes(vec, off, hdr, 0, 12) < 12) return -1;
+      if ((hdr[0] & 0xFF) != 0x1f || (hdr[1] & 0xFF) != 0x8b || hdr[2] != 8 || (hdr[3] & 4) == 0) return -1;
+      final int xlen = le2(hdr, 10);
+      byte[] extra = new byte[xlen];
+      if (readBytes(vec, off + 12, extra, 0, xlen) < xlen) return -1;
+      int bsize = -1;
+      for (int i = 0; i + 4 <= xlen; ) {
+        int slen = le2(extra, i + 2);
+        if (extra[i] == 'B' && extra[i + 1] == 'C' && slen == 2 && i + 6 <= xlen)
+          bsize = le2(extra, i + 4) + 1;
+        i += 4 + slen;
+      }
+      return bsize < 12 + xlen + 8 ? -1 : bsize;
+    }
+
+    // Inflates a whole member: deflate data between the header and the CRC32+ISIZE trailer
+    private static void inflate(byte[] m, Bytes out) throws IOException {
+      final int xlen = le2(m, 10);
+      final int isize = le4(m, m.length - 4);
+      if (isize < 0 || isize > 1 << 16) throw new IOException("Corrupt BGZF member");
+      final int off = out.reserve(isize);
+      Inflater inf = new Inflater(true);
+      try {
+        inf.setInput(m, 12 + xlen, m.length - 12 - xlen - 8);
+        int n = 0;
+        while (n < isize && !inf.finished()) {
+          int r = inf.inflate(out._bits, off + n, isize - n);
+          if (r == 0 && (inf.needsInput() || inf.needsDictionary())) break;
+          n += r;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(out._bits, off, n);
+        if (n != isize || (int) crc.getValue() != le4(m, m.length - 8))
+          throw new IOException("Corrupt BGZF member");
+        out._size += n;
+      } catch (DataFormatException e) {
+        throw new IOException(e);
+      } finally {
+        inf.end();
+      }
+    }
+  }
+
+  /** ZIP archive of several files: the entries starting in a chunk, found in the central directory. */
+  static final class Zip extends CompressedSplits {
+    private static final int CHECK_BYTES = 1 << 16; // Decompressed bytes of an entry to check it has the same columns
+
+    private final String[] _names;
+    private final long[] _offsets; // Local header offsets, ascending
+    private final long[] _csizes;  // Compressed sizes
+    private final long[] _sizes;   // Decompressed sizes
+    private final int[] _crcs;
+    private final boolean[] _deflated;
+
+    private Zip(List<long[]> entries, List<String> names) {
+      final int n = entries.size();
+      _names = names.toArray(new String[n]);
+      _offsets = new long[n];
+      _csizes = new long[n];
+      _sizes = new long[n];
+      _crcs = new int[n];
+      _deflated = new boolean[n];
+      for (int i = 0; i < n; i++) {
+        long[] e = entries.get(i);
+        _offsets[i] = e[0]; _csizes[i] = e[1]; _sizes[i] = e[2]; _crcs[i] = (int) e[3]; _deflated[i] = e[4] != 0;
+      }
+    }
+
+    /** @return the entries of a ZIP archive, or null if it has a single file or needs ZIP64 or encryption support */
+    static Zip make(ByteVec vec) throws IOException {
+      final long len = vec.length();
+      final int tail = (int) Math.min(len, ZipFile.ENDHDR + 0xFFFF);
+      byte[] bits = new byte[tail];
+      if (readBytes(vec, len - tail, bits, 0, tail) < tail) return null;
+      int end = -1;
+      for (int i = tail - ZipFile.ENDHDR; i >= 0 && end < 0; i--)
+        if (le4(bits, i) == (int) ZipFile.ENDSIG) end = i;
+      if (end < 0) return null;
+      final long cdSize = le4(bits, end + ZipFile.ENDSIZ) & 0xFFFFFFFFL;
+      final long cdOff = le4(bits, end + ZipFile.ENDOFF) & 0xFFFFFFFFL;
+      if (le2(bits, end + ZipFile.ENDTOT) == 0xFFFF || cdSize == 0xFFFFFFFFL || cdOff == 0xFFFFFFFFL || cdOff + cdSize > len)
+        return null; // ZIP64
+      byte[] cd = new byte[(int) cdSize];
+      if (readBytes(vec, cdOff, cd, 0, cd.length) < cd.length) return null;
+
+      final List<long[]> entries = new ArrayList<>();
+      final List<String> names = new ArrayList<>();
+      for (int p = 0; p + ZipFile.CENHDR <= cd.length; ) {
+        if (le4(cd, p) != (int) ZipFile.CENSIG) throw new IOException("Corrupt ZIP central directory");
+        final int flags = le2(cd, p + ZipFile.CENFLG);
+        final int method = le2(cd, p + ZipFile.CENHOW);
+        final long csize = le4(cd, p + ZipFile.CENSIZ) & 0xFFFFFFFFL;
+        final long size = le4(cd, p + ZipFile.CENLEN) & 0xFFFFFFFFL;
+        final long off = le4(cd, p + ZipFile.CENOFF) & 0xFFFFFFFFL;
+        final int nlen = le2(cd, p + ZipFile.CENNAM);
+        final String name = new String(cd, p + ZipFile.CENHDR, nlen, StandardCharsets.UTF_8);
+        if ((flags & 1) != 0 || (method != ZipEntry.STORED && method != ZipEntry.DEFLATED) ||
+                csize == 0xFFFFFFFFL || size == 0xFFFFFFFFL || off == 0xFFFFFFFFL)
+          return null; // Encrypted, unsupported compression or ZIP64
+        if (!name.endsWith("/")) {
+          entries.add(new long[]{off, csize, size, le4(cd, p + ZipFile.CENCRC), method == ZipEntry.DEFLATED ? 1 : 0});
+          names.add(name);
+        }
+        p += ZipFile.CENHDR + nlen + le2(cd, p + ZipFile.CENEXT) + le2(cd, p + ZipFile.CENCOM);
+      }
+      if (entries.size() < 2) return null; // Nothing to split
+      final Integer[] order = new Integer[entries.size()];
+      for (int i = 0; i < order.length; i++) order[i] = i;
+      Arrays.sort(order, new Comparator<Integer>() {
+        @Override public int compare(Integer a, Integer b) { return Long.compare(entries.get(a)[0], entries.get(b)[0]); }
+      });
+      List<long[]> sorted = new ArrayList<>();
+      List<String> sortedNames = new ArrayList<>();
+      for (int i : order) { sorted.add(entries.get(i)); sortedNames.add(names.get(i)); }
+      Zip zip = new Zip(sorted, sortedNames);
+      // every piece has to fit in a single array
+      final long[] espc = vec.espc();
+      for (int c = 0; c < vec.nChunks(); c++) {
+        long size = 0;
+        for (int j = zip.firstEntry(espc[c]); j < zip._offsets.length && zip._offsets[j] < espc[c + 1]; j++)
+          size += zip._sizes[j] + 1;
+        if (size > MAX_PIECE_SIZE) return null;
+      }
+      return zip;
+    }
+
+    private int firstEntry(long off) {
+      int lo = 0, hi = _offsets.length;
+      while (lo < hi) {
+        int mid = (lo + hi) >>> 1;
+        if (_offsets[mid] < off) lo = mid + 1; else hi = mid;
+      }
+      return lo;
+    }
+
+    @Override byte[] piece(ByteVec vec, int cidx, ParseSetup setup, boolean head, List<ParseWriter.ParseErr> errors) throws IOException {
+      final long end = vec.espc()[cidx + 1];
+      Bytes out = new Bytes();
+      for (int j = firstEntry(vec.espc()[cidx]); j < _offsets.length && _offsets[j] < end; j++) {
+        try (InputStream is = entryStream(vec, j)) {
+          Bytes entry = new Bytes();
+          boolean complete = entry.append(is, CHECK_BYTES);
+          int from = 0;
+          if (j > 0) { // the first entry is checked by the parse setup, see Parser#checkFileNHeader for the others
+            ParseSetup ps = ParseSetup.guessSetup(null, entry.toArray(), new ParseSetup(GUESS_INFO, ParseSetup.GUESS_SEP,
+                    setup._single_quotes, ParseSetup.GUESS_HEADER, ParseSetup.GUESS_COL_CNT, null, null));
+            if (ps._number_columns != setup._number_columns || ps._separator != setup._separator) {
+              if (errors != null)
+                errors.add(new ParseWriter.ParseErr("Your zip file contains a file that belong to another dataset with " +
+                        "different number of column or separator.  Number of columns for files that have been parsed = " +
+                        setup._number_columns + ".  Number of columns in " + _names[j] + " = " + ps._number_columns +
+                        ".  This file is skipped and not parsed.", -1, -1L, -2L));
+              continue;
+            }
+            if (ps._check_header == ParseSetup.HAS_HEADER && Arrays.equals(setup.getColumnNames(), ps.getColumnNames()))
+              from = entry.skipLine(0);
+          }
+          if (!complete && !(head && entry.lineEnd(from) >= 0))
+            complete = entry.append(is, Long.MAX_VALUE);
+          if (complete) {
+            CRC32 crc = new CRC32();
+            crc.update(entry._bits, 0, entry._size);
+            if (entry._size != _sizes[j] || (int) crc.getValue() != _crcs[j])
+              throw new IOException("Corrupt ZIP entry " + _names[j]);
+          }
+          out.append(entry._bits, from, entry._size - from);
+          if (complete && out._size > 0 && out._bits[out._size - 1] != '\n' && out._bits[out._size - 1] != '\r')
+            out.append(new byte[]{'\n'}, 0, 1); // the next file starts on a new line
+          if (head && out.lineEnd(0) >= 0) break;
+        }
+      }
+      return out._size == 0 ? null : out.toArray();
+    }
+
+    private InputStream entryStream(ByteVec vec, int j) throws IOException {
+      byte[] loc = new byte[ZipFile.LOCHDR];
+      if (readBytes(vec, _offsets[j], loc, 0, loc.length) < loc.length || le4(loc, 0) != (int) ZipFile.LOCSIG)
+        throw new IOException("Corrupt ZIP entry " + _names[j]);
+      final long data = _offsets[j] + ZipFile.LOCHDR + le2(loc, ZipFile.LOCNAM) + le2(loc, ZipFile.LOCEXT);
+      final InputStream raw = new RangeInputStream(vec, data, _csizes[j]);
+      if (!_deflated[j]) return raw;
+      return new InflaterInputStream(raw, new Inflater(true), 1 << 16) {
+        private boolean _eof;
+        @Override protected void fill() throws IOException {
+          if (_eof) throw new EOFException("Unexpected end of ZLIB input stream");
+          len = in.read(buf, 0, buf.length);
+          if (len == -1) { // A raw inflater needs an extra dummy byte, as in ZipFile
+            buf[0] = 0;
+            len = 1;
+            _eof = true;
+          }
+          inf.setInput(buf, 0, len);
+        }
+        @Override public void close() throws IOException {
+          inf.end();
+          super.close();
+        }
+      };
+    }
+  }
+
+  /** Compressed bytes of a range of the file, across chunks. */
+  private static final class RangeInputStream extends InputStream {
+    private final ByteVec _vec;
+    private long _off;
+    private long _remaining;
+    RangeInputStream(ByteVec vec, long off, long len) { _vec = vec; _off = off; _remaining = len; }
+    @Override public int read() throws IOException {
+      byte[] b = new byte[1];
+      return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+    }
+    @Override public int read(byte[] b, int off, int len) throws IOException {
+      if (_remaining == 0) return -1;
+      int n = readBytes(_vec, _off, b, off, (int) Math.min(len, _remaining));
+      if (n == 0) throw new EOFException("Truncated ZIP entry");
+      _off += n;
+      _remaining -= n;
+      return n;
+    }
+  }
+
+  /** Decompressed bytes of a piece. */
+  private static final class Bytes {
+    byte[] _bits = new byte[1 << 16];
+    int _size;
+
+    // Makes room for len more bytes, returns the offset to write them at
+    int reserve(int len) throws IOException {
+      if ((long) _size + len > MAX_PIECE_SIZE)
+        throw new IOException("A chunk of the compressed file decompresses to more than " + MAX_PIECE_SIZE + " bytes");
+      if (_size + len > _bits.length)
+        _bits = Arrays.copyOf(_bits, (int) Math.min(MAX_PIECE_SIZE, Math.max(_size + len, 2L * _bits.length)));
+      return _size;
+    }
+
+    void append(byte[] b, int off, int len) throws IOException {
+      System.arraycopy(b, off, _bits, reserve(len), len);
+      _size += len;
+    }
+
+    // Appends up to limit bytes of the stream, returns true at the end of the stream
+    boolean append(InputStream is, long limit) throws IOException {
+      while (limit > 0) {
+        reserve((int) Math.min(limit, 1 << 16));
+        int n = is.read(_bits, _size, (int) Math.min(limit, _bits.length - _size));
+        if (n == -1) return true;
+        _size += n;
+        limit -= n;
+      }
+      return false;
+    }
+
+    // Index of the first line end from the given offset (a CR needs the next byte, it can be a CRLF), or -1
+    int lineEnd(int from) {
+      for (int i = from; i < _size; i++)
+        if (_bits[i] == '\n' || (_bits[i] == '\r' && i + 1 < _size))
+          return i;
+      return -1;
+    }
+
+    // Offset of the line after the one starting at the given offset
+    int skipLine(int from) {
+      int i = lineEnd(from);
+      if (i < 0) return _size;
+      if (_bits[i++] == '\r' && i < _size && _bits[i] == '\n') i++;
+      return i;
+    }
+
+    byte[] toArray() { return Arrays.copyOf(_bits, _size); }
+  }
+
+  // Reads bytes of the file across chunks, returns the number of bytes read (less at the end of the file)
+  private static int readBytes(ByteVec vec, long off, byte[] dst, int dstOff, int len) {
+    final long[] espc = vec.espc();
+    int n = 0;
+    while (n < len && off < vec.length()) {
+      final int cidx = vec.elem2ChunkIdx(off);
+      final byte[] bits = vec.chunkForChunkIdx(cidx).getBytes();
+      final int pos = (int) (off - espc[cidx]);
+      final int k = Math.min(len - n, bits.length - pos);
+      System.arraycopy(bits, pos, dst, dstOff + n, k);
+      n += k;
+      off += k;
+    }
+    return n;
+  }
+
+  private static int le2(byte[] b, int off) {
+    return (b[off] & 0xFF) | (b[off + 1] & 0xFF) << 8;
+  }
+
+  private static int le4(byte[] b, int off) {
+    return (b[off] & 0xFF) | (b[off + 1] & 0xFF) << 8 | (b[off + 2] & 0xFF) << 16 | (b[off + 3] & 0xFF) << 24;
+  }
+}
@@ -0,0 +1,150 @@
+package water.parser;
+
+import water.H2O;
+import water.MemoryManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.*;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Decompresses a gzip stream ahead of the parser, on another thread.
+ * <p/>
+ * A gzip stream can only be inflated sequentially: here it is inflated by a reader into a short queue of buffers, so
+ * that decompression and parsing run in parallel rather than one after the other.  The readers of all the gzip files
+ * being parsed share one bounded pool of threads; a file waits for a free reader.  BGZF files are not read here, they
+ * are split and parsed by the distributed parse, see {@link CompressedSplits}.
+ * <p/>
+ * The stream also answers the back-channel read of the chunk index of {@link water.fvec.ByteVec#openStream}
+ * ({@code read(null, 0, 0)}) with the chunk the bytes being read come from, so the stream parse still closes its
+ * output chunks in step with the compressed input chunks, see {@link Parser#streamParseZip}.
+ */
+final class ParallelGzipInputStream extends InputStream {
+
+  private static final int BUF_SIZE = 1 << 20;        // Decompressed bytes per buffer
+  private static final Buffer EOF = new Buffer(null, 0, -1);
+
+  private static ExecutorService READERS;             // Shared by all the gzip files, see readers()
+
+  private final InputStream _bvs;                     // Compressed input; a ByteVec stream
+  private final BlockingQueue<Future<Buffer>> _queue; // Decompressed buffers in stream order
+  private final Future<?> _reader;
+  private volatile boolean _closed;
+  private Buffer _buf;
+  private int _pos;
+  private int _cidx = 1;                              // Chunk index of the last buffer read
+
+  // Decompressed bytes, and the chunk index of the compressed stream they come from
+  private static final class Buffer {
+    final byte[] _bits;
+    final int _len;
+    final int _cidx;
+    Buffer(byte[] bits, int len, int cidx) { _bits = bits; _len = len; _cidx = cidx; }
+  }
+
+  /**
+   * @param bvs the compressed stream
+   */
+  ParallelGzipInputStream(InputStream bvs) {
+    _bvs = bvs;
+    _queue = new ArrayBlockingQueue<>(4);
+    _reader = readers().submit(new Runnable() {
+      @Override public void run() {
+        try {
+          readGzip();
+          _queue.put(CompletableFuture.completedFuture(EOF));
+        } catch (InterruptedException ie) {
+          // closed
+        } catch (Throwable t) {
+          CompletableFuture<Buffer> failed = new CompletableFuture<>();
+          failed.completeExceptionally(t);
+          try { _queue.put(failed); } catch (InterruptedException ie) { /* closed */ }
+        }
+      }
+    });
+  }
+
+  private static synchronized ExecutorService readers() {
+    if (READERS == null) {
+      final int nthreads = Integer.parseInt(H2O.getSysProperty("parse.gzip.threads", String.valueOf(H2O.ARGS.nthreads)));
+      READERS = Executors.newFixedThreadPool(nthreads, new ThreadFactory() {
+        @Override public Thread newThread(Runnable r) {
+          Thread t = new Thread(r, "gzip-reader");
+          t.setDaemon(true);
+          return t;
+        }
+      });
+    }
+    return READERS;
+  }
+
+  // Inflates the whole stream (all the gzip members) on the reader thread
+  private void readGzip() throws IOException, InterruptedException {
+    GZIPInputStream gis = new GZIPInputStream(_bvs, 64 * 1024);
+    while (!_closed) {
+      final int cidx = _bvs.read(null, 0, 0);
+      byte[] bits = MemoryManager.malloc1(BUF_SIZE);
+      int len = 0, n;
+      while (len < bits.length && (n = gis.read(bits, len, bits.length - len)) != -1)
+        len += n;
+      if (len > 0) _queue.put(CompletableFuture.completedFuture(new Buffer(bits, len, cidx)));
+      if (len < bits.length) return;
+    }
+  }
+
+  // Current buffer with unread bytes, or EOF
+  private Buffer buf() throws IOException {
+    while (_buf == null || (_buf != EOF && _pos >= _buf._len)) {
+      if (_closed) throw new IOException("Stream closed");
+      try {
+        _buf = _queue.take().get();
+        _pos = 0;
+        if (_buf != EOF) _cidx = _buf._cidx;
+      } catch (InterruptedException e) {
+        throw new IOException(e);
+      } catch (ExecutionException e) {
+        Throwable t = e.getCause();
+        throw t instanceof IOException ? (IOException) t : new IOException(t);
+      }
+    }
+    return _buf;
+  }
+
+  @Override
+  public int available() throws IOException {
+    Buffer b = buf();
+    return b == EOF ? 0 : b._len - _pos;
+  }
+
+  @Override
+  public int read() throws IOException {
+    Buffer b = buf();
+    return b == EOF ? -1 : b._bits[_pos++] & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (b == null) { // Back-channel read of the chunk index of the compressed bytes being read
+      if (_buf == null) buf(); // Never touch the compressed stream, the reader owns it
+      return _cidx;
+    }
+    if (len == 0) return 0;
+    Buffer buf = buf();
+    if (buf == EOF) return -1;
+    len = Math.min(len, buf._len - _pos);
+    System.arraycopy(buf._bits, _pos, b, off, len);
+    _pos += len;
+    return len;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (_closed) return;
+    _closed = true;
+    _reader.cancel(true);
+    _queue.clear();
+    _bvs.close();
+  }
+
+}
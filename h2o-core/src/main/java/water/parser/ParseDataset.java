@@ -20,7 +20,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.text.SimpleDateFormat;
 import java.util.*;
-import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
@@ -791,7 +790,7 @@ public final class ParseDataset {
           Log.debug("Key " + key + " will be parsed using method " + pm + ".");
 
           if(pm == ParserInfo.ParseMethod.DistributedParse) {
-            new DistributedParse(_vg, localSetup, _vecIdStart, chunkStartIdx, this, key, vec.nChunks()).dfork(vec).getResult(false);
+            new DistributedParse(_vg, localSetup, _vecIdStart, chunkStartIdx, this, key, vec.nChunks(), null).dfork(vec).getResult(false);
             for( int i = 0; i < vec.nChunks(); ++i )
               _chunk2ParseNodeMap[chunkStartIdx + i] = vec.chunkKey(i).home_node().index();
           } else if(pm == ParserInfo.ParseMethod.StreamParse || pm == ParserInfo.ParseMethod.SequentialParse){
@@ -814,8 +813,9 @@ public final class ParseDataset {
           } else throw H2O.unimpl();
           break;
         case ZIP: {
+          if (distributedParseSplits(key, vec, cpr, localSetup, chunkStartIdx)) break;
           localSetup = ParserService.INSTANCE.getByInfo(localSetup._parse_type).setupLocal(vec,localSetup);
-          // Zipped file; no parallel decompression;
+          // Zipped file that cannot be split; no parallel decompression;
           InputStream bvs = vec.openStream(_jobKey);
           ZipInputStream zis = new ZipInputStream(bvs);
 
@@ -833,11 +833,13 @@ public final class ParseDataset {
           break;
         }
         case GZIP: {
+          if (distributedParseSplits(key, vec, cpr, localSetup, chunkStartIdx)) break;
           localSetup = ParserService.INSTANCE.getByInfo(localSetup._parse_type).setupLocal(vec,localSetup);
-          InputStream bvs = vec.openStream(_jobKey);
-          // Zipped file; no parallel decompression;
-          _dout[_lo] = streamParse(decryptionTool.decryptInputStream(new GZIPInputStream(bvs)),
-                  localSetup, makeDout(localSetup,chunkStartIdx,vec.nChunks()),bvs);
+          // Gzipped file; decompressed on another thread ahead of the parser
+          try (InputStream gis = new ParallelGzipInputStream(vec.openStream(_jobKey))) {
+            _dout[_lo] = streamParse(decryptionTool.decryptInputStream(gis),
+                    localSetup, makeDout(localSetup, chunkStartIdx, vec.nChunks()), gis);
+          }
           _errors = _dout[_lo].removeErrors();
           // set this node as the one which processed all the chunks
           chunksAreLocal(vec,chunkStartIdx,key);
@@ -853,6 +855,19 @@ public final class ParseDataset {
       }
     }
 
+    // BGZF file or ZIP archive of several files: the pieces of the file starting in every chunk are decompressed and
+    // parsed independently by the distributed parse, see CompressedSplits
+    private boolean distributedParseSplits(Key key, ByteVec vec, ZipUtil.Compression cpr, ParseSetup localSetup, int chunkStartIdx) throws IOException {
+      if (_parseSetup.parseMethod(_keys.length, vec) != ParserInfo.ParseMethod.DistributedParse) return false;
+      CompressedSplits splits = CompressedSplits.make(vec, cpr);
+      if (splits == null) return false;
+      Log.debug("Key " + key + " will be decompressed and parsed in " + vec.nChunks() + " independent pieces.");
+      new DistributedParse(_vg, localSetup, _vecIdStart, chunkStartIdx, this, key, vec.nChunks(), splits).dfork(vec).getResult(false);
+      for( int i = 0; i < vec.nChunks(); ++i )
+        _chunk2ParseNodeMap[chunkStartIdx + i] = vec.chunkKey(i).home_node().index();
+      return true;
+    }
+
     // Reduce: combine errors from across files.
     // Roll-up other meta data
     @Override public void reduce( MultiFileParseTask mfpt ) {
@@ -911,8 +926,9 @@ public final class ParseDataset {
       private transient NonBlockingSetInt _visited;
       private transient long [] _espc;
       final int _nchunks;
+      private final CompressedSplits _splits; // Compressed file parsed piece by piece, or null
 
-      DistributedParse(VectorGroup vg, ParseSetup setup, int vecIdstart, int startChunkIdx, MultiFileParseTask mfpt, Key srckey, int nchunks) {
+      DistributedParse(VectorGroup vg, ParseSetup setup, int vecIdstart, int startChunkIdx, MultiFileParseTask mfpt, Key srckey, int nchunks, CompressedSplits splits) {
         super(null);
         _vg = vg;
         _setup = setup;
@@ -923,6 +939,7 @@ public final class ParseDataset {
         _jobKey = mfpt._jobKey;
         _srckey = srckey;
         _nchunks = nchunks;
+        _splits = splits;
       }
       @Override public void setupLocal(){
         super.setupLocal();
@@ -944,7 +961,8 @@ public final class ParseDataset {
                       _espc, _setup._column_types[_setup._parse_columns_indices[i]], _startChunkIdx);
 
         // Break out the input & output vectors before the parse loop
-        FVecParseReader din = new FVecParseReader(in);
+        CompressedSplits.Reader zin = _splits == null ? null : _splits.reader(in, _setup);
+        ParseReader din = zin == null ? new FVecParseReader(in) : zin;
         FVecParseWriter dout;
         // Get a parser
         Parser p = _setup.parser(_jobKey);
@@ -982,6 +1000,7 @@ public final class ParseDataset {
                   " can be returned."); // Need this to send error message to R
 
         p.parseChunk(in.cidx(), din, dout);
+        if (zin != null) zin.addErrors(dout);
         (_dout = dout).close(_fs);
         Job.update(in._len, _jobKey); // Record bytes parsed
         // remove parsed data right away
@@ -8,6 +8,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.ServiceLoader;
 
+import water.util.ExportFileFormat;
+
 /**
  * Service to manage optional implementation of parsers.
  */
@@ -20,9 +22,11 @@ public final class ParserService {
    * are protected by synchronized block.
    */
   private final ServiceLoader<ParserProvider> loader;
+  private final ServiceLoader<BinaryFormatExporter> exporterLoader;
 
   public ParserService() {
     loader = ServiceLoader.load(ParserProvider.class);
+    exporterLoader = ServiceLoader.load(BinaryFormatExporter.class);
   }
 
   /** Return list of all parser providers sorted based on priority. */
@@ -71,6 +75,16 @@ public final class ParserService {
     return null;
   }
 
+  /** Returns the exporter writing the given format, or null if no module on the classpath provides one. */
+  synchronized public BinaryFormatExporter getExporter(ExportFileFormat format) {
+    for (BinaryFormatExporter e : exporterLoader) {
+      if (e.supports(format)) {
+        return e;
+      }
+    }
+    return null;
+  }
+
   private static Comparator<ParserProvider> PARSER_PROVIDER_COMPARATOR = new Comparator<ParserProvider>() {
     @Override
     public int compare(ParserProvider o1, ParserProvider o2) {
@@ -0,0 +1,209 @@
+package water.persist;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import water.Key;
+import water.MemoryManager;
+import water.nbhm.NonBlockingHashMap;
+import water.util.Log;
+
+/**
+ * Append-only, memory-mapped segment files for Values spilled to the ICE
+ * directory.
+ * <p>
+ * Instead of one file per spilled Value, spilled bytes are appended to large
+ * segment files which are mapped once (read-write) when created.  A spill is
+ * then a single copy into the mapping.  Spilled Chunks are read straight from
+ * a slice of the mapping (see {@link #map}), other Values are copied out of it
+ * - no per-Value file open, stream setup or read syscalls.  The OS page cache
+ * decides what is actually resident.
+ * <p>
+ * Segments are never compacted: a segment file is deleted once it is full and
+ * every Value in it has been deleted, and unmapped once no slice of it is
+ * reachable anymore either.  Values too large for a segment return false from
+ * {@link #append} and are left to the caller's per-file store.
+ */
+final class IceSegments {
+  // Default size of a single segment file; also the largest Value kept in segments
+  static final int SEGMENT_SIZE = 256 << 20;
+
+  private final File _dir;
+  private final int _segSize;
+  // Where each spilled Key lives
+  private final NonBlockingHashMap<Key,Loc> _locs = new NonBlockingHashMap<>();
+  // Segment currently being appended to; guarded by this
+  private Segment _cur;
+  private int _nextId;
+  // Slices handed out by map(); enqueued once the GC finds them unreachable
+  private final ReferenceQueue<ByteBuffer> _viewQueue = new ReferenceQueue<>();
+  private final Set<View> _views = Collections.newSetFromMap(new ConcurrentHashMap<View, Boolean>());
+  private final AtomicInteger _mapped = new AtomicInteger();
+
+  IceSegments(File iceDir) { this(iceDir, SEGMENT_SIZE); }
+  IceSegments(File iceDir, int segSize) { _dir = new File(iceDir, "segments"); _segSize = segSize; }
+
+  private static final class Segment {
+    final File _file;
+    final MappedByteBuffer _buf;
+    final AtomicLong _live = new AtomicLong(); // Bytes not yet deleted
+    int _end;                   // Append position; guarded by IceSegments.this
+    volatile boolean _sealed;   // No more appends
+    // Readers of the mapping: live slices plus loads in progress; guarded by this
+    int _pins;
+    boolean _unmapped;          // Guarded by this
+    Segment(File file, MappedByteBuffer buf) { _file = file; _buf = buf; }
+
+    // Pin the mapping for a reader; false if it is already gone
+    synchronized boolean pin() {
+      if( _unmapped ) return false;
+      _pins++;
+      return true;
+    }
+    synchronized boolean unpin() { _pins--; return unmapIfDead(); }
+
+    // Unmap once no Value lives here and nobody reads from the mapping; true
+    // if this call did the unmapping
+    synchronized boolean unmapIfDead() {
+      if( _unmapped || !_sealed || _live.get() != 0 || _pins != 0 ) return false;
+      _unmapped = true;
+      unmap(_buf);
+      return true;
+    }
+  }
+
+  // A slice of a segment, handed out to a Chunk
+  private static final class View extends PhantomReference<ByteBuffer> {
+    final Segment _seg;
+    View(ByteBuffer slice, Segment seg, ReferenceQueue<ByteBuffer> q) { super(slice, q); _seg = seg; }
+  }
+
+  private static final class Loc {
+    final Segment _seg;
+    final int _off, _len;
+    Loc(Segment seg, int off, int len) { _seg = seg; _off = off; _len = len; }
+  }
+
+  /** Append the bytes of a Value to the current segment.
+   *  @return false if the bytes are too large for a segment */
+  boolean append(Key k, ByteBuffer bits) throws IOException {
+    final int len = bits.remaining();
+    if( len > _segSize ) return false;
+    Loc loc;
+    synchronized( this ) {
+      if( _cur == null || _cur._end + len > _segSize ) roll();
+      loc = new Loc(_cur, _cur._end, len);
+      _cur._end += len;
+      _cur._live.addAndGet(len);
+    }
+    // Copy outside the lock: the reserved range is private to this append
+    ByteBuffer dst = loc._seg._buf.duplicate();
+    dst.position(loc._off);
+    dst.put(bits);
+    release(_locs.put(k, loc)); // A prior spill of this Key is dead now
+    return true;
+  }
+  boolean append(Key k, byte[] bits) throws IOException { return append(k, ByteBuffer.wrap(bits)); }
+
+  /** Copy the bytes of a spilled Value back to the heap.
+   *  @return null if the Key is not in any segment */
+  byte[] load(Key k) {
+    reclaimViews();
+    Loc loc = _locs.get(k);
+    if( loc == null || !loc._seg.pin() ) return null; // Not here, or a racing delete
+    try {
+      byte[] b = MemoryManager.malloc1(loc._len);
+      ByteBuffer src = loc._seg._buf.duplicate(); // Private position; racing readers are fine
+      src.position(loc._off);
+      src.get(b);
+      return b;
+    } finally {
+      if( loc._seg.unpin() ) _mapped.decrementAndGet();
+    }
+  }
+
+  /** A read-only, native-order slice of the mapping holding the bytes of a
+   *  spilled Value; no copy is made.  The segment stays mapped for as long as
+   *  the slice is reachable, even if the Value is deleted meanwhile.
+   *  @return null if the Key is not in any segment */
+  ByteBuffer map(Key k) {
+    reclaimViews();
+    Loc loc = _locs.get(k);
+    if( loc == null || !loc._seg.pin() ) return null;
+    ByteBuffer src = loc._seg._buf.duplicate();
+    src.position(loc._off).limit(loc._off + loc._len);
+    ByteBuffer slice = src.slice().asReadOnlyBuffer().order(ByteOrder.nativeOrder());
+    _views.add(new View(slice, loc._seg, _viewQueue)); // Pin moves to the View
+    return slice;
+  }
+
+  // Unpin the segments of slices the GC found unreachable
+  private void reclaimViews() {
+    Reference<? extends ByteBuffer> ref;
+    while( (ref = _viewQueue.poll()) != null ) {
+      if( _views.remove(ref) )
+        if( ((View)ref)._seg.unpin() ) _mapped.decrementAndGet();
+    }
+  }
+
+  /** Forget a spilled Value, deleting its segment if that was the last live
+   *  Value in a full segment.
+   *  @return false if the Key is not in any segment */
+  boolean delete(Key k) { return release(_locs.remove(k)); }
+
+  private boolean release(Loc loc) {
+    reclaimViews();
+    if( loc == null ) return false;
+    Segment seg = loc._seg;
+    // Check sealed AFTER dropping the live count; close race with roll()
+    if( seg._live.addAndGet(-loc._len) == 0 && seg._sealed ) {
+      seg._file.delete(); // The mapping stays valid for any pinned reader
+      if( seg.unmapIfDead() ) _mapped.decrementAndGet();
+    }
+    return true;
+  }
+
+  // Seal the current segment and start a new one.  Called holding the lock.
+  private void roll() throws IOException {
+    Segment old = _cur;
+    if( !_dir.mkdirs() && !_dir.exists() )
+      throw new IOException("mkdirs failed making "+_dir);
+    File f = new File(_dir, "seg" + (_nextId++) + ".ice");
+    try( RandomAccessFile raf = new RandomAccessFile(f, "rw") ) {
+      // Mapping past the end grows the (sparse) file; the mapping outlives the channel
+      _cur = new Segment(f, raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, _segSize));
+    }
+    _mapped.incrementAndGet();
+    if( old != null ) {
+      old._sealed = true;
+      if( old._live.get() == 0 ) {
+        old._file.delete();
+        if( old.unmapIfDead() ) _mapped.decrementAndGet();
+      }
+    }
+  }
+
+  // Release the mapping now rather than whenever the GC gets to it; callers
+  // guarantee no reader is left.  Falls back to the GC if the JVM does not let
+  // us at the buffer's cleaner.
+  private static void unmap(MappedByteBuffer buf) {
+    if( !MemoryManager.freeDirect(buf) )
+      Log.debug("Cannot unmap an ICE segment, leaving it to the GC");
+  }
+
+  /** Number of segments currently mapped */
+  int mappedSegments() { return _mapped.get(); }
+}
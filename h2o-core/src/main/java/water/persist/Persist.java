@@ -2,6 +2,7 @@ package water.persist;
 
 import java.io.*;
 import java.net.URI;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -25,6 +26,10 @@ public abstract class Persist {
   /** Load a previously stored Value */
   abstract public byte[] load(Value v) throws IOException;
 
+  /** A read-only view of a previously stored Value, mapped rather than
+   *  copied into the heap; null if this store cannot map it. */
+  public ByteBuffer map(Value v) { return null; }
+
   /** Reclaim space from a previously stored Value */
   abstract public void delete(Value v);
 
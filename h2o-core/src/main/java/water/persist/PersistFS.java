@@ -2,6 +2,8 @@ package water.persist;
 
 import java.io.*;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 
 import water.*;
@@ -15,10 +17,15 @@ import water.util.Log;
 public final class PersistFS extends Persist {
   final File _root;
   final File _dir;
+  // Spill into memory-mapped segment files rather than a file per Value; null if disabled
+  final IceSegments _segments;
 
-  PersistFS(File root) {
+  PersistFS(File root) { this(root, H2O.ARGS.ice_mmap); }
+
+  PersistFS(File root, boolean segmented) {
     _root = root;
     _dir = new File(root, "ice" + H2O.API_PORT);
+    _segments = segmented ? new IceSegments(_dir) : null;
     //deleteRecursive(_dir);
     // Make the directory as-needed
     root.mkdirs();
@@ -47,6 +54,11 @@ public final class PersistFS extends Persist {
   }
 
   @Override public byte[] load(Value v) throws IOException {
+    if( _segments != null ) {
+      byte[] b = _segments.load(v._key);
+      if( b != null ) return b;
+      // else too large for a segment, or a racey delete; try the plain file
+    }
     File f = getFile(v);
     if( f.length() < v._max ) { // Should be fully on disk...
       // or it's a racey delete of a spilled value
@@ -61,13 +73,29 @@ public final class PersistFS extends Persist {
       }
   }
 
+  @Override public ByteBuffer map(Value v) {
+    return _segments == null ? null : _segments.map(v._key);
+  }
+
   // Store Value v to disk.
   @Override public void store(Value v) throws IOException {
     assert !v.isPersisted();
+    if( _segments != null && storeSegmented(v) ) return;
     File dirs = new File(_dir, getIceDirectory(v._key));
     if( !dirs.mkdirs() && !dirs.exists() )
       throw new java.io.IOException("mkdirs failed making "+dirs);
     try(FileOutputStream s = new FileOutputStream(getFile(v))) {
+        MemoryManager.OffHeapBuf buf = v.offHeapMem();
+        ByteBuffer off = buf == null ? null : buf.pin();
+        if( off != null ) { // Spilling from the off-heap tier; do not re-inflate the heap copy
+          try {
+            FileChannel fc = s.getChannel();
+            while( off.hasRemaining() ) fc.write(off);
+          } finally {
+            buf.unpin();
+          }
+          return;
+        }
         byte[] m = v.memOrLoad(); // we are not single threaded anymore
         if( m != null && m.length != v._max ) {
           Log.warn("Value size mismatch? " + v._key + " byte[].len=" + m.length+" v._max="+v._max);
@@ -79,12 +107,29 @@ public final class PersistFS extends Persist {
     }
   }
 
+  // Append Value v to the current segment; false if it does not fit in one
+  private boolean storeSegmented(Value v) throws IOException {
+    MemoryManager.OffHeapBuf buf = v.offHeapMem();
+    ByteBuffer off = buf == null ? null : buf.pin();
+    if( off != null ) { // Spilling from the off-heap tier; do not re-inflate the heap copy
+      try { return _segments.append(v._key, off); }
+      finally { buf.unpin(); }
+    }
+    byte[] m = v.memOrLoad();
+    if( m.length != v._max ) {
+      Log.warn("Value size mismatch? " + v._key + " byte[].len=" + m.length+" v._max="+v._max);
+      v._max = m.length;
+    }
+    return _segments.append(v._key, m);
+  }
+
   @Override
   public boolean delete(String path) {
     return new File(URI.create(path)).delete();
   }
 
   @Override public void delete(Value v) {
+    if( _segments != null && _segments.delete(v._key) ) return;
     getFile(v).delete();        // Silently ignore errors
     // Attempt to delete empty containing directory
     new File(_dir, getIceDirectory(v._key)).delete();
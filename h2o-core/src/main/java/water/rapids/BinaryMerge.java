@@ -34,6 +34,9 @@ class BinaryMerge extends DTask<BinaryMerge> {
   private transient int _retBatchSize; // no need to match batchsize of RadixOrder.
 
   private final boolean _allLeft, _allRight;
+  // Out-of-core merge: the result chunks are written to disk as soon as they
+  // are stored, instead of staying in the heap until ChunkStitcher runs
+  private final boolean _spill;
   private boolean[] _stringCols;
   private boolean[] _intCols;
 
@@ -82,8 +85,10 @@ class BinaryMerge extends DTask<BinaryMerge> {
   }
 
   // In X[Y], 'left'=i and 'right'=x
-  BinaryMerge(FFSB leftSB, FFSB riteSB, boolean allLeft) {
+  BinaryMerge(FFSB leftSB, FFSB riteSB, boolean allLeft) { this(leftSB, riteSB, allLeft, false); }
+  BinaryMerge(FFSB leftSB, FFSB riteSB, boolean allLeft, boolean spill) {
     assert riteSB._msb!=-1 || allLeft;
+    _spill = spill;
     _leftSB = leftSB;
     _riteSB = riteSB;
     _onlyLeftFrame = (_leftSB._frame.numCols() > 0 && _riteSB._frame.numCols()==0);
@@ -622,6 +627,8 @@ class BinaryMerge extends DTask<BinaryMerge> {
       }
     }
     fs.blockForPending();
+    if (_spill)
+      for (int b = 0; b < nbatch; b++) spillChunks(b, numColsInResult);
   }
   
   private void allocateFrameLikeChunks(final int b, final int nbatch, final int lastSize, final int batchSizeUUID, 
@@ -1020,6 +1027,16 @@ class BinaryMerge extends DTask<BinaryMerge> {
       }
     }
     fs.blockForPending();
+    if (_spill) spillChunks(b, numColsInResult);
+  }
+
+  // Write the stored chunks of batch b to disk and drop them from the heap.
+  // The keys are homed here, ChunkStitcher reloads the chunks one at a time.
+  private void spillChunks(final int b, final int numColsInResult) {
+    for (int col = 0; col < numColsInResult; col++) {
+      Value val = H2O.STORE.get(getKeyForMSBComboPerCol(_leftSB._msb, _riteSB._msb, col, b));
+      if (val != null) val.spillToDisk();
+    }
   }
 
 
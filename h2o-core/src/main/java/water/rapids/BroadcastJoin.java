@@ -0,0 +1,265 @@
+package water.rapids;
+
+import water.H2O;
+import water.Iced;
+import water.MRTask;
+import water.MemoryManager;
+import water.fvec.*;
+import water.parser.BufferedString;
+import water.util.Log;
+
+import java.util.Arrays;
+
+/**
+ * Broadcast hash join of a large left frame with a small right frame.
+ * <p/>
+ * The radix merge ({@link Merge#merge}) sorts both sides, which for a fact table joined to a small dimension table
+ * means sorting the huge left side for nothing.  Here the right frame is instead collected into an open-addressing
+ * hash table of primitive arrays (join key to right rows, with the right columns as payload), which is shipped once
+ * to every node with the MRTask; the left frame is then streamed through it in a single pass.
+ * <p/>
+ * Same semantics as the radix merge: the join columns are the first ncols columns of both frames, rows of the right
+ * frame with an NA in a join column never match, the result has all the left columns followed by the non-join right
+ * columns.  Unlike the radix merge, the rows come out in the order of the left frame (and of the right frame for the
+ * matches of one left row), they are not sorted by the join columns.
+ * <p/>
+ * Used by the auto method of merge when the right frame is small and the left frame is large, see {@link #isUseful}.
+ */
+public class BroadcastJoin {
+
+  // Largest right frame (rows) that is still broadcast
+  static long maxRightRows() {
+    return Long.parseLong(H2O.getSysProperty("rapids.merge.broadcast.max_rows", "1000000"));
+  }
+  // Smallest left frame (rows) for which the broadcast join is preferred to sorting it
+  static long minLeftRows() {
+    return Long.parseLong(H2O.getSysProperty("rapids.merge.broadcast.min_left_rows", "1000000"));
+  }
+
+  /**
+   * Can the right frame be broadcast and the frames joined by hashing: the join columns are integer (or
+   * categorical/time) on both sides and the right frame is small and holds no UUID columns.
+   */
+  public static boolean canJoin(Frame left, Frame right, int ncols) {
+    if (ncols == 0 || right.numRows() > maxRightRows()) return false;
+    for (int i = 0; i < ncols; i++) {
+      Vec lv = left.vec(i), rv = right.vec(i);
+      if (!(lv.isInt() || lv.isCategorical() || lv.isTime()) || !(rv.isInt() || rv.isCategorical() || rv.isTime()))
+        return false;
+    }
+    for (Vec v : right.vecs())
+      if (v.isUUID()) return false;
+    return true;
+  }
+
+  /** Should the auto merge method use the broadcast join rather than sort the (large) left frame. */
+  public static boolean isUseful(Frame left, Frame right, int ncols) {
+    return left.numRows() >= minLeftRows() && canJoin(left, right, ncols);
+  }
+
+  /**
+   * Joins the first ncols columns of both frames.
+   * @param allLeft keep the left rows without a match (with NAs in the right columns)
+   * @param id_maps mapping of the levels of categorical left join columns to the levels of the right ones
+   *                ({@link CategoricalWrappedVec#computeMap}), null for the other columns
+   */
+  public static Frame join(Frame left, Frame right, int ncols, boolean allLeft, int[][] id_maps) {
+    assert canJoin(left, right, ncols);
+    long t0 = System.nanoTime();
+    KeyIndex index = new KeyIndex(right, ncols);
+    Log.info("Broadcast join: " + index._nkeys + " distinct keys in " + right.numRows() + " right rows, built in " +
+            (System.nanoTime() - t0) / 1e6 + " ms");
+    final int nLeft = left.numCols();
+    final int nPayload = right.numCols() - ncols;
+    String[] names = Arrays.copyOf(left.names(), nLeft + nPayload);
+    String[][] domains = Arrays.copyOf(left.domains(), nLeft + nPayload);
+    byte[] types = Arrays.copyOf(left.types(), nLeft + nPayload);
+    System.arraycopy(right.names(), ncols, names, nLeft, nPayload);
+    System.arraycopy(right.domains(), ncols, domains, nLeft, nPayload);
+    System.arraycopy(right.types(), ncols, types, nLeft, nPayload);
+    if (allLeft && !index._dup) {
+      // Exactly one result row per left row: keep the left columns as they are and only compute the right ones.
+      // The result is independent of the left frame, so the left columns are a deep copy
+      Frame res = left.deepCopy(null);
+      Frame payload = new JoinTask(index, ncols, id_maps, nLeft, false, true)
+              .doAll(Arrays.copyOfRange(types, nLeft, types.length), left)
+              .outputFrame(Arrays.copyOfRange(names, nLeft, names.length), Arrays.copyOfRange(domains, nLeft, domains.length));
+      return res.add(payload);
+    }
+    return new JoinTask(index, ncols, id_maps, nLeft, true, allLeft).doAll(types, left).outputFrame(names, domains);
+  }
+
+  /**
+   * Open-addressing hash table from the join key to the rows of the right frame, together with the non-join columns
+   * of those rows.  Primitive arrays only, so that it serializes compactly to the other nodes.
+   */
+  static final class KeyIndex extends Iced<KeyIndex> {
+    final int _ncols;          // Number of join columns
+    final int _nrows;
+    final long[] _keys;        // Join key of every right row, _ncols per row
+    final int[] _table;        // Slot -> first right row with that key, +1; 0 is an empty slot
+    final int[] _next;         // Right row -> next right row with the same key, -1 for the last one
+    final int _nkeys;          // Number of distinct keys
+    final boolean _dup;        // Some key is in more than one right row
+    // Payload, the non-join right columns; one of the arrays per column is set
+    final long[][] _ints;      // Integer, categorical and time columns; Long.MIN_VALUE is NA
+    final double[][] _dbls;    // Other numeric columns; NaN is NA
+    final String[][] _strs;    // String columns; null is NA
+
+    KeyIndex(Frame right, int ncols) {
+      _ncols = ncols;
+      _nrows = (int) right.numRows();
+      final int npayload = right.numCols() - ncols;
+      _keys = MemoryManager.malloc8(_nrows * ncols);
+      _ints = new long[npayload][];
+      _dbls = new double[npayload][];
+      _strs = new String[npayload][];
+      for (int c = 0; c < npayload; c++) {
+        Vec v = right.vec(ncols + c);
+        if (v.isString()) _strs[c] = new String[_nrows];
+        else if (v.isInt() || v.isCategorical() || v.isTime()) _ints[c] = MemoryManager.malloc8(_nrows);
+        else _dbls[c] = MemoryManager.malloc8d(_nrows);
+      }
+      final boolean[] naKey = MemoryManager.mallocZ(_nrows);
+      BufferedString bStr = new BufferedString();
+      Vec[] vecs = right.vecs();
+      for (int cidx = 0; cidx < right.anyVec().nChunks(); cidx++) {
+        for (int c = 0; c < vecs.length; c++) {
+          Chunk chk = vecs[c].chunkForChunkIdx(cidx);
+          final int start = (int) chk.start();
+          for (int r = 0; r < chk._len; r++) {
+            final int row = start + r;
+            if (c < ncols) {
+              if (chk.isNA(r)) naKey[row] = true;
+              else _keys[row * ncols + c] = chk.at8(r);
+            } else {
+              final int p = c - ncols;
+              if (_strs[p] != null) _strs[p][row] = chk.isNA(r) ? null : chk.atStr(bStr, r).toString();
+              else if (_ints[p] != null) _ints[p][row] = chk.isNA(r) ? Long.MIN_VALUE : chk.at8(r);
+              else _dbls[p][row] = chk.atd(r);
+            }
+          }
+        }
+      }
+      // Twice as many slots as rows at least, a power of 2
+      _table = MemoryManager.malloc4(Integer.highestOneBit(Math.max(_nrows, 1)) << 2);
+      _next = MemoryManager.malloc4(_nrows);
+      final int[] last = MemoryManager.malloc4(_nrows); // Head row -> last row with that key, build-time only
+      final int mask = _table.length - 1;
+      int nkeys = 0;
+      boolean dup = false;
+      for (int row = 0; row < _nrows; row++) {
+        _next[row] = -1;
+        if (naKey[row]) continue; // NAs in the right join columns never match
+        int slot = hash(_keys, row * ncols, ncols) & mask;
+        while (true) {
+          final int head = _table[slot] - 1;
+          if (head < 0) {          // New key
+            _table[slot] = row + 1;
+            last[row] = row;
+            nkeys++;
+            break;
+          }
+          if (equals(_keys, head * ncols, _keys, row * ncols, ncols)) { // Dup key, append to its rows
+            _next[last[head]] = row;
+            last[head] = row;
+            dup = true;
+            break;
+          }
+          slot = (slot + 1) & mask;
+        }
+      }
+      _nkeys = nkeys;
+      _dup = dup;
+    }
+
+    /** First right row with the given key, or -1. */
+    int find(long[] key) {
+      final int mask = _table.length - 1;
+      int slot = hash(key, 0, _ncols) & mask;
+      while (true) {
+        final int head = _table[slot] - 1;
+        if (head < 0) return -1;
+        if (equals(_keys, head * _ncols, key, 0, _ncols)) return head;
+        slot = (slot + 1) & mask;
+      }
+    }
+
+    private static int hash(long[] keys, int off, int ncols) {
+      long h = 0;
+      for (int i = 0; i < ncols; i++)
+        h = (h + keys[off + i]) * 0x9E3779B97F4A7C15L;
+      return (int) (h ^ (h >>> 32));
+    }
+
+    private static boolean equals(long[] x, int xoff, long[] y, int yoff, int ncols) {
+      for (int i = 0; i < ncols; i++)
+        if (x[xoff + i] != y[yoff + i]) return false;
+      return true;
+    }
+
+    // Appends the payload of the given right row, or NAs if row is -1
+    void addPayload(NewChunk[] ncs, int off, int row) {
+      for (int p = 0; p < ncs.length - off; p++) {
+        NewChunk nc = ncs[off + p];
+        if (row < 0) nc.addNA();
+        else if (_strs[p] != null) nc.addStr(_strs[p][row]);
+        else if (_ints[p] != null) {
+          long l = _ints[p][row];
+          if (l == Long.MIN_VALUE) nc.addNA();
+          else nc.addNum(l, 0);
+        } else nc.addNum(_dbls[p][row]);
+      }
+    }
+  }
+
+  // Streams the left frame through the broadcast KeyIndex.  Outputs either all the result columns, or (_copyLeft is
+  // false, one result row per left row) the right columns only.
+  private static class JoinTask extends MRTask<JoinTask> {
+    private final KeyIndex _index;
+    private final int _ncols;
+    private final int[][] _id_maps;
+    private final int _nLeft;
+    private final boolean _copyLeft;
+    private final boolean _allLeft;
+
+    JoinTask(KeyIndex index, int ncols, int[][] id_maps, int nLeft, boolean copyLeft, boolean allLeft) {
+      _index = index;
+      _ncols = ncols;
+      _id_maps = id_maps;
+      _nLeft = nLeft;
+      _copyLeft = copyLeft;
+      _allLeft = allLeft;
+    }
+
+    @Override
+    public void map(Chunk[] cs, NewChunk[] ncs) {
+      final long[] key = new long[_ncols];
+      final int off = _copyLeft ? _nLeft : 0;
+      for (int r = 0; r < cs[0]._len; r++) {
+        final int match = lookup(cs, r, key);
+        if (match < 0 && !_allLeft) continue; // Inner join, drop the row
+        int row = match;
+        do {
+          if (_copyLeft)
+            for (int c = 0; c < _nLeft; c++)
+              cs[c].extractRows(ncs[c], r, r + 1);
+          _index.addPayload(ncs, off, row);
+        } while (row >= 0 && (row = _index._next[row]) >= 0);
+      }
+    }
+
+    // First right row matching left row r, or -1
+    private int lookup(Chunk[] cs, int r, long[] key) {
+      for (int i = 0; i < _ncols; i++) {
+        if (cs[i].isNA(r)) return -1;
+        long l = cs[i].at8(r);
+        // Left levels missing from the right domain are mapped past its end, no right row has them
+        if (_id_maps != null && _id_maps[i] != null) l = _id_maps[i][(int) l];
+        key[i] = l;
+      }
+      return _index.find(key);
+    }
+  }
+
+}
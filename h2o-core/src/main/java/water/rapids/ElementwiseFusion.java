@@ -0,0 +1,277 @@
+package water.rapids;
+
+import water.H2O;
+import water.Iced;
+import water.MRTask;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.NewChunk;
+import water.fvec.Vec;
+import water.rapids.ast.AstExec;
+import water.rapids.ast.AstPrimitive;
+import water.rapids.ast.AstRoot;
+import water.rapids.ast.params.AstId;
+import water.rapids.ast.prims.math.AstUniOp;
+import water.rapids.ast.prims.operators.AstBinOp;
+import water.rapids.vals.ValFrame;
+import water.rapids.vals.ValNum;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fused execution of nested element-wise operators.
+ * <p/>
+ * Executed one by one, every {@link AstBinOp} and {@link AstUniOp} runs its own MRTask and materializes a full
+ * temporary Frame; {@code (> (log (+ (* a b) c)) 3)} makes four passes over the data and three throw-away Frames.
+ * When an element-wise operator is applied to other element-wise operators, the whole subtree is instead turned
+ * into a lazy expression DAG over its operands (the values of all the other subexpressions) and computed by a single
+ * MRTask at the root, which only materializes the final columns.
+ * <p/>
+ * Fusion only takes place when every Frame operand is purely numeric and all of them have the same number of rows.
+ * Anything else (categoricals, strings, time columns, row broadcasting, ...) is executed operator by operator,
+ * exactly as without fusion. Operators with custom evaluation ({@link AstBinOp#fusable()}) are never fused.
+ * Can be disabled with -Dsys.ai.h2o.rapids.fusion.enabled=false.
+ */
+public final class ElementwiseFusion {
+
+  static final boolean ENABLED = H2O.getSysBoolProperty("rapids.fusion.enabled", true);
+
+  private ElementwiseFusion() {}
+
+  /**
+   * Applies an element-wise operator to the given arguments, fusing the nested element-wise operators.
+   * @return result of the operator or null if none of the arguments is an element-wise operator (nothing has been
+   * executed in that case and the caller proceeds as usual)
+   */
+  public static Val apply(Env env, Env.StackHelp stk, AstPrimitive op, AstRoot[] asts) {
+    if (!ENABLED) return null;
+    boolean nested = false;
+    for (int i = 1; i < asts.length && !nested; i++)
+      nested = fusableOp(env, asts[i]) != null;
+    if (!nested) return null;
+
+    Expr expr = build(env, stk, op, asts);
+    if (!expr.analyze())
+      return expr.evalUnfused(env, stk, true);
+    if (expr._ncols == 0)
+      return new ValNum(expr._value);
+    List<Vec> vecs = new ArrayList<>();
+    Node root = expr.compile(vecs, new int[1]);
+    Frame res = new FusedTask(root, countNodes(root))
+        .doAll(expr._ncols, Vec.T_NUM, new Frame(vecs.toArray(new Vec[0])))
+        .outputFrame(expr._names, null);
+    return new ValFrame(res);
+  }
+
+  // The operator applied by the given expression if it can be fused, null otherwise
+  private static AstPrimitive fusableOp(Env env, AstRoot ast) {
+    if (!(ast instanceof AstExec)) return null;
+    AstRoot[] asts = ((AstExec) ast)._asts;
+    if (!(asts[0] instanceof AstId)) return null;
+    Val fun = asts[0].exec(env);
+    if (!fun.isFun()) return null;
+    AstPrimitive op = fun.getFun();
+    boolean fusable = (op instanceof AstBinOp && ((AstBinOp) op).fusable()) || op instanceof AstUniOp;
+    return fusable && op.nargs() == asts.length ? op : null;
+  }
+
+  // Operands are executed in the same order as without fusion: left to right, depth first
+  private static Expr build(Env env, Env.StackHelp stk, AstPrimitive op, AstRoot[] asts) {
+    Expr[] args = new Expr[asts.length - 1];
+    for (int i = 1; i < asts.length; i++) {
+      AstPrimitive child = fusableOp(env, asts[i]);
+      args[i - 1] = child != null ? build(env, stk, child, ((AstExec) asts[i])._asts)
+                                  : new Expr(stk.track(asts[i].exec(env)));
+    }
+    return new Expr(op, args);
+  }
+
+  /**
+   * Node of the expression DAG, either an operand or an operator.
+   */
+  private static class Expr {
+    final Val _val;       // Operand, null for operators
+    final AstPrimitive _op;
+    final Expr[] _args;
+
+    // Shape of the result, see analyze()
+    int _ncols;           // 0 for scalars
+    long _nrows;
+    String[] _names;
+    double _value;        // Value of a scalar
+
+    Expr(Val val) { _val = val; _op = null; _args = null; }
+    Expr(AstPrimitive op, Expr[] args) { _val = null; _op = op; _args = args; }
+
+    /**
+     * Computes the shape of the result the same way the operators do.
+     * @return false if the expression cannot be fused
+     */
+    boolean analyze() {
+      if (_op == null) {
+        if (_val.type() == Val.NUM) {
+          _value = _val.getNum();
+          return true;
+        }
+        if (_val.type() != Val.FRM) return false;
+        Frame fr = _val.getFrame();
+        if (fr.numCols() == 0) return false;
+        for (Vec v : fr.vecs())
+          if (!v.isNumeric()) return false;
+        _ncols = fr.numCols();
+        _nrows = fr.numRows();
+        _names = fr.names();
+        return true;
+      }
+      for (Expr arg : _args)
+        if (!arg.analyze()) return false;
+      if (_op instanceof AstUniOp) {
+        Expr arg = _args[0];
+        if (arg._ncols == 0) {
+          _value = ((AstUniOp) _op).op(arg._value);
+        } else {
+          _ncols = arg._ncols;
+          _nrows = arg._nrows;
+          _names = new String[arg._names.length];
+          for (int i = 0; i < _names.length; i++)
+            _names[i] = _op.str() + "(" + arg._names[i] + ")";
+        }
+        return true;
+      }
+      Expr l = _args[0], r = _args[1];
+      if (l._ncols == 0 && r._ncols == 0) {
+        _value = ((AstBinOp) _op).op(l._value, r._value);
+        return true;
+      }
+      Expr shape;
+      if (l._ncols == 0) shape = r;
+      else if (r._ncols == 0) shape = l;
+      else if (l._nrows != r._nrows) return false;   // row broadcasting
+      else if (l._ncols == 1 && r._ncols > 1) shape = r;
+      else if (r._ncols == 1 && l._ncols > 1) shape = l;
+      else if (l._ncols != r._ncols) return false;   // not compatible, let the operator fail
+      else shape = l;
+      _ncols = shape._ncols;
+      _nrows = shape._nrows;
+      _names = shape._names;
+      return true;
+    }
+
+    /**
+     * Executes the operators one by one, as if there were no fusion.
+     */
+    Val evalUnfused(Env env, Env.StackHelp stk, boolean root) {
+      if (_op == null) return _val;
+      Val res;
+      if (_op instanceof AstUniOp) {
+        res = ((AstUniOp) _op).exec(new Val[]{null, _args[0].evalUnfused(env, stk, false)});
+      } else {
+        Val left = _args[0].evalUnfused(env, stk, false);
+        Val rite = _args[1].evalUnfused(env, stk, false);
+        res = ((AstBinOp) _op).prim_apply(left, rite);
+      }
+      return root ? res : stk.track(env.returning(res));
+    }
+
+    Node compile(List<Vec> vecs, int[] ids) {
+      Node n;
+      if (_ncols == 0) {
+        n = new ConNode(_value);
+      } else if (_op == null) {
+        n = new ColNode(vecs.size(), _ncols);
+        vecs.addAll(Arrays.asList(_val.getFrame().vecs()));
+      } else if (_op instanceof AstUniOp) {
+        n = new UniNode((AstUniOp) _op, _args[0].compile(vecs, ids));
+      } else {
+        n = new BinNode((AstBinOp) _op, _args[0].compile(vecs, ids), _args[1].compile(vecs, ids));
+      }
+      n._id = ids[0]++;
+      return n;
+    }
+  }
+
+  private static int countNodes(Node n) {
+    if (n instanceof UniNode) return 1 + countNodes(((UniNode) n)._arg);
+    if (n instanceof BinNode) return 1 + countNodes(((BinNode) n)._left) + countNodes(((BinNode) n)._rite);
+    return 1;
+  }
+
+  /**
+   * Compiled expression, evaluates a whole column of a chunk at a time into the buffer of the node.
+   */
+  static abstract class Node extends Iced {
+    int _id;
+    abstract double[] eval(Chunk[] cs, int col, int len, double[][] bufs);
+  }
+
+  static class ConNode extends Node {
+    final double _con;
+    ConNode(double con) { _con = con; }
+    @Override double[] eval(Chunk[] cs, int col, int len, double[][] bufs) {
+      double[] res = bufs[_id];
+      Arrays.fill(res, 0, len, _con);
+      return res;
+    }
+  }
+
+  static class ColNode extends Node {
+    final int _first;  // First column of the operand in the input chunks
+    final int _ncols;  // Single column operands are widened to all the output columns
+    ColNode(int first, int ncols) { _first = first; _ncols = ncols; }
+    @Override double[] eval(Chunk[] cs, int col, int len, double[][] bufs) {
+      return cs[_first + (_ncols == 1 ? 0 : col)].getDoubles(bufs[_id], 0, len);
+    }
+  }
+
+  static class UniNode extends Node {
+    final AstUniOp _op;
+    final Node _arg;
+    UniNode(AstUniOp op, Node arg) { _op = op; _arg = arg; }
+    @Override double[] eval(Chunk[] cs, int col, int len, double[][] bufs) {
+      double[] arg = _arg.eval(cs, col, len, bufs);
+      double[] res = bufs[_id];
+      for (int i = 0; i < len; i++)
+        res[i] = _op.op(arg[i]);
+      return res;
+    }
+  }
+
+  static class BinNode extends Node {
+    final AstBinOp _op;
+    final Node _left, _rite;
+    BinNode(AstBinOp op, Node left, Node rite) { _op = op; _left = left; _rite = rite; }
+    @Override double[] eval(Chunk[] cs, int col, int len, double[][] bufs) {
+      double[] left = _left.eval(cs, col, len, bufs);
+      double[] rite = _rite.eval(cs, col, len, bufs);
+      double[] res = bufs[_id];
+      for (int i = 0; i < len; i++)
+        res[i] = _op.op(left[i], rite[i]);
+      return res;
+    }
+  }
+
+  private static class FusedTask extends MRTask<FusedTask> {
+    private final Node _root;
+    private final int _nnodes;
+
+    FusedTask(Node root, int nnodes) {
+      _root = root;
+      _nnodes = nnodes;
+    }
+
+    @Override
+    public void map(Chunk[] cs, NewChunk[] ncs) {
+      final int len = cs[0]._len;
+      double[][] bufs = new double[_nnodes][len];
+      for (int col = 0; col < ncs.length; col++) {
+        double[] res = _root.eval(cs, col, len, bufs);
+        NewChunk nc = ncs[col];
+        for (int i = 0; i < len; i++)
+          nc.addNum(res[i]);
+      }
+    }
+  }
+
+}
@@ -3,7 +3,11 @@ package water.rapids;
 import water.*;
 import water.fvec.*;
 
+import water.util.Log;
+import water.util.PrettyPrint;
+
 import java.math.BigInteger;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 
@@ -11,6 +15,16 @@ import static water.rapids.SingleThreadRadixOrder.getSortedOXHeaderKey;
 
 public class Merge {
 
+  // Fraction of the heap of every node that the results of the merge may take
+  // before the out-of-core (spilling) mode kicks in.  The spilling mode can
+  // also be forced with -Dsys.ai.h2o.rapids.sort.spill=true
+  static double maxMemFraction() {
+    return Double.parseDouble(H2O.getSysProperty("rapids.sort.max_mem_fraction", "0.5"));
+  }
+  static boolean forceSpill() {
+    return H2O.getSysBoolProperty("rapids.sort.spill", false);
+  }
+
   public static Frame sort(final Frame fr, int[] cols) {
     int numCol = cols.length;
     int[] ascending = new int[numCol];
@@ -21,6 +35,9 @@ public class Merge {
   // Radix-sort a Frame using the given columns as keys.
   // This is a fully distributed and parallel sort.
   // It is not currently an in-place sort, so the data is doubled and a sorted copy is returned.
+  // When the sorted copy would not fit into the heap next to the original (see
+  // maxMemFraction), the sorted runs are spilled to disk and streamed into the
+  // result, see BinaryMergeQueue.
   public static Frame sort(final Frame fr, int[] cols, int[] ascending) {
     if( cols.length==0 )        // Empty key list
       return fr;                // Return original frame
@@ -134,7 +151,7 @@ public class Merge {
     System.out.print("Making BinaryMerge RPC calls ... ");
     long t0 = System.nanoTime();
     ArrayList<BinaryMerge> bmList = new ArrayList<>();
-    Futures fs = new Futures();
+    BinaryMergeQueue queue = new BinaryMergeQueue(leftFrame, rightFrame, hasRite ? leftIndex._bytesUsed.length : 0);
     final int leftShift = leftIndex._shift[0];
     final BigInteger leftBase = leftIndex._base[0];
     final int riteShift = hasRite ? riteIndex._shift[0] : -1;
@@ -158,9 +175,9 @@ public class Merge {
         BinaryMerge bm = new BinaryMerge(new BinaryMerge.FFSB(leftFrame, leftMSB, leftShift,
                 leftIndex._bytesUsed, leftIndex._base), new BinaryMerge.FFSB(rightFrame,/*rightMSB*/-1, riteShift,
                 riteIndex._bytesUsed, riteIndex._base),
-                true);
+                true, queue._spill);
           bmList.add(bm);
-          fs.add(new RPC<>(SplitByMSBLocal.ownerOfMSB(leftMSB), bm).call());
+          queue.call(SplitByMSBLocal.ownerOfMSB(leftMSB), bm);
         }
     } else {
       // completely ignore right MSBs below the left base
@@ -191,9 +208,9 @@ public class Merge {
                 leftIndex._bytesUsed,leftIndex._base),
                 new BinaryMerge.FFSB(rightFrame,/*rightMSB*/-1,riteShift,
                         riteIndex._bytesUsed,riteIndex._base),
-                true);
+                true, queue._spill);
           bmList.add(bm);
-          fs.add(new RPC<>(SplitByMSBLocal.ownerOfMSB(leftMSB), bm).call());
+          queue.call(SplitByMSBLocal.ownerOfMSB(leftMSB), bm);
       }
     } else {
       // completely ignore right MSBs after the right peak
@@ -224,21 +241,21 @@ public class Merge {
       for (int rightMSB=rightMSBfrom; rightMSB<=rightMSBto; rightMSB++) {
         BinaryMerge bm = new BinaryMerge(new BinaryMerge.FFSB(leftFrame, leftMSB,leftShift,leftIndex._bytesUsed,leftIndex._base),
                                          new BinaryMerge.FFSB(rightFrame,rightMSB,riteShift,riteIndex._bytesUsed,riteIndex._base),
-                                         allLeft);
+                                         allLeft, queue._spill);
         bmList.add(bm);
         // TODO: choose the bigger side to execute on (where that side of index
         // already is) to minimize transfer.  within BinaryMerge it will
         // recalculate the extents in terms of keys and bsearch for them within
         // the (then local) both sides
         H2ONode node = SplitByMSBLocal.ownerOfMSB(rightMSB);
-        fs.add(new RPC<>(node, bm).call());
+        queue.call(node, bm);
       }
     }
     System.out.println("took: " + String.format("%.3f", (System.nanoTime() - t0) / 1e9));
 
     t0 = System.nanoTime();
     System.out.println("Sending BinaryMerge async RPC calls in a queue ... ");
-    fs.blockForPending();
+    queue.blockForPending();
     System.out.println("took: " + (System.nanoTime() - t0) / 1e9);
 
 
@@ -247,17 +264,8 @@ public class Merge {
     // Explicitly deleting here (rather than Arno's cleanUp) to reveal if we're not removing keys early enough elsewhere
     t0 = System.nanoTime();
     for (int msb=0; msb<256; msb++) {
-      for (int isLeft=0; isLeft<2; isLeft++) {
-        Key k = getSortedOXHeaderKey(isLeft!=0, msb);
-        SingleThreadRadixOrder.OXHeader oxheader = DKV.getGet(k);
-        DKV.remove(k);
-        if (oxheader != null) {
-          for (int b=0; b<oxheader._nBatch; ++b) {
-            k = SplitByMSBLocal.getSortedOXbatchKey(isLeft!=0, msb, b);
-            DKV.remove(k);
-          }
-        }
-      }
+      for (int isLeft=0; isLeft<2; isLeft++)
+        removeIndex(isLeft!=0, msb);
     }
     System.out.println("took: " + (System.nanoTime() - t0)/1e9);
 
@@ -336,6 +344,102 @@ public class Merge {
     return fr;
   }
 
+  // Remove the sorted index (OX header and batches) of one MSB from the DKV
+  private static void removeIndex(boolean isLeft, int msb) {
+    Key k = getSortedOXHeaderKey(isLeft, msb);
+    SingleThreadRadixOrder.OXHeader oxheader = DKV.getGet(k);
+    DKV.remove(k);
+    if (oxheader != null) {
+      for (int b=0; b<oxheader._nBatch; ++b) {
+        k = SplitByMSBLocal.getSortedOXbatchKey(isLeft, msb, b);
+        DKV.remove(k);
+      }
+    }
+  }
+
+  // Number of rows of one MSB of the sorted index, 0 if the MSB is empty
+  private static long indexRows(boolean isLeft, int msb) {
+    if (msb < 0) return 0;
+    SingleThreadRadixOrder.OXHeader oxheader = DKV.getGet(getSortedOXHeaderKey(isLeft, msb));
+    return oxheader == null ? 0 : oxheader._numRows;
+  }
+
+  // Launches the BinaryMerge RPCs.  By default all of them are launched at
+  // once and their results (the chunks of the merged frame) stay in memory
+  // until ChunkStitcher moves them into the final frame, so the data is
+  // doubled.  When that does not fit into maxMemFraction of the heap, the
+  // merge goes out-of-core:
+  //  - the results of every BinaryMerge are written to disk as soon as they
+  //    are made (see BinaryMerge._spill) and reloaded one chunk at a time by
+  //    ChunkStitcher,
+  //  - the BinaryMerges running at the same time on a node are bounded by
+  //    their estimated result size, so that their uncompressed in-flight
+  //    results fit into maxMemFraction of the heap of the node,
+  //  - when sorting, the index of an MSB is dropped as soon as its
+  //    BinaryMerge is done rather than at the very end.
+  static class BinaryMergeQueue {
+    final boolean _spill;
+    private final boolean _sort;      // no right frame; one BinaryMerge per left MSB
+    private final long _bytesPerRow;  // estimated size of one row of the result while being merged
+    private final long _budget;       // bytes in flight per node
+    private final long[] _inFlight;   // per node
+    private final ArrayDeque<RPC<BinaryMerge>>[] _running; // per node, in launch order
+    private final Futures _fs = new Futures();
+
+    @SuppressWarnings("unchecked")
+    BinaryMergeQueue(Frame leftFrame, Frame rightFrame, int numJoinCols) {
+      _sort = rightFrame.numCols() == 0;
+      int numColsInResult = leftFrame.numCols() + rightFrame.numCols() - numJoinCols;
+      long bytesPerRow = bytesPerRow(leftFrame) + bytesPerRow(rightFrame);
+      // doubles while the result is being merged, compressed afterwards
+      _bytesPerRow = Math.max(8L * numColsInResult, bytesPerRow);
+      _budget = (long) (maxMemFraction() * MemoryManager.MEM_MAX);
+      long clusterBudget = _budget * H2O.CLOUD.size();
+      _spill = forceSpill() || leftFrame.byteSize() + rightFrame.byteSize() > clusterBudget;
+      _inFlight = new long[H2O.CLOUD.size()];
+      _running = new ArrayDeque[H2O.CLOUD.size()];
+      for (int i = 0; i < _running.length; i++) _running[i] = new ArrayDeque<>();
+      if (_spill)
+        Log.info("Merge of " + PrettyPrint.bytes(leftFrame.byteSize() + rightFrame.byteSize()) +
+                " does not fit into " + PrettyPrint.bytes(clusterBudget) + ", spilling the sorted runs to disk");
+    }
+
+    private static long bytesPerRow(Frame fr) {
+      return fr.numCols() == 0 || fr.numRows() == 0 ? 0 : fr.byteSize() / fr.numRows();
+    }
+
+    void call(H2ONode node, BinaryMerge bm) {
+      if (!_spill) {
+        _fs.add(new RPC<>(node, bm).call());
+        return;
+      }
+      final int n = node.index();
+      long bytes = estimate(bm);
+      // Wait for the eldest merges of the node to finish, but always run at least one
+      while (!_running[n].isEmpty() && _inFlight[n] + bytes > _budget)
+        done(n, _running[n].poll().get());
+      _inFlight[n] += bytes;
+      _running[n].add(new RPC<>(node, bm).call());
+    }
+
+    void blockForPending() {
+      _fs.blockForPending();
+      for (int n = 0; n < _running.length; n++)
+        while (!_running[n].isEmpty())
+          done(n, _running[n].poll().get());
+    }
+
+    private long estimate(BinaryMerge bm) {
+      long rows = indexRows(true, bm._leftSB._msb) + indexRows(false, bm._riteSB._msb);
+      return rows * _bytesPerRow;
+    }
+
+    private void done(int n, BinaryMerge bm) {
+      _inFlight[n] -= estimate(bm);
+      if (_sort) removeIndex(true, bm._leftSB._msb);
+    }
+  }
+
   private static RadixOrder createIndex(boolean isLeft, Frame fr, int[] cols, int[][] id_maps, int[] ascending) {
     System.out.println("\nCreating "+(isLeft ? "left" : "right")+" index ...");
     long t0 = System.nanoTime();
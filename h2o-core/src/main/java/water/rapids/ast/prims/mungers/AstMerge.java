@@ -6,6 +6,7 @@ import water.Key;
 import water.MRTask;
 import water.fvec.*;
 import water.parser.BufferedString;
+import water.rapids.BroadcastJoin;
 import water.rapids.Env;
 import water.rapids.Merge;
 import water.rapids.ast.AstPrimitive;
@@ -45,6 +46,11 @@ import java.util.Arrays;
  * the frames.  The Hash method will not give correct merge results if there
  * are duplicated rows in the rightFrame.  The hash method cannot work with String columns,
  * they need to be casted to enums/integer columns before calling merge.
+ * <p/>
+ * When the rightFrame is small and the leftFrame large, auto uses a broadcast
+ * hash join instead of radix (see {@link BroadcastJoin}): the rightFrame is
+ * replicated to every node and the leftFrame is not sorted, so the rows come
+ * out in the order of the leftFrame.
  */
 public class AstMerge extends AstPrimitive {
   @Override
@@ -147,6 +153,10 @@ public class AstMerge extends AstPrimitive {
         }
       }
 
+      // A large left frame joined to a small right frame: broadcast the right one rather than sorting the left one
+      if (method.equals("auto") && !allRite && BroadcastJoin.isUseful(l, r, ncols))
+        return new ValFrame(BroadcastJoin.join(l, r, ncols, allLeft, id_maps));
+
       if (onlyLeftAllOff) {
         return sortingMerge(l, r, allLeft, ncols, id_maps);
       } else {  // implement allRite here by switching leftframe and riteframe.  However, column order is wrong, re-order before return
@@ -36,6 +36,8 @@ abstract public class AstBinOp extends AstPrimitive {
 
   @Override
   public Val apply(Env env, Env.StackHelp stk, AstRoot asts[]) {
+    Val fused = ElementwiseFusion.apply(env, stk, this, asts);
+    if (fused != null) return fused;
     Val left = stk.track(asts[1].exec(env));
     Val rite = stk.track(asts[2].exec(env));
     return prim_apply(left, rite);
@@ -471,6 +473,14 @@ abstract public class AstBinOp extends AstPrimitive {
     return cleanCategorical(fr, res); // Cleanup categorical misuse
   }
 
+  /**
+   * Can this operator be fused with the nested element-wise operators (see {@link ElementwiseFusion}) ?
+   * Operators customizing the evaluation beyond {@link #op(double, double)} must return false.
+   */
+  public boolean fusable() {
+    return true;
+  }
+
   /**
    * Does it make sense to run this operation on a categorical variable ?
    *
@@ -43,6 +43,11 @@ public class AstEq extends AstBinOp {
     }.doAll(fr.numCols(), Vec.T_NUM, fr).outputFrame());
   }
 
+  @Override
+  public boolean fusable() {
+    return false;
+  }  // Custom evaluation on Frames
+
   @Override
   public boolean categoricalOK() {
     return true;
@@ -12,6 +12,11 @@ public class AstLOr extends AstBinOp {
     return "||";
   }
 
+  @Override
+  public boolean fusable() {
+    return false;
+  }  // Short-circuit evaluation
+
   @Override
   public Val apply(Env env, Env.StackHelp stk, AstRoot asts[]) {
     Val left = stk.track(asts[1].exec(env));
@@ -42,6 +42,11 @@ public class AstNe extends AstBinOp {
     }.doAll(fr.numCols(), Vec.T_NUM, fr).outputFrame());
   }
 
+  @Override
+  public boolean fusable() {
+    return false;
+  }  // Custom evaluation on Frames
+
   @Override
   public boolean categoricalOK() {
     return true;
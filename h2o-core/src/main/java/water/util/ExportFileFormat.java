@@ -0,0 +1,9 @@
+package water.util;
+
+/**
+ * File formats a Frame can be exported to. CSV is built-in, the columnar formats are provided by the
+ * corresponding parser modules (see {@link water.parser.BinaryFormatExporter}).
+ */
+public enum ExportFileFormat {
+  csv, parquet, orc
+}
@@ -6,8 +6,10 @@ import hex.ToEigenVec;
 import jsr166y.CountedCompleter;
 import water.*;
 import water.fvec.*;
+import water.parser.BinaryFormatExporter;
 import water.parser.ParseDataset;
 import water.parser.ParseSetup;
+import water.parser.ParserService;
 
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -346,6 +348,8 @@ public class FrameUtils {
     int _nParts;
     final CompressionFactory _compressor;
     final Frame.CSVStreamParams _csv_parms;
+    final ExportFileFormat _format;
+    final String _compression; // codec name for the binary formats
 
     public ExportTaskDriver(Frame frame, String path, String frameName, boolean overwrite, Job j, int nParts,
                             CompressionFactory compressor, Frame.CSVStreamParams csvParms) {
@@ -357,6 +361,26 @@ public class FrameUtils {
       _nParts = nParts;
       _compressor = compressor;
       _csv_parms = csvParms;
+      _format = ExportFileFormat.csv;
+      _compression = null;
+    }
+
+    /**
+     * Export to one of the binary (columnar) formats, the actual writing is delegated to the
+     * {@link BinaryFormatExporter} of the format.
+     */
+    public ExportTaskDriver(Frame frame, String path, String frameName, boolean overwrite, Job j, int nParts,
+                            ExportFileFormat format, String compression) {
+      _frame = frame;
+      _path = path;
+      _frameName = frameName;
+      _overwrite = overwrite;
+      _j = j;
+      _nParts = nParts;
+      _compressor = null;
+      _csv_parms = null;
+      _format = format;
+      _compression = compression;
     }
 
     @Override
@@ -365,13 +389,17 @@ public class FrameUtils {
       if (_nParts == 1) {
         // Single file export, the file should be created by the node that was asked to export the data
         // (this is for non-distributed filesystems, we want the file to go to the local filesystem of the node)
-        Frame.CSVStream is = new Frame.CSVStream(_frame, _csv_parms);
-        exportCSVStream(is, _path, 0);
+        if (_format == ExportFileFormat.csv) {
+          Frame.CSVStream is = new Frame.CSVStream(_frame, _csv_parms);
+          exportCSVStream(is, _path, 0);
+        } else {
+          exportBinary(_path, 0, _frame.anyVec().nChunks());
+        }
         tryComplete();
       } else {
         // Multi-part export
         if (_nParts < 0) {
-          _nParts = calculateNParts(_csv_parms);
+          _nParts = _format == ExportFileFormat.csv ? calculateNParts(_csv_parms) : calculateBinaryNParts();
           assert _nParts > 0;
         }
         int nChunksPerPart = ((_frame.anyVec().nChunks() - 1) / _nParts) + 1;
@@ -404,6 +432,18 @@ public class FrameUtils {
       return nParts;
     }
 
+    /**
+     * Columnar formats encode the data similarly to the in-memory Chunks, the in-memory size of the frame
+     * is used as the estimate of the size of the output.
+     */
+    private int calculateBinaryNParts() {
+      long size = _frame.byteSize();
+      int nParts = Math.max((int) (size / DEFAULT_TARGET_PART_SIZE), H2O.CLOUD.size() + 1);
+      nParts = Math.min(nParts, AUTO_PARTS_MAX);
+      Log.info("For " + _format + " export of in-memory size " + size + "B determined number of parts: " + nParts);
+      return nParts;
+    }
+
     /**
      * Trivial CSV file size estimator. Uses the first line of each non-empty chunk to estimate the size of the chunk.
      * The total estimated size is the total of the estimated chunk sizes.
@@ -491,6 +531,18 @@ public class FrameUtils {
       }
     }
 
+    private void exportBinary(String path, int fromChunkIdx, int toChunkIdx) {
+      BinaryFormatExporter exporter = ParserService.INSTANCE.getExporter(_format);
+      if (exporter == null)
+        throw new IllegalStateException("No exporter available for format " + _format + " on node " + H2O.SELF);
+      try {
+        long rows = exporter.export(_frame, fromChunkIdx, toChunkIdx, path, _overwrite, _compression, _j);
+        Log.info("Written " + rows + " rows of key '" + _frameName + "' to " + path + ".");
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    }
+
     class PartExportTask extends MRTask<PartExportTask> {
       final String[] _colNames;
       final int _length;
@@ -511,8 +563,14 @@ public class FrameUtils {
         }
         int partIdx = anyChunk.cidx() / _length;
         String partPath = _path + "/part-m-" + String.valueOf(100000 + partIdx).substring(1);
-        Frame.CSVStream is = new Frame.CSVStream(cs, _colNames, _length, _csv_parms);
-        exportCSVStream(is, partPath, anyChunk.cidx());
+        if (_format == ExportFileFormat.csv) {
+          Frame.CSVStream is = new Frame.CSVStream(cs, _colNames, _length, _csv_parms);
+          exportCSVStream(is, partPath, anyChunk.cidx());
+        } else {
+          // the part file covers this Chunk and the following ones up to the start of the next part
+          int toChunkIdx = Math.min(anyChunk.cidx() + _length, anyChunk.vec().nChunks());
+          exportBinary(partPath + "." + _format, anyChunk.cidx(), toChunkIdx);
+        }
       }
 
       @Override
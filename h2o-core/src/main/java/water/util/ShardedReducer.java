@@ -0,0 +1,220 @@
+package water.util;
+
+import water.*;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Allreduce-style summation of a large dense vector produced by an {@link MRTask}.
+ * <p/>
+ * Reducing an array field of an MRTask funnels the whole array through the reduce tree: every node serializes the
+ * full vector to its parent, log(N) hops one after the other. The ShardedReducer sums the vector in node-local shards
+ * instead:
+ * <ol>
+ *   <li>all the map calls on a node add their values into a node-local accumulator ({@link #add}),</li>
+ *   <li>once the node is done ({@link #closeLocal}), the accumulator is split into one shard per node and shard
+ *   {@code i} is sent to (and summed on) node {@code i} - reduce-scatter,</li>
+ *   <li>the caller finally collects the reduced shards from all the nodes ({@link #gather}) - allgather.</li>
+ * </ol>
+ * Every node then sends and receives about one copy of the vector, all nodes in parallel. Shards can optionally be
+ * transferred in float precision to halve the traffic, values are always accumulated in doubles.
+ * <p/>
+ * Usage - the reducer is a field of the task (shared by all its local copies):
+ * <pre>
+ *   setupLocal():  _reducer.setupLocal();
+ *   map():         _reducer.add(values, 0);            // instead of reducing values in reduce()
+ *   closeLocal():  _reducer.closeLocal();
+ *   postGlobal():  double[] values = _reducer.gather();
+ *   onGlobalFailure(): _reducer.discard();             // the shards are only removed by gather() otherwise
+ * </pre>
+ */
+public final class ShardedReducer extends Iced<ShardedReducer> {
+
+  // Reduced shards owned by this node
+  private static final ConcurrentHashMap<Key, double[]> SHARDS = new ConcurrentHashMap<>();
+
+  // Number of reduced shards held by this node, for tests
+  static int shardCount() { return SHARDS.size(); }
+
+  private static final int STRIPE_SIZE = 1 << 14;
+
+  private final Key _key;       // Identifies this reduction across the cloud
+  private final int _len;
+  private final boolean _floats;
+
+  private transient double[] _local;      // Node-local accumulator
+  private transient Object[] _locks;      // One lock per stripe of the accumulator
+  private transient volatile boolean _added;
+
+  public ShardedReducer(int len, boolean floats) {
+    _key = Key.make();
+    _len = len;
+    _floats = floats;
+  }
+
+  public int length() { return _len; }
+
+  /** Node-local initialization, call from the setupLocal of the task. */
+  public void setupLocal() {
+    _local = MemoryManager.malloc8d(_len);
+    _locks = new Object[(_len + STRIPE_SIZE - 1) / STRIPE_SIZE];
+    for (int i = 0; i < _locks.length; i++)
+      _locks[i] = new Object();
+  }
+
+  /**
+   * Adds the values to the node-local accumulator starting at the given offset. Thread-safe, concurrent callers
+   * only contend on the stripe of the accumulator they are adding to at the moment.
+   */
+  public void add(double[] vals, int off) {
+    if (vals == null) return;
+    final int from = off / STRIPE_SIZE;
+    final int to = (off + vals.length - 1) / STRIPE_SIZE;
+    final int n = to - from + 1;
+    // Start at a different stripe in every thread so that the threads do not follow each other
+    final int start = (int) (Thread.currentThread().getId() % n);
+    for (int k = 0; k < n; k++) {
+      int s = from + (start + k) % n;
+      int lo = Math.max(off, s * STRIPE_SIZE);
+      int hi = Math.min(off + vals.length, (s + 1) * STRIPE_SIZE);
+      synchronized (_locks[s]) {
+        for (int i = lo; i < hi; i++)
+          _local[i] += vals[i - off];
+      }
+    }
+    _added = true;
+  }
+
+  /** Reduce-scatter of the node-local accumulator, call from the closeLocal of the task. */
+  public void closeLocal() {
+    if (_added) {
+      H2ONode[] nodes = H2O.CLOUD.members();
+      Futures fs = new Futures();
+      for (int i = 0; i < nodes.length; i++) {
+        int lo = shardStart(i, nodes.length), hi = shardStart(i + 1, nodes.length);
+        if (lo == hi) continue;
+        fs.add(RPC.call(nodes[i], new AddShard(_key, _local, lo, hi, _floats)));
+      }
+      fs.blockForPending();
+    }
+    _local = null;
+    _locks = null;
+  }
+
+  /** Allgather of the reduced shards, call once all the nodes are done (e.g. from postGlobal). */
+  public double[] gather() {
+    H2ONode[] nodes = H2O.CLOUD.members();
+    GetShard[] tasks = new GetShard[nodes.length];
+    Futures fs = new Futures();
+    for (int i = 0; i < nodes.length; i++) {
+      tasks[i] = new GetShard(_key, _floats);
+      fs.add(RPC.call(nodes[i], tasks[i]));
+    }
+    fs.blockForPending();
+    double[] res = MemoryManager.malloc8d(_len);
+    for (int i = 0; i < nodes.length; i++) {
+      int lo = shardStart(i, nodes.length);
+      if (tasks[i]._dvals != null)
+        System.arraycopy(tasks[i]._dvals, 0, res, lo, tasks[i]._dvals.length);
+      else if (tasks[i]._fvals != null)
+        for (int j = 0; j < tasks[i]._fvals.length; j++)
+          res[lo + j] = tasks[i]._fvals[j];
+    }
+    return res;
+  }
+
+  /**
+   * Drops the shards of this reduction on all the nodes; call when the task failed and gather() will not be
+   * called (see {@link MRTask#onGlobalFailure}).
+   */
+  public void discard() {
+    Futures fs = new Futures();
+    for (H2ONode node : H2O.CLOUD.members())
+      fs.add(RPC.call(node, new RemoveShard(_key)));
+    fs.blockForPending();
+  }
+
+  private int shardStart(int node, int nodes) {
+    return (int) ((long) _len * node / nodes);
+  }
+
+  private static class AddShard extends DTask<AddShard> {
+    private final Key _key;
+    private double[] _dvals;
+    private float[] _fvals;
+
+    AddShard(Key key, double[] vals, int lo, int hi, boolean floats) {
+      super(H2O.ATOMIC_PRIORITY);
+      _key = key;
+      if (floats) {
+        _fvals = new float[hi - lo];
+        for (int i = lo; i < hi; i++)
+          _fvals[i - lo] = (float) vals[i];
+      } else
+        _dvals = Arrays.copyOfRange(vals, lo, hi);
+    }
+
+    @Override
+    public void compute2() {
+      int len = _dvals != null ? _dvals.length : _fvals.length;
+      double[] shard = SHARDS.get(_key);
+      if (shard == null) {
+        double[] old = SHARDS.putIfAbsent(_key, shard = MemoryManager.malloc8d(len));
+        if (old != null) shard = old;
+      }
+      synchronized (shard) {
+        if (_dvals != null) ArrayUtils.add(shard, _dvals);
+        else for (int i = 0; i < len; i++) shard[i] += _fvals[i];
+      }
+      _dvals = null; // Nothing to send back
+      _fvals = null;
+      tryComplete();
+    }
+  }
+
+  private static class RemoveShard extends DTask<RemoveShard> {
+    private final Key _key;
+
+    RemoveShard(Key key) {
+      super(H2O.ATOMIC_PRIORITY);
+      _key = key;
+    }
+
+    @Override
+    public void compute2() {
+      SHARDS.remove(_key);
+      tryComplete();
+    }
+  }
+
+  private static class GetShard extends DTask<GetShard> {
+    private final Key _key;
+    private final boolean _floats;
+    double[] _dvals;
+    float[] _fvals;
+
+    GetShard(Key key, boolean floats) {
+      super(H2O.ATOMIC_PRIORITY);
+      _key = key;
+      _floats = floats;
+    }
+
+    @Override
+    public void compute2() {
+      double[] shard = SHARDS.remove(_key);
+      if (shard != null) {
+        synchronized (shard) {
+          if (_floats) {
+            _fvals = new float[shard.length];
+            for (int i = 0; i < shard.length; i++)
+              _fvals[i] = (float) shard[i];
+          } else
+            _dvals = shard;
+        }
+      }
+      tryComplete();
+    }
+  }
+
+}
@@ -2,6 +2,7 @@ package water.webserver;
 
 import org.apache.commons.io.IOUtils;
 import water.ExtensionManager;
+import water.api.ArrowServlet;
 import water.api.DatasetServlet;
 import water.api.NpsBinServlet;
 import water.api.PostFileServlet;
@@ -37,6 +38,8 @@ public class H2OHttpViewImpl implements H2OHttpView {
     SERVLETS.put("/3/PostFile", PostFileServlet.class);
     SERVLETS.put("/3/DownloadDataset", DatasetServlet.class);
     SERVLETS.put("/3/DownloadDataset.bin", DatasetServlet.class);
+    SERVLETS.put("/3/DownloadDataset.arrow", ArrowServlet.class);
+    SERVLETS.put("/3/UploadDataset.arrow", ArrowServlet.class);
     SERVLETS.put("/3/PutKey.bin", PutKeyServlet.class);
     SERVLETS.put("/3/PutKey", PutKeyServlet.class);
     SERVLETS.put("/", RequestServer.class);
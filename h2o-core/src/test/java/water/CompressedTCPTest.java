@@ -0,0 +1,90 @@
+package water;
+
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.network.CompressedByteChannel;
+
+import static org.junit.Assert.*;
+
+/**
+ * Big RPCs between nodes with compression of the TCP transfers enabled.
+ */
+public class CompressedTCPTest extends TestUtil {
+
+  @BeforeClass
+  static public void setup() {
+    stall_till_cloudsize(3);
+  }
+
+  private final boolean _compressTCP = H2ONode.COMPRESS_TCP;
+
+  @After
+  public void restoreCompression() {
+    H2ONode.COMPRESS_TCP = _compressTCP;
+  }
+
+  @Test
+  public void testRoundTripWithCompression() {
+    H2ONode node = findRemoteNode();
+    H2ONode.COMPRESS_TCP = true;
+    assertTrue("Remote node accepts compressed connections", node._heartbeat._tcp_compression);
+    assertTrue(node.compressTCP());
+
+    long savedBefore = CompressedByteChannel.bytesSaved();
+    for (int i = 0; i < 5; i++) { // sockets are recycled, the handshake has to keep the framing in sync
+      byte[] data = new byte[1 << 20];
+      for (int j = 0; j < data.length; j++)
+        data[j] = (byte) ((j / 11 + i) % 17);
+      EchoRunnable result = H2O.runOnH2ONode(node, new EchoRunnable(data));
+      assertArrayEquals(data, result._data);
+      assertEquals(checksum(data), result._checksum);
+    }
+    assertTrue("Compression saved bytes on the wire", CompressedByteChannel.bytesSaved() - savedBefore > (1 << 20));
+    assertTrue(node.compressTCP());
+  }
+
+  @Test
+  public void testRoundTripWithoutCompression() {
+    H2ONode node = findRemoteNode();
+    H2ONode.COMPRESS_TCP = false;
+    assertFalse(node.compressTCP());
+
+    long savedBefore = CompressedByteChannel.bytesSaved();
+    byte[] data = new byte[1 << 20];
+    for (int j = 0; j < data.length; j++)
+      data[j] = (byte) (j % 13);
+    EchoRunnable result = H2O.runOnH2ONode(node, new EchoRunnable(data));
+    assertArrayEquals(data, result._data);
+    assertEquals(savedBefore, CompressedByteChannel.bytesSaved());
+  }
+
+  private static long checksum(byte[] data) {
+    long sum = 0;
+    for (byte b : data)
+      sum = sum * 31 + b;
+    return sum;
+  }
+
+  private H2ONode findRemoteNode() {
+    for (H2ONode n : H2O.CLOUD.members()) {
+      if (n != H2O.SELF) {
+        return n;
+      }
+    }
+    throw new IllegalStateException("No remote node found, possibly a single node cluster, size=" + H2O.CLOUD.size());
+  }
+
+  private static class EchoRunnable extends H2O.RemoteRunnable<EchoRunnable> {
+    private byte[] _data;
+    private long _checksum;
+    EchoRunnable(byte[] data) {
+      _data = data;
+    }
+    @Override
+    public void run() {
+      _checksum = checksum(_data);
+    }
+  }
+
+}
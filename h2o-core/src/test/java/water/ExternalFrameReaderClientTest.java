@@ -5,6 +5,7 @@ import org.junit.Test;
 import water.fvec.Frame;
 import water.fvec.TestFrameBuilder;
 import water.fvec.Vec;
+import water.parser.BufferedString;
 
 import java.io.IOException;
 import java.nio.channels.ByteChannel;
@@ -107,4 +108,51 @@ public class ExternalFrameReaderClientTest extends TestUtil{
         }
     }
 
+    @Test
+    public void testColumnarReading() throws IOException {
+        final long[] chunkLayout = {2, 2, 2, 1};
+        final Frame testFrame = new TestFrameBuilder()
+                .withName("testColumnarFrame")
+                .withColNames("ColA", "ColB", "ColC", "ColD")
+                .withVecTypes(Vec.T_NUM, Vec.T_NUM, Vec.T_STR, Vec.T_CAT)
+                .withDataForCol(0, ard(Double.NaN, 1, 2, 3, 4, 5.6, 7))
+                .withDataForCol(1, ard(1, 2, Double.NaN, 4, 5, 6, 7))
+                .withDataForCol(2, ar("A", "B", "A", null, "F", "I", "J"))
+                .withDataForCol(3, ar("x", "y", "x", "y", null, "x", "y"))
+                .withChunkLayout(chunkLayout)
+                .build();
+        final int[] selectedColumnIndices = {0, 1, 2, 3};
+        final byte[] expectedTypes = {ExternalFrameUtils.EXPECTED_DOUBLE, ExternalFrameUtils.EXPECTED_INT,
+                ExternalFrameUtils.EXPECTED_STRING, ExternalFrameUtils.EXPECTED_STRING};
+        final String node = H2O.SELF.getIpPortString();
+        try {
+            for (int chunkIdx = 0; chunkIdx < chunkLayout.length; chunkIdx++) {
+                ByteChannel sock = ExternalFrameUtils.getConnection(node, H2O.SELF.getTimestamp());
+                try {
+                    ExternalFrameReaderClient reader = new ExternalFrameReaderClient(sock, "testColumnarFrame", chunkIdx,
+                            selectedColumnIndices, expectedTypes, true);
+                    assertEquals(chunkLayout[chunkIdx], reader.getNumRows());
+                    double[] doubles = reader.readDoubleColumn();
+                    int[] ints = reader.readIntColumn();
+                    boolean[] intNAs = reader.getLastColumnNAs();
+                    String[] strs = reader.readStringColumn();
+                    String[] cats = reader.readStringColumn();
+                    assertEquals(chunkIdx == 1, intNAs != null);
+                    for (int i = 0; i < reader.getNumRows(); i++) {
+                        long row = testFrame.anyVec().espc()[chunkIdx] + i;
+                        assertEquals(testFrame.vec(0).at(row), doubles[i], 0);
+                        if (testFrame.vec(1).isNA(row)) assertTrue(intNAs[i]);
+                        else assertEquals(testFrame.vec(1).at8(row), ints[i]);
+                        assertEquals(testFrame.vec(2).isNA(row) ? null : testFrame.vec(2).atStr(new BufferedString(), row).toString(), strs[i]);
+                        assertEquals(testFrame.vec(3).isNA(row) ? null : testFrame.vec(3).factor(testFrame.vec(3).at8(row)), cats[i]);
+                    }
+                } finally {
+                    sock.close();
+                }
+            }
+        } finally {
+            testFrame.remove();
+        }
+    }
+
 }
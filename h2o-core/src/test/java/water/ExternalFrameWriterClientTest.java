@@ -9,6 +9,7 @@ import water.parser.BufferedString;
 import water.util.ArrayUtils;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.channels.ByteChannel;
 import java.sql.Timestamp;
 import java.util.Calendar;
@@ -16,6 +17,7 @@ import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import static water.util.ArrayUtils.join;
 
@@ -129,6 +131,84 @@ public class ExternalFrameWriterClientTest extends TestUtil {
         }
     }
 
+    @Test
+    public void testColumnarWriting() throws IOException, ExternalFrameConfirmationException {
+        final int nrows = 1000;
+        WriteOperation testOp = new WriteOperation() {
+            @Override
+            public void doWrite(ExternalFrameWriterClient writer) throws IOException, ExternalFrameConfirmationException {
+                int[] ints = new int[nrows];
+                boolean[] intNAs = new boolean[nrows];
+                boolean[] bools = new boolean[nrows];
+                double[] doubles = new double[nrows];
+                String[] strs = new String[nrows];
+                for (int i = 0; i < nrows; i++) {
+                    ints[i] = i;
+                    intNAs[i] = i % 10 == 9;
+                    bools[i] = i % 2 == 0;
+                    doubles[i] = i % 10 == 9 ? Double.NaN : i / 4.0;
+                    strs[i] = i % 10 == 9 ? null : "str_" + (i % 7);
+                }
+                writer.sendIntColumn(ints, intNAs);
+                writer.sendBooleanColumn(bools, null);
+                writer.sendDoubleColumn(doubles);
+                writer.sendStringColumn(strs);
+            }
+
+            @Override
+            public int nrows() {
+                return nrows;
+            }
+
+            @Override
+            public String[] colNames() {
+                return new String[] {"NUM", "BOOL", "DBL", "STR"};
+            }
+
+            @Override
+            public byte[] colTypes() {
+                return new byte[] {
+                    ExternalFrameUtils.EXPECTED_INT,
+                    ExternalFrameUtils.EXPECTED_BOOL,
+                    ExternalFrameUtils.EXPECTED_DOUBLE,
+                    ExternalFrameUtils.EXPECTED_STRING};
+            }
+
+            @Override
+            public boolean columnar() {
+                return true;
+            }
+        };
+
+        final String[] nodes = getH2ONodes();
+        final String[] connStrings = ArrayUtils.join(nodes, nodes);
+
+        Frame frame = createFrame(testOp, connStrings);
+        try {
+            assertEquals(frame.numRows(), nrows * connStrings.length);
+            assertEquals(frame.vec(2).get_type(), Vec.T_NUM);
+            assertEquals(frame.vec(3).get_type(), Vec.T_STR);
+            BufferedString buff = new BufferedString();
+            for (int i = 0; i < connStrings.length; i++) {
+                for (int localRow = 0; localRow < nrows; localRow++) {
+                    long row = localRow + nrows * i;
+                    if (localRow % 10 == 9) {
+                        assertTrue(frame.vec(0).isNA(row));
+                        assertTrue(frame.vec(2).isNA(row));
+                        assertTrue(frame.vec(3).isNA(row));
+                    } else {
+                        assertEquals(localRow, frame.vec(0).at8(row));
+                        assertEquals(localRow / 4.0, frame.vec(2).at(row), 0);
+                        assertEquals("str_" + (localRow % 7), frame.vec(3).atStr(buff, row).toString());
+                    }
+                    assertEquals(localRow % 2 == 0 ? 1 : 0, frame.vec(1).at8(row));
+                }
+            }
+        } finally {
+            frame.remove();
+        }
+    }
+
     @Test
     public void testDenseVectorWrite() throws IOException, ExternalFrameConfirmationException {
         WriteOperation testOp = new WriteOperation() {
@@ -249,6 +329,57 @@ public class ExternalFrameWriterClientTest extends TestUtil {
 
 
 
+    @Test
+    public void testColumnOfWrongTypeIsRejected() throws IOException, ExternalFrameConfirmationException {
+        RecordingChannel channel = new RecordingChannel(Integer.MAX_VALUE);
+        ExternalFrameWriterClient writer = new ExternalFrameWriterClient(channel, 10);
+        writer.createColumnarChunk("frame", new byte[]{ExternalFrameUtils.EXPECTED_INT, ExternalFrameUtils.EXPECTED_STRING}, 0, 2);
+        final long written = channel.written;
+        try {
+            writer.sendDoubleColumn(new double[]{1, 2});
+            fail("A double column is not an int column");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+        writer.sendIntColumn(new int[]{1, 2}, null);
+        final long writtenInt = channel.written;
+        assertTrue(writtenInt > written);
+        try {
+            writer.sendLongColumn(new long[]{1, 2}, null);
+            fail("A long column is not a string column");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+        assertEquals("Nothing is sent for a rejected column", writtenInt, channel.written);
+    }
+
+    @Test
+    public void testPartialChannelWrites() throws IOException {
+        RecordingChannel channel = new RecordingChannel(7);
+        AutoBuffer ab = new AutoBuffer();
+        ab.putStr("a string longer than a single write");
+        ab.putA8(new long[]{1, 2, 3, 4, 5});
+        final int size = ab.position();
+        ExternalFrameUtils.writeToChannel(ab, channel);
+        assertEquals(size, channel.written);
+    }
+
+    // Accepts at most maxWrite bytes per write
+    private static class RecordingChannel implements ByteChannel {
+        final int maxWrite;
+        long written;
+        RecordingChannel(int maxWrite) { this.maxWrite = maxWrite; }
+        @Override public int read(ByteBuffer dst) { return -1; }
+        @Override public int write(ByteBuffer src) {
+            int n = Math.min(maxWrite, src.remaining());
+            src.position(src.position() + n);
+            written += n;
+            return n;
+        }
+        @Override public boolean isOpen() { return true; }
+        @Override public void close() { }
+    }
+
     static void assertVectorWrite(WriteOperation testOp) throws IOException, ExternalFrameConfirmationException {
 
         final String[] nodes = getH2ONodes();
@@ -319,7 +450,11 @@ public class ExternalFrameWriterClientTest extends TestUtil {
                         ByteChannel sock = ExternalFrameUtils.getConnection(writeEndpoints[0], H2O.SELF.getTimestamp());
                         ExternalFrameWriterClient writer = new ExternalFrameWriterClient(sock, 10);
                         try {
-                            writer.createChunk(op.frameName(), op.colTypes(),  currentIndex, op.nrows(), op.maxVecSizes());
+                            if (op.columnar()) {
+                                writer.createColumnarChunk(op.frameName(), op.colTypes(), currentIndex, op.nrows());
+                            } else {
+                                writer.createChunk(op.frameName(), op.colTypes(),  currentIndex, op.nrows(), op.maxVecSizes());
+                            }
         
                             op.doWrite(writer);
                             rowsPerChunk[currentIndex] = op.nrows();
@@ -376,4 +511,8 @@ abstract class WriteOperation {
         return ExternalFrameUtils.EMPTY_ARI;
     }
 
+    public boolean columnar() {
+        return false;
+    }
+
 }
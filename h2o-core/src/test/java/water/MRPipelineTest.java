@@ -0,0 +1,61 @@
+package water;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.Vec;
+
+import static org.junit.Assert.*;
+
+public class MRPipelineTest extends TestUtil {
+
+  @BeforeClass()
+  public static void setup() { stall_till_cloudsize(3); }
+
+  private static class Sum extends MRTask<Sum> {
+    double _sum;
+    @Override public void map(Chunk[] cs) {
+      for (Chunk c : cs)
+        for (int i = 0; i < c._len; i++) _sum += c.atd(i);
+    }
+    @Override public void reduce(Sum mrt) { _sum += mrt._sum; }
+  }
+
+  private static class RowCount extends MRTask<RowCount> {
+    long _rows;
+    int _ncols;
+    @Override public void map(Chunk c0, Chunk c1) { _rows += c0._len; }
+    @Override public void reduce(RowCount mrt) { _rows += mrt._rows; }
+    @Override protected void postGlobal() { _ncols = _fr.numCols(); }
+  }
+
+  @Test
+  public void testFusedStagesMatchSeparateTasks() {
+    Scope.enter();
+    try {
+      Vec a = Scope.track(Vec.makeSeq(10000, false));
+      Vec b = Scope.track(a.makeCon(2));
+      Vec c = Scope.track(a.makeCon(3));
+      Frame fr = new Frame(new String[]{"a", "b", "c"}, new Vec[]{a, b, c});
+
+      Sum sumAll = new Sum();
+      Sum sumC = new Sum();
+      RowCount rows = new RowCount();
+      MRPipeline pipeline = new MRPipeline()
+          .add(sumAll)
+          .add(sumC, 2)
+          .add(rows, 0, 1)
+          .doAll(fr);
+      assertEquals(3, pipeline.numStages());
+
+      assertEquals(new Sum().doAll(fr)._sum, sumAll._sum, 1e-6);
+      assertEquals(3 * 10000, sumC._sum, 1e-6);
+      assertEquals(10000, rows._rows);
+      assertEquals("postGlobal sees the stage's columns only", 2, rows._ncols);
+      assertEquals(sumC._sum, pipeline.<Sum>stage(1)._sum, 0);
+    } finally {
+      Scope.exit();
+    }
+  }
+}
@@ -0,0 +1,170 @@
+package water;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class ValueOffHeapTest extends TestUtil {
+
+  @BeforeClass()
+  public static void setup() { stall_till_cloudsize(1); }
+
+  // Budget of removed Values is returned once the GC collects the buffers, wait for it a bit
+  private static void assertBudgetReturned(long expected) throws InterruptedException {
+    for (int i = 0; i < 100 && MemoryManager.offHeapUsed() > expected; i++) {
+      System.gc();
+      Thread.sleep(50);
+    }
+    assertEquals(expected, MemoryManager.offHeapUsed());
+  }
+
+  @Test
+  public void testDemoteAndReload() throws InterruptedException {
+    final long oldMax = H2O.ARGS.offheap_mem;
+    H2O.ARGS.offheap_mem = 1 << 20;
+    try {
+      byte[] bits = new byte[1000];
+      for (int i = 0; i < bits.length; i++) bits[i] = (byte) i;
+      Value v = new Value(Key.make(), bits);
+      long used = MemoryManager.offHeapUsed();
+      assertTrue(v.storeOffHeap());
+      assertTrue(v.isOffHeap());
+      assertEquals(used + bits.length, MemoryManager.offHeapUsed());
+      // Toss the heap copy; the bytes come back from the off-heap tier
+      v.freeMem();
+      assertNull(v.rawMem());
+      assertArrayEquals(bits, v.memOrLoad());
+      // Dropping releases the buffer right away; dropping twice is harmless
+      assertEquals(bits.length, v.freeOffHeap());
+      assertEquals(0, v.freeOffHeap());
+      assertFalse(v.isOffHeap());
+      assertEquals(used, MemoryManager.offHeapUsed());
+    } finally {
+      H2O.ARGS.offheap_mem = oldMax;
+    }
+  }
+
+  @Test
+  public void testPinnedBufferReleasedByLastReader() {
+    final long oldMax = H2O.ARGS.offheap_mem;
+    H2O.ARGS.offheap_mem = 1 << 20;
+    try {
+      byte[] bits = new byte[1000];
+      Arrays.fill(bits, (byte) 3);
+      Value v = new Value(Key.make(), bits);
+      long used = MemoryManager.offHeapUsed();
+      assertTrue(v.storeOffHeap());
+      MemoryManager.OffHeapBuf buf = v.offHeapMem();
+      ByteBuffer bb = buf.pin();
+      assertNotNull(bb);
+      // A reader is copying out of the buffer, dropping it must not release it yet
+      assertEquals(0, v.freeOffHeap());
+      assertEquals(used + bits.length, MemoryManager.offHeapUsed());
+      assertNull("No new readers of a dropped buffer", buf.pin());
+      byte[] copy = new byte[bb.remaining()];
+      bb.get(copy);
+      assertArrayEquals(bits, copy);
+      buf.unpin();
+      assertEquals(used, MemoryManager.offHeapUsed());
+    } finally {
+      H2O.ARGS.offheap_mem = oldMax;
+    }
+  }
+
+  @Test
+  public void testBudgetExhausted() throws InterruptedException {
+    final long oldMax = H2O.ARGS.offheap_mem;
+    H2O.ARGS.offheap_mem = 0;
+    try {
+      Value v = new Value(Key.make(), new byte[100]);
+      assertFalse("Off-heap tier is disabled", v.storeOffHeap());
+      assertBudgetReturned(0);
+      H2O.ARGS.offheap_mem = 50;
+      assertFalse("Off-heap tier is too small", v.storeOffHeap());
+      assertFalse(v.isOffHeap());
+    } finally {
+      H2O.ARGS.offheap_mem = oldMax;
+    }
+  }
+
+  @Test
+  public void testRemoveKeepsOffHeapReadable() throws InterruptedException {
+    final long oldMax = H2O.ARGS.offheap_mem;
+    H2O.ARGS.offheap_mem = 1 << 20;
+    Key k = Key.make();
+    try {
+      long used = MemoryManager.offHeapUsed();
+      byte[] bits = new byte[100];
+      Arrays.fill(bits, (byte) 7);
+      Value v = new Value(k, bits);
+      DKV.put(k, v);
+      assertTrue(v.storeOffHeap());
+      v.freeMem();
+      DKV.remove(k);
+      // A racing get still holding the removed Value can read it
+      assertTrue(v.isOffHeap());
+      assertArrayEquals(bits, v.memOrLoad());
+      v = null;
+      assertBudgetReturned(used);
+    } finally {
+      DKV.remove(k);
+      H2O.ARGS.offheap_mem = oldMax;
+    }
+  }
+
+  @Test
+  public void testConcurrentGetAndPut() throws Exception {
+    final long oldMax = H2O.ARGS.offheap_mem;
+    H2O.ARGS.offheap_mem = 1 << 20;
+    final Key k = Key.make();
+    final AtomicBoolean done = new AtomicBoolean();
+    final AtomicReference<Throwable> failure = new AtomicReference<>();
+    try {
+      long used = MemoryManager.offHeapUsed();
+      Thread[] readers = new Thread[4];
+      for (int t = 0; t < readers.length; t++) {
+        readers[t] = new Thread() {
+          @Override public void run() {
+            try {
+              while (!done.get()) {
+                Value v = H2O.STORE.get(k);
+                if (v == null) continue;
+                byte[] m = v.memOrLoad();
+                // Every Value holds its own version number in every byte
+                for (byte b : m)
+                  if (b != m[0]) throw new AssertionError("Torn read of a replaced Value");
+              }
+            } catch (Throwable t) {
+              failure.compareAndSet(null, t);
+            }
+          }
+        };
+        readers[t].start();
+      }
+      for (int i = 0; i < 2000 && failure.get() == null; i++) {
+        byte[] bits = new byte[1000];
+        Arrays.fill(bits, (byte) i);
+        Value v = new Value(k, bits);
+        DKV.put(k, v);
+        if (v.storeOffHeap()) // Budget may be briefly exhausted until the GC catches up
+          v.freeMem();        // Readers now only have the off-heap copy
+        if (i % 10 == 0) DKV.remove(k);
+      }
+      done.set(true);
+      for (Thread t : readers) t.join();
+      if (failure.get() != null) throw new AssertionError(failure.get());
+      DKV.remove(k);
+      assertBudgetReturned(used);
+    } finally {
+      done.set(true);
+      DKV.remove(k);
+      H2O.ARGS.offheap_mem = oldMax;
+    }
+  }
+}
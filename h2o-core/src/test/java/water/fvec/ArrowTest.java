@@ -0,0 +1,182 @@
+package water.fvec;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.Key;
+import water.Scope;
+import water.TestUtil;
+import water.parser.BufferedString;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class ArrowTest extends TestUtil {
+
+  @BeforeClass
+  static public void setup() { stall_till_cloudsize(1); }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    Scope.enter();
+    try {
+      Frame fr = Scope.track(new TestFrameBuilder()
+              .withName("arrowFrame")
+              .withColNames("Int", "Real", "Cat", "Str", "Time")
+              .withVecTypes(Vec.T_NUM, Vec.T_NUM, Vec.T_CAT, Vec.T_STR, Vec.T_TIME)
+              .withDataForCol(0, ard(1, -2, Double.NaN, 4, 1L << 40))
+              .withDataForCol(1, ard(0.5, Double.NaN, -3.25, 1e100, 0))
+              .withDataForCol(2, ar("b", "a", null, "b", "c"))
+              .withDataForCol(3, ar("x", "", null, "\u00e9t\u00e9", "yy"))
+              .withDataForCol(4, ard(1500000000000L, 0, Double.NaN, -86400000, 1))
+              .withChunkLayout(2, 3)
+              .build());
+      ByteArrayOutputStream bos = new ByteArrayOutputStream();
+      new ArrowWriter(fr).writeTo(bos);
+      Frame read = Scope.track(ArrowReader.read(new ByteArrayInputStream(bos.toByteArray()), Key.<Frame>make()));
+
+      assertArrayEquals(fr.names(), read.names());
+      assertArrayEquals(fr.types(), read.types());
+      assertArrayEquals(fr.vec(2).domain(), read.vec(2).domain());
+      assertEquals(2, read.anyVec().nChunks());
+      assertTrue(isBitIdentical(fr, read));
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  /**
+   * Stream of a table with an int32 column i = [1, null, 3] and a utf8 column s = ["ab", "", "c"] in one record
+   * batch, derived by hand from the Arrow format.  The metadata is laid out as the FlatBuffers builder used by the
+   * Arrow libraries lays it out, unlike {@link ArrowWriter}: back to front with the children before their parents,
+   * scalars with their default value omitted, empty children vectors, and one vtable shared by both fields (at a
+   * negative offset from the field s).  The column s has an empty validity buffer, the buffers are padded to 8 bytes.
+   */
+  private static final String ARROW_STREAM =
+          // Schema message: continuation, metadata length, Message table with a Schema header
+          "ff ff ff ff a8 00 00 00 10 00 00 00 00 00 0a 00 " +
+          "0c 00 06 00 05 00 08 00 0a 00 00 00 00 01 04 00 " +
+          "0c 00 00 00 08 00 08 00 00 00 04 00 08 00 00 00 " +
+          "04 00 00 00 02 00 00 00 40 00 00 00 04 00 00 00 " +
+          "d8 ff ff ff 00 00 01 05 18 00 00 00 10 00 00 00 " +
+          "04 00 00 00 00 00 00 00 04 00 04 00 04 00 00 00 " +
+          "01 00 00 00 73 00 00 00 10 00 14 00 08 00 06 00 " +
+          "07 00 0c 00 00 00 10 00 10 00 00 00 00 00 01 02 " +
+          "24 00 00 00 14 00 00 00 04 00 00 00 00 00 00 00 " +
+          "08 00 0c 00 08 00 07 00 08 00 00 00 00 00 00 01 " +
+          "20 00 00 00 01 00 00 00 69 00 00 00 00 00 00 00 " +
+          // RecordBatch message: 3 rows, FieldNodes (3, 1) and (3, 0), Buffers at 0, 8, 24, 24, 40 of a 48 bytes body
+          "ff ff ff ff c8 00 00 00 14 00 00 00 00 00 00 00 " +
+          "0c 00 16 00 06 00 05 00 08 00 0c 00 0c 00 00 00 " +
+          "00 03 04 00 18 00 00 00 30 00 00 00 00 00 00 00 " +
+          "00 00 0a 00 18 00 0c 00 04 00 08 00 0a 00 00 00 " +
+          "14 00 00 00 38 00 00 00 03 00 00 00 00 00 00 00 " +
+          "00 00 00 00 02 00 00 00 03 00 00 00 00 00 00 00 " +
+          "01 00 00 00 00 00 00 00 03 00 00 00 00 00 00 00 " +
+          "00 00 00 00 00 00 00 00 00 00 00 00 05 00 00 00 " +
+          "00 00 00 00 00 00 00 00 01 00 00 00 00 00 00 00 " +
+          "08 00 00 00 00 00 00 00 0c 00 00 00 00 00 00 00 " +
+          "18 00 00 00 00 00 00 00 00 00 00 00 00 00 00 00 " +
+          "18 00 00 00 00 00 00 00 10 00 00 00 00 00 00 00 " +
+          "28 00 00 00 00 00 00 00 03 00 00 00 00 00 00 00 " +
+          // Body: validity and values of i, offsets and data of s
+          "05 00 00 00 00 00 00 00 01 00 00 00 00 00 00 00 " +
+          "03 00 00 00 00 00 00 00 00 00 00 00 02 00 00 00 " +
+          "02 00 00 00 03 00 00 00 61 62 63 00 00 00 00 00 " +
+          // End of stream
+          "ff ff ff ff 00 00 00 00 ";
+
+  /**
+   * Stream written for a frame with one integer column x = [1, NA, 3] in one chunk, derived by hand from the Arrow
+   * format and the layout of {@link ArrowFormat#serialize}: every table is its vtable, then the table (8-aligned,
+   * scalars from the largest to the smallest), then its children.
+   */
+  private static final String WRITTEN_STREAM =
+          // Schema message: a Field x, nullable, Int of 64 bits, signed
+          "ff ff ff ff 98 00 00 00 18 00 00 00 0e 00 17 00 " +
+          "14 00 16 00 10 00 08 00 00 00 00 00 00 00 00 00 " +
+          "14 00 00 00 00 00 00 00 00 00 00 00 00 00 00 00 " +
+          "18 00 00 00 04 00 01 00 0c 00 08 00 00 00 04 00 " +
+          "00 00 00 00 00 00 00 00 10 00 00 00 04 00 00 00 " +
+          "01 00 00 00 1c 00 00 00 12 00 0e 00 04 00 0c 00 " +
+          "0d 00 08 00 00 00 00 00 00 00 00 00 00 00 00 00 " +
+          "18 00 00 00 0c 00 00 00 18 00 00 00 01 02 00 00 " +
+          "01 00 00 00 78 00 08 00 09 00 04 00 08 00 00 00 " +
+          "0a 00 00 00 40 00 00 00 01 00 00 00 00 00 00 00 " +
+          // RecordBatch message: 3 rows, FieldNode (3, 1), Buffers (0, 1) and (8, 24) of a 32 bytes body
+          "ff ff ff ff 98 00 00 00 18 00 00 00 0e 00 17 00 " +
+          "14 00 16 00 10 00 08 00 00 00 00 00 00 00 00 00 " +
+          "14 00 00 00 00 00 00 00 20 00 00 00 00 00 00 00 " +
+          "18 00 00 00 04 00 03 00 0a 00 18 00 08 00 10 00 " +
+          "14 00 00 00 00 00 00 00 10 00 00 00 00 00 00 00 " +
+          "03 00 00 00 00 00 00 00 0c 00 00 00 20 00 00 00 " +
+          "00 00 00 00 01 00 00 00 03 00 00 00 00 00 00 00 " +
+          "01 00 00 00 00 00 00 00 00 00 00 00 02 00 00 00 " +
+          "00 00 00 00 00 00 00 00 01 00 00 00 00 00 00 00 " +
+          "08 00 00 00 00 00 00 00 18 00 00 00 00 00 00 00 " +
+          // Body: validity bitmap 0b101, values 1, 0 (the NA) and 3
+          "05 00 00 00 00 00 00 00 01 00 00 00 00 00 00 00 " +
+          "00 00 00 00 00 00 00 00 03 00 00 00 00 00 00 00 " +
+          // End of stream
+          "ff ff ff ff 00 00 00 00 ";
+
+  @Test
+  public void testReadGoldenStream() throws IOException {
+    Scope.enter();
+    try {
+      Frame fr = Scope.track(ArrowReader.read(new ByteArrayInputStream(bytes(ARROW_STREAM)), Key.<Frame>make()));
+      assertArrayEquals(new String[]{"i", "s"}, fr.names());
+      assertArrayEquals(new byte[]{Vec.T_NUM, Vec.T_STR}, fr.types());
+      assertEquals(3, fr.numRows());
+      assertEquals(1, fr.vec(0).at8(0));
+      assertTrue(fr.vec(0).isNA(1));
+      assertEquals(3, fr.vec(0).at8(2));
+      BufferedString tmp = new BufferedString();
+      assertEquals("ab", fr.vec(1).atStr(tmp, 0).toString());
+      assertEquals("", fr.vec(1).atStr(tmp, 1).toString());
+      assertEquals("c", fr.vec(1).atStr(tmp, 2).toString());
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testWriteGoldenStream() {
+    Scope.enter();
+    try {
+      Frame fr = Scope.track(new TestFrameBuilder()
+              .withName("arrowGolden")
+              .withColNames("x")
+              .withVecTypes(Vec.T_NUM)
+              .withDataForCol(0, ard(1, Double.NaN, 3))
+              .build());
+      ByteArrayOutputStream bos = new ByteArrayOutputStream();
+      new ArrowWriter(fr).writeTo(bos);
+      assertArrayEquals(bytes(WRITTEN_STREAM), bos.toByteArray());
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  private static byte[] bytes(String hex) {
+    String[] bs = hex.trim().split(" ");
+    byte[] b = new byte[bs.length];
+    for (int i = 0; i < b.length; i++) b[i] = (byte) Integer.parseInt(bs[i], 16);
+    return b;
+  }
+
+  @Test
+  public void testMalformedStream() {
+    Key<Frame> key = Key.make();
+    try {
+      ArrowReader.read(new ByteArrayInputStream(new byte[]{-1, -1, -1, -1, 16, 0, 0, 0, 1, 2}), key);
+      fail("Truncated stream is expected to fail");
+    } catch (IOException expected) {
+      // expected
+    }
+    assertNull(key.get());
+  }
+
+}
@@ -0,0 +1,88 @@
+package water.fvec;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.TestUtil;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.Assert.*;
+
+public class MappedChunkTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  private static Chunk compress(double... vals) {
+    NewChunk nc = new NewChunk(null, 0);
+    for (double d : vals) {
+      if (Double.isNaN(d)) nc.addNA();
+      else nc.addNum(d);
+    }
+    return nc.compress();
+  }
+
+  // Mapped chunk over a direct copy of the heap chunk's bytes
+  private static Chunk mapped(Chunk c) {
+    byte[] bytes = c.asBytes();
+    ByteBuffer bb = ByteBuffer.allocateDirect(bytes.length).order(ByteOrder.nativeOrder());
+    bb.put(bytes).flip();
+    return MappedChunk.make(c, bb.slice().asReadOnlyBuffer().order(ByteOrder.nativeOrder()));
+  }
+
+  private static void assertSameChunk(Chunk expected, Chunk actual) {
+    assertEquals(expected._len, actual._len);
+    assertEquals(expected.hasFloat(), actual.hasFloat());
+    for (int i = 0; i < expected._len; i++) {
+      assertEquals(expected.isNA(i), actual.isNA(i));
+      assertEquals(expected.atd(i), actual.atd(i), 0);
+      if (!expected.isNA(i)) assertEquals(expected.at8(i), actual.at8(i));
+    }
+    assertArrayEquals(expected.getDoubles(new double[expected._len], 0, expected._len),
+            actual.getDoubles(new double[actual._len], 0, actual._len), 0);
+    assertArrayEquals(expected.asBytes(), actual.asBytes());
+  }
+
+  @Test public void testMappedMatchesHeap() {
+    Chunk[] chunks = new Chunk[]{
+            compress(0, 1, 254, Double.NaN, 17),
+            compress(-32767, 0, 32767, Double.NaN, 5),
+            compress(0.5, -1e300, Double.NaN, 3.25, 1e-7)
+    };
+    Class[] types = new Class[]{C1Chunk.class, C2Chunk.class, C8DChunk.class};
+    Class[] mappedTypes = new Class[]{C1MappedChunk.class, C2MappedChunk.class, C8DMappedChunk.class};
+    for (int t = 0; t < chunks.length; t++) {
+      assertEquals(types[t], chunks[t].getClass());
+      Chunk m = mapped(chunks[t]);
+      assertEquals(mappedTypes[t], m.getClass());
+      assertSameChunk(chunks[t], m);
+      // Copies and deserialized chunks read from the heap
+      assertSameChunk(chunks[t], m.deepCopy());
+      Chunk reloaded = ((Chunk) m.clone()).reloadFromBytes(m.asBytes());
+      assertSameChunk(chunks[t], reloaded);
+    }
+  }
+
+  @Test public void testUnsupportedType() {
+    Chunk c = compress(1, 1, 1); // Constant chunk
+    assertFalse(c instanceof C1Chunk || c instanceof C2Chunk || c instanceof C8DChunk);
+    assertNull(MappedChunk.make(c, ByteBuffer.allocate(0)));
+  }
+
+  @Test public void testWriteInflates() {
+    Vec v = Vec.makeVec(new double[]{1, 2, 3}, Vec.newKey());
+    try {
+      Chunk heap = v.chunkForChunkIdx(0);
+      assertTrue(heap instanceof C1Chunk);
+      Chunk m = mapped(heap);
+      m._vec = v;
+      m._start = 0;
+      m._cidx = 0;
+      m.set(1, 1e6);
+      assertTrue(m.chk2() instanceof NewChunk);
+      assertEquals(1e6, m.chk2().atd(1), 0);
+      assertEquals(2, m.atd(1), 0); // The mapped bytes are untouched
+    } finally {
+      v.remove();
+    }
+  }
+}
@@ -75,6 +75,9 @@ public class SparseTest extends TestUtil {
       if(Double.isNaN(vals[i])){
           Assert.assertEquals(NA,x[i],0);
       } else Assert.assertEquals(vals[i],x[i],0);
+    // test a range not starting at the chunk start
+    if(vals.length >= 512)
+      Assert.assertArrayEquals(Arrays.copyOfRange(vals,128,512),c.getDoubles(new double[384],128,512),0);
     // test sparse doubles
     if(isSparse) {
       int[] ids = new int[x.length];
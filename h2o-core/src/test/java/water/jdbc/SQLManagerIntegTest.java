@@ -94,4 +94,24 @@ public class SQLManagerIntegTest extends TestUtil {
     }
   }
 
+  @Test
+  public void importSqlTablePartitioned() {
+    Scope.enter();
+    try {
+      Frame expected = buildTestFrame();
+      Job<Frame> j = SQLManager.importSqlTable(
+          connectionString, "TestData", "", "", "", "*",
+          null, null,
+          SqlFetchMode.PARTITIONED, "ID"
+      );
+      Frame fr = Scope.track(j.get());
+
+      assertArrayEquals(expected._names, fr._names);
+      assertVecEquals(expected.vec(0), fr.vec(0), 0);
+      assertStringVecEquals(expected.vec(1), fr.vec(1));
+    } finally {
+      Scope.exit();
+    }
+  }
+
 }
@@ -12,6 +12,7 @@ import water.H2O;
 import java.io.File;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.util.concurrent.ArrayBlockingQueue;
 
 public class SQLManagerTest {
@@ -133,4 +134,36 @@ public class SQLManagerTest {
     Assert.assertEquals("SELECT * FROM mytable LIMIT 1310 OFFSET 0",
             SQLManager.buildSelectChunkSql("", "mytable", 0, 1310, "*", null));
   }
+
+  @Test
+  public void testBuildSelectPartitionSql() {
+    SQLManager.PartitionBounds partitions = SQLManager.PartitionBounds.make("id", Types.INTEGER, 0, 100, 4);
+    Assert.assertEquals(4, partitions.nPartitions());
+    Assert.assertEquals("SELECT * FROM mytable WHERE id < ? OR id IS NULL",
+            SQLManager.buildSelectPartitionSql("mytable", "*", partitions, 0));
+    Assert.assertEquals("SELECT * FROM mytable WHERE id >= ? AND id < ?",
+            SQLManager.buildSelectPartitionSql("mytable", "*", partitions, 1));
+    Assert.assertEquals("SELECT * FROM mytable WHERE id >= ?",
+            SQLManager.buildSelectPartitionSql("mytable", "*", partitions, 3));
+
+    // a single partition reads the whole table
+    SQLManager.PartitionBounds single = SQLManager.PartitionBounds.make("id", Types.INTEGER, 5, 5, 4);
+    Assert.assertEquals(1, single.nPartitions());
+    Assert.assertEquals("SELECT * FROM mytable", SQLManager.buildSelectPartitionSql("mytable", "*", single, 0));
+  }
+
+  @Test
+  public void testPartitionBoundsIntegral() {
+    // no more partitions than there are distinct values
+    Assert.assertEquals(3, SQLManager.PartitionBounds.make("id", Types.BIGINT, 1, 4, 10).nPartitions());
+    // all NULLs
+    Assert.assertEquals(1, SQLManager.PartitionBounds.make("id", Types.BIGINT, Double.NaN, Double.NaN, 10).nPartitions());
+  }
+
+  @Test
+  public void testPartitionBoundsUnsupportedType() {
+    exception.expect(IllegalArgumentException.class);
+    exception.expectMessage("Partition column name has to be numeric or date/time");
+    SQLManager.PartitionBounds.make("name", Types.VARCHAR, Double.NaN, Double.NaN, 10);
+  }
 }
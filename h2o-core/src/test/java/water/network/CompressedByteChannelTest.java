@@ -0,0 +1,120 @@
+package water.network;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class CompressedByteChannelTest {
+
+    @Test
+    public void shouldRoundTripCompressibleAndRandomData() throws Exception {
+        Random rnd = new Random(42);
+        byte[] compressible = new byte[200 * 1024];
+        for (int i = 0; i < compressible.length; i++)
+            compressible[i] = (byte) ((i / 7) % 13);
+        byte[] random = new byte[100 * 1024];
+        rnd.nextBytes(random);
+        byte[] small = {1, 2, 3};
+
+        ByteArrayOutputStream wire = new ByteArrayOutputStream();
+        CompressedByteChannel out = new CompressedByteChannel(new InMemoryChannel(null, wire), 1024, 0.9);
+        long savedBefore = CompressedByteChannel.bytesSaved();
+        assertEquals(compressible.length, out.write(ByteBuffer.wrap(compressible)));
+        ByteBuffer direct = ByteBuffer.allocateDirect(random.length);
+        direct.put(random);
+        direct.flip();
+        assertEquals(random.length, out.write(direct));
+        assertEquals(small.length, out.write(ByteBuffer.wrap(small)));
+        assertTrue(CompressedByteChannel.bytesSaved() - savedBefore > compressible.length / 2);
+        assertTrue(wire.size() < compressible.length + random.length);
+
+        CompressedByteChannel in = new CompressedByteChannel(
+                new InMemoryChannel(new ByteArrayInputStream(wire.toByteArray()), null), Integer.MAX_VALUE, 0);
+        ByteBuffer result = ByteBuffer.allocate(compressible.length + random.length + small.length);
+        ByteBuffer piece = ByteBuffer.allocate(1000); // read in pieces not aligned with the frames
+        int n;
+        while ((n = in.read(piece)) >= 0) {
+            piece.flip();
+            result.put(piece);
+            piece.clear();
+            assertTrue(n > 0);
+        }
+        assertFalse(result.hasRemaining());
+        result.flip();
+        byte[] expected = new byte[result.limit()];
+        System.arraycopy(compressible, 0, expected, 0, compressible.length);
+        System.arraycopy(random, 0, expected, compressible.length, random.length);
+        System.arraycopy(small, 0, expected, compressible.length + random.length, small.length);
+        assertArrayEquals(expected, result.array());
+    }
+
+    @Test
+    public void shouldReadAndWriteOnTheSameChannel() throws Exception {
+        // the writer of a connection reads the close handshake back through the same channel
+        byte[] data = new byte[3 * CompressedByteChannel.MAX_FRAME_SIZE];
+        for (int i = 0; i < data.length; i++)
+            data[i] = (byte) (i % 7);
+        ByteArrayOutputStream handshake = new ByteArrayOutputStream();
+        new CompressedByteChannel(new InMemoryChannel(null, handshake), Integer.MAX_VALUE, 0)
+                .write(ByteBuffer.wrap(new byte[]{(byte) 0xcd}));
+
+        ByteArrayOutputStream wire = new ByteArrayOutputStream();
+        CompressedByteChannel chan = new CompressedByteChannel(
+                new InMemoryChannel(new ByteArrayInputStream(handshake.toByteArray()), wire), 1024, 0.9);
+        chan.write(ByteBuffer.wrap(data));
+        ByteBuffer b = ByteBuffer.allocate(1);
+        assertEquals(1, chan.read(b));
+        assertEquals(0xcd, b.get(0) & 0xFF);
+        chan.write(ByteBuffer.wrap(data)); // buffers of the two directions are independent
+
+        CompressedByteChannel in = new CompressedByteChannel(
+                new InMemoryChannel(new ByteArrayInputStream(wire.toByteArray()), null), Integer.MAX_VALUE, 0);
+        ByteBuffer result = ByteBuffer.allocate(2 * data.length);
+        while (result.hasRemaining() && in.read(result) >= 0) ;
+        for (int i = 0; i < result.capacity(); i++)
+            assertEquals(data[i % data.length], result.get(i));
+    }
+
+    @Test
+    public void shouldRoundTripLZBlocks() {
+        Random rnd = new Random(0xC0DE);
+        int[] table = new int[1 << LZBlockCodec.HASH_LOG];
+        for (int t = 0; t < 500; t++) {
+            int len = rnd.nextInt(5000);
+            byte[] src = new byte[len];
+            int alphabet = 1 + rnd.nextInt(20);
+            for (int i = 0; i < len; i++)
+                src[i] = (byte) rnd.nextInt(alphabet);
+            byte[] dst = new byte[LZBlockCodec.maxCompressedLength(len)];
+            int clen = LZBlockCodec.compress(src, 0, len, dst, 0, table);
+            byte[] back = new byte[len];
+            LZBlockCodec.decompress(dst, 0, clen, back, 0, len);
+            assertArrayEquals(src, back);
+        }
+    }
+
+    private static class InMemoryChannel implements ByteChannel {
+        private final ReadableByteChannel _in;
+        private final WritableByteChannel _out;
+
+        InMemoryChannel(ByteArrayInputStream in, ByteArrayOutputStream out) {
+            _in = in != null ? Channels.newChannel(in) : null;
+            _out = out != null ? Channels.newChannel(out) : null;
+        }
+
+        @Override public int read(ByteBuffer dst) throws java.io.IOException { return _in.read(dst); }
+        @Override public int write(ByteBuffer src) throws java.io.IOException { return _out.write(src); }
+        @Override public boolean isOpen() { return true; }
+        @Override public void close() { }
+    }
+
+}
@@ -0,0 +1,168 @@
+package water.parser;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import water.Key;
+import water.Scope;
+import water.TestUtil;
+import water.fvec.FileVec;
+import water.fvec.Frame;
+import water.fvec.NFSFileVec;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * BGZF files and ZIP archives of several files parsed by the distributed parse, one decompressed piece per chunk.
+ */
+public class CompressedSplitsTest extends TestUtil {
+
+  private static final int CHUNK_SIZE = 1 << 14; // smaller than a BGZF member, some chunks have no member start
+
+  @Rule
+  public TemporaryFolder tmp = new TemporaryFolder();
+
+  @BeforeClass
+  static public void setup() { stall_till_cloudsize(1); }
+
+  @Test
+  public void testParseBGZF() throws IOException {
+    Scope.enter();
+    try {
+      byte[] csv = csv(0, 40000);
+      byte[] bgzf = bgzf(csv);
+      assertTrue(CompressedSplits.BGZF.isBGZF(bgzf));
+      Frame expected = Scope.track(parse(write("data.csv", csv), FileVec.DFLT_CHUNK_SIZE));
+      Frame actual = Scope.track(parse(write("data.csv.gz", bgzf), CHUNK_SIZE));
+      assertTrue("Parsed in pieces", actual.anyVec().nChunks() > 1);
+      assertTrue(isBitIdentical(expected, actual));
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testParseCorruptBGZF() throws IOException {
+    Scope.enter();
+    try {
+      byte[] bgzf = bgzf(csv(0, 40000));
+      bgzf[bgzf.length / 2] ^= 0x55;
+      File f = write("corrupt.csv.gz", bgzf);
+      try {
+        Scope.track(parse(f, CHUNK_SIZE));
+        fail("Corrupt input is expected to fail");
+      } catch (RuntimeException expected) {
+        // expected
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testParseZipOfSeveralFiles() throws IOException {
+    Scope.enter();
+    try {
+      ByteArrayOutputStream all = new ByteArrayOutputStream();
+      ByteArrayOutputStream zip = new ByteArrayOutputStream();
+      try (ZipOutputStream zos = new ZipOutputStream(zip)) {
+        zos.putNextEntry(new ZipEntry("parts/"));
+        zos.closeEntry();
+        for (int i = 0; i < 4; i++) {
+          byte[] part = csv(i * 10000, 10000 + 37 * i);
+          all.write(i == 0 ? part : withoutHeader(part));
+          ZipEntry ze = new ZipEntry("parts/part" + i + ".csv");
+          if (i == 2) { // stored, not deflated
+            CRC32 crc = new CRC32();
+            crc.update(part);
+            ze.setMethod(ZipEntry.STORED);
+            ze.setSize(part.length);
+            ze.setCompressedSize(part.length);
+            ze.setCrc(crc.getValue());
+          }
+          zos.putNextEntry(ze);
+          zos.write(part);
+          zos.closeEntry();
+        }
+        zos.putNextEntry(new ZipEntry("parts/other.csv")); // another dataset, skipped
+        zos.write("x,y\n1,2\n3,4\n".getBytes());
+        zos.closeEntry();
+      }
+      Frame expected = Scope.track(parse(write("all.csv", all.toByteArray()), FileVec.DFLT_CHUNK_SIZE));
+      Frame actual = Scope.track(parse(write("parts.zip", zip.toByteArray()), CHUNK_SIZE));
+      assertTrue("Parsed in pieces", actual.anyVec().nChunks() > 1);
+      assertArrayEquals(expected.names(), actual.names());
+      assertTrue(isBitIdentical(expected, actual));
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  private File write(String name, byte[] bits) throws IOException {
+    File f = tmp.newFile(name);
+    Files.write(f.toPath(), bits);
+    return f;
+  }
+
+  private static Frame parse(File f, int chunkSize) {
+    Key[] keys = new Key[]{NFSFileVec.make(f)._key};
+    ParseSetup ps = ParseSetup.guessSetup(keys, false, ParseSetup.HAS_HEADER);
+    ps._chunk_size = chunkSize;
+    return ParseDataset.parse(Key.make(), keys, true, ps);
+  }
+
+  // Rows with a number, a real and a categorical column, CRLF line ends for some of them
+  private static byte[] csv(int first, int nrows) {
+    Random r = new Random(first);
+    StringBuilder sb = new StringBuilder("id,val,cat\n");
+    for (int i = first; i < first + nrows; i++)
+      sb.append(i).append(',').append(r.nextInt(100000) / 100.0).append(',').append((char) ('a' + r.nextInt(5)))
+              .append(i % 7 == 0 ? "\r\n" : "\n");
+    return sb.toString().getBytes();
+  }
+
+  private static byte[] withoutHeader(byte[] csv) {
+    int i = 0;
+    while (csv[i] != '\n') i++;
+    byte[] b = new byte[csv.length - i - 1];
+    System.arraycopy(csv, i + 1, b, 0, b.length);
+    return b;
+  }
+
+  // BGZF as written by bgzip: raw deflate blocks of at most 64KB, gzip header with the "BC" block size subfield
+  private static byte[] bgzf(byte[] data) throws IOException {
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    for (int off = 0; off <= data.length; off += 0xff00) {
+      int len = Math.min(0xff00, data.length - off); // the last block is the empty EOF block
+      Deflater def = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+      def.setInput(data, off, len);
+      def.finish();
+      byte[] cdata = new byte[len + 1024];
+      int clen = def.deflate(cdata);
+      def.end();
+      CRC32 crc = new CRC32();
+      crc.update(data, off, len);
+      int bsize = 18 + clen + 8 - 1;
+      bos.write(new byte[]{0x1f, (byte) 0x8b, 8, 4, 0, 0, 0, 0, 0, (byte) 0xff, 6, 0, 'B', 'C', 2, 0,
+              (byte) bsize, (byte) (bsize >> 8)});
+      bos.write(cdata, 0, clen);
+      writeLE4(bos, (int) crc.getValue());
+      writeLE4(bos, len);
+    }
+    return bos.toByteArray();
+  }
+
+  private static void writeLE4(OutputStream os, int v) throws IOException {
+    os.write(v); os.write(v >> 8); os.write(v >> 16); os.write(v >> 24);
+  }
+
+}
@@ -0,0 +1,124 @@
+package water.parser;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import water.H2O;
+import water.Key;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.fvec.NFSFileVec;
+import water.util.FileUtils;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.*;
+
+public class ParallelGzipInputStreamTest extends TestUtil {
+
+  @Rule
+  public TemporaryFolder tmp = new TemporaryFolder();
+
+  @BeforeClass
+  static public void setup() { stall_till_cloudsize(1); }
+
+  @Test
+  public void testMultiMemberGzip() throws IOException {
+    byte[] data = randomText(3_000_000);
+    byte[] gz = gzip(data, 1_000_000);
+    assertArrayEquals(data, readAll(new ParallelGzipInputStream(new ByteStream(gz))));
+  }
+
+  @Test
+  public void testMoreFilesThanReaders() throws IOException {
+    // streams opened together share the bounded pool of readers, the last ones wait for a free reader
+    final int nstreams = 2 * H2O.ARGS.nthreads + 1;
+    byte[][] data = new byte[nstreams][];
+    InputStream[] streams = new InputStream[nstreams];
+    for (int i = 0; i < nstreams; i++) {
+      data[i] = randomText(100_000 + i);
+      streams[i] = new ParallelGzipInputStream(new ByteStream(gzip(data[i], data[i].length)));
+    }
+    for (int i = nstreams - 1; i >= 0; i--)
+      assertArrayEquals(data[i], readAll(streams[i]));
+  }
+
+  @Test
+  public void testCorruptGzip() throws IOException {
+    byte[] gz = gzip(randomText(200_000), 200_000);
+    gz[gz.length / 2] ^= 0x55;
+    try {
+      readAll(new ParallelGzipInputStream(new ByteStream(gz)));
+      fail("Corrupt input is expected to fail");
+    } catch (IOException expected) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testParseGzip() throws IOException {
+    Frame csv = null, gz = null;
+    try {
+      File f = FileUtils.getFile("smalldata/junit/iris.csv");
+      byte[] bits = Files.readAllBytes(f.toPath());
+      File gzFile = tmp.newFile("iris.csv.gz");
+      Files.write(gzFile.toPath(), gzip(bits, bits.length));
+      csv = parse_test_file("smalldata/junit/iris.csv");
+      NFSFileVec nfs = NFSFileVec.make(gzFile);
+      gz = ParseDataset.parse(Key.make(), nfs._key);
+      assertTrue(isBitIdentical(csv, gz));
+    } finally {
+      if (csv != null) csv.delete();
+      if (gz != null) gz.delete();
+    }
+  }
+
+  private static byte[] randomText(int len) {
+    Random r = new Random(0xFEED + len);
+    byte[] b = new byte[len];
+    for (int i = 0; i < len; i++)
+      b[i] = (byte) (r.nextInt(10) == 0 ? '\n' : '0' + r.nextInt(10));
+    return b;
+  }
+
+  private static byte[] readAll(InputStream is) throws IOException {
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    byte[] buf = new byte[10000];
+    int n;
+    try {
+      while ((n = is.read(buf, 0, buf.length)) != -1)
+        bos.write(buf, 0, n);
+    } finally {
+      is.close();
+    }
+    return bos.toByteArray();
+  }
+
+  // gzip with a member per memberSize bytes of data
+  private static byte[] gzip(byte[] data, int memberSize) throws IOException {
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    for (int off = 0; off < data.length; off += memberSize)
+      try (GZIPOutputStream gos = new GZIPOutputStream(new NonClosing(bos))) {
+        gos.write(data, off, Math.min(memberSize, data.length - off));
+      }
+    return bos.toByteArray();
+  }
+
+  // Stands for a ByteVec stream: answers the back-channel read of the chunk index
+  private static class ByteStream extends ByteArrayInputStream {
+    ByteStream(byte[] b) { super(b); }
+    @Override public synchronized int read(byte[] b, int off, int len) {
+      return b == null ? 1 : super.read(b, off, len);
+    }
+  }
+
+  private static class NonClosing extends FilterOutputStream {
+    NonClosing(OutputStream os) { super(os); }
+    @Override public void close() throws IOException { flush(); }
+  }
+
+}
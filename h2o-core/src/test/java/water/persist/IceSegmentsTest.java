@@ -0,0 +1,86 @@
+package water.persist;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import water.Key;
+import water.TestUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.Assert.*;
+
+public class IceSegmentsTest extends TestUtil {
+
+  @Rule
+  public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+  @BeforeClass public static void setup() { stall_till_cloudsize(1); }
+
+  @Test public void testAppendLoadDelete() throws IOException {
+    IceSegments segs = new IceSegments(tmpFolder.newFolder("ice"));
+    Key k1 = Key.make(), k2 = Key.make();
+    byte[] b1 = new byte[]{1, 2, 3, 4, 5};
+    byte[] b2 = new byte[]{42, 43};
+    assertTrue(segs.append(k1, b1));
+    assertTrue(segs.append(k2, ByteBuffer.wrap(b2).asReadOnlyBuffer()));
+    assertArrayEquals(b1, segs.load(k1));
+    assertArrayEquals(b2, segs.load(k2));
+
+    // Re-spilling the same Key replaces the old bytes
+    byte[] b3 = new byte[]{7, 7, 7};
+    assertTrue(segs.append(k1, b3));
+    assertArrayEquals(b3, segs.load(k1));
+
+    assertTrue(segs.delete(k1));
+    assertNull(segs.load(k1));
+    assertFalse(segs.delete(k1));
+    assertArrayEquals(b2, segs.load(k2));
+  }
+
+  @Test public void testFullSegmentIsDeleted() throws IOException {
+    File dir = tmpFolder.newFolder("ice");
+    IceSegments segs = new IceSegments(dir, 1000);
+    Key k1 = Key.make(), k2 = Key.make();
+    assertFalse("Too large for a segment", segs.append(k1, new byte[1001]));
+    assertTrue(segs.append(k1, new byte[990]));
+    assertTrue(segs.append(k2, new byte[20])); // Does not fit; rolls to a second segment
+    File first = new File(new File(dir, "segments"), "seg0.ice");
+    assertTrue(first.exists());
+    segs.delete(k1);
+    assertFalse("Sealed segment without live Values is removed", first.exists());
+    assertEquals(20, segs.load(k2).length);
+  }
+
+  @Test public void testMapIsZeroCopyAndUnmapsDeadSegments() throws Exception {
+    IceSegments segs = new IceSegments(tmpFolder.newFolder("ice"), 1000);
+    Key k1 = Key.make(), k2 = Key.make();
+    assertTrue(segs.append(k1, new byte[]{1, 2, 3, 4, 5, 6, 7, 8}));
+    ByteBuffer view = segs.map(k1);
+    assertTrue(view.isReadOnly());
+    assertEquals(8, view.remaining());
+    assertEquals(ByteOrder.nativeOrder(), view.order());
+    assertEquals(3, view.get(2));
+    assertTrue(segs.append(k2, new byte[995])); // Rolls to a second segment
+    assertEquals(2, segs.mappedSegments());
+
+    // A dead segment stays mapped while a slice of it is reachable
+    segs.delete(k1);
+    assertNull(segs.map(k1));
+    assertEquals(2, segs.mappedSegments());
+    assertEquals(8, view.get(7));
+
+    view = null;
+    for (int i = 0; i < 100 && segs.mappedSegments() > 1; i++) {
+      System.gc();
+      Thread.sleep(50);
+      segs.load(k2); // Polls for collected slices
+    }
+    assertEquals(1, segs.mappedSegments());
+    assertEquals(995, segs.load(k2).length);
+  }
+}
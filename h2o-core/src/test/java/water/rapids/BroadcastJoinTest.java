@@ -0,0 +1,94 @@
+package water.rapids;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.H2O;
+import water.Scope;
+import water.TestUtil;
+import water.fvec.CategoricalWrappedVec;
+import water.fvec.Frame;
+import water.fvec.TestFrameBuilder;
+import water.fvec.Vec;
+
+import static org.junit.Assert.*;
+
+public class BroadcastJoinTest extends TestUtil {
+
+  @BeforeClass
+  static public void setup() { stall_till_cloudsize(1); }
+
+  @Test
+  public void testAllLeftAutoMerge() {
+    final String minLeftRows = H2O.OptArgs.SYSTEM_PROP_PREFIX + "rapids.merge.broadcast.min_left_rows";
+    Scope.enter();
+    try {
+      Frame fr = Scope.track(new TestFrameBuilder()
+              .withName("leftFrame")
+              .withColNames("ColA", "ColB")
+              .withVecTypes(Vec.T_CAT, Vec.T_NUM)
+              .withDataForCol(0, ar("a", "b", "c", "e", null))
+              .withDataForCol(1, ard(-1, 2, 3, 4, Double.NaN))
+              .withChunkLayout(2, 3)
+              .build());
+      Frame right = Scope.track(new TestFrameBuilder()
+              .withName("rightFrame")
+              .withColNames("ColB", "ColC")
+              .withVecTypes(Vec.T_NUM, Vec.T_STR)
+              .withDataForCol(0, ard(0, -1, 2, Double.NaN))
+              .withDataForCol(1, ar("str42", "no", "yes", "WTF"))
+              .build());
+      // Rows of the left frame in their original order, NAs never match
+      Frame answer = Scope.track(new TestFrameBuilder()
+              .withColNames("ColB", "ColA", "ColC")
+              .withVecTypes(Vec.T_NUM, Vec.T_CAT, Vec.T_STR)
+              .withDataForCol(0, ard(-1, 2, 3, 4, Double.NaN))
+              .withDataForCol(1, ar("a", "b", "c", "e", null))
+              .withDataForCol(2, ar("no", "yes", null, null, null))
+              .build());
+      System.setProperty(minLeftRows, "0");
+      assertTrue(BroadcastJoin.isUseful(fr, right, 1));
+      Frame result = Scope.track(Rapids.exec("(merge leftFrame rightFrame TRUE FALSE [1.0] [0.0] 'auto')").getFrame());
+      assertTrue(isBitIdentical(answer, result));
+    } finally {
+      System.clearProperty(minLeftRows);
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testInnerJoinWithDuplicates() {
+    Scope.enter();
+    try {
+      Frame left = Scope.track(new TestFrameBuilder()
+              .withColNames("K", "V")
+              .withVecTypes(Vec.T_CAT, Vec.T_NUM)
+              .withDataForCol(0, ar("x", "y", "z", "x"))
+              .withDataForCol(1, ard(1, 2, 3, 4))
+              .build());
+      Frame right = Scope.track(new TestFrameBuilder()
+              .withColNames("K", "W")
+              .withVecTypes(Vec.T_CAT, Vec.T_NUM)
+              .withDataForCol(0, ar("y", "x", "y", "w"))
+              .withDataForCol(1, ard(10, 20, 30, 40))
+              .build());
+      assertTrue(BroadcastJoin.canJoin(left, right, 1));
+      assertFalse(BroadcastJoin.isUseful(left, right, 1)); // small left frames are still sorted
+      int[][] id_maps = new int[][]{CategoricalWrappedVec.computeMap(left.vec(0).domain(), right.vec(0).domain())};
+      Frame res = Scope.track(BroadcastJoin.join(left, right, 1, false, id_maps));
+
+      assertArrayEquals(new String[]{"K", "V", "W"}, res.names());
+      assertEquals(4, res.numRows());
+      String[] keys = {"x", "y", "y", "x"};
+      double[] vs = {1, 2, 2, 4};
+      double[] ws = {20, 10, 30, 20};
+      for (int i = 0; i < keys.length; i++) {
+        assertEquals(keys[i], res.vec(0).domain()[(int) res.vec(0).at8(i)]);
+        assertEquals(vs[i], res.vec(1).at(i), 0);
+        assertEquals(ws[i], res.vec(2).at(i), 0);
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
+}
@@ -0,0 +1,105 @@
+package water.rapids;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.DKV;
+import water.Scope;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.fvec.TestFrameBuilder;
+import water.fvec.Vec;
+
+import static org.junit.Assert.*;
+
+public class ElementwiseFusionTest extends TestUtil {
+
+  @BeforeClass
+  static public void setup() { stall_till_cloudsize(1); }
+
+  @Test
+  public void testFusedExpression() {
+    Scope.enter();
+    try {
+      final double[] a = ard(1, 2, Double.NaN, 4, 5.5, -1, 7);
+      final double[] b = ard(0.5, 3, 1, Double.NaN, 2, 2, 10);
+      final double[] c = ard(1, 1, 1, 1, 1, 5, -3);
+      Frame fr = new TestFrameBuilder()
+              .withName("fusionFrame")
+              .withColNames("a", "b", "c")
+              .withVecTypes(Vec.T_NUM, Vec.T_NUM, Vec.T_NUM)
+              .withDataForCol(0, a)
+              .withDataForCol(1, b)
+              .withDataForCol(2, c)
+              .withChunkLayout(2, 2, 3)
+              .build();
+      Scope.track(fr);
+      Vec.VectorGroup vg = fr.anyVec().group();
+      int keysBefore = DKV.<Vec.VectorGroup>getGet(vg._key).len();
+
+      Val val = Rapids.exec("(> (log (+ (* (cols fusionFrame [0]) (cols fusionFrame [1])) (cols fusionFrame [2]))) 1)");
+      Frame res = Scope.track(val.getFrame());
+
+      // Only the final column is materialized
+      assertEquals(keysBefore + 1, DKV.<Vec.VectorGroup>getGet(vg._key).len());
+      assertArrayEquals(new String[]{"log(a)"}, res.names());
+      for (int i = 0; i < a.length; i++) {
+        double expected = Math.log(a[i] * b[i] + c[i]) > 1 ? 1 : 0;
+        assertEquals("Row #" + i, expected, res.vec(0).at(i), 0);
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testBroadcastScalarAndSingleColumn() {
+    Scope.enter();
+    try {
+      Frame fr = new TestFrameBuilder()
+              .withName("fusionFrame2")
+              .withColNames("x", "y", "w")
+              .withVecTypes(Vec.T_NUM, Vec.T_NUM, Vec.T_NUM)
+              .withDataForCol(0, ard(1, 2, 3))
+              .withDataForCol(1, ard(4, 5, 6))
+              .withDataForCol(2, ard(2, 2, 0.5))
+              .build();
+      Scope.track(fr);
+      Val val = Rapids.exec("(sqrt (* (- (cols fusionFrame2 [0 1]) 1) (cols fusionFrame2 [2])))");
+      Frame res = Scope.track(val.getFrame());
+      assertArrayEquals(new String[]{"sqrt(x)", "sqrt(y)"}, res.names());
+      double[][] data = {{1, 2, 3}, {4, 5, 6}};
+      double[] w = {2, 2, 0.5};
+      for (int c = 0; c < 2; c++)
+        for (int i = 0; i < 3; i++)
+          assertEquals(Math.sqrt((data[c][i] - 1) * w[i]), res.vec(c).at(i), 0);
+
+      // Scalar only expressions are folded
+      assertEquals(Math.sqrt(7), Rapids.exec("(sqrt (+ 3 4))").getNum(), 0);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testCategoricalIsNotFused() {
+    Scope.enter();
+    try {
+      Frame fr = new TestFrameBuilder()
+              .withName("fusionFrame3")
+              .withColNames("n", "cat")
+              .withVecTypes(Vec.T_NUM, Vec.T_CAT)
+              .withDataForCol(0, ard(1, 2, 3))
+              .withDataForCol(1, ar("a", "b", "a"))
+              .build();
+      Scope.track(fr);
+      // Arithmetic on categoricals yields NAs, same as for a single operator
+      Val val = Rapids.exec("(+ (* (cols fusionFrame3 [1]) 2) (cols fusionFrame3 [0]))");
+      Frame res = Scope.track(val.getFrame());
+      for (int i = 0; i < 3; i++)
+        assertTrue(res.vec(0).isNA(i));
+    } finally {
+      Scope.exit();
+    }
+  }
+
+}
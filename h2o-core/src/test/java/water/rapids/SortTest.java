@@ -12,6 +12,7 @@ import water.util.ArrayUtils;
 import java.io.IOException;
 import java.util.Random;
 
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class SortTest extends TestUtil {
@@ -55,6 +56,32 @@ public class SortTest extends TestUtil {
     }
   }
 
+  // The out-of-core sort (sorted runs spilled to disk) gives the same frame as the in-memory one
+  @Test public void testSortSpilled() {
+    Frame fr = null, res = null, spilled = null;
+    final String spillProp = H2O.OptArgs.SYSTEM_PROP_PREFIX + "rapids.sort.spill";
+    final String fractionProp = H2O.OptArgs.SYSTEM_PROP_PREFIX + "rapids.sort.max_mem_fraction";
+    try {
+      fr = buildFrame(1000,10);
+      fr.insertVec(0,"row",fr.remove(2));
+      res = Merge.sort(fr,new int[]{1,2});
+      assertFalse(new Merge.BinaryMergeQueue(fr, new Frame(new Vec[0]), 0)._spill);
+      System.setProperty(spillProp, "true");
+      System.setProperty(fractionProp, "1e-6"); // a single merge in flight per node
+      assertTrue(new Merge.BinaryMergeQueue(fr, new Frame(new Vec[0]), 0)._spill);
+      spilled = Merge.sort(fr,new int[]{1,2});
+      assertTrue(isBitIdentical(res, spilled));
+      spilled.add("row",spilled.remove(0));
+      new CheckSort().doAll(spilled);
+    } finally {
+      System.clearProperty(spillProp);
+      System.clearProperty(fractionProp);
+      if( fr      != null ) fr     .delete();
+      if( res     != null ) res    .delete();
+      if( spilled != null ) spilled.delete();
+    }
+  }
+
   @Test public void testBasicSortJava2() {
     Frame fr = null, res = null;
     try {
@@ -0,0 +1,101 @@
+package water.util;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.MRTask;
+import water.Scope;
+import water.TestUtil;
+import water.fvec.Chunk;
+import water.fvec.Vec;
+
+import static org.junit.Assert.*;
+
+public class ShardedReducerTest extends TestUtil {
+
+  @BeforeClass
+  public static void setup() {
+    stall_till_cloudsize(3);
+  }
+
+  @Test
+  public void testReduceMatchesReduceTree() {
+    Scope.enter();
+    try {
+      Vec v = Scope.track(Vec.makeSeq(0, 50000, true));
+      assertTrue("Data spread across nodes", v.nChunks() >= 3);
+      for (boolean floats : new boolean[]{false, true}) {
+        int len = 100003; // not divisible by the cloud size
+        SumTask t = new SumTask(len, floats).doAll(v);
+        assertEquals(len, t._sharded.length);
+        assertArrayEquals(t._tree, t._sharded, floats ? 1e-2 : 1e-6);
+        assertEquals("Shards are removed by gather", 0, new CountShards().doAllNodes()._count);
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testFailedTaskLeavesNoShards() {
+    Scope.enter();
+    try {
+      Vec v = Scope.track(Vec.makeSeq(0, 50000, true));
+      SumTask t = new SumTask(1000, false);
+      t._failAt = 40000;
+      try {
+        t.doAll(v);
+        fail("Task should fail");
+      } catch (RuntimeException expected) {
+        // expected
+      }
+      assertEquals("Shards of the failed task are discarded", 0, new CountShards().doAllNodes()._count);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  private static class SumTask extends MRTask<SumTask> {
+    final ShardedReducer _reducer;
+    final int _len;
+    long _failAt = -1;
+    double[] _tree;     // reduced by the reduce tree
+    double[] _sharded;  // reduced by the ShardedReducer
+
+    SumTask(int len, boolean floats) {
+      _len = len;
+      _reducer = new ShardedReducer(len, floats);
+    }
+
+    @Override protected void setupLocal() { _reducer.setupLocal(); }
+
+    @Override public void map(Chunk c) {
+      double[] vals = new double[_len];
+      for (int i = 0; i < c._len; i++) {
+        long row = c.start() + i;
+        vals[(int) (row * 7919 % _len)] += c.atd(i) / 1000;
+      }
+      _reducer.add(vals, 0);
+      _tree = vals;
+      if (_failAt >= c.start() && _failAt < c.start() + c._len)
+        throw new IllegalStateException("Failing intentionally");
+    }
+
+    @Override public void reduce(SumTask t) {
+      if (_tree == null) _tree = t._tree;
+      else if (t._tree != null) ArrayUtils.add(_tree, t._tree);
+    }
+
+    @Override protected void closeLocal() { _reducer.closeLocal(); }
+
+    @Override protected void postGlobal() { _sharded = _reducer.gather(); }
+
+    @Override protected void onGlobalFailure(Throwable ex) { _reducer.discard(); }
+  }
+
+  private static class CountShards extends MRTask<CountShards> {
+    int _count;
+    @Override protected void setupLocal() { _count = ShardedReducer.shardCount(); }
+    @Override public void reduce(CountShards t) { _count += t._count; }
+  }
+
+}
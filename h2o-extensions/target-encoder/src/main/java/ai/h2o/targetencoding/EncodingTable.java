@@ -0,0 +1,312 @@
+package ai.h2o.targetencoding;
+
+import water.Iced;
+import water.MRTask;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.Vec;
+import water.util.ArrayUtils;
+import water.util.AtomicUtils;
+import water.util.IcedHashMapGeneric;
+
+import java.util.Map;
+
+import static ai.h2o.targetencoding.TargetEncoder.DENOMINATOR_COL_NAME;
+import static ai.h2o.targetencoding.TargetEncoder.NUMERATOR_COL_NAME;
+
+/**
+ * Compact form of an encoding map of a single categorical column: numerators and denominators in primitive arrays
+ * indexed by (categorical level, fold).
+ * <p/>
+ * The table is small (cardinality x number of folds) and is shipped to every node as a part of the task that applies
+ * it (see {@link TargetEncoder#applyTargetEncodingWithBroadcast}), so that encodings are looked up by the categorical
+ * id of a row instead of merging the data with the encoding map frame.
+ */
+public class EncodingTable extends Iced<EncodingTable> {
+
+  // Fold columns are expected to hold a handful of small integers
+  static final int MAX_FOLD_RANGE = 10000;
+
+  private final String _columnName;
+  private final String[] _domain;
+  private final boolean _withFolds;
+  private final long _foldMin;
+  private final int _nfolds;
+  private final double[] _num;
+  private final double[] _den;
+
+  // Derived from _num and _den
+  private double[] _levelNum;
+  private double[] _levelDen;
+  private boolean[] _foldPresent;
+  private double _priorMean;
+
+  EncodingTable(String columnName, String[] domain, boolean withFolds, long foldMin, int nfolds, double[] num, double[] den) {
+    _columnName = columnName;
+    _domain = domain;
+    _withFolds = withFolds;
+    _foldMin = foldMin;
+    _nfolds = nfolds;
+    _num = num;
+    _den = den;
+    init();
+  }
+
+  private void init() {
+    _levelNum = new double[_domain.length];
+    _levelDen = new double[_domain.length];
+    _foldPresent = new boolean[_nfolds];
+    double totalNum = 0, totalDen = 0;
+    for (int l = 0; l < _domain.length; l++) {
+      for (int f = 0; f < _nfolds; f++) {
+        int idx = l * _nfolds + f;
+        _levelNum[l] += _num[idx];
+        _levelDen[l] += _den[idx];
+        if (_den[idx] > 0) _foldPresent[f] = true;
+      }
+      totalNum += _levelNum[l];
+      totalDen += _levelDen[l];
+    }
+    _priorMean = totalNum / totalDen;
+  }
+
+  public String getColumnName() {
+    return _columnName;
+  }
+
+  public String[] getDomain() {
+    return _domain;
+  }
+
+  public boolean hasFolds() {
+    return _withFolds;
+  }
+
+  /**
+   * @return mean of the target over all the rows the table was built from
+   */
+  public double getPriorMean() {
+    return _priorMean;
+  }
+
+  double levelNumerator(int level) {
+    return _levelNum[level];
+  }
+
+  double levelDenominator(int level) {
+    return _levelDen[level];
+  }
+
+  double numerator(int level, int foldIdx) {
+    return _num[level * _nfolds + foldIdx];
+  }
+
+  double denominator(int level, int foldIdx) {
+    return _den[level * _nfolds + foldIdx];
+  }
+
+  /**
+   * @return index of the given fold value in the table or -1 if the table has not seen any rows of this fold
+   */
+  int foldIndex(long foldValue) {
+    long idx = foldValue - _foldMin;
+    return idx < 0 || idx >= _nfolds || !_foldPresent[(int) idx] ? -1 : (int) idx;
+  }
+
+  /**
+   * @return level of the table that holds rows with NAs in the encoded column, -1 if there were no such rows
+   */
+  int naLevel() {
+    String naLevelName = _columnName + "_NA";
+    for (int l = _domain.length - 1; l >= 0; l--) {
+      if (naLevelName.equals(_domain[l]))
+        return _levelDen[l] > 0 ? l : -1;
+    }
+    return -1;
+  }
+
+  /**
+   * Builds encoding tables of all given columns in a single pass over the data. Rows with NA target are ignored and
+   * NAs in the encoded columns are counted as a separate level named `column_NA`, as in
+   * {@link TargetEncoder#prepareEncodingMap}.
+   *
+   * @param data training data
+   * @param columnNamesToEncode names of categorical columns to encode
+   * @param targetColumnName name of a binary categorical target column
+   * @param foldColumnName name of an integer fold column or null
+   * @return encoding tables by column name
+   */
+  static IcedHashMapGeneric<String, EncodingTable> fromData(Frame data, String[] columnNamesToEncode,
+                                                            String targetColumnName, String foldColumnName) {
+    Vec[] vecs = new Vec[columnNamesToEncode.length + 2];
+    int[] cardinalities = new int[columnNamesToEncode.length];
+    for (int i = 0; i < columnNamesToEncode.length; i++) {
+      vecs[i] = data.vec(columnNamesToEncode[i]);
+      cardinalities[i] = vecs[i].cardinality() + 1; // extra level for NAs
+    }
+    vecs[columnNamesToEncode.length] = data.vec(targetColumnName);
+    long foldMin = 0;
+    int nfolds = 1;
+    if (foldColumnName != null) {
+      Vec foldVec = data.vec(foldColumnName);
+      if (foldVec == null)
+        throw new IllegalArgumentException("Fold column `" + foldColumnName + "` was not found in the provided data frame");
+      foldMin = (long) foldVec.min();
+      nfolds = foldRange(foldVec);
+      vecs[columnNamesToEncode.length + 1] = foldVec;
+    } else {
+      vecs[columnNamesToEncode.length + 1] = data.anyVec().makeCon(0);
+    }
+    try {
+      AccumulateTask task = new AccumulateTask(cardinalities, foldMin, nfolds).doAll(vecs);
+      IcedHashMapGeneric<String, EncodingTable> tables = new IcedHashMapGeneric<>();
+      for (int i = 0; i < columnNamesToEncode.length; i++) {
+        String name = columnNamesToEncode[i];
+        String[] domain = vecs[i].domain();
+        String[] domainWithNA = new String[domain.length + 1];
+        System.arraycopy(domain, 0, domainWithNA, 0, domain.length);
+        domainWithNA[domain.length] = name + "_NA";
+        tables.put(name, new EncodingTable(name, domainWithNA, foldColumnName != null, foldMin, nfolds, task._num[i], task._den[i]));
+      }
+      return tables;
+    } finally {
+      if (foldColumnName == null) vecs[columnNamesToEncode.length + 1].remove();
+    }
+  }
+
+  /**
+   * Converts encoding map frames produced by {@link TargetEncoder#prepareEncodingMap} into encoding tables.
+   */
+  static IcedHashMapGeneric<String, EncodingTable> fromEncodingMaps(Map<String, Frame> columnToEncodingMap, String foldColumnName) {
+    IcedHashMapGeneric<String, EncodingTable> tables = new IcedHashMapGeneric<>();
+    for (Map.Entry<String, Frame> entry : columnToEncodingMap.entrySet()) {
+      tables.put(entry.getKey(), fromEncodingMap(entry.getValue(), entry.getKey(), foldColumnName));
+    }
+    return tables;
+  }
+
+  static EncodingTable fromEncodingMap(Frame encodingMap, String teColumnName, String foldColumnName) {
+    Vec levelVec = encodingMap.vec(teColumnName);
+    if (levelVec == null || !levelVec.isCategorical())
+      throw new IllegalStateException("Encoding map of column `" + teColumnName + "` does not contain the categorical column itself");
+    Vec foldVec = foldColumnName == null ? null : encodingMap.vec(foldColumnName);
+    if (foldVec == null && encodingMap.numCols() > 3)
+      throw new IllegalStateException("Passed along encoding map possibly contains fold column. Please provide fold column name so that it becomes possible to regroup (by ignoring folds).");
+    long foldMin = foldVec == null ? 0 : (long) foldVec.min();
+    int nfolds = foldVec == null ? 1 : foldRange(foldVec);
+    Vec[] vecs = new Vec[]{levelVec, encodingMap.vec(NUMERATOR_COL_NAME), encodingMap.vec(DENOMINATOR_COL_NAME),
+            foldVec == null ? levelVec.makeCon(0) : foldVec};
+    try {
+      EncodingMapTask task = new EncodingMapTask(levelVec.cardinality(), foldMin, nfolds).doAll(vecs);
+      return new EncodingTable(teColumnName, levelVec.domain(), foldVec != null, foldMin, nfolds, task._num, task._den);
+    } finally {
+      if (foldVec == null) vecs[3].remove();
+    }
+  }
+
+  private static int foldRange(Vec foldVec) {
+    if (!foldVec.isInt() && !foldVec.isCategorical())
+      throw new IllegalStateException("Fold column should contain integer values");
+    if (foldVec.isBad())
+      return 1;
+    long range = (long) foldVec.max() - (long) foldVec.min() + 1;
+    if (range > MAX_FOLD_RANGE)
+      throw new IllegalStateException("Fold column values span " + range + " distinct values, at most " + MAX_FOLD_RANGE + " are supported");
+    return (int) range;
+  }
+
+  private static class AccumulateTask extends MRTask<AccumulateTask> {
+    // IN
+    private final int[] _cardinalities;
+    private final long _foldMin;
+    private final int _nfolds;
+    // OUT
+    private double[][] _num;
+    private double[][] _den;
+
+    AccumulateTask(int[] cardinalities, long foldMin, int nfolds) {
+      _cardinalities = cardinalities;
+      _foldMin = foldMin;
+      _nfolds = nfolds;
+    }
+
+    // One table per node shared by all the map calls on the node
+    @Override
+    protected void setupLocal() {
+      final int ncols = _cardinalities.length;
+      _num = new double[ncols][];
+      _den = new double[ncols][];
+      for (int i = 0; i < ncols; i++) {
+        _num[i] = new double[_cardinalities[i] * _nfolds];
+        _den[i] = new double[_cardinalities[i] * _nfolds];
+      }
+    }
+
+    @Override
+    public void map(Chunk[] cs) {
+      final int ncols = _cardinalities.length;
+      final Chunk target = cs[ncols];
+      final Chunk fold = cs[ncols + 1];
+      for (int r = 0; r < target._len; r++) {
+        if (target.isNA(r) || fold.isNA(r)) continue;
+        double y = target.atd(r);
+        int foldIdx = (int) (fold.at8(r) - _foldMin);
+        for (int i = 0; i < ncols; i++) {
+          int level = cs[i].isNA(r) ? _cardinalities[i] - 1 : (int) cs[i].at8(r);
+          int idx = level * _nfolds + foldIdx;
+          AtomicUtils.DoubleArray.add(_num[i], idx, y);
+          AtomicUtils.DoubleArray.add(_den[i], idx, 1);
+        }
+      }
+    }
+
+    @Override
+    public void reduce(AccumulateTask mrt) {
+      if (_num == mrt._num) return; // same node
+      for (int i = 0; i < _num.length; i++) {
+        ArrayUtils.add(_num[i], mrt._num[i]);
+        ArrayUtils.add(_den[i], mrt._den[i]);
+      }
+    }
+  }
+
+  private static class EncodingMapTask extends MRTask<EncodingMapTask> {
+    // IN
+    private final int _cardinality;
+    private final long _foldMin;
+    private final int _nfolds;
+    // OUT
+    private double[] _num;
+    private double[] _den;
+
+    EncodingMapTask(int cardinality, long foldMin, int nfolds) {
+      _cardinality = cardinality;
+      _foldMin = foldMin;
+      _nfolds = nfolds;
+    }
+
+    @Override
+    protected void setupLocal() {
+      _num = new double[_cardinality * _nfolds];
+      _den = new double[_cardinality * _nfolds];
+    }
+
+    @Override
+    public void map(Chunk[] cs) {
+      for (int r = 0; r < cs[0]._len; r++) {
+        if (cs[0].isNA(r) || cs[3].isNA(r)) continue;
+        int idx = (int) cs[0].at8(r) * _nfolds + (int) (cs[3].at8(r) - _foldMin);
+        AtomicUtils.DoubleArray.add(_num, idx, cs[1].atd(r));
+        AtomicUtils.DoubleArray.add(_den, idx, cs[2].atd(r));
+      }
+    }
+
+    @Override
+    public void reduce(EncodingMapTask mrt) {
+      if (_num == mrt._num) return; // same node
+      ArrayUtils.add(_num, mrt._num);
+      ArrayUtils.add(_den, mrt._den);
+    }
+  }
+
+}
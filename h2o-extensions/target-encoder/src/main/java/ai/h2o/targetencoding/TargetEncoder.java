@@ -4,6 +4,7 @@ import water.*;
 import water.fvec.CategoricalWrappedVec;
 import water.fvec.Chunk;
 import water.fvec.Frame;
+import water.fvec.NewChunk;
 import water.fvec.Vec;
 import water.fvec.task.FillNAWithDoubleValueTask;
 import water.fvec.task.FillNAWithLongValueTask;
@@ -13,6 +14,7 @@ import water.rapids.Val;
 import water.rapids.ast.prims.mungers.AstGroup;
 import water.util.IcedHashMapGeneric;
 import water.util.Log;
+import water.util.RandomUtils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -198,6 +200,28 @@ public class TargetEncoder extends Iced<TargetEncoder>{
     return prepareEncodingMap( data, targetColumnName, foldColumnName, imputeNAsWithNewCategory);
   }
 
+  /**
+   * Same statistics as {@link #prepareEncodingMap(Frame, String, String)}, computed for all the encoded columns in
+   * a single pass over the data and kept as compact per-(level, fold) arrays instead of encoding map frames.
+   * To be used with {@link #applyTargetEncodingWithBroadcast}.
+   */
+  public IcedHashMapGeneric<String, EncodingTable> prepareEncodingTables(Frame data, String targetColumnName, String foldColumnName) {
+    if(data == null) throw new IllegalStateException("Argument 'data' is missing, with no default");
+
+    if(targetColumnName == null || targetColumnName.equals(""))
+      throw new IllegalStateException("Argument 'target' is missing, with no default");
+
+    if(! checkAllTEColumnsExistAndAreCategorical(data, _columnNamesToEncode))
+      throw new IllegalStateException("Argument 'columnsToEncode' should contain only names of categorical columns");
+
+    if(Arrays.asList(_columnNamesToEncode).contains(targetColumnName)) {
+      throw new IllegalArgumentException("Columns for target encoding contain target column.");
+    }
+
+    ensureTargetColumnIsBinaryCategorical(data, targetColumnName);
+    return EncodingTable.fromData(data, _columnNamesToEncode, targetColumnName, foldColumnName);
+  }
+
     String[] getColumnNamesBy(Frame data, int[] columnIndexes) {
         String [] allColumnNames = data._names.clone();
         ArrayList<String> columnNames = new ArrayList<String>();
@@ -756,6 +780,193 @@ public class TargetEncoder extends Iced<TargetEncoder>{
         }
     }
 
+    /**
+     * Applies encodings the same way as {@link #applyTargetEncoding(Frame, String, Map, DataLeakageHandlingStrategy, String, boolean, double, long, Key, BlendingParams)}
+     * but without grouping and merging: the encoding tables are sent to all nodes with the task and all the encoded
+     * columns are computed in one streaming pass over the data. Rows keep their original order.
+     *
+     * @param columnToEncodingTable tables from {@link #prepareEncodingTables}, encoding map frames can be converted
+     *                              with {@link #toEncodingTables}.
+     * @return copy of the `data` frame with encodings
+     */
+    public Frame applyTargetEncodingWithBroadcast(Frame data,
+                                                  String targetColumnName,
+                                                  Map<String, EncodingTable> columnToEncodingTable,
+                                                  DataLeakageHandlingStrategy dataLeakageHandlingStrategy,
+                                                  String foldColumnName,
+                                                  boolean useBlending,
+                                                  double noiseLevel,
+                                                  long seed,
+                                                  Key<Frame> encodedFrameKey,
+                                                  BlendingParams blendingParams) {
+      if (blendingParams == null) blendingParams = DEFAULT_BLENDING_PARAMS;
+
+      if(noiseLevel < 0 )
+        throw new IllegalStateException("`_noiseLevel` must be non-negative");
+
+      if (dataLeakageHandlingStrategy == DataLeakageHandlingStrategy.KFold && foldColumnName == null)
+        throw new IllegalStateException("`foldColumn` must be provided for dataLeakageHandlingStrategy = KFold");
+
+      if (seed == -1) seed = new Random().nextLong();
+
+      if (encodedFrameKey == null) {
+        encodedFrameKey = Key.make();
+      }
+
+      Frame dataWithAllEncodings = null;
+      try {
+        dataWithAllEncodings = data.deepCopy(encodedFrameKey.toString());
+        DKV.put(dataWithAllEncodings);
+
+        if(dataLeakageHandlingStrategy == DataLeakageHandlingStrategy.LeaveOneOut)
+          ensureTargetColumnIsBinaryCategorical(dataWithAllEncodings, targetColumnName);
+
+        final int ncols = _columnNamesToEncode.length;
+        EncodingTable[] tables = new EncodingTable[ncols];
+        int[][] levelMaps = new int[ncols][];
+        Vec[] vecs = new Vec[ncols + 1];
+        String[] encodedColumnNames = new String[ncols];
+        for (int i = 0; i < ncols; i++) {
+          String teColumnName = _columnNamesToEncode[i];
+          tables[i] = columnToEncodingTable.get(teColumnName);
+          if (tables[i] == null)
+            throw new IllegalStateException("Encoding table for column `" + teColumnName + "` is missing");
+          if (dataLeakageHandlingStrategy == DataLeakageHandlingStrategy.KFold && !tables[i].hasFolds())
+            throw new IllegalStateException("Encoding table for column `" + teColumnName + "` was prepared without folds and cannot be used for dataLeakageHandlingStrategy = KFold");
+
+          imputeNAsForColumn(dataWithAllEncodings, teColumnName, teColumnName + "_NA");
+          vecs[i] = dataWithAllEncodings.vec(teColumnName);
+          levelMaps[i] = CategoricalWrappedVec.computeMap(vecs[i].domain(), tables[i].getDomain());
+          encodedColumnNames[i] = teColumnName + ENCODED_COLUMN_POSTFIX;
+        }
+        switch (dataLeakageHandlingStrategy) {
+          case KFold:
+            vecs[ncols] = dataWithAllEncodings.vec(foldColumnName);
+            break;
+          case LeaveOneOut:
+            vecs[ncols] = dataWithAllEncodings.vec(targetColumnName);
+            break;
+          default:
+            vecs = Arrays.copyOf(vecs, ncols);
+        }
+
+        Frame encodings = new ApplyEncodingTablesTask(tables, levelMaps, dataLeakageHandlingStrategy,
+                useBlending ? blendingParams : null, noiseLevel, seed)
+                .doAll(ncols, Vec.T_NUM, new Frame(vecs))
+                .outputFrame(encodedColumnNames, null);
+        dataWithAllEncodings.add(encodings);
+        DKV.put(dataWithAllEncodings);
+        return dataWithAllEncodings;
+      } catch (Exception ex) {
+        if (dataWithAllEncodings != null) dataWithAllEncodings.delete();
+        throw ex;
+      }
+    }
+
+    /**
+     * Converts encoding map frames into encoding tables for {@link #applyTargetEncodingWithBroadcast}.
+     */
+    public IcedHashMapGeneric<String, EncodingTable> toEncodingTables(Map<String, Frame> columnToEncodingMap, String foldColumnName) {
+      return EncodingTable.fromEncodingMaps(columnToEncodingMap, foldColumnName);
+    }
+
+    /**
+     * Computes encodings of all the columns from broadcast encoding tables. The last input column is the fold column
+     * (KFold) or the target column (LeaveOneOut), there is none for the None strategy.
+     */
+    static class ApplyEncodingTablesTask extends MRTask<ApplyEncodingTablesTask> {
+      private final EncodingTable[] _tables;
+      private final int[][] _levelMaps;
+      private final DataLeakageHandlingStrategy _strategy;
+      private final BlendingParams _blendingParams;
+      private final double _noiseLevel;
+      private final long _seed;
+
+      ApplyEncodingTablesTask(EncodingTable[] tables, int[][] levelMaps, DataLeakageHandlingStrategy strategy,
+                              BlendingParams blendingParams, double noiseLevel, long seed) {
+        _tables = tables;
+        _levelMaps = levelMaps;
+        _strategy = strategy;
+        _blendingParams = blendingParams;
+        _noiseLevel = noiseLevel;
+        _seed = seed;
+      }
+
+      @Override
+      public void map(Chunk[] cs, NewChunk[] ncs) {
+        final int ncols = _tables.length;
+        final Chunk extra = cs.length > ncols ? cs[ncols] : null;
+        final int len = cs[0]._len;
+        // Value of rows for which encoding could not be computed (unseen levels, levels missing out-of-fold)
+        final double[] imputedValues = new double[ncols];
+        for (int i = 0; i < ncols; i++) {
+          EncodingTable table = _tables[i];
+          int naLevel = _strategy == DataLeakageHandlingStrategy.None ? table.naLevel() : -1;
+          imputedValues[i] = naLevel >= 0 ? table.levelNumerator(naLevel) / table.levelDenominator(naLevel) : table.getPriorMean();
+        }
+        final Random rng = new RandomUtils.PCGRNG(cs[0].start(), 1);
+        for (int r = 0; r < len; r++) {
+          double noise = 0;
+          if (_noiseLevel > 0) {
+            // Same per-row random values as Vec#makeRand used by addNoise
+            rng.setSeed(_seed + cs[0].start() + r);
+            noise = ((double) rng.nextFloat()) * 2 * _noiseLevel - _noiseLevel;
+          }
+          for (int i = 0; i < ncols; i++) {
+            EncodingTable table = _tables[i];
+            int level = cs[i].isNA(r) ? -1 : (int) cs[i].at8(r);
+            level = level < 0 || level >= _levelMaps[i].length ? -1 : _levelMaps[i][level];
+            if (level >= table.getDomain().length) level = -1; // level was not seen when preparing the table
+            double num = Double.NaN;
+            double den = Double.NaN;
+            if (level >= 0) {
+              switch (_strategy) {
+                case KFold:
+                  int foldIdx = extra.isNA(r) ? -1 : table.foldIndex(extra.at8(r));
+                  if (foldIdx >= 0) {
+                    den = table.levelDenominator(level) - table.denominator(level, foldIdx);
+                    num = table.levelNumerator(level) - table.numerator(level, foldIdx);
+                    if (den == 0) num = den = Double.NaN; // level is present only in the current fold
+                  }
+                  break;
+                case LeaveOneOut:
+                  if (table.levelDenominator(level) > 0) {
+                    num = table.levelNumerator(level);
+                    den = table.levelDenominator(level);
+                    if (!extra.isNA(r)) {
+                      num -= extra.atd(r);
+                      den -= 1;
+                    }
+                  }
+                  break;
+                case None:
+                  if (table.levelDenominator(level) > 0) {
+                    num = table.levelNumerator(level);
+                    den = table.levelDenominator(level);
+                  }
+                  break;
+              }
+            }
+            double encoding;
+            if (Double.isNaN(den)) {
+              encoding = imputedValues[i];
+            } else {
+              if (den == 0) {
+                encoding = table.getPriorMean();
+              } else if (_blendingParams != null) {
+                double lambda = 1.0 / (1 + Math.exp((_blendingParams.getK() - den) / _blendingParams.getF()));
+                encoding = lambda * (num / den) + (1 - lambda) * table.getPriorMean();
+              } else {
+                encoding = num / den;
+              }
+              encoding += noise;
+            }
+            ncs[i].addNum(encoding);
+          }
+        }
+      }
+    }
+
     Frame calculateEncoding(Frame preparedFrame, Frame encodingMap, String newEncodedColumnName, boolean withBlendedAvg, final BlendingParams blendingParams) {
         if (withBlendedAvg) {
             return calculateAndAppendBlendedTEEncoding(preparedFrame, encodingMap, newEncodedColumnName, blendingParams);
@@ -819,6 +1030,14 @@ public class TargetEncoder extends Iced<TargetEncoder>{
                                      boolean imputeNAsWithNewCategory,
                                      final Key<Frame> encodedColumnName,
                                      final BlendingParams blendingParams) {
+        return applyTargetEncoding(data, targetColumnName, targetEncodingMap, dataLeakageHandlingStrategy, foldColumn,
+                withBlendedAvg, defaultNoiseLevel(data, targetColumnName), seed, encodedColumnName, blendingParams);
+    }
+
+    /**
+     * Noise level used when the user had not specified one.
+     */
+    static double defaultNoiseLevel(Frame data, String targetColumnName) {
         double defaultNoiseLevel = 0.01;
         int targetIndex = data.find(targetColumnName);
         double   noiseLevel = 0.0;
@@ -827,8 +1046,7 @@ public class TargetEncoder extends Iced<TargetEncoder>{
           Vec targetVec = data.vec(targetIndex);
           noiseLevel = targetVec.isNumeric() ? defaultNoiseLevel * (targetVec.max() - targetVec.min()) : defaultNoiseLevel;
         }
-        return applyTargetEncoding(data, targetColumnName, targetEncodingMap, dataLeakageHandlingStrategy, foldColumn,
-                withBlendedAvg, noiseLevel, seed, encodedColumnName, blendingParams);
+        return noiseLevel;
     }
 
     public Frame applyTargetEncoding(Frame data,
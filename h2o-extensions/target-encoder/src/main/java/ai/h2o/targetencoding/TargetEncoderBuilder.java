@@ -53,6 +53,8 @@ public class TargetEncoderBuilder extends ModelBuilder<TargetEncoderModel, Targe
 
       disableIgnoreConstColsFeature();
       TargetEncoderModel.TargetEncoderOutput output = new TargetEncoderModel.TargetEncoderOutput(TargetEncoderBuilder.this, _targetEncodingMap, priorMean);
+      if (_parms._broadcast_encodings)
+        output._target_encoding_tables = tec.prepareEncodingTables(train(), _parms._response_column, _parms._fold_column);
       _targetEncoderModel = new TargetEncoderModel(_job._result, _parms, output, tec);
 
       _targetEncoderModel.write_lock(_job);
@@ -37,6 +37,8 @@ public class TargetEncoderModel extends Model<TargetEncoderModel, TargetEncoderM
     public Frame.VecSpecifier[] _encoded_columns;
     public TargetEncoder.DataLeakageHandlingStrategy _data_leakage_handling = TargetEncoder.DataLeakageHandlingStrategy.None;
     public Frame.VecSpecifier _target_column;
+    // Apply the encodings with tables broadcast to all the nodes instead of merging the data with the encoding maps
+    public boolean _broadcast_encodings = false;
     
     @Override
     public String algoName() {
@@ -63,6 +65,7 @@ public class TargetEncoderModel extends Model<TargetEncoderModel, TargetEncoderM
   public static class TargetEncoderOutput extends Model.Output {
     
     public IcedHashMapGeneric<String, Frame> _target_encoding_map;
+    public IcedHashMapGeneric<String, EncodingTable> _target_encoding_tables; // Only with _broadcast_encodings
     public TargetEncoderParameters _parms;
     public IcedHashMapGeneric<String, Integer> column_name_to_idx;
     public IcedHashMapGeneric<String, Integer> _column_name_to_missing_val_presence;
@@ -137,8 +140,7 @@ public class TargetEncoderModel extends Model<TargetEncoderModel, TargetEncoderM
     if(blendingParams == null) blendingParams = _parms._blending_parameters != null ? _parms._blending_parameters : TargetEncoder.DEFAULT_BLENDING_PARAMS;
     
     final TargetEncoder.DataLeakageHandlingStrategy leakageHandlingStrategy = TargetEncoder.DataLeakageHandlingStrategy.fromVal(strategy);
-    return _targetEncoder.applyTargetEncoding(data, _parms._response_column, this._output._target_encoding_map, leakageHandlingStrategy,
-            _parms._fold_column, useBlending, noiseLevel, false, blendingParams, seed);
+    return applyTargetEncoding(data, leakageHandlingStrategy, useBlending, noiseLevel, seed, null, blendingParams);
   }
 
   /**
@@ -155,8 +157,8 @@ public class TargetEncoderModel extends Model<TargetEncoderModel, TargetEncoderM
     if(blendingParams == null) blendingParams = _parms._blending_parameters != null ? _parms._blending_parameters : TargetEncoder.DEFAULT_BLENDING_PARAMS;
     
     final TargetEncoder.DataLeakageHandlingStrategy leakageHandlingStrategy = TargetEncoder.DataLeakageHandlingStrategy.fromVal(strategy);
-    return _targetEncoder.applyTargetEncoding(data, _parms._response_column, this._output._target_encoding_map, leakageHandlingStrategy,
-            _parms._fold_column, useBlending, false, blendingParams, seed);
+    return applyTargetEncoding(data, leakageHandlingStrategy, useBlending,
+            TargetEncoder.defaultNoiseLevel(data, _parms._response_column), seed, null, blendingParams);
   }
   
   @Override
@@ -170,8 +172,18 @@ public class TargetEncoderModel extends Model<TargetEncoderModel, TargetEncoderM
     final TargetEncoder.DataLeakageHandlingStrategy leakageHandlingStrategy = 
             _parms._data_leakage_handling != null ? _parms._data_leakage_handling : TargetEncoder.DataLeakageHandlingStrategy.None;
     
-    return _targetEncoder.applyTargetEncoding(fr, _parms._response_column, this._output._target_encoding_map, leakageHandlingStrategy,
-            _parms._fold_column, _parms._blending, _parms._seed,false, Key.<Frame>make(destination_key), blendingParams);
+    return applyTargetEncoding(fr, leakageHandlingStrategy, _parms._blending,
+            TargetEncoder.defaultNoiseLevel(fr, _parms._response_column), _parms._seed, Key.<Frame>make(destination_key), blendingParams);
+  }
+
+  private Frame applyTargetEncoding(Frame data, TargetEncoder.DataLeakageHandlingStrategy leakageHandlingStrategy,
+                                    boolean useBlending, double noiseLevel, long seed, Key<Frame> encodedFrameKey,
+                                    BlendingParams blendingParams) {
+    if (_parms._broadcast_encodings)
+      return _targetEncoder.applyTargetEncodingWithBroadcast(data, _parms._response_column, _output._target_encoding_tables,
+              leakageHandlingStrategy, _parms._fold_column, useBlending, noiseLevel, seed, encodedFrameKey, blendingParams);
+    return _targetEncoder.applyTargetEncoding(data, _parms._response_column, _output._target_encoding_map,
+            leakageHandlingStrategy, _parms._fold_column, useBlending, noiseLevel, seed, encodedFrameKey, blendingParams);
   }
   
 
@@ -28,6 +28,9 @@ public class TargetEncoderV3 extends ModelBuilderSchema<TargetEncoderBuilder, Ta
 
     @API(help = "Data leakage handling strategy. Default to None.", values = {"None", "KFold", "LeaveOneOut"})
     public TargetEncoder.DataLeakageHandlingStrategy data_leakage_handling;
+
+    @API(help = "Apply the encodings with tables broadcast to all the nodes instead of merging the data with the encoding maps.", level = API.Level.expert)
+    public boolean broadcast_encodings;
   
     @Override
     public String[] fields() {
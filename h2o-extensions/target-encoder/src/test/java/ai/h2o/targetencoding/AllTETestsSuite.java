@@ -18,6 +18,7 @@ import org.junit.runners.Suite;
         TargetEncodingExceptionsHandlingTest.class,
         TargetEncodingFrameHelperTest.class,
         TargetEncodingImmutabilityTest.class,
+        TargetEncodingBroadcastTest.class,
         TEMojoIntegrationTest.class,
         TargetEncoderMojoWriterTest.class
 })
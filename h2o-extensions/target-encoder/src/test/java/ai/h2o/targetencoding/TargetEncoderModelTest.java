@@ -6,6 +6,8 @@ import org.junit.Test;
 import water.Scope;
 import water.TestUtil;
 import water.fvec.Frame;
+import water.fvec.TestFrameBuilder;
+import water.fvec.Vec;
 
 import static org.junit.Assert.*;
 
@@ -87,4 +89,47 @@ public class TargetEncoderModelTest extends TestUtil{
       Scope.exit();
     }
   }
+
+  @Test
+  public void testTargetEncoderModel_broadcastEncodings() {
+    try {
+      Scope.enter();
+      Frame trainingFrame = new TestFrameBuilder()
+              .withName("trainingFrame")
+              .withColNames("id", "ColA", "target")
+              .withVecTypes(Vec.T_NUM, Vec.T_CAT, Vec.T_CAT)
+              .withDataForCol(0, ard(0, 1, 2, 3, 4, 5, 6, 7, 8, 9))
+              .withDataForCol(1, ar("a", "b", "b", "c", "a", null, "b", "c", "d", null))
+              .withDataForCol(2, ar("no", "yes", "yes", "no", "yes", "no", "yes", null, "no", "yes"))
+              .withChunkLayout(4, 6)
+              .build();
+      Scope.track(trainingFrame);
+
+      Frame[] transformed = new Frame[2];
+      for (int i = 0; i < 2; i++) {
+        TargetEncoderModel.TargetEncoderParameters parameters = new TargetEncoderModel.TargetEncoderParameters();
+        parameters._data_leakage_handling = TargetEncoder.DataLeakageHandlingStrategy.None;
+        parameters._blending = true;
+        parameters._encoded_columns = new Frame.VecSpecifier[]{new Frame.VecSpecifier(trainingFrame._key, "ColA")};
+        parameters._response_column = "target";
+        parameters._train = trainingFrame._key;
+        parameters._seed = 0XFEED;
+        parameters._broadcast_encodings = i == 1;
+
+        final TargetEncoderModel targetEncoderModel = new TargetEncoderBuilder(parameters).trainModel().get();
+        Scope.track_generic(targetEncoderModel);
+        assertEquals(parameters._broadcast_encodings, targetEncoderModel._output._target_encoding_tables != null);
+        transformed[i] = Scope.track(targetEncoderModel.transform(trainingFrame,
+                TargetEncoder.DataLeakageHandlingStrategy.None.getVal(), 0, true, null, 0XFEED));
+        Scope.track(targetEncoderModel.score(trainingFrame));
+      }
+
+      // Merging does not keep the order of the rows, broadcasting does
+      Frame merged = Scope.track(transformed[0].sort(new int[]{transformed[0].find("id")}));
+      assertVecEquals(trainingFrame.vec("id"), transformed[1].vec("id"), 0);
+      assertVecEquals(merged.vec("ColA_te"), transformed[1].vec("ColA_te"), 1e-8);
+    } finally {
+      Scope.exit();
+    }
+  }
 }
@@ -0,0 +1,108 @@
+package ai.h2o.targetencoding;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.Scope;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.fvec.TestFrameBuilder;
+import water.fvec.Vec;
+
+import java.util.Map;
+
+import static ai.h2o.targetencoding.TargetEncoderFrameHelper.encodingMapCleanUp;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class TargetEncodingBroadcastTest extends TestUtil {
+
+  @BeforeClass
+  public static void setup() {
+    stall_till_cloudsize(1);
+  }
+
+  private Frame trainingFrame() {
+    return new TestFrameBuilder()
+            .withName("testFrame")
+            .withColNames("id", "ColA", "ColB", "target", "fold_column")
+            .withVecTypes(Vec.T_NUM, Vec.T_CAT, Vec.T_CAT, Vec.T_CAT, Vec.T_NUM)
+            .withDataForCol(0, ard(0, 1, 2, 3, 4, 5, 6, 7, 8, 9))
+            .withDataForCol(1, ar("a", "b", "b", "c", "a", null, "b", "c", "d", null))
+            .withDataForCol(2, ar("x", "y", "x", "y", "x", "y", null, "x", "y", "x"))
+            .withDataForCol(3, ar("no", "yes", "yes", "no", "yes", "no", "yes", null, "no", "yes"))
+            .withDataForCol(4, ar(1, 2, 1, 2, 1, 2, 1, 2, 3, 3))
+            .withChunkLayout(4, 6)
+            .build();
+  }
+
+  @Test
+  public void broadcastMatchesMergeForAllStrategies() {
+    for (TargetEncoder.DataLeakageHandlingStrategy strategy : TargetEncoder.DataLeakageHandlingStrategy.values()) {
+      for (boolean blending : new boolean[]{false, true}) {
+        checkSameEncodings(strategy, blending);
+      }
+    }
+  }
+
+  private void checkSameEncodings(TargetEncoder.DataLeakageHandlingStrategy strategy, boolean blending) {
+    Scope.enter();
+    Map<String, Frame> encodingMap = null;
+    try {
+      Frame fr = Scope.track(trainingFrame());
+      String[] teColumns = {"ColA", "ColB"};
+      TargetEncoder tec = new TargetEncoder(teColumns);
+      String foldColumnName = strategy == TargetEncoder.DataLeakageHandlingStrategy.KFold ? "fold_column" : null;
+
+      encodingMap = tec.prepareEncodingMap(fr, "target", foldColumnName);
+      Map<String, EncodingTable> tables = tec.prepareEncodingTables(fr, "target", foldColumnName);
+
+      Frame merged = Scope.track(tec.applyTargetEncoding(fr, "target", encodingMap, strategy, foldColumnName,
+              blending, 0, 1234, null, TargetEncoder.DEFAULT_BLENDING_PARAMS));
+      Frame broadcast = Scope.track(tec.applyTargetEncodingWithBroadcast(fr, "target", tables, strategy, foldColumnName,
+              blending, 0, 1234, null, TargetEncoder.DEFAULT_BLENDING_PARAMS));
+      Frame fromMaps = Scope.track(tec.applyTargetEncodingWithBroadcast(fr, "target", tec.toEncodingTables(encodingMap, foldColumnName),
+              strategy, foldColumnName, blending, 0, 1234, null, TargetEncoder.DEFAULT_BLENDING_PARAMS));
+
+      // Broadcast keeps the original order of the rows
+      assertVecEquals(fr.vec("id"), broadcast.vec("id"), 0);
+      Frame mergedSorted = Scope.track(merged.sort(new int[]{merged.find("id")}));
+      for (String teColumn : teColumns) {
+        String encodedColumn = teColumn + TargetEncoder.ENCODED_COLUMN_POSTFIX;
+        assertVecEquals(strategy + " " + blending, mergedSorted.vec(encodedColumn), broadcast.vec(encodedColumn), 1e-8);
+        assertVecEquals(strategy + " " + blending, broadcast.vec(encodedColumn), fromMaps.vec(encodedColumn), 1e-8);
+        assertArrayEquals(mergedSorted.vec(teColumn).domain(), broadcast.vec(teColumn).domain());
+      }
+    } finally {
+      if (encodingMap != null) encodingMapCleanUp(encodingMap);
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void noiseIsAddedOnlyToComputedEncodings() {
+    Scope.enter();
+    try {
+      Frame fr = Scope.track(trainingFrame());
+      Frame test = Scope.track(new TestFrameBuilder()
+              .withName("testFrame2")
+              .withColNames("ColA")
+              .withVecTypes(Vec.T_CAT)
+              .withDataForCol(0, ar("a", "unseen"))
+              .build());
+      TargetEncoder tec = new TargetEncoder(new String[]{"ColA"});
+      Map<String, EncodingTable> tables = tec.prepareEncodingTables(fr, "target", null);
+      EncodingTable table = tables.get("ColA");
+      assertEquals(5.0 / 9, table.getPriorMean(), 1e-8);
+
+      Frame encoded = Scope.track(tec.applyTargetEncodingWithBroadcast(test, "target", tables,
+              TargetEncoder.DataLeakageHandlingStrategy.None, null, false, 0.1, 42, null, null));
+      double seen = encoded.vec("ColA_te").at(0);
+      assertEquals(0.5, seen, 0.1);
+      // Unseen level is imputed with the posterior of the NA level, without noise
+      assertEquals(0.5, encoded.vec("ColA_te").at(1), 0);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+}
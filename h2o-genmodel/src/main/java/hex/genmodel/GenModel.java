@@ -220,6 +220,61 @@ public abstract class GenModel implements IGenModel, IGeneratedModel, Serializab
     throw new UnsupportedOperationException("`offset` column is not supported");
   }
 
+  /** Number of rows the native batch scorers gather and score together. */
+  protected static final int BATCH_BLOCK_SIZE = 256;
+
+  /**
+   * Scores a batch of rows given column-wise.
+   * <p>
+   * The input is one array per feature, in the order the model expects
+   * (the same order as the row passed to {@link #score0(double[], double[])}),
+   * and the predictions are written column-wise into the preallocated
+   * <code>preds</code> matrix: <code>preds[k][r]</code> receives prediction
+   * <code>k</code> of row <code>r</code>, for every <code>k &lt; preds.length</code>.
+   * Rows are addressed with the same index in the input and in the output.
+   * </p>
+   * <p>
+   * The default implementation calls {@link #score0} row by row through
+   * scratch arrays allocated once per batch; models override it with
+   * natively batched scoring.  Neither <code>cols</code> nor <code>offsets</code>
+   * is modified.
+   * </p>
+   * @param cols input columns, at least {@link #nfeatures()} of them
+   * @param offsets per-row offsets, or null if the model has no offset column
+   * @param from first row to score (inclusive)
+   * @param to last row to score (exclusive)
+   * @param preds preallocated output columns, each at least <code>to</code> long
+   */
+  public void scoreBatch(double[][] cols, double[] offsets, int from, int to, double[][] preds) {
+    final double[] row = new double[nfeatures()];
+    final double[] p = new double[getPredsSize(getModelCategory())];
+    final int npreds = Math.min(preds.length, p.length);
+    for (int r = from; r < to; r++) {
+      for (int c = 0; c < row.length; c++)
+        row[c] = cols[c][r];
+      Arrays.fill(p, 0);
+      if (offsets == null) score0(row, p);
+      else score0(row, offsets[r], p);
+      for (int k = 0; k < npreds; k++)
+        preds[k][r] = p[k];
+    }
+  }
+
+  /** Scores a batch of rows given column-wise, without offsets.
+   *  @see #scoreBatch(double[][], double[], int, int, double[][]) */
+  public final void scoreBatch(double[][] cols, int from, int to, double[][] preds) {
+    scoreBatch(cols, null, from, to, preds);
+  }
+
+  /** Copies rows [from, from+n) of the input columns into the given row arrays. */
+  protected static void gatherRows(double[][] cols, int from, int n, double[][] rows) {
+    for (int c = 0; c < rows[0].length; c++) {
+      final double[] col = cols[c];
+      for (int i = 0; i < n; i++)
+        rows[i][c] = col[from + i];
+    }
+  }
+
   /** Subclasses implement calibration of class probabilities. The input is array of
    *  predictions returned by the scoring function (score0). Supports classification
    *  models that were trained with calibration enabled. Original probabilities
@@ -6,18 +6,25 @@ public class ActivationUtils {
   // drived from GLMMojoModel
   public interface ActivationFunctions extends Serializable {
     double[] eval(double[] x, double drop_out_ratio, int maxOutk);  // for MaxoutDropout
+    // same as above, writes the activations into the caller-provided output of the layer's size
+    double[] eval(double[] x, double drop_out_ratio, int maxOutk, double[] output);
   }
 
   public static class LinearOut implements ActivationFunctions {
     public double[] eval(double[] input, double drop_out_ratio, int maxOutk) {  // do nothing
       return input;
     }
+    public double[] eval(double[] input, double drop_out_ratio, int maxOutk, double[] output) {  // do nothing
+      return input;
+    }
   }
 
   public static class SoftmaxOut implements ActivationFunctions {
     public double[] eval(double[] input, double drop_out_ratio, int maxOutk) {
+      return eval(input, drop_out_ratio, maxOutk, new double[input.length]);
+    }
+    public double[] eval(double[] input, double drop_out_ratio, int maxOutk, double[] output) {
       int nodeSize = input.length;
-      double[] output = new double[nodeSize];
       double scaling = 0;
       double max = maxArray(input);
 
@@ -43,8 +50,8 @@ public class ActivationUtils {
     return temp;
   }
   public static class ExpRectifierDropoutOut extends ExpRectifierOut {
-    public double[] eval(double[] input, double drop_out_ratio, int maxOutk) {
-      double[] output = super.eval(input, drop_out_ratio, maxOutk);
+    public double[] eval(double[] input, double drop_out_ratio, int maxOutk, double[] output) {
+      super.eval(input, drop_out_ratio, maxOutk, output);
       applyDropout(output, drop_out_ratio, input.length);
       return output;
     }
@@ -62,8 +69,10 @@ public class ActivationUtils {
 
   public static class ExpRectifierOut implements ActivationFunctions {
     public double[] eval(double[] input, double drop_out_ratio, int maxOutk) {
+      return eval(input, drop_out_ratio, maxOutk, new double[input.length]);
+    }
+    public double[] eval(double[] input, double drop_out_ratio, int maxOutk, double[] output) {
       int nodeSize = input.length;
-      double[] output = new double[nodeSize];
 
       for (int index = 0; index < nodeSize; index++) {
         output[index] = input[index] >= 0 ? input[index] : Math.exp(input[index]) - 1;
@@ -74,8 +83,10 @@ public class ActivationUtils {
 
   public static class RectifierOut implements ActivationFunctions {
     public double[] eval(double[] input, double drop_out_ratio, int maxOutk) {
+      return eval(input, drop_out_ratio, maxOutk, new double[input.length]);
+    }
+    public double[] eval(double[] input, double drop_out_ratio, int maxOutk, double[] output) {
       int nodeSize = input.length;
-      double[] output = new double[nodeSize];
 
       for (int index = 0; index < nodeSize; index++)
         output[index] = 0.5f * (input[index] + Math.abs(input[index])); // clever.  Copied from Neurons.java
@@ -85,16 +96,16 @@ public class ActivationUtils {
   }
 
   public static class RectifierDropoutOut extends RectifierOut {
-    public double[] eval(double[] input, double drop_out_ratio, int maxOutk) {
-      double[] output = super.eval(input, drop_out_ratio, maxOutk);
+    public double[] eval(double[] input, double drop_out_ratio, int maxOutk, double[] output) {
+      super.eval(input, drop_out_ratio, maxOutk, output);
       applyDropout(output, drop_out_ratio, input.length);
       return output;
     }
   }
 
   public static class MaxoutDropoutOut extends MaxoutOut {
-    public double[] eval(double[] input, double drop_out_ratio, int maxOutk) {
-      double[] output = super.eval(input, drop_out_ratio, maxOutk);
+    public double[] eval(double[] input, double drop_out_ratio, int maxOutk, double[] output) {
+      super.eval(input, drop_out_ratio, maxOutk, output);
       applyDropout(output, drop_out_ratio, output.length);
       return output;
     }
@@ -102,8 +113,10 @@ public class ActivationUtils {
 
   public static class MaxoutOut implements ActivationFunctions {
     public double[] eval(double[] input, double drop_out_ratio, int maxOutk) {
+      return eval(input, drop_out_ratio, maxOutk, new double[input.length/maxOutk]);
+    }
+    public double[] eval(double[] input, double drop_out_ratio, int maxOutk, double[] output) {
       int nodeSize = input.length/maxOutk;  // weight matrix is twice the size of other act functions
-      double[] output = new double[nodeSize];
 
       for (int index=0; index < nodeSize; index++) {
         int countInd = index*maxOutk;
@@ -119,9 +132,8 @@ public class ActivationUtils {
   }
 
   public static class TanhDropoutOut extends TanhOut {
-    public double[] eval(double[] input, double drop_out_ratio, int maxOutk) {
-      int nodeSize = input.length;
-      double[] output = super.eval(input, drop_out_ratio, maxOutk);
+    public double[] eval(double[] input, double drop_out_ratio, int maxOutk, double[] output) {
+      super.eval(input, drop_out_ratio, maxOutk, output);
       applyDropout(output, drop_out_ratio, input.length);
       return output;
     }
@@ -129,8 +141,10 @@ public class ActivationUtils {
 
   public static class TanhOut implements ActivationFunctions {
     public double[] eval(double[] input, double drop_out_ratio, int maxOutk) {
+      return eval(input, drop_out_ratio, maxOutk, new double[input.length]);
+    }
+    public double[] eval(double[] input, double drop_out_ratio, int maxOutk, double[] output) {
       int nodeSize = input.length;
-      double[] output = new double[nodeSize];
 
       for (int index=0; index < nodeSize; index++)
         output[index] = 1.-2./(1.+Math.exp(2.*input[index]));
@@ -51,7 +51,8 @@ public class DeeplearningMojoModel extends MojoModel {
 
   /***
    * This method will be derived from the scoring/prediction function of deeplearning model itself.  However,
-   * we followed closely what is being done in deepwater mojo.  The variable offset is not used.
+   * we followed closely what is being done in deepwater mojo.  A positive offset is added to the regression
+   * output in link space, as in training.
    * @param dataRow
    * @param offset
    * @param preds
@@ -75,10 +76,83 @@ public class DeeplearningMojoModel extends MojoModel {
     }
     if (!this.isAutoEncoder())
       assert (_nclasses == neuronsInput.length) : "nclasses " + _nclasses + " neuronsOutput.length " + neuronsInput.length;
+    addOffset(neuronsInput, offset);
     // Correction for classification or standardize outputs
     return modifyOutputs(neuronsInput, preds, dataRow);
   }
 
+  /**
+   * Propagates a block of rows through the network one layer at a time, so that a layer's weights
+   * are used for the whole block while they are in cache.  The per-layer buffers are allocated
+   * once per batch and reused for every block; the result has the same bits as
+   * {@link #score0(double[], double, double[])}.
+   */
+  @Override
+  public void scoreBatch(double[][] cols, double[] offsets, int from, int to, double[][] preds) {
+    if (to <= from) return;
+    final int block = Math.min(BATCH_BLOCK_SIZE, to - from);
+    final double[][] rows = new double[block][nfeatures()];
+    final double[] rowPreds = new double[getPredsSize(getModelCategory())];
+    final int npreds = Math.min(preds.length, rowPreds.length);
+    final double[] nums = new double[_nums];
+    final int[] cats = new int[_cats];
+
+    final ActivationUtils.ActivationFunctions[] actFuns = new ActivationUtils.ActivationFunctions[_numLayers];
+    final int[] maxK = new int[_numLayers];
+    final double[][][] layerInputs = new double[_numLayers][block][]; // pre-activations of each layer
+    final double[][][] layerOutputs = new double[_numLayers][block][]; // activations of each layer
+    for (int layer = 0; layer < _numLayers; layer++) {
+      actFuns[layer] = NeuralNetwork.createActFuns(_allActivations[layer]);
+      String act = _allActivations[layer];
+      maxK[layer] = "Maxout".equals(act) || "MaxoutWithDropout".equals(act) ?
+              _weightsAndBias[layer]._bValues.length / _units[layer + 1] : 1;
+      for (int i = 0; i < block; i++) {
+        layerInputs[layer][i] = new double[_units[layer + 1] * maxK[layer]];
+        layerOutputs[layer][i] = new double[_units[layer + 1]];
+      }
+    }
+    final double[][] neuronsInput = new double[block][_units[0]];
+    final double[][] activations = new double[block][];
+
+    for (int start = from; start < to; start += block) {
+      final int n = Math.min(block, to - start);
+      gatherRows(cols, start, n, rows);
+      for (int i = 0; i < n; i++) {
+        // transform inputs: NAs in categoricals are always set to new extra level.
+        setInput(rows[i], neuronsInput[i], nums, cats, _nums, _cats, _catoffsets, _normmul, _normsub,
+                _use_all_factor_levels, true);
+        activations[i] = neuronsInput[i];
+      }
+      for (int layer = 0; layer < _numLayers; layer++) {
+        final StoreWeightsBias wb = _weightsAndBias[layer];
+        for (int i = 0; i < n; i++) {
+          double[] in2act = maxK[layer] == 1 ?
+                  NeuralNetwork.formNNInputs(wb, activations[i], layerInputs[layer][i]) :
+                  NeuralNetwork.formNNInputsMaxOut(wb, activations[i], maxK[layer], layerInputs[layer][i]);
+          activations[i] = actFuns[layer].eval(in2act, _all_drop_out_ratios[layer], maxK[layer],
+                  layerOutputs[layer][i]);
+        }
+      }
+      for (int i = 0; i < n; i++) {
+        if (offsets != null)
+          addOffset(activations[i], offsets[start + i]);
+        java.util.Arrays.fill(rowPreds, 0);
+        modifyOutputs(activations[i], rowPreds, rows[i]);
+        for (int k = 0; k < npreds; k++)
+          preds[k][start + i] = rowPreds[k];
+      }
+    }
+  }
+
+  // adds the offset in link space to the normalized regression output, as DeepLearningTask.fpropMiniBatch does
+  private void addOffset(double[] out, double offset) {
+    if (offset > 0 && !isAutoEncoder() && !isClassifier()) {
+      double mul = _normrespmul == null ? 1 : _normrespmul[0];
+      double sub = _normrespsub == null ? 0 : _normrespsub[0];
+      out[0] += (offset - sub) * mul;
+    }
+  }
+
   public double[] modifyOutputs(double[] out, double[] preds, double[] dataRow) {
     if (this.isAutoEncoder()) { // only perform unscale numerical value if need
       if (_normmul != null && _normmul.length > 0) { // undo the standardization on output
@@ -43,8 +43,17 @@ public class NeuralNetwork {  // represent one layer of neural network
   This method matches the exact operation of gemv_row_optimized in order to match all the bits
    */
   public double[] formNNInputs() {
-    double[] input2ActFun = new double[_outSize];
-    int cols = _inputs.length;
+    return formNNInputs(_weightsAndBias, _inputs, new double[_outSize]);
+  }
+
+  /**
+   * Computes the layer's pre-activations for the given inputs into a caller-provided array of the
+   * layer's size.
+   */
+  static double[] formNNInputs(DeeplearningMojoModel.StoreWeightsBias weightsAndBias, double[] inputs,
+                               double[] input2ActFun) {
+    final float[] w = weightsAndBias._wValues;
+    int cols = inputs.length;
     int rows = input2ActFun.length;
     int extra=cols-cols%8;
     int multiple = (cols/8)*8-1;
@@ -54,37 +63,48 @@ public class NeuralNetwork {  // represent one layer of neural network
 
       for (int col=0; col < multiple; col+=8) {
         int off=idx+col;
-        psum0 += _weightsAndBias._wValues[off    ] * _inputs[col    ];
-        psum1 += _weightsAndBias._wValues[off + 1] * _inputs[col + 1];
-        psum2 += _weightsAndBias._wValues[off + 2] * _inputs[col + 2];
-        psum3 += _weightsAndBias._wValues[off + 3] * _inputs[col + 3];
-        psum4 += _weightsAndBias._wValues[off + 4] * _inputs[col + 4];
-        psum5 += _weightsAndBias._wValues[off + 5] * _inputs[col + 5];
-        psum6 += _weightsAndBias._wValues[off + 6] * _inputs[col + 6];
-        psum7 += _weightsAndBias._wValues[off + 7] * _inputs[col + 7];
+        psum0 += w[off    ] * inputs[col    ];
+        psum1 += w[off + 1] * inputs[col + 1];
+        psum2 += w[off + 2] * inputs[col + 2];
+        psum3 += w[off + 3] * inputs[col + 3];
+        psum4 += w[off + 4] * inputs[col + 4];
+        psum5 += w[off + 5] * inputs[col + 5];
+        psum6 += w[off + 6] * inputs[col + 6];
+        psum7 += w[off + 7] * inputs[col + 7];
       }
+      input2ActFun[row] = 0;
       input2ActFun[row] += psum0+psum1+psum2+psum3;
       input2ActFun[row] += psum4+psum5+psum6+psum7;
 
       for (int col = extra; col<cols;col++) {
-        input2ActFun[row] += _weightsAndBias._wValues[idx+col]*_inputs[col];
+        input2ActFun[row] += w[idx+col]*inputs[col];
       }
-      input2ActFun[row] += _weightsAndBias._bValues[row];
+      input2ActFun[row] += weightsAndBias._bValues[row];
       idx += cols;
     }
     return input2ActFun;
   }
 
   public double[] formNNInputsMaxOut() {
-    double[] input2ActFun = new double[_outSize*_maxK];
+    return formNNInputsMaxOut(_weightsAndBias, _inputs, _maxK, new double[_outSize*_maxK]);
+  }
 
-    for (int k = 0; k < _maxK; k++) {
-      for (int row = 0; row < _outSize; row++) {
-        int countInd = _maxK*row+k;
-        for (int col = 0; col < _inSize; col++) {
-          input2ActFun[countInd] += _inputs[col] * _weightsAndBias._wValues[_maxK*(row*_inSize+col)+k];
+  /**
+   * Maxout version of {@link #formNNInputs(DeeplearningMojoModel.StoreWeightsBias, double[], double[])};
+   * the output array holds maxK pre-activations per node.
+   */
+  static double[] formNNInputsMaxOut(DeeplearningMojoModel.StoreWeightsBias weightsAndBias, double[] inputs,
+                                     int maxK, double[] input2ActFun) {
+    final int inSize = inputs.length;
+    final int outSize = input2ActFun.length/maxK;
+    for (int k = 0; k < maxK; k++) {
+      for (int row = 0; row < outSize; row++) {
+        int countInd = maxK*row+k;
+        input2ActFun[countInd] = 0;
+        for (int col = 0; col < inSize; col++) {
+          input2ActFun[countInd] += inputs[col] * weightsAndBias._wValues[maxK*(row*inSize+col)+k];
         }
-        input2ActFun[countInd] += _weightsAndBias._bValues[countInd];  //
+        input2ActFun[countInd] += weightsAndBias._bValues[countInd];  //
       }
     }
     return input2ActFun;
@@ -105,7 +125,7 @@ public class NeuralNetwork {  // represent one layer of neural network
 
   }
 
-  public ActivationFunctions createActFuns(String activation) {
+  public static ActivationFunctions createActFuns(String activation) {
     switch (activation) {
       case "Linear":
         return new LinearOut();
@@ -63,6 +63,61 @@ public class GlmMojoModel extends GlmMojoModelBase {
     return preds;
   }
 
+  /**
+   * Computes the linear predictor column by column: each coefficient is applied to a whole column
+   * before moving on to the next one, and the only scratch array is one eta per row of the batch.
+   */
+  @Override
+  public void scoreBatch(double[][] cols, double[] offsets, int from, int to, double[][] preds) {
+    if (offsets != null) { // offsets are not supported by score0 either, fail the same way
+      super.scoreBatch(cols, offsets, from, to, preds);
+      return;
+    }
+    if (to <= from) return;
+    final int n = to - from;
+    final double[] eta = new double[n];
+
+    final int levelOffset = _useAllFactorLevels ? 0 : 1; // skip level 0 of all factors unless all levels are used
+    for (int c = 0; c < _catOffsets.length - 1; ++c) {
+      final double[] col = cols[c];
+      for (int i = 0; i < n; i++) {
+        double d = col[from + i];
+        if (_meanImputation && Double.isNaN(d)) d = _catModes[c];
+        if (levelOffset == 1 && d == 0) continue;
+        int ival = (int) d - levelOffset;
+        if (ival != d - levelOffset) throw new IllegalArgumentException("categorical value out of range");
+        ival += _catOffsets[c];
+        if (ival < _catOffsets[c + 1])
+          eta[i] += _beta[ival];
+      }
+    }
+
+    final int noff = _catOffsets[_cats] - _cats;
+    for (int c = _cats; c < _beta.length - 1 - noff; ++c) {
+      final double[] col = cols[c];
+      final double b = _beta[noff + c];
+      final double mean = _meanImputation ? _numMeans[c - _cats] : Double.NaN;
+      for (int i = 0; i < n; i++) {
+        double d = col[from + i];
+        if (_meanImputation && Double.isNaN(d)) d = mean;
+        eta[i] += b * d;
+      }
+    }
+
+    final double intercept = _beta[_beta.length - 1];
+    for (int i = 0; i < n; i++) {
+      final double mu = _linkFn.eval(eta[i] + intercept); // same summation order as glmScore0
+      final int r = from + i;
+      if (_binomial) {
+        if (preds.length > 0) preds[0][r] = (mu >= _defaultThreshold) ? 1 : 0; // threshold given by ROC
+        if (preds.length > 1) preds[1][r] = 1.0 - mu; // class 0
+        if (preds.length > 2) preds[2][r] =       mu; // class 1
+      } else if (preds.length > 0) {
+        preds[0][r] = mu;
+      }
+    }
+  }
+
   /**
    * Applies GLM coefficients to a given row of data to calculate
    * feature contributions.
@@ -0,0 +1,216 @@
+package hex.genmodel.algos.tree;
+
+import hex.genmodel.utils.ByteBufferWrapper;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * A compressed tree (current MOJO format, see {@link SharedTreeMojoModel#scoreTree}) compiled into a flat
+ * struct-of-arrays layout.
+ *
+ * Nodes are numbered in pre-order, node 0 being the root. Every node, including the leaves, has a slot in each
+ * array; leaves are marked by a negative column. Categorical bitsets of all the nodes share a single byte pool.
+ * Scoring only follows child indexes and does not decode anything, but it takes exactly the same decisions as
+ * the byte-array walk, including the quirks of the format (eg. the range check of a NA-vs-REST split on a
+ * categorical column uses the last bitset seen on the path).
+ */
+final class FlatTree implements Serializable {
+
+  private static final int NsdNaVsRest = NaSplitDir.NAvsREST.value();
+  private static final int NsdNaLeft = NaSplitDir.NALeft.value();
+  private static final int NsdLeft = NaSplitDir.Left.value();
+
+  // Node flags
+  private static final byte LEFTWARD = 1;   // NAs (and values outside the bitset/domain) go left
+  private static final byte NA_VS_REST = 2; // Only NAs are tested
+  private static final byte BITSET = 4;     // Categorical split, the value is tested against the bitset
+  private static final byte RANGE = 8;      // Values outside the bitset range are treated as NAs
+
+  private int[] _cols;      // Split column; -1 for leaves
+  private float[] _vals;    // Split value, or the prediction of a leaf
+  private int[] _left;      // Index of the left child
+  private int[] _right;     // Index of the right child
+  private byte[] _flags;
+  private int[] _domLen;    // Domain length of a categorical split column, -1 if not known
+  private int[] _bsOff;     // Bitset of the node: offset into the pool, ...
+  private int[] _bsBitOff;  // ... first bit, ...
+  private int[] _bsNBits;   // ... and number of bits
+  private byte[] _bsPool;
+
+  private int _nnodes;
+  private int _poolLen;
+
+  private FlatTree(int capacity) {
+    _cols = new int[capacity];
+    _vals = new float[capacity];
+    _left = new int[capacity];
+    _right = new int[capacity];
+    _flags = new byte[capacity];
+    _domLen = new int[capacity];
+    _bsOff = new int[capacity];
+    _bsBitOff = new int[capacity];
+    _bsNBits = new int[capacity];
+    _bsPool = new byte[16];
+  }
+
+  /**
+   * Compiles a compressed tree.
+   * @param tree tree in the current MOJO format
+   * @param domains domains of the model, the same that are passed to {@link SharedTreeMojoModel#scoreTree}
+   */
+  static FlatTree compile(byte[] tree, String[][] domains) {
+    FlatTree ft = new FlatTree(Math.max(1, tree.length / 8));
+    ft.parse(new ByteBufferWrapper(tree), domains, -1);
+    ft.trim();
+    return ft;
+  }
+
+  /** Number of nodes, leaves included */
+  int size() {
+    return _nnodes;
+  }
+
+  /** Scores a row; same result as {@link SharedTreeMojoModel#scoreTree} without leaf assignment. */
+  double score(double[] row) {
+    int n = 0;
+    int col;
+    while ((col = _cols[n]) >= 0) {
+      final double d = row[col];
+      final byte flags = _flags[n];
+      final boolean right;
+      if (Double.isNaN(d) || ((flags & RANGE) != 0 && !inRange(n, (int) d)) || (_domLen[n] >= 0 && _domLen[n] <= (int) d))
+        right = (flags & LEFTWARD) == 0;
+      else if ((flags & NA_VS_REST) != 0)
+        right = false;
+      else if ((flags & BITSET) == 0)
+        right = d >= _vals[n];
+      else
+        right = contains(n, (int) d);
+      n = right ? _right[n] : _left[n];
+    }
+    return _vals[n];
+  }
+
+  private boolean inRange(int n, int b) {
+    b -= _bsBitOff[n];
+    return b >= 0 && b < _bsNBits[n];
+  }
+
+  private boolean contains(int n, int idx) {
+    idx -= _bsBitOff[n];
+    return (_bsPool[_bsOff[n] + (idx >> 3)] & (1 << (idx & 7))) != 0;
+  }
+
+  // Parses the node at the current position and its subtrees; `bsNode` is the last node on the path holding
+  // a bitset, -1 if none. Returns the index of the node.
+  private int parse(ByteBufferWrapper ab, String[][] domains, int bsNode) {
+    final int n = newNode();
+    final int nodeType = ab.get1U();
+    final int colId = ab.get2();
+    if (colId == 65535) { // the whole tree is a single leaf
+      _vals[n] = ab.get4f();
+      return n;
+    }
+    final int naSplitDir = ab.get1U();
+    final boolean naVsRest = naSplitDir == NsdNaVsRest;
+    final boolean leftward = naSplitDir == NsdNaLeft || naSplitDir == NsdLeft;
+    final int equal = (nodeType & 12);  // Can be one of 0, 8, 12
+    assert equal != 4;  // no longer supported
+
+    byte flags = 0;
+    if (leftward) flags |= LEFTWARD;
+    if (naVsRest) flags |= NA_VS_REST;
+    _cols[n] = colId;
+    _vals[n] = -1;
+    _domLen[n] = domains != null && domains[colId] != null ? domains[colId].length : -1;
+    if (!naVsRest) {
+      if (equal == 0) {
+        _vals[n] = ab.get4f();
+      } else {
+        flags |= BITSET;
+        if (equal == 8) {
+          addBitset(n, ab, 0, 32);
+        } else {
+          int bitoff = ab.get2();
+          int nbits = ab.get4();
+          addBitset(n, ab, bitoff, nbits);
+        }
+        bsNode = n;
+      }
+    }
+    if (equal != 0 && bsNode >= 0) {
+      flags |= RANGE;
+      if (bsNode != n) { // range of the bitset inherited from the path
+        _bsBitOff[n] = _bsBitOff[bsNode];
+        _bsNBits[n] = _bsNBits[bsNode];
+      }
+    }
+    _flags[n] = flags;
+
+    // Children are added after the node; the arrays may be reallocated meanwhile, so assign through locals
+    final int lmask = (nodeType & 51);
+    final int left;
+    if (lmask == 48) {
+      left = leaf(ab.get4f());
+    } else {
+      ab.skip(lmask + 1); // size of the left subtree
+      left = parse(ab, domains, bsNode);
+    }
+    final int rmask = (nodeType & 0xC0) >> 2;
+    final int right = (rmask & 16) != 0 ? leaf(ab.get4f()) : parse(ab, domains, bsNode);
+    _left[n] = left;
+    _right[n] = right;
+    return n;
+  }
+
+  private int leaf(float pred) {
+    final int n = newNode();
+    _vals[n] = pred;
+    return n;
+  }
+
+  private int newNode() {
+    if (_nnodes == _cols.length) {
+      final int len = _nnodes * 2;
+      _cols = Arrays.copyOf(_cols, len);
+      _vals = Arrays.copyOf(_vals, len);
+      _left = Arrays.copyOf(_left, len);
+      _right = Arrays.copyOf(_right, len);
+      _flags = Arrays.copyOf(_flags, len);
+      _domLen = Arrays.copyOf(_domLen, len);
+      _bsOff = Arrays.copyOf(_bsOff, len);
+      _bsBitOff = Arrays.copyOf(_bsBitOff, len);
+      _bsNBits = Arrays.copyOf(_bsNBits, len);
+    }
+    _cols[_nnodes] = -1;
+    _domLen[_nnodes] = -1;
+    return _nnodes++;
+  }
+
+  private void addBitset(int n, ByteBufferWrapper ab, int bitoff, int nbits) {
+    final int nbytes = ((nbits - 1) >> 3) + 1;
+    if (_poolLen + nbytes > _bsPool.length)
+      _bsPool = Arrays.copyOf(_bsPool, Math.max(_bsPool.length * 2, _poolLen + nbytes));
+    for (int i = 0; i < nbytes; i++)
+      _bsPool[_poolLen + i] = (byte) ab.get1U();
+    _bsOff[n] = _poolLen;
+    _bsBitOff[n] = bitoff;
+    _bsNBits[n] = nbits;
+    _poolLen += nbytes;
+  }
+
+  private void trim() {
+    _cols = Arrays.copyOf(_cols, _nnodes);
+    _vals = Arrays.copyOf(_vals, _nnodes);
+    _left = Arrays.copyOf(_left, _nnodes);
+    _right = Arrays.copyOf(_right, _nnodes);
+    _flags = Arrays.copyOf(_flags, _nnodes);
+    _domLen = Arrays.copyOf(_domLen, _nnodes);
+    _bsOff = Arrays.copyOf(_bsOff, _nnodes);
+    _bsBitOff = Arrays.copyOf(_bsBitOff, _nnodes);
+    _bsNBits = Arrays.copyOf(_bsNBits, _nnodes);
+    _bsPool = Arrays.copyOf(_bsPool, _poolLen);
+  }
+
+}
@@ -67,6 +67,41 @@ public class GbmMojoModelTest {
     assertArrayEquals(expectedPreds, preds, 1e-8);
   }
 
+  @Test
+  public void testScoreBatch() throws Exception {
+    double[] row = {18.7, 1.51, 1.003, 132.53, 1.15, 0.2, 1.153, 8.3, 0.34, 0.0, 0.0};
+    int nrows = 300; // more than one block of rows
+    double[][] cols = new double[row.length][nrows];
+    for (int c = 0; c < row.length; c++)
+      for (int i = 0; i < nrows; i++)
+        cols[c][i] = i % 7 == c ? Double.NaN : row[c] * (1 + (i % 13) / 10.0);
+    double[][] preds = new double[3][nrows];
+    mojo12.scoreBatch(cols, 0, nrows, preds);
+
+    double[] r = new double[row.length];
+    for (int i = 0; i < nrows; i++) {
+      for (int c = 0; c < row.length; c++)
+        r[c] = cols[c][i];
+      double[] expected = mojo12.score0(r, new double[3]);
+      assertArrayEquals("Predictions for row #" + i, expected, new double[]{preds[0][i], preds[1][i], preds[2][i]}, 0);
+    }
+  }
+
+  @Test
+  public void testFlattenTrees() throws Exception {
+    double[] row = {18.7, 1.51, 1.003, 132.53, 1.15, 0.2, 1.153, 8.3, 0.34, 0.0, 0.0};
+    GbmMojoModel flat = (GbmMojoModel) ModelMojoReader.readFrom(new ClasspathReaderBackend());
+    flat.flattenTrees();
+    assertTrue(flat.hasFlatTrees());
+    assertFalse(mojo12.hasFlatTrees());
+    double[] r = new double[row.length];
+    for (int i = 0; i < 100; i++) {
+      for (int c = 0; c < row.length; c++)
+        r[c] = i % 7 == c ? Double.NaN : row[c] * (1 + (i % 13) / 10.0);
+      assertArrayEquals("Predictions for row #" + i, mojo12.score0(r, new double[3]), flat.score0(r, new double[3]), 0);
+    }
+  }
+
   @Test
   public void testPredict() throws Exception {
     EasyPredictModelWrapper wrapper = new EasyPredictModelWrapper(mojo12);
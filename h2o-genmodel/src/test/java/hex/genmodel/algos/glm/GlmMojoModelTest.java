@@ -53,6 +53,36 @@ public class GlmMojoModelTest {
     }
   }
 
+  @Test
+  public void testScoreBatch() throws Exception {
+    double[][] data = new double[][]{
+      new double[]{2,73,2,1,7.9,18,6},
+      new double[]{1,51,3,1,8.9,0,6},
+      new double[]{2,57,3,1,3.4,30.8,6},
+      new double[]{1,65,4,1,6.3,0,6},
+      new double[]{1,61,3,1,1.5,0,5},
+      new double[]{1,56,2,2,58,0,6},
+      new double[]{1,72,2,1,1.4,24.2,6},
+      new double[]{1,Double.NaN,1,1,5.4,34,5} // value should be imputed
+    };
+    GlmMojoModel mojo = (GlmMojoModel) ModelMojoReader.readFrom(new ClasspathReaderBackend());
+
+    double[][] cols = new double[data[0].length][data.length];
+    for (int i = 0; i < data.length; i++)
+      for (int c = 0; c < cols.length; c++)
+        cols[c][i] = data[i][c];
+    double[][] preds = new double[3][data.length];
+    // score the batch in two parts, the output is indexed by the row
+    mojo.scoreBatch(cols, 0, 5, preds);
+    mojo.scoreBatch(cols, 5, data.length, preds);
+
+    assertTrue("Input is not modified", Double.isNaN(cols[1][data.length - 1]));
+    for (int i = 0; i < data.length; i++) {
+      double[] rowPreds = new double[]{preds[0][i], preds[1][i], preds[2][i]};
+      assertArrayEquals("Predictions for row #" + i, mojo.score0(data[i], new double[3]), rowPreds, 0);
+    }
+  }
+
   private static class ClasspathReaderBackend implements MojoReaderBackend {
     @Override
     public BufferedReader getTextFile(String filename) throws IOException {
@@ -0,0 +1,176 @@
+package water.parser.orc;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RawLocalFileSystem;
+import org.apache.hadoop.hive.ql.io.orc.CompressionKind;
+import org.apache.hadoop.hive.ql.io.orc.OrcFile;
+import org.apache.hadoop.hive.ql.io.orc.Writer;
+import org.apache.hadoop.hive.serde2.io.DoubleWritable;
+import org.apache.hadoop.hive.serde2.io.TimestampWritable;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorFactory;
+import org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import water.Job;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.Vec;
+import water.parser.BinaryFormatExporter;
+import water.parser.BufferedString;
+import water.persist.PersistHdfs;
+import water.util.ExportFileFormat;
+import water.util.PrettyPrint;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes Frames as ORC files.
+ *
+ * Numeric columns are written as bigint or double (depending on whether the Vec holds only integers),
+ * time columns as timestamps, categorical, string and UUID columns as strings. The default compression is zlib.
+ */
+public class OrcExporter implements BinaryFormatExporter {
+
+  @Override
+  public boolean supports(ExportFileFormat format) {
+    return format == ExportFileFormat.orc;
+  }
+
+  @Override
+  public long export(Frame frame, int fromChunkIdx, int toChunkIdx, String path, boolean overwrite,
+                     String compression, Job job) throws IOException {
+    Configuration conf = new Configuration(PersistHdfs.CONF);
+    // local files are written without the .crc side files, they would be picked up on import of the directory
+    conf.setClass("fs.file.impl", RawLocalFileSystem.class, FileSystem.class);
+    conf.setBoolean("fs.file.impl.disable.cache", true);
+
+    Path p = path.contains("://") ? new Path(path) : new Path(new File(path).toURI());
+    if (overwrite) {
+      FileSystem fs = p.getFileSystem(conf);
+      if (fs.exists(p))
+        fs.delete(p, false);
+    }
+
+    final Vec[] vecs = frame.vecs();
+    final int ncols = vecs.length;
+    final byte[] types = new byte[ncols];
+    final boolean[] isInt = new boolean[ncols];
+    final byte[][][] domains = new byte[ncols][][];
+    final Object[] writables = new Object[ncols];
+    List<ObjectInspector> inspectors = new ArrayList<>(ncols);
+    for (int i = 0; i < ncols; i++) {
+      types[i] = vecs[i].get_type();
+      isInt[i] = vecs[i].isInt();
+      switch (types[i]) {
+        case Vec.T_CAT:
+          String[] domain = vecs[i].domain();
+          domains[i] = new byte[domain.length][];
+          for (int d = 0; d < domain.length; d++)
+            domains[i][d] = domain[d].getBytes("UTF-8");
+          // fall through
+        case Vec.T_STR:
+        case Vec.T_UUID:
+          writables[i] = new Text();
+          inspectors.add(PrimitiveObjectInspectorFactory.writableStringObjectInspector);
+          break;
+        case Vec.T_TIME:
+          writables[i] = new TimestampWritable();
+          inspectors.add(PrimitiveObjectInspectorFactory.writableTimestampObjectInspector);
+          break;
+        default:
+          if (isInt[i]) {
+            writables[i] = new LongWritable();
+            inspectors.add(PrimitiveObjectInspectorFactory.writableLongObjectInspector);
+          } else {
+            writables[i] = new DoubleWritable();
+            inspectors.add(PrimitiveObjectInspectorFactory.writableDoubleObjectInspector);
+          }
+      }
+    }
+    ObjectInspector inspector = ObjectInspectorFactory.getStandardStructObjectInspector(
+            Arrays.asList(frame.names()), inspectors);
+    Writer writer = OrcFile.createWriter(p, OrcFile.writerOptions(conf)
+            .inspector(inspector)
+            .compress(compressionKind(compression)));
+
+    long rows = 0;
+    try {
+      final Chunk[] cs = new Chunk[ncols];
+      final Object[] row = new Object[ncols];
+      final BufferedString tmpStr = new BufferedString();
+      final Timestamp ts = new Timestamp(0);
+      for (int cidx = fromChunkIdx; cidx < toChunkIdx; cidx++) {
+        if (job.stop_requested()) throw new Job.JobCancelledException();
+        for (int i = 0; i < ncols; i++)
+          cs[i] = vecs[i].chunkForChunkIdx(cidx);
+        int len = ncols > 0 ? cs[0]._len : 0;
+        for (int r = 0; r < len; r++) {
+          for (int i = 0; i < ncols; i++) {
+            Chunk c = cs[i];
+            if (c.isNA(r)) {
+              row[i] = null;
+              continue;
+            }
+            switch (types[i]) {
+              case Vec.T_CAT:
+                byte[] level = domains[i][(int) c.at8(r)];
+                ((Text) writables[i]).set(level, 0, level.length);
+                break;
+              case Vec.T_STR:
+                BufferedString str = c.atStr(tmpStr, r);
+                ((Text) writables[i]).set(str.getBuffer(), str.getOffset(), str.length());
+                break;
+              case Vec.T_UUID:
+                ((Text) writables[i]).set(PrettyPrint.UUID(c.at16l(r), c.at16h(r)));
+                break;
+              case Vec.T_TIME:
+                ts.setTime(c.at8(r));
+                ((TimestampWritable) writables[i]).set(ts);
+                break;
+              default:
+                if (isInt[i])
+                  ((LongWritable) writables[i]).set(c.at8(r));
+                else
+                  ((DoubleWritable) writables[i]).set(c.atd(r));
+            }
+            row[i] = writables[i];
+          }
+          writer.addRow(row);
+        }
+        rows += len;
+        job.update(1);
+      }
+    } finally {
+      writer.close();
+    }
+    return rows;
+  }
+
+  static CompressionKind compressionKind(String compression) {
+    if (compression == null)
+      return CompressionKind.ZLIB;
+    switch (compression.toLowerCase()) {
+      case "none":
+      case "uncompressed":
+        return CompressionKind.NONE;
+      case "gzip":
+      case "zlib":
+        return CompressionKind.ZLIB;
+      case "snappy":
+        return CompressionKind.SNAPPY;
+      case "lzo":
+        return CompressionKind.LZO;
+      default:
+        throw new IllegalArgumentException("Unsupported ORC compression: " + compression);
+    }
+  }
+
+}
@@ -0,0 +1,117 @@
+package water.parser;
+
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import water.Key;
+import water.Scope;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.fvec.NFSFileVec;
+import water.fvec.TestFrameBuilder;
+import water.fvec.Vec;
+import water.util.ExportFileFormat;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Export to ORC and import of the part files back.
+ */
+public class ExportOrcTest extends TestUtil {
+
+  @Rule
+  public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+  @BeforeClass
+  static public void _preconditionJavaVersion() { // NOTE: the `_` force execution of this check after setup
+    // Does not run test on Java6 since we are running on Hadoop lib
+    Assume.assumeTrue("Java6 is not supported", !System.getProperty("java.version", "NA").startsWith("1.6"));
+  }
+
+  @BeforeClass
+  public static void setup() { stall_till_cloudsize(1); }
+
+  @Test
+  public void testExportMultiPart() throws IOException {
+    checkRoundTrip(3, null);
+  }
+
+  @Test
+  public void testExportSinglePartUncompressed() throws IOException {
+    checkRoundTrip(1, "none");
+  }
+
+  private void checkRoundTrip(int parts, String compression) throws IOException {
+    Scope.enter();
+    try {
+      Frame fr = new TestFrameBuilder()
+              .withName("exportOrc")
+              .withColNames("int", "real", "cat", "str", "time")
+              .withVecTypes(Vec.T_NUM, Vec.T_NUM, Vec.T_CAT, Vec.T_STR, Vec.T_TIME)
+              .withDataForCol(0, ard(1, 2, Double.NaN, 4, 5, 6))
+              .withDataForCol(1, ard(0.5, -1.25, 3.0, Double.NaN, 1e10, 2.5))
+              .withDataForCol(2, ar("a", "b", null, "a", "c", "b"))
+              .withDataForCol(3, ar("x", null, "yy", "zzz", "x", "w"))
+              .withDataForCol(4, ar(1500000000000L, 1500000001000L, 1500000002000L, 0L, 1500000004000L, 1500000005000L))
+              .withChunkLayout(2, 2, 2)
+              .build();
+      assertTrue(fr.vec(0).isInt());
+
+      File folder = tmpFolder.newFolder("orc");
+      if (parts == 1) { // a single file
+        File file = new File(folder, "frame.orc");
+        Frame.export(fr, file.getPath(), fr._key.toString(), false, 1, ExportFileFormat.orc, compression, null).get();
+        assertTrue(file.exists());
+      } else {
+        Frame.export(fr, folder.getPath(), fr._key.toString(), false, parts, ExportFileFormat.orc, compression, null).get();
+        for (int j = 0; j < parts; j++)
+          assertTrue(new File(folder, "part-m-0000" + j + ".orc").exists());
+      }
+
+      Frame imported = Scope.track(parseFolder(folder));
+      assertArrayEquals(fr.names(), imported.names());
+      assertEquals(fr.numRows(), imported.numRows());
+      assertTrue(imported.vec("time").isTime());
+      BufferedString tmp = new BufferedString();
+      for (int r = 0; r < fr.numRows(); r++) {
+        for (String num : new String[]{"int", "real", "time"}) {
+          assertEquals(fr.vec(num).isNA(r), imported.vec(num).isNA(r));
+          if (!fr.vec(num).isNA(r))
+            assertEquals(fr.vec(num).at(r), imported.vec(num).at(r), 0);
+        }
+        for (String str : new String[]{"cat", "str"}) {
+          Vec expectedVec = fr.vec(str);
+          Vec actualVec = imported.vec(str);
+          assertEquals(expectedVec.isNA(r), actualVec.isNA(r));
+          if (actualVec.isNA(r)) continue;
+          assertEquals(stringAt(expectedVec, r, tmp), stringAt(actualVec, r, tmp));
+        }
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  private static String stringAt(Vec v, int r, BufferedString tmp) {
+    return v.isCategorical() ? v.domain()[(int) v.at8(r)] : v.atStr(tmp, r).toString();
+  }
+
+  private static Frame parseFolder(File folder) {
+    File[] files = folder.listFiles();
+    assert files != null;
+    Arrays.sort(files);
+    ArrayList<Key> keys = new ArrayList<>();
+    for (File f : files)
+      if (f.isFile() && !f.getName().startsWith("."))
+        keys.add(NFSFileVec.make(f)._key);
+    return ParseDataset.parse(Key.make(), keys.toArray(new Key[0]));
+  }
+
+}
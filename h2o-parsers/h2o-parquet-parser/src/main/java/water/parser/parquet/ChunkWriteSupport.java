@@ -0,0 +1,128 @@
+package water.parser.parquet;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.OriginalType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+import water.fvec.Chunk;
+import water.fvec.Vec;
+import water.parser.BufferedString;
+import water.util.PrettyPrint;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Writes rows of a set of Chunks (one per column of a Frame) directly to the Parquet record consumer,
+ * the records are row indices into the current Chunks.
+ *
+ * All the fields are optional, NAs are written as missing values.
+ */
+class ChunkWriteSupport extends WriteSupport<Integer> {
+
+  private final MessageType _schema;
+  private final byte[] _types;
+  private final boolean[] _isInt;
+  private final Binary[][] _domains;
+  private final BufferedString _tmpStr = new BufferedString();
+
+  private RecordConsumer _consumer;
+  private Chunk[] _cs;
+
+  ChunkWriteSupport(String[] names, Vec[] vecs) {
+    _types = new byte[vecs.length];
+    _isInt = new boolean[vecs.length];
+    _domains = new Binary[vecs.length][];
+    List<Type> fields = new ArrayList<>(vecs.length);
+    for (int i = 0; i < vecs.length; i++) {
+      Vec v = vecs[i];
+      _types[i] = v.get_type();
+      _isInt[i] = v.isInt();
+      switch (_types[i]) {
+        case Vec.T_CAT:
+          String[] domain = v.domain();
+          _domains[i] = new Binary[domain.length];
+          for (int d = 0; d < domain.length; d++)
+            _domains[i][d] = Binary.fromString(domain[d]);
+          fields.add(field(PrimitiveType.PrimitiveTypeName.BINARY, names[i], OriginalType.UTF8));
+          break;
+        case Vec.T_STR:
+        case Vec.T_UUID:
+          fields.add(field(PrimitiveType.PrimitiveTypeName.BINARY, names[i], OriginalType.UTF8));
+          break;
+        case Vec.T_TIME:
+          fields.add(field(PrimitiveType.PrimitiveTypeName.INT64, names[i], OriginalType.TIMESTAMP_MILLIS));
+          break;
+        default:
+          fields.add(_isInt[i] ?
+                  field(PrimitiveType.PrimitiveTypeName.INT64, names[i], null) :
+                  field(PrimitiveType.PrimitiveTypeName.DOUBLE, names[i], null));
+      }
+    }
+    _schema = new MessageType("h2o_frame", fields);
+  }
+
+  private static Type field(PrimitiveType.PrimitiveTypeName type, String name, OriginalType originalType) {
+    return new PrimitiveType(Type.Repetition.OPTIONAL, type, name, originalType);
+  }
+
+  MessageType schema() {
+    return _schema;
+  }
+
+  /** Sets the Chunks the following records refer to */
+  void setChunks(Chunk[] cs) {
+    _cs = cs;
+  }
+
+  @Override
+  public WriteContext init(Configuration configuration) {
+    return new WriteContext(_schema, Collections.<String, String>emptyMap());
+  }
+
+  @Override
+  public void prepareForWrite(RecordConsumer recordConsumer) {
+    _consumer = recordConsumer;
+  }
+
+  @Override
+  public void write(Integer record) {
+    final int row = record;
+    _consumer.startMessage();
+    for (int i = 0; i < _cs.length; i++) {
+      Chunk c = _cs[i];
+      if (c.isNA(row))
+        continue;
+      String name = _schema.getFieldName(i);
+      _consumer.startField(name, i);
+      switch (_types[i]) {
+        case Vec.T_CAT:
+          _consumer.addBinary(_domains[i][(int) c.at8(row)]);
+          break;
+        case Vec.T_STR:
+          BufferedString str = c.atStr(_tmpStr, row);
+          _consumer.addBinary(Binary.fromConstantByteArray(str.getBuffer(), str.getOffset(), str.length()));
+          break;
+        case Vec.T_UUID:
+          _consumer.addBinary(Binary.fromString(PrettyPrint.UUID(c.at16l(row), c.at16h(row))));
+          break;
+        case Vec.T_TIME:
+          _consumer.addLong(c.at8(row));
+          break;
+        default:
+          if (_isInt[i])
+            _consumer.addLong(c.at8(row));
+          else
+            _consumer.addDouble(c.atd(row));
+      }
+      _consumer.endField(name, i);
+    }
+    _consumer.endMessage();
+  }
+
+}
@@ -0,0 +1,86 @@
+package water.parser.parquet;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RawLocalFileSystem;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import water.Job;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.Vec;
+import water.parser.BinaryFormatExporter;
+import water.persist.PersistHdfs;
+import water.util.ExportFileFormat;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Writes Frames as Parquet files.
+ *
+ * Numeric columns are written as INT64 or DOUBLE (depending on whether the Vec holds only integers),
+ * time columns as INT64 TIMESTAMP_MILLIS, categorical, string and UUID columns as UTF8 strings.
+ * The default compression codec is snappy.
+ */
+public class ParquetExporter implements BinaryFormatExporter {
+
+  @Override
+  public boolean supports(ExportFileFormat format) {
+    return format == ExportFileFormat.parquet;
+  }
+
+  @Override
+  public long export(Frame frame, int fromChunkIdx, int toChunkIdx, String path, boolean overwrite,
+                     String compression, Job job) throws IOException {
+    Configuration conf = new Configuration(PersistHdfs.CONF);
+    // local files are written without the .crc side files, they would be picked up on import of the directory
+    conf.setClass("fs.file.impl", RawLocalFileSystem.class, org.apache.hadoop.fs.FileSystem.class);
+    conf.setBoolean("fs.file.impl.disable.cache", true);
+
+    Vec[] vecs = frame.vecs();
+    ChunkWriteSupport writeSupport = new ChunkWriteSupport(frame.names(), vecs);
+    ParquetWriter<Integer> writer = new ParquetWriter<>(toHadoopPath(path),
+            overwrite ? ParquetFileWriter.Mode.OVERWRITE : ParquetFileWriter.Mode.CREATE, writeSupport,
+            codec(compression), ParquetWriter.DEFAULT_BLOCK_SIZE, ParquetWriter.DEFAULT_PAGE_SIZE,
+            ParquetWriter.DEFAULT_PAGE_SIZE, ParquetWriter.DEFAULT_IS_DICTIONARY_ENABLED,
+            ParquetWriter.DEFAULT_IS_VALIDATING_ENABLED, ParquetWriter.DEFAULT_WRITER_VERSION, conf);
+    long rows = 0;
+    try {
+      Chunk[] cs = new Chunk[vecs.length];
+      for (int cidx = fromChunkIdx; cidx < toChunkIdx; cidx++) {
+        if (job.stop_requested()) throw new Job.JobCancelledException();
+        for (int i = 0; i < vecs.length; i++)
+          cs[i] = vecs[i].chunkForChunkIdx(cidx);
+        writeSupport.setChunks(cs);
+        int len = cs.length > 0 ? cs[0]._len : 0;
+        for (int row = 0; row < len; row++)
+          writer.write(row);
+        rows += len;
+        job.update(1);
+      }
+    } finally {
+      writer.close();
+    }
+    return rows;
+  }
+
+  static CompressionCodecName codec(String compression) {
+    if (compression == null)
+      return CompressionCodecName.SNAPPY;
+    if ("none".equalsIgnoreCase(compression))
+      return CompressionCodecName.UNCOMPRESSED;
+    try {
+      return CompressionCodecName.fromConf(compression);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Unsupported Parquet compression codec: " + compression);
+    }
+  }
+
+  // paths without a scheme are local files (the same way H2O's persist layer treats them)
+  static Path toHadoopPath(String path) {
+    return path.contains("://") ? new Path(path) : new Path(new File(path).toURI());
+  }
+
+}
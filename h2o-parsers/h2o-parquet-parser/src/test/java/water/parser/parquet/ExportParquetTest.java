@@ -0,0 +1,92 @@
+package water.parser.parquet;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import water.Key;
+import water.Scope;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.fvec.NFSFileVec;
+import water.fvec.TestFrameBuilder;
+import water.fvec.Vec;
+import water.parser.BufferedString;
+import water.parser.ParseDataset;
+import water.util.ExportFileFormat;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Export to Parquet and import of the part files back.
+ */
+public class ExportParquetTest extends TestUtil {
+
+  @Rule
+  public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+  @BeforeClass
+  public static void setup() { stall_till_cloudsize(1); }
+
+  @Test
+  public void testExportMultiPart() throws IOException {
+    Scope.enter();
+    try {
+      Frame fr = new TestFrameBuilder()
+              .withName("exportParquet")
+              .withColNames("int", "real", "cat", "time")
+              .withVecTypes(Vec.T_NUM, Vec.T_NUM, Vec.T_CAT, Vec.T_TIME)
+              .withDataForCol(0, ard(1, 2, Double.NaN, 4, 5, 6))
+              .withDataForCol(1, ard(0.5, -1.25, 3.0, Double.NaN, 1e10, 2.5))
+              .withDataForCol(2, ar("a", "b", null, "a", "c", "b"))
+              .withDataForCol(3, ar(1500000000000L, 1500000001000L, 1500000002000L, 0L, 1500000004000L, 1500000005000L))
+              .withChunkLayout(2, 2, 2)
+              .build();
+      assertTrue(fr.vec(0).isInt());
+
+      File folder = tmpFolder.newFolder("parquet");
+      Frame.export(fr, folder.getPath(), fr._key.toString(), false, 3, ExportFileFormat.parquet, null, null).get();
+      for (int j = 0; j < 3; j++)
+        assertTrue(new File(folder, "part-m-0000" + j + ".parquet").exists());
+
+      Frame imported = Scope.track(parseFolder(folder));
+      assertArrayEquals(fr.names(), imported.names());
+      assertEquals(fr.numRows(), imported.numRows());
+      assertTrue(imported.vec("time").isTime());
+      BufferedString tmp = new BufferedString();
+      for (int r = 0; r < fr.numRows(); r++) {
+        for (String num : new String[]{"int", "real", "time"}) {
+          assertEquals(fr.vec(num).isNA(r), imported.vec(num).isNA(r));
+          if (!fr.vec(num).isNA(r))
+            assertEquals(fr.vec(num).at(r), imported.vec(num).at(r), 0);
+        }
+        Vec cat = imported.vec("cat");
+        assertEquals(fr.vec("cat").isNA(r), cat.isNA(r));
+        if (!cat.isNA(r)) {
+          String expected = fr.vec("cat").domain()[(int) fr.vec("cat").at8(r)];
+          String actual = cat.isCategorical() ? cat.domain()[(int) cat.at8(r)] : cat.atStr(tmp, r).toString();
+          assertEquals(expected, actual);
+        }
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  private static Frame parseFolder(File folder) {
+    File[] files = folder.listFiles();
+    assert files != null;
+    Arrays.sort(files);
+    ArrayList<Key> keys = new ArrayList<>();
+    for (File f : files)
+      if (f.isFile() && !f.getName().startsWith("."))
+        keys.add(NFSFileVec.make(f)._key);
+    return ParseDataset.parse(Key.make(), keys.toArray(new Key[0]));
+  }
+
+}
@@ -49,8 +49,9 @@ class H2ODeepLearningEstimator(H2OEstimator):
                    "force_load_balance", "variable_importances", "replicate_training_data", "single_node_mode",
                    "shuffle_training_data", "missing_values_handling", "quiet_mode", "autoencoder", "sparse",
                    "col_major", "average_activation", "sparsity_beta", "max_categorical_features", "reproducible",
-                   "export_weights_and_biases", "mini_batch_size", "categorical_encoding", "elastic_averaging",
-                   "elastic_averaging_moving_rate", "elastic_averaging_regularization", "export_checkpoints_dir"}
+                   "export_weights_and_biases", "mini_batch_size", "cache_training_data", "categorical_encoding",
+                   "elastic_averaging", "elastic_averaging_moving_rate", "elastic_averaging_regularization",
+                   "export_checkpoints_dir"}
 
     def __init__(self, **kwargs):
         super(H2ODeepLearningEstimator, self).__init__()
@@ -1328,6 +1329,21 @@ class H2ODeepLearningEstimator(H2OEstimator):
         self._parms["mini_batch_size"] = mini_batch_size
 
 
+    @property
+    def cache_training_data(self):
+        """
+        Cache the expanded, standardized training rows in memory for faster iterations (uses extra memory).
+
+        Type: ``bool``  (default: ``False``).
+        """
+        return self._parms.get("cache_training_data")
+
+    @cache_training_data.setter
+    def cache_training_data(self, cache_training_data):
+        assert_is_type(cache_training_data, None, bool)
+        self._parms["cache_training_data"] = cache_training_data
+
+
     @property
     def categorical_encoding(self):
         """
@@ -33,9 +33,10 @@ class H2OGradientBoostingEstimator(H2OEstimator):
                    "learn_rate", "learn_rate_annealing", "distribution", "quantile_alpha", "tweedie_power",
                    "huber_alpha", "checkpoint", "sample_rate", "sample_rate_per_class", "col_sample_rate",
                    "col_sample_rate_change_per_level", "col_sample_rate_per_tree", "min_split_improvement",
-                   "histogram_type", "max_abs_leafnode_pred", "pred_noise_bandwidth", "categorical_encoding",
-                   "calibrate_model", "calibration_frame", "custom_metric_func", "custom_distribution_func",
-                   "export_checkpoints_dir", "monotone_constraints", "check_constant_response"}
+                   "histogram_type", "prebinned_histograms", "max_abs_leafnode_pred", "pred_noise_bandwidth",
+                   "categorical_encoding", "calibrate_model", "calibration_frame", "custom_metric_func",
+                   "custom_distribution_func", "export_checkpoints_dir", "monotone_constraints",
+                   "check_constant_response"}
 
     def __init__(self, **kwargs):
         super(H2OGradientBoostingEstimator, self).__init__()
@@ -799,6 +800,23 @@ class H2OGradientBoostingEstimator(H2OEstimator):
         self._parms["histogram_type"] = histogram_type
 
 
+    @property
+    def prebinned_histograms(self):
+        """
+        Encode the columns into their global quantile bins once and build histograms from the bin indices, instead of
+        re-binning the data at every level (QuantilesGlobal and RoundRobin only). Bins are not refined below the global
+        quantiles.
+
+        Type: ``bool``  (default: ``False``).
+        """
+        return self._parms.get("prebinned_histograms")
+
+    @prebinned_histograms.setter
+    def prebinned_histograms(self, prebinned_histograms):
+        assert_is_type(prebinned_histograms, None, bool)
+        self._parms["prebinned_histograms"] = prebinned_histograms
+
+
     @property
     def max_abs_leafnode_pred(self):
         """
@@ -28,8 +28,9 @@ class H2ORandomForestEstimator(H2OEstimator):
                    "stopping_metric", "stopping_tolerance", "max_runtime_secs", "seed", "build_tree_one_node", "mtries",
                    "sample_rate", "sample_rate_per_class", "binomial_double_trees", "checkpoint",
                    "col_sample_rate_change_per_level", "col_sample_rate_per_tree", "min_split_improvement",
-                   "histogram_type", "categorical_encoding", "calibrate_model", "calibration_frame", "distribution",
-                   "custom_metric_func", "export_checkpoints_dir", "check_constant_response"}
+                   "histogram_type", "prebinned_histograms", "categorical_encoding", "calibrate_model",
+                   "calibration_frame", "distribution", "custom_metric_func", "export_checkpoints_dir",
+                   "check_constant_response"}
 
     def __init__(self, **kwargs):
         super(H2ORandomForestEstimator, self).__init__()
@@ -690,6 +691,23 @@ class H2ORandomForestEstimator(H2OEstimator):
         self._parms["histogram_type"] = histogram_type
 
 
+    @property
+    def prebinned_histograms(self):
+        """
+        Encode the columns into their global quantile bins once and build histograms from the bin indices, instead of
+        re-binning the data at every level (QuantilesGlobal and RoundRobin only). Bins are not refined below the global
+        quantiles.
+
+        Type: ``bool``  (default: ``False``).
+        """
+        return self._parms.get("prebinned_histograms")
+
+    @prebinned_histograms.setter
+    def prebinned_histograms(self, prebinned_histograms):
+        assert_is_type(prebinned_histograms, None, bool)
+        self._parms["prebinned_histograms"] = prebinned_histograms
+
+
     @property
     def categorical_encoding(self):
         """
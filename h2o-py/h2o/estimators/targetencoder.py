@@ -20,8 +20,8 @@ class H2OTargetEncoderEstimator(H2OEstimator):
     """
 
     algo = "targetencoder"
-    param_names = {"encoded_columns", "target_column", "blending", "k", "f", "data_leakage_handling", "model_id",
-                   "training_frame", "fold_column"}
+    param_names = {"encoded_columns", "target_column", "blending", "k", "f", "data_leakage_handling",
+                   "broadcast_encodings", "model_id", "training_frame", "fold_column"}
 
     def __init__(self, **kwargs):
         super(H2OTargetEncoderEstimator, self).__init__()
@@ -127,6 +127,21 @@ class H2OTargetEncoderEstimator(H2OEstimator):
         self._parms["data_leakage_handling"] = data_leakage_handling
 
 
+    @property
+    def broadcast_encodings(self):
+        """
+        Apply the encodings with tables broadcast to all the nodes instead of merging the data with the encoding maps.
+
+        Type: ``bool``  (default: ``False``).
+        """
+        return self._parms.get("broadcast_encodings")
+
+    @broadcast_encodings.setter
+    def broadcast_encodings(self, broadcast_encodings):
+        assert_is_type(broadcast_encodings, None, bool)
+        self._parms["broadcast_encodings"] = broadcast_encodings
+
+
     @property
     def training_frame(self):
         """
@@ -40,6 +40,12 @@ class H2OGridSearch(backwards_compatible()):
             >>> criteria = {"strategy": "RandomDiscrete", "stopping_rounds": 5,
             ...             "stopping_metric": "misclassification",
             ...             "stopping_tolerance": 0.00001}
+
+        Any strategy accepts "parallelism", the number of models to build concurrently: 1 (default) builds
+        the models one by one, 0 picks the level of parallelism from the size of the training frame and of
+        the cluster, e.g::
+
+            >>> criteria = {"strategy": "Cartesian", "parallelism": 4}
     :returns: a new H2OGridSearch instance
 
     Examples
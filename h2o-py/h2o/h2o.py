@@ -43,7 +43,7 @@ from .utils.config import H2OConfigReader
 from .utils.compatibility import *  # NOQA
 from .utils.compatibility import PY3
 from .utils.shared_utils import check_frame_id, deprecated, gen_header, py_tmp_key, quoted, urlopen
-from .utils.typechecks import assert_is_type, assert_satisfies, BoundInt, BoundNumeric, I, is_type, numeric, U
+from .utils.typechecks import assert_is_type, assert_satisfies, BoundInt, BoundNumeric, Enum, I, is_type, numeric, U
 
 logging.basicConfig()
 
@@ -461,7 +461,8 @@ def import_hive_table(database=None, table=None, partitions=None, allow_multi_fo
     return get_frame(j.dest_key)
 
 
-def import_sql_table(connection_url, table, username, password, columns=None, optimize=True, fetch_mode=None):
+def import_sql_table(connection_url, table, username, password, columns=None, optimize=True, fetch_mode=None,
+                     partition_column=None):
     """
     Import SQL table to H2OFrame in memory.
 
@@ -482,7 +483,9 @@ def import_sql_table(connection_url, table, username, password, columns=None, op
     :param password: password for SQL server
     :param optimize: DEPRECATED. Ignored - use fetch_mode instead. Optimize import of SQL table for faster imports.
     :param fetch_mode: Set to DISTRIBUTED to enable distributed import. Set to SINGLE to force a sequential read by a single node
-        from the database.
+        from the database. Set to PARTITIONED to split the table on ``partition_column`` into range queries
+        fetched in parallel.
+    :param partition_column: numeric or date/time column used to split the table in the PARTITIONED mode.
 
     :returns: an :class:`H2OFrame` containing data of the specified SQL table.
 
@@ -500,8 +503,9 @@ def import_sql_table(connection_url, table, username, password, columns=None, op
     assert_is_type(columns, [str], None)
     assert_is_type(optimize, bool)
     assert_is_type(fetch_mode, str, None)
+    assert_is_type(partition_column, str, None)
     p = {"connection_url": connection_url, "table": table, "username": username, "password": password,
-         "fetch_mode": fetch_mode}
+         "fetch_mode": fetch_mode, "partition_column": partition_column}
     if columns:
         p["columns"] = ", ".join(columns)
     j = H2OJob(api("POST /99/ImportSQLTable", data=p), "Import SQL Table").poll()
@@ -509,7 +513,7 @@ def import_sql_table(connection_url, table, username, password, columns=None, op
 
 
 def import_sql_select(connection_url, select_query, username, password, optimize=True,
-                      use_temp_table=None, temp_table_name=None, fetch_mode=None):
+                      use_temp_table=None, temp_table_name=None, fetch_mode=None, partition_column=None):
     """
     Import the SQL table that is the result of the specified SQL query to H2OFrame in memory.
 
@@ -531,7 +535,9 @@ def import_sql_select(connection_url, select_query, username, password, optimize
     :param use_temp_table: whether a temporary table should be created from select_query
     :param temp_table_name: name of temporary table to be created from select_query
     :param fetch_mode: Set to DISTRIBUTED to enable distributed import. Set to SINGLE to force a sequential read by a single node
-        from the database.
+        from the database. Set to PARTITIONED to split the table on ``partition_column`` into range queries
+        fetched in parallel.
+    :param partition_column: numeric or date/time column used to split the table in the PARTITIONED mode.
 
     :returns: an :class:`H2OFrame` containing data of the specified SQL query.
 
@@ -551,8 +557,10 @@ def import_sql_select(connection_url, select_query, username, password, optimize
     assert_is_type(use_temp_table, bool, None)
     assert_is_type(temp_table_name, str, None)
     assert_is_type(fetch_mode, str, None)
+    assert_is_type(partition_column, str, None)
     p = {"connection_url": connection_url, "select_query": select_query, "username": username, "password": password,
-         "use_temp_table": use_temp_table, "temp_table_name": temp_table_name, "fetch_mode": fetch_mode}
+         "use_temp_table": use_temp_table, "temp_table_name": temp_table_name, "fetch_mode": fetch_mode,
+         "partition_column": partition_column}
     j = H2OJob(api("POST /99/ImportSQLTable", data=p), "Import SQL Table").poll()
     return get_frame(j.dest_key)
 
@@ -1111,7 +1119,7 @@ def load_model(path):
     return get_model(res["models"][0]["model_id"]["name"])
 
 
-def export_file(frame, path, force=False, sep=",", compression=None, parts=1):
+def export_file(frame, path, force=False, sep=",", compression=None, parts=1, format="csv"):
     """
     Export a given H2OFrame to a path on the machine this python session is currently connected to.
 
@@ -1125,6 +1133,9 @@ def export_file(frame, path, force=False, sep=",", compression=None, parts=1):
         specify your desired maximum number of part files. Path needs to be a directory
         when exporting to multiple files, also that directory must be empty.
         Default is ``parts = 1``, which is to export to a single file.
+    :param format: one of "csv" (default), "parquet" or "orc". The columnar formats keep the column types and
+        categorical levels and require the corresponding parser module on the backend; ``sep`` only applies to csv
+        and ``compression`` takes the codec names of the format (eg. snappy, gzip).
     """
     assert_is_type(frame, H2OFrame)
     assert_is_type(path, str)
@@ -1132,8 +1143,10 @@ def export_file(frame, path, force=False, sep=",", compression=None, parts=1):
     assert_is_type(force, bool)
     assert_is_type(parts, int)
     assert_is_type(compression, str, None)
+    assert_is_type(format, Enum("csv", "parquet", "orc"))
     H2OJob(api("POST /3/Frames/%s/export" % (frame.frame_id), 
-               data={"path": path, "num_parts": parts, "force": force, "compression": compression, "separator": ord(sep)}),
+               data={"path": path, "num_parts": parts, "force": force, "compression": compression, "separator": ord(sep),
+                     "format": format}),
            "Export File").poll()
 
 